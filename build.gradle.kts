@@ -19,6 +19,7 @@
 //  3) Tests und Codeanalyse
 //        .\gradlew test jacocoTestReport [-Dtest=rest-get] [--rerun-tasks]
 //        .\gradlew jacocoTestCoverageVerification
+//        .\gradlew benchmark
 //        .\gradlew checkstyleMain checkstyleTest spotbugsMain spotbugsTest spotlessApply modernizer
 //
 //  4) Sicherheitsueberpruefung durch OWASP Dependency Check und Snyk
@@ -65,6 +66,9 @@
 //  14) Initialisierung des Gradle Wrappers in der richtigen Version
 //      dazu ist ggf. eine Internetverbindung erforderlich
 //        gradle wrapper --gradle-version=8.8-rc-2 --distribution-type=bin
+//
+//  15) Filter kompromittierter Passwoerter aus einer HIBP-Hash-Liste erzeugen (app.password-filter)
+//        .\gradlew passwordFilter -Phashes=pwned-passwords-sha1.txt -Pfilter=password-filter.bin [-Pfpp=0.001]
 
 
 val javaLanguageVersion = project.properties["javaLanguageVersion"] as String? ?: JavaVersion.VERSION_23.majorVersion
@@ -159,7 +163,7 @@ dependencies {
 	 * TEST
 	 * --------------------------------------------------------------------------------------------------------------------*/
 	testImplementation("org.springframework.boot:spring-boot-starter-test:${libs.versions.springBootTest.get()}")
-	testImplementation("org.apache.httpcomponents.client5:httpclient5:${libs.versions.httpclient5.get()}")
+	implementation("org.apache.httpcomponents.client5:httpclient5:${libs.versions.httpclient5.get()}") // Connection-Pool für Keycloak
 	implementation("org.apache.httpcomponents.core5:httpcore5:${libs.versions.httpcore5.get()}")
 
 	testImplementation("org.springframework.boot:spring-boot-testcontainers")
@@ -171,6 +175,7 @@ dependencies {
 	testImplementation("org.testcontainers:junit-jupiter")
 	testImplementation("org.testcontainers:kafka")
 	testImplementation("org.testcontainers:mongodb")
+	testImplementation("de.bwaldvogel:mongo-java-server:${libs.versions.mongoJavaServer.get()}") // MongoDB im Arbeitsspeicher für Service-Tests
 	testRuntimeOnly("org.junit.platform:junit-platform-launcher")
  	testImplementation("org.springframework.boot:spring-boot-starter-test")
 	testRuntimeOnly("org.junit.platform:junit-platform-launcher")
@@ -211,6 +216,9 @@ dependencies {
 	 * WEITERE EXTRAS
 	 * --------------------------------------------------------------------------------------------------------------------*/
 	implementation("com.google.guava:guava:${libs.versions.guava.get()}") //für Splitt-operation
+	implementation("com.github.ben-manes.caffeine:caffeine") // Kunden-Cache
+	implementation("io.github.resilience4j:resilience4j-spring-boot3:${libs.versions.resilience4j.get()}") // Schutz der Keycloak-Aufrufe
+	implementation("org.apache.avro:avro:${libs.versions.avro.get()}") // Avro-Kodierung der Kafka-Ereignisse
 	developmentOnly("org.springframework.boot:spring-boot-devtools:${libs.versions.springBoot.get()}")
 
 	compileOnly("com.github.spotbugs:spotbugs-annotations:${libs.versions.spotbugs.get()}")
@@ -309,6 +317,21 @@ tasks.named("bootBuildImage", org.springframework.boot.gradle.tasks.bundling.Boo
 
 tasks.test {
 	outputs.dir(project.extra["snippetsDir"]!!)
+	useJUnitPlatform {
+		excludeTags("benchmark") // Laufzeitmessungen nur mit `gradlew benchmark`
+	}
+}
+
+tasks.register<Test>("benchmark") {
+	description = "Führt die mit @Tag(\"benchmark\") markierten Laufzeitmessungen aus."
+	group = "verification"
+	testClassesDirs = sourceSets.test.get().output.classesDirs
+	classpath = sourceSets.test.get().runtimeClasspath
+	useJUnitPlatform {
+		includeTags("benchmark")
+	}
+	setFinalizedBy(emptyList<Any>()) // Kein Coverage-Report für Messläufe
+	shouldRunAfter(tasks.test)
 }
 
 tasks.named<Javadoc>("javadoc") {
@@ -332,6 +355,19 @@ tasks.named<Javadoc>("javadoc") {
 	}
 }
 
+tasks.register<JavaExec>("passwordFilter") {
+	group = "application"
+	description = "Erzeugt den Filter fuer die Offline-Pruefung kompromittierter Passwoerter"
+	classpath = sourceSets.main.get().runtimeClasspath
+	mainClass.set("com.gentlecorp.customer.security.PasswordFilterBuilder")
+	args = listOfNotNull(
+		project.findProperty("hashes")?.toString() ?: "pwned-passwords-sha1.txt",
+		project.findProperty("filter")?.toString() ?: "password-filter.bin",
+		project.findProperty("fpp")?.toString(),
+	)
+	maxHeapSize = "256m"
+}
+
 tasks.named<Jar>("jar") {
 	archiveFileName.set("kunde-2024.04.0.jar")
 }
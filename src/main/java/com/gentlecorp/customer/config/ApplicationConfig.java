@@ -9,7 +9,7 @@ package com.gentlecorp.customer.config;
  * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
  * @version 1.0
  */
-public final class ApplicationConfig implements SecurityConfig, KeycloakClientConfig, EnvConfig {
+public final class ApplicationConfig implements SecurityConfig, KeycloakClientConfig, IdConfig, EnvConfig {
 
   /**
    * Privater Konstruktor, um Instanzen dieser Klasse zu verhindern.
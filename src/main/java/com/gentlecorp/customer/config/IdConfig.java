@@ -0,0 +1,36 @@
+package com.gentlecorp.customer.config;
+
+import com.gentlecorp.customer.util.IdGenerator;
+import com.gentlecorp.customer.util.RandomIdGenerator;
+import com.gentlecorp.customer.util.TimeOrderedIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Diese Schnittstelle konfiguriert die Vergabe von IDs für neue Kunden und Kontakte.
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+sealed interface IdConfig permits ApplicationConfig {
+
+  /**
+   * Wählt den Generator für neue IDs.
+   * <p>
+   * Standard sind zeitlich geordnete IDs der Version 7; mit `app.id-generator=v4` werden wie bisher zufällige IDs
+   * vergeben.
+   * </p>
+   *
+   * @param version `v7` oder `v4`.
+   * @return Der Generator.
+   */
+  @Bean
+  default IdGenerator idGenerator(@Value("${app.id-generator:v7}") final String version) {
+    return switch (version) {
+      case "v7" -> new TimeOrderedIdGenerator();
+      case "v4" -> new RandomIdGenerator();
+      default -> throw new IllegalArgumentException("Unbekannter ID-Generator: " + version);
+    };
+  }
+}
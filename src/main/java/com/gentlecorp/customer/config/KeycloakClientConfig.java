@@ -1,14 +1,32 @@
 package com.gentlecorp.customer.config;
 
+import com.gentlecorp.customer.security.KeycloakCallCounter;
 import com.gentlecorp.customer.security.KeycloakRepository;
+import com.gentlecorp.customer.security.KeycloakResilience;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.support.RestClientAdapter;
 import org.springframework.web.service.invoker.HttpServiceProxyFactory;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import static com.gentlecorp.customer.util.Constants.KEYCLOAK_CONNECT_TIMEOUT;
+import static com.gentlecorp.customer.util.Constants.KEYCLOAK_IDLE_TIMEOUT;
+import static com.gentlecorp.customer.util.Constants.KEYCLOAK_POOL_ACQUIRE_TIMEOUT;
+import static com.gentlecorp.customer.util.Constants.KEYCLOAK_POOL_MAX_CONNECTIONS;
+import static com.gentlecorp.customer.util.Constants.KEYCLOAK_READ_TIMEOUT;
+
 /**
  * Diese Schnittstelle definiert die Konfiguration für den Zugriff auf einen Keycloak-Server.
  * Sie stellt eine Methode zur Verfügung, um eine REST-Client-Schnittstelle für die Keycloak-Integration zu erzeugen.
@@ -24,14 +42,62 @@ sealed interface KeycloakClientConfig permits ApplicationConfig {
    */
   Logger LOGGER = LoggerFactory.getLogger(KeycloakClientConfig.class);
 
+  /**
+   * Erstellt den HTTP-Client für Keycloak mit einem Pool wiederverwendeter Verbindungen.
+   * <p>
+   * Alle Keycloak-Aufrufe gehen an denselben Host, daher gilt das Limit des Pools auch je Route. Die Auslastung des
+   * Pools wird als `httpcomponents.httpclient.pool.*` mit `httpclient=keycloak` veröffentlicht.
+   * </p>
+   *
+   * @param meterRegistry Die Registry für Micrometer-Metriken.
+   * @return Der HTTP-Client für Keycloak.
+   */
+  @Bean(destroyMethod = "close")
+  default CloseableHttpClient keycloakHttpClient(final MeterRegistry meterRegistry) {
+    final var connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+        .setMaxConnTotal(KEYCLOAK_POOL_MAX_CONNECTIONS)
+        .setMaxConnPerRoute(KEYCLOAK_POOL_MAX_CONNECTIONS)
+        .setDefaultConnectionConfig(ConnectionConfig.custom()
+            .setConnectTimeout(Timeout.of(KEYCLOAK_CONNECT_TIMEOUT))
+            .setSocketTimeout(Timeout.of(KEYCLOAK_READ_TIMEOUT))
+            .setValidateAfterInactivity(TimeValue.ofSeconds(1))
+            .build())
+        .build();
+    new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "keycloak").bindTo(meterRegistry);
+
+    return HttpClients.custom()
+        .setConnectionManager(connectionManager)
+        .setDefaultRequestConfig(RequestConfig.custom()
+            .setConnectionRequestTimeout(Timeout.of(KEYCLOAK_POOL_ACQUIRE_TIMEOUT))
+            .setResponseTimeout(Timeout.of(KEYCLOAK_READ_TIMEOUT))
+            .build())
+        .evictIdleConnections(TimeValue.of(KEYCLOAK_IDLE_TIMEOUT))
+        .evictExpiredConnections()
+        .build();
+  }
+
   /**
    * Erstellt und konfiguriert eine Instanz des Keycloak-Repository-Clients.
+   * <p>
+   * Jeder Aufruf wird als `keycloak.requests` je Endpunkt gemessen und durch {@link KeycloakResilience} geschützt;
+   * die Messung erfasst dabei jeden einzelnen Versuch.
+   * </p>
    *
-   * @param clientBuilder Builder-Objekt für den REST-Client.
+   * @param clientBuilder      Builder-Objekt für den REST-Client.
+   * @param callCounter        Zählt die Keycloak-Aufrufe je fachlicher Operation.
+   * @param keycloakHttpClient Der HTTP-Client mit Connection-Pool.
+   * @param keycloakResilience Bulkhead, Circuit Breaker und Retry von Resilience4j für die Aufrufe.
+   * @param meterRegistry      Die Registry für Micrometer-Metriken.
    * @return Eine konfigurierte Instanz des `KeycloakRepository`.
    */
   @Bean
-  default KeycloakRepository keycloakRepository(final RestClient.Builder clientBuilder) {
+  default KeycloakRepository keycloakRepository(
+    final RestClient.Builder clientBuilder,
+    final KeycloakCallCounter callCounter,
+    final CloseableHttpClient keycloakHttpClient,
+    final KeycloakResilience keycloakResilience,
+    final MeterRegistry meterRegistry
+  ) {
     final var kcDefaultPort = 18080;
     final var kcSchemaEnv = EnvConfig.get("KC_SERVICE_SCHEMA");
     final var kcHostEnv = EnvConfig.get("KC_SERVICE_HOST");
@@ -55,10 +121,15 @@ sealed interface KeycloakClientConfig permits ApplicationConfig {
 
     LOGGER.debug("KeycloakRepository: baseUri={}", baseUri);
 
-    final var restClient = clientBuilder.baseUrl(baseUri.toUriString()).build();
+    final var restClient = clientBuilder
+        .baseUrl(baseUri.toUriString())
+        .requestFactory(new HttpComponentsClientHttpRequestFactory(keycloakHttpClient))
+        .requestInterceptor(callCounter)
+        .build();
     final var clientAdapter = RestClientAdapter.create(restClient);
     final var proxyFactory = HttpServiceProxyFactory.builderFor(clientAdapter).build();
 
-    return proxyFactory.createClient(KeycloakRepository.class);
+    final var repository = KeycloakMetrics.instrument(proxyFactory.createClient(KeycloakRepository.class), meterRegistry);
+    return keycloakResilience.decorate(repository);
   }
 }
@@ -0,0 +1,60 @@
+package com.gentlecorp.customer.config;
+
+import com.gentlecorp.customer.security.KeycloakRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+
+/**
+ * Misst die Aufrufe des {@link KeycloakRepository} je Endpunkt.
+ * <p>
+ * Jeder Aufruf wird als `keycloak.requests` mit den Tags `endpoint` (Methodenname, z. B. `login` oder `signIn`)
+ * und `outcome` (`SUCCESS` oder `ERROR`) erfasst.
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+final class KeycloakMetrics {
+
+  private KeycloakMetrics() {
+  }
+
+  /**
+   * Umhüllt das Repository mit einem Proxy, der jeden Aufruf misst.
+   *
+   * @param repository    Das zu messende Repository.
+   * @param meterRegistry Die Registry für Micrometer-Metriken.
+   * @return Das gemessene Repository.
+   */
+  static KeycloakRepository instrument(final KeycloakRepository repository, final MeterRegistry meterRegistry) {
+    return (KeycloakRepository) Proxy.newProxyInstance(
+      KeycloakRepository.class.getClassLoader(),
+      new Class<?>[]{KeycloakRepository.class},
+      (proxy, method, args) -> {
+        if (method.getDeclaringClass() == Object.class) {
+          return method.invoke(repository, args);
+        }
+
+        final var sample = Timer.start(meterRegistry);
+        var outcome = "SUCCESS";
+        try {
+          return method.invoke(repository, args);
+        } catch (final InvocationTargetException e) {
+          outcome = "ERROR";
+          throw e.getCause();
+        } finally {
+          sample.stop(Timer.builder("keycloak.requests")
+            .description("Dauer der Aufrufe an Keycloak je Endpunkt")
+            .tag("endpoint", method.getName())
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(meterRegistry));
+        }
+      }
+    );
+  }
+}
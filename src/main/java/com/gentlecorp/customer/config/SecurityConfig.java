@@ -1,11 +1,14 @@
 package com.gentlecorp.customer.config;
 
 import com.gentlecorp.customer.security.JwtToUserDetailsConverter;
+import com.gentlecorp.customer.security.OfflinePasswordChecker;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.security.authentication.password.CompromisedPasswordChecker;
+import org.springframework.security.authentication.password.CompromisedPasswordDecision;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer.FrameOptionsConfig;
@@ -13,6 +16,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.password.HaveIBeenPwnedRestApiPasswordChecker;
 
+import java.nio.file.Path;
+
 import static org.springframework.http.HttpMethod.GET;
 import static org.springframework.http.HttpMethod.POST;
 import static org.springframework.security.config.http.SessionCreationPolicy.STATELESS;
@@ -76,9 +81,30 @@ sealed interface SecurityConfig permits ApplicationConfig {
     return createDelegatingPasswordEncoder();
   }
 
+  /**
+   * Prüft Passwörter auf bekannte Datenlecks.
+   * <p>
+   * Ist `app.password-filter` gesetzt, wird offline gegen den dort erzeugten Filter geprüft. Die API von Have I Been
+   * Pwned wird nur mit `app.password-hibp: true` aufgerufen, da sie jede Registrierung um einen synchronen
+   * Netzwerkaufruf verlängert; ohne beides gilt kein Passwort als kompromittiert.
+   * </p>
+   *
+   * @param passwordFilter Pfad der mit dem `PasswordFilterBuilder` erzeugten Filterdatei oder leer.
+   * @param hibp           Gibt an, ob ohne Filterdatei die API von Have I Been Pwned gefragt wird.
+   * @return Der Checker für kompromittierte Passwörter.
+   */
   @Bean
-  default CompromisedPasswordChecker compromisedPasswordChecker() {
-    return new HaveIBeenPwnedRestApiPasswordChecker();
+  default CompromisedPasswordChecker compromisedPasswordChecker(
+      @Value("${app.password-filter:}") final String passwordFilter,
+      @Value("${app.password-hibp:false}") final boolean hibp
+  ) {
+    if (!passwordFilter.isBlank()) {
+      return OfflinePasswordChecker.open(Path.of(passwordFilter));
+    }
+    if (hibp) {
+      return new HaveIBeenPwnedRestApiPasswordChecker();
+    }
+    return password -> new CompromisedPasswordDecision(false);
   }
 
   /**
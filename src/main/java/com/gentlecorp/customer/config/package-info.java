@@ -5,7 +5,9 @@
  * <ul>
  *     <li>{@link com.gentlecorp.customer.config.ApplicationConfig} - Zentrale Konfigurationsklasse</li>
  *     <li>{@link com.gentlecorp.customer.config.EnvConfig} - Umgebungsvariablen-Konfiguration</li>
+ *     <li>{@link com.gentlecorp.customer.config.IdConfig} - Vergabe der IDs neuer Kunden und Kontakte</li>
  *     <li>{@link com.gentlecorp.customer.config.KeycloakClientConfig} - Keycloak-Client-Integration</li>
+ *     <li>{@link com.gentlecorp.customer.config.KeycloakMetrics} - Metriken der Keycloak-Aufrufe je Endpunkt</li>
  *     <li>{@link com.gentlecorp.customer.config.MongoConfig} - MongoDB-Datenbankkonfiguration</li>
  *     <li>{@link com.gentlecorp.customer.config.SecurityConfig} - Sicherheits- und Authentifizierungsregeln</li>
  * </ul>
@@ -9,7 +9,6 @@ import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.authentication.password.CompromisedPasswordChecker;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Controller;
@@ -32,7 +31,6 @@ import static org.springframework.http.HttpStatus.UNAUTHORIZED;
 @Slf4j
 public class AuthController {
 
-  private final CompromisedPasswordChecker passwordChecker;
   private final KeycloakService keycloakService;
 
   /**
@@ -66,8 +64,6 @@ public class AuthController {
   @MutationMapping("me")
   @PreAuthorize("hasAnyRole('ADMIN', 'USER', 'SUPREME', 'ELITE', 'BASIC')")
   public Map<String, Object> me(@AuthenticationPrincipal final Jwt jwt) {
-    log.info("me: isCompromised() bei Passwort 'pass1234': {}", passwordChecker.check("pass1234").isCompromised());
-
     return Map.of(
       "subject", jwt.getSubject(),
       "claims", jwt.getClaims()
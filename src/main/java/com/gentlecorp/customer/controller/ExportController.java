@@ -0,0 +1,86 @@
+package com.gentlecorp.customer.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gentlecorp.customer.model.input.ExportInput;
+import com.gentlecorp.customer.service.CustomerReadService;
+import com.gentlecorp.customer.service.filter.FilterPlanCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Map;
+
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+
+/**
+ * Der `ExportController` stellt einen REST-Endpunkt für den Export gefilterter Kunden bereit.
+ * <p>
+ * Die Kunden werden als NDJSON (ein JSON-Dokument pro Zeile) gestreamt. Die Daten werden dabei direkt
+ * aus einem MongoDB-Cursor in den Response geschrieben, sodass auch sehr große Exporte mit konstantem
+ * Speicherbedarf auskommen. Ein langsamer Client bremst über den blockierenden Output-Stream das Nachladen
+ * weiterer Batches aus der Datenbank.
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/export")
+@RequiredArgsConstructor
+@Slf4j
+public class ExportController {
+
+    private static final byte NEWLINE = '\n';
+    private static final int FLUSH_INTERVAL = 100;
+
+    private final CustomerReadService customerReadService;
+    private final FilterPlanCache filterPlanCache;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Exportiert alle Kunden zu den angegebenen Filter- und Sortierkriterien als NDJSON.
+     *
+     * @param input Filter und Sortierung mit derselben Semantik wie bei der GraphQL-Abfrage `customers`.
+     * @return Ein `StreamingResponseBody`, der die Kunden zeilenweise schreibt.
+     */
+    @PostMapping(path = "/customers", produces = APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<StreamingResponseBody> exportCustomers(@RequestBody(required = false) final ExportInput input) {
+        log.debug("exportCustomers: input={}", input);
+
+        final var filter = input != null ? input.filter() : null;
+        final var order = input != null ? input.order() : null;
+        final Map<String, Object> filterMap = filterPlanCache.toDocument(filter);
+        final Map<String, String> sortMap = order != null
+            ? Map.of(order.field().name(), order.direction().name())
+            : Map.of();
+
+        final StreamingResponseBody body = outputStream -> {
+            var count = 0L;
+            try (var customers = customerReadService.stream(filterMap, sortMap)) {
+                final var iterator = customers.iterator();
+                while (iterator.hasNext()) {
+                    outputStream.write(objectMapper.writeValueAsBytes(iterator.next()));
+                    outputStream.write(NEWLINE);
+                    if (++count % FLUSH_INTERVAL == 0) {
+                        outputStream.flush();
+                    }
+                }
+            }
+            outputStream.flush();
+            log.debug("exportCustomers: count={}", count);
+        };
+
+        return ResponseEntity.ok()
+            .contentType(APPLICATION_NDJSON)
+            .body(body);
+    }
+}
@@ -3,6 +3,7 @@ package com.gentlecorp.customer.controller;
 import com.gentlecorp.customer.exception.AccessForbiddenException;
 import com.gentlecorp.customer.exception.ConstraintViolationsException;
 import com.gentlecorp.customer.exception.ContactExistsException;
+import com.gentlecorp.customer.exception.ContactLimitExceededException;
 import com.gentlecorp.customer.exception.EmailExistsException;
 import com.gentlecorp.customer.exception.NotFoundException;
 import com.gentlecorp.customer.exception.PasswordInvalidException;
@@ -56,7 +57,6 @@ import java.util.stream.StreamSupport;
 import static com.gentlecorp.customer.exception.CustomErrorType.CONFLICT;
 import static com.gentlecorp.customer.exception.CustomErrorType.PRECONDITION_FAILED;
 import static com.gentlecorp.customer.util.Constants.PROBLEM_PATH;
-import static com.gentlecorp.customer.util.Validation.validateContact;
 import static com.gentlecorp.customer.util.VersionUtils.getVersion;
 import static com.gentlecorp.customer.util.VersionUtils.validateVersion;
 import static org.springframework.graphql.execution.ErrorType.BAD_REQUEST;
@@ -261,6 +261,20 @@ public class MutationController {
             .build();
     }
 
+    @GraphQlExceptionHandler
+    GraphQLError onContactLimitExceeded(
+        final ContactLimitExceededException ex,
+        final DataFetchingEnvironment env
+    ) {
+        log.debug("onContactLimitExceeded: {}", ex.getMessage());
+        return GraphQLError.newError()
+            .errorType(BAD_REQUEST)
+            .message(ex.getMessage())
+            .location(env.getExecutionStepInfo().getField().getSingleField().getSourceLocation()) // GraphQL Location
+            .path(env.getExecutionStepInfo().getPath().toList()) // Dynamischer Query-Pfad
+            .build();
+    }
+
     /**
      * Behandelt eine `AccessForbiddenException` und gibt ein entsprechendes GraphQL-Fehlerobjekt zurück.
      *
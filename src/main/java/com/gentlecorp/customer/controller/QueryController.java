@@ -1,14 +1,17 @@
 package com.gentlecorp.customer.controller;
 
 import com.gentlecorp.customer.exception.AccessForbiddenException;
+import com.gentlecorp.customer.exception.IllegalArgumentException;
 import com.gentlecorp.customer.exception.NotFoundException;
 import com.gentlecorp.customer.exception.UnauthorizedException;
+import com.gentlecorp.customer.model.entity.Contact;
 import com.gentlecorp.customer.model.entity.Customer;
 import com.gentlecorp.customer.model.input.FilterInput;
 import com.gentlecorp.customer.model.input.PaginationInput;
 import com.gentlecorp.customer.model.input.SortInput;
 import com.gentlecorp.customer.security.CustomUserDetails;
 import com.gentlecorp.customer.service.CustomerReadService;
+import com.gentlecorp.customer.service.filter.FilterPlanCache;
 import com.gentlecorp.customer.security.service.JwtService;
 import graphql.GraphQLError;
 import graphql.schema.DataFetchingEnvironment;
@@ -16,9 +19,13 @@ import jakarta.validation.ConstraintViolation;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.tuple.Pair;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
 import org.springframework.graphql.data.method.annotation.GraphQlExceptionHandler;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.query.ScrollSubrange;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -27,12 +34,18 @@ import org.springframework.stereotype.Controller;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
+import static com.gentlecorp.customer.util.Constants.DEFAULT_PAGE_SIZE;
+import static com.gentlecorp.customer.util.Constants.MAX_PAGE_SIZE;
+import static com.gentlecorp.customer.util.ProjectionUtils.CONNECTION_NODE_PATH;
+import static com.gentlecorp.customer.util.ProjectionUtils.getCustomerFields;
 import static org.springframework.graphql.execution.ErrorType.BAD_REQUEST;
 import static org.springframework.graphql.execution.ErrorType.FORBIDDEN;
 import static org.springframework.graphql.execution.ErrorType.NOT_FOUND;
@@ -52,6 +65,7 @@ import static org.springframework.http.ResponseEntity.ok;
 public class QueryController {
 
     private final CustomerReadService customerReadService;
+    private final FilterPlanCache filterPlanCache;
 
     /**
      * Ruft einen Kunden anhand seiner ID ab.
@@ -70,17 +84,22 @@ public class QueryController {
         log.debug("findById: id={}, user={}", id, authentication);
 
         final var user = (CustomUserDetails) authentication.getPrincipal();
-        final var customer = customerReadService.findById(id,user);
+        final var customer = customerReadService.findById(id, user);
         log.debug("findById: customer={}", customer);
         return customer;
     }
 
     /**
-     * GraphQL-Query für `customers`.
+     * GraphQL-Query für `customers` mit Offset-Paginierung.
+     * <p>
+     * Bleibt aus Kompatibilitätsgründen erhalten; für große Datenmengen sollte
+     * {@link #findCustomersConnection(FilterInput, SortInput, ScrollSubrange, DataFetchingEnvironment)} verwendet werden.
+     * </p>
      *
      * @param filter     Die Filterbedingungen als `FilterInput`.
      * @param pagination Die Paginierungsparameter.
      * @param order      Die Sortierkriterien.
+     * @param env        Das GraphQL-Umfeld, aus dessen Selection-Set die zu ladenden Felder abgeleitet werden.
      * @return Eine Liste der gefundenen Kunden.
      */
     @QueryMapping("customers")
@@ -88,12 +107,13 @@ public class QueryController {
     public Collection<Customer> findCustomers(
         @Argument FilterInput filter,
         @Argument PaginationInput pagination,
-        @Argument SortInput order
+        @Argument SortInput order,
+        DataFetchingEnvironment env
     ) {
         log.debug("findCustomers: filter={}, pagination={}, order={}", filter, pagination, order);
 
-        // ✅ Konvertiere den Filter in eine Map für MongoDB
-        final Map<String, Object> filterMap = filter != null ? filter.toMap() : new HashMap<>();
+        // ✅ Konvertiere den Filter über den zwischengespeicherten Plan in ein Abfragedokument für MongoDB
+        final Map<String, Object> filterMap = filterPlanCache.toDocument(filter);
         log.debug("findCustomers: filterMap={}", filterMap);
 
         // ✅ Konvertiere die Sortierung in Map<String, String>
@@ -102,15 +122,122 @@ public class QueryController {
             : Map.of();
         log.debug("findCustomers: sortMap={}", sortMap);
 
-        // ✅ Falls keine Paginierung angegeben → Alle Daten zurückgeben
+        // ✅ Falls keine Paginierung angegeben → Höchstens MAX_PAGE_SIZE Kunden zurückgeben (Export über /export/customers)
         int page = pagination != null ? pagination.offset()-1 : 0;
-        int size = pagination != null ? pagination.limit() : Integer.MAX_VALUE;
+        int size = pagination != null ? Math.min(pagination.limit(), MAX_PAGE_SIZE) : MAX_PAGE_SIZE;
         log.debug("findCustomers: page={}, size={}", page, size);
 
-        return customerReadService.find(filterMap, page, size, sortMap);
+        final var fields = getCustomerFields(env.getSelectionSet());
+        return customerReadService.find(filterMap, page, size, sortMap, fields);
     }
 
 
+    /**
+     * GraphQL-Query für `customersConnection` mit Cursor-Paginierung nach Relay-Spezifikation.
+     * <p>
+     * Der opake Cursor kodiert die Werte der Sortierfelder sowie die `_id` des letzten Kunden einer Seite,
+     * sodass auch tiefe Seiten ohne Überspringen von Dokumenten gelesen werden.
+     * </p>
+     *
+     * @param filter   Die Filterbedingungen als `FilterInput`.
+     * @param order    Die Sortierkriterien.
+     * @param subrange Position (`after`) und Anzahl (`first`) der angeforderten Kunden.
+     * @param env      Das GraphQL-Umfeld, aus dessen Selection-Set die zu ladenden Felder abgeleitet werden.
+     * @return Ein `Window<Customer>`, das als `CustomerConnection` ausgeliefert wird.
+     */
+    @QueryMapping("customersConnection")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public Window<Customer> findCustomersConnection(
+        @Argument FilterInput filter,
+        @Argument SortInput order,
+        ScrollSubrange subrange,
+        DataFetchingEnvironment env
+    ) {
+        log.debug("findCustomersConnection: filter={}, order={}, subrange={}", filter, order, subrange);
+
+        final Map<String, Object> filterMap = filterPlanCache.toDocument(filter);
+        final Map<String, String> sortMap = order != null
+            ? Map.of(order.field().name(), order.direction().name())
+            : Map.of();
+
+        final var position = subrange.position().orElse(ScrollPosition.keyset());
+        final var limit = Math.min(subrange.count().orElse(DEFAULT_PAGE_SIZE), MAX_PAGE_SIZE);
+        log.debug("findCustomersConnection: position={}, limit={}", position, limit);
+
+        final var fields = getCustomerFields(env.getSelectionSet(), CONNECTION_NODE_PATH);
+        return customerReadService.scroll(filterMap, sortMap, position, limit, fields);
+    }
+
+    /**
+     * Ruft mehrere Kunden anhand ihrer IDs mit einer gemeinsamen Abfrage ab.
+     *
+     * @param ids Die UUIDs der Kunden (höchstens {@value com.gentlecorp.customer.util.Constants#MAX_PAGE_SIZE}).
+     * @return Die gefundenen Kunden in der Reihenfolge der IDs.
+     */
+    @QueryMapping("customersByIds")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    Collection<Customer> findCustomersByIds(@Argument final List<UUID> ids) {
+        log.debug("findCustomersByIds: ids={}", ids);
+        if (ids.size() > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("ids", ids.size(), MAX_PAGE_SIZE);
+        }
+        return customerReadService.findByIds(ids);
+    }
+
+    /**
+     * Ruft mehrere Kunden anhand ihrer Benutzernamen mit einer gemeinsamen Abfrage ab.
+     *
+     * @param usernames Die Benutzernamen der Kunden (höchstens
+     *                  {@value com.gentlecorp.customer.util.Constants#MAX_PAGE_SIZE}).
+     * @return Die gefundenen Kunden in der Reihenfolge der Benutzernamen.
+     */
+    @QueryMapping("customersByUsernames")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    Collection<Customer> findCustomersByUsernames(@Argument final List<String> usernames) {
+        log.debug("findCustomersByUsernames: usernames={}", usernames);
+        if (usernames.size() > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("usernames", usernames.size(), MAX_PAGE_SIZE);
+        }
+        return customerReadService.findByUsernames(usernames);
+    }
+
+    /**
+     * Löst das Feld `contacts` für alle Kunden einer Antwort gemeinsam auf.
+     * <p>
+     * Der DataLoader sammelt die Kontakt-IDs aller Kunden, die in derselben Abfrage geliefert werden, und lädt
+     * die Kontakte mit einer einzigen `$in`-Abfrage statt einer Abfrage je Kontakt. Eingebettete Kontakte werden
+     * direkt aus dem Kundendokument übernommen.
+     * </p>
+     *
+     * @param customers Die Kunden, deren Kontakte angefordert wurden.
+     * @return Die Kontakte je Kunde in der Reihenfolge ihrer `contactIds`.
+     */
+    @BatchMapping(typeName = "Customer", field = "contacts")
+    public Map<Customer, List<Contact>> getContacts(final List<Customer> customers) {
+        log.debug("getContacts: customers={}", customers.size());
+        final var ids = customers.stream()
+            .filter(customer -> customer.getContacts() == null)
+            .map(Customer::getContactIds)
+            .filter(Objects::nonNull)
+            .flatMap(List::stream)
+            .collect(Collectors.toSet());
+        final var contacts = customerReadService.findContactsByIds(ids);
+
+        final Map<Customer, List<Contact>> contactsByCustomer = new IdentityHashMap<>();
+        customers.forEach(customer -> contactsByCustomer.put(customer, getContacts(customer, contacts)));
+        return contactsByCustomer;
+    }
+
+    private static List<Contact> getContacts(final Customer customer, final Map<UUID, Contact> contacts) {
+        if (customer.getContacts() != null) {
+            return customer.getContacts();
+        }
+        return customer.getContactIds() == null ? List.of() : customer.getContactIds().stream()
+            .map(contacts::get)
+            .filter(Objects::nonNull)
+            .toList();
+    }
+
     @QueryMapping("hallo")
     public String hello() {
         return "Hello, GraphQL!";
@@ -149,4 +276,22 @@ public class QueryController {
             .location(env.getExecutionStepInfo().getField().getSingleField().getSourceLocation()) // GraphQL Location
             .build();
     }
+
+    /**
+     * Behandelt eine `IllegalArgumentException`, z. B. bei einem ungültigen Filter, und gibt ein entsprechendes
+     * GraphQL-Fehlerobjekt zurück.
+     *
+     * @param ex Die ausgelöste Ausnahme.
+     * @param env Das GraphQL-Umfeld für Fehlerinformationen.
+     * @return Ein `GraphQLError` mit der Fehlerbeschreibung.
+     */
+    @GraphQlExceptionHandler
+    GraphQLError onIllegalArgument(final IllegalArgumentException ex, DataFetchingEnvironment env) {
+        return GraphQLError.newError()
+            .errorType(BAD_REQUEST)
+            .message(ex.getMessage())
+            .path(env.getExecutionStepInfo().getPath().toList()) // Dynamischer Query-Pfad
+            .location(env.getExecutionStepInfo().getField().getSingleField().getSourceLocation()) // GraphQL Location
+            .build();
+    }
 }
@@ -6,6 +6,7 @@
  * <ul>
  *     <li>{@link com.gentlecorp.customer.controller.AuthController} - Verarbeitet Anfragen zur Authentifizierung.</li>
  *     <li>{@link com.gentlecorp.customer.controller.QueryController} - Stellt Abfragen zu Kunden und Benutzerdaten bereit.</li>
+ *     <li>{@link com.gentlecorp.customer.controller.ExportController} - Streamt gefilterte Kunden als NDJSON.</li>
  * </ul>
  * </p>
  * <p>
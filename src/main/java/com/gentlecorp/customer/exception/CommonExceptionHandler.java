@@ -1,8 +1,11 @@
 package com.gentlecorp.customer.exception;
 
 import com.gentlecorp.customer.model.enums.ProblemType;
+import graphql.GraphQLError;
+import graphql.schema.DataFetchingEnvironment;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.graphql.data.method.annotation.GraphQlExceptionHandler;
 import org.springframework.http.ProblemDetail;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -11,6 +14,7 @@ import org.springframework.web.servlet.resource.NoResourceFoundException;
 
 import java.net.URI;
 
+import static com.gentlecorp.customer.exception.CustomErrorType.SERVICE_UNAVAILABLE;
 import static com.gentlecorp.customer.util.Constants.PROBLEM_PATH;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.FORBIDDEN;
@@ -85,4 +89,22 @@ public class CommonExceptionHandler {
     problemDetail.setInstance(URI.create(request.getRequestURL().toString()));
     return problemDetail;
   }
+
+  /**
+   * Behandelt `KeycloakUnavailableException` in allen GraphQL-Operationen.
+   *
+   * @param ex  Die `KeycloakUnavailableException`.
+   * @param env Die Umgebung der fehlgeschlagenen Operation.
+   * @return Der GraphQL-Fehler.
+   */
+  @GraphQlExceptionHandler
+  GraphQLError onKeycloakUnavailable(final KeycloakUnavailableException ex, final DataFetchingEnvironment env) {
+    log.error("onKeycloakUnavailable: {}", ex.getMessage());
+    return GraphQLError.newError()
+      .errorType(SERVICE_UNAVAILABLE)
+      .message(ex.getMessage())
+      .location(env.getExecutionStepInfo().getField().getSingleField().getSourceLocation())
+      .path(env.getExecutionStepInfo().getPath().toList())
+      .build();
+  }
 }
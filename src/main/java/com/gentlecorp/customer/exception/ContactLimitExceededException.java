@@ -0,0 +1,27 @@
+package com.gentlecorp.customer.exception;
+
+import lombok.Getter;
+
+/**
+ * Ausnahme, die ausgelöst wird, wenn ein Kunde bereits die maximale Anzahl eingebetteter Kontakte hat.
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@Getter
+public class ContactLimitExceededException extends RuntimeException {
+
+  /** Die maximale Anzahl an Kontakten je Kunde. */
+  private final int limit;
+
+  /**
+   * Erstellt eine neue `ContactLimitExceededException`.
+   *
+   * @param limit Die maximale Anzahl an Kontakten je Kunde.
+   */
+  public ContactLimitExceededException(final int limit) {
+    super(String.format("Es sind höchstens %d Kontakte je Kunde möglich", limit));
+    this.limit = limit;
+  }
+}
@@ -4,5 +4,6 @@ import graphql.ErrorClassification;
 
 public enum CustomErrorType implements ErrorClassification {
     PRECONDITION_FAILED,
-    CONFLICT
+    CONFLICT,
+    SERVICE_UNAVAILABLE
 }
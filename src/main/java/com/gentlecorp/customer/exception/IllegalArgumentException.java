@@ -30,6 +30,19 @@ public final class IllegalArgumentException extends RuntimeException {
         this.tier = 0;
     }
 
+    /**
+     * Erstellt eine neue `IllegalArgumentException` für eine Liste, die mehr Werte als erlaubt enthält.
+     *
+     * @param key     Der Name der Liste.
+     * @param size    Die Anzahl der übergebenen Werte.
+     * @param maxSize Die erlaubte Höchstzahl an Werten.
+     */
+    public IllegalArgumentException(final String key, final int size, final int maxSize) {
+        super(String.format("Invalid key: %s (%d values, at most %d allowed)", key, size, maxSize));
+        this.key = key;
+        this.tier = 0;
+    }
+
     /**
      * Erstellt eine neue `IllegalArgumentException` für eine ungültige Stufenangabe.
      *
@@ -0,0 +1,28 @@
+package com.gentlecorp.customer.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Ausnahme, die ausgelöst wird, wenn Keycloak vorübergehend nicht aufgerufen wird.
+ * <p>
+ * Das ist der Fall, wenn der Circuit Breaker geöffnet ist oder alle erlaubten gleichzeitigen Aufrufe belegt sind.
+ * Sie führt zu einer HTTP 503 (Service Unavailable) Antwort.
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class KeycloakUnavailableException extends RuntimeException {
+
+  /**
+   * Erstellt eine neue {@code KeycloakUnavailableException} mit einer bestimmten Fehlermeldung.
+   *
+   * @param message Die Detailnachricht, die den Grund der Ausnahme erklärt.
+   */
+  public KeycloakUnavailableException(final String message) {
+    super(message);
+  }
+}
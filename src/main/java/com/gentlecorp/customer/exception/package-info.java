@@ -11,6 +11,7 @@
  *   <li>{@link com.gentlecorp.customer.exception.EmailExistsException} – E-Mail existiert bereits.</li>
  *   <li>{@link com.gentlecorp.customer.exception.UsernameExistsException} – Benutzername existiert bereits.</li>
  *   <li>{@link com.gentlecorp.customer.exception.ContactExistsException} – Kontakt existiert bereits.</li>
+ *   <li>{@link com.gentlecorp.customer.exception.ContactLimitExceededException} – Zu viele eingebettete Kontakte.</li>
  *   <li>{@link com.gentlecorp.customer.exception.VersionAheadException} – Version zu weit voraus.</li>
  *   <li>{@link com.gentlecorp.customer.exception.VersionInvalidException} – Ungültige Version.</li>
  *   <li>{@link com.gentlecorp.customer.exception.VersionOutdatedException} – Veraltete Version.</li>
@@ -18,6 +19,7 @@
  *   <li>{@link com.gentlecorp.customer.exception.SignUpException} – Fehler bei der Registrierung.</li>
  *   <li>{@link com.gentlecorp.customer.exception.ConstraintViolationsException} – Verletzung von Validierungsregeln.</li>
  *   <li>{@link com.gentlecorp.customer.exception.IllegalArgumentException} – Ungültiges Argument.</li>
+ *   <li>{@link com.gentlecorp.customer.exception.KeycloakUnavailableException} – Keycloak vorübergehend nicht erreichbar.</li>
  * </ul>
  *
  * @since 13.02.2025
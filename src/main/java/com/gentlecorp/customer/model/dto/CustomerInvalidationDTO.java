@@ -0,0 +1,29 @@
+package com.gentlecorp.customer.model.dto;
+
+import java.util.UUID;
+
+/**
+ * Datentransferobjekt (DTO) für die Invalidierung zwischengespeicherter Kunden.
+ * <p>
+ * Wird nach jeder Änderung eines Kunden veröffentlicht, damit alle Instanzen ihren lokalen Cache und den
+ * {@link com.gentlecorp.customer.service.CustomerUniquenessFilter} abgleichen.
+ * </p>
+ *
+ * @param customerId Die ID des geänderten Kunden, {@code null}, wenn alle Kunden zu entfernen sind.
+ * @param version    Die Version des Kunden nach der Änderung.
+ * @param deleted    Gibt an, ob der Kunde gelöscht wurde.
+ * @param email      Die E-Mail-Adresse nach der Änderung, {@code null} bei gelöschten Kunden.
+ * @param username   Der Benutzername nach der Änderung, {@code null} bei gelöschten Kunden.
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+public record CustomerInvalidationDTO(
+    UUID customerId,
+    int version,
+    boolean deleted,
+    String email,
+    String username
+) {
+}
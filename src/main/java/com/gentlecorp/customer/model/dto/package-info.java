@@ -11,6 +11,7 @@
  *   <li>{@link com.gentlecorp.customer.model.dto.ContactDTO} – Enthält Kontaktdetails.</li>
  *   <li>{@link com.gentlecorp.customer.model.dto.CustomerCreateDTO} – Wird für die Registrierung eines neuen Kunden verwendet.</li>
  *   <li>{@link com.gentlecorp.customer.model.dto.CustomerDTO} – Repräsentiert einen Kunden.</li>
+ *   <li>{@link com.gentlecorp.customer.model.dto.CustomerInvalidationDTO} – Meldet geänderte Kunden an alle Instanzen.</li>
  *   <li>{@link com.gentlecorp.customer.model.dto.PasswordDTO} – Wird für Passwortoperationen verwendet.</li>
  * </ul>
  *
@@ -9,6 +9,7 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
@@ -26,12 +27,18 @@ import java.util.UUID;
  * @version 1.0
  */
 @Document(collection = "Contact")
+@CompoundIndex(
+  name = "customer_name",
+  def = "{'customerId': 1, 'lastName': 1, 'firstName': 1}",
+  unique = true,
+  partialFilter = "{'customerId': {$exists: true}}"
+)
 @Getter
 @Setter
 @ToString
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class Contact {
 
   /**
@@ -47,6 +54,11 @@ public class Contact {
   @Version
   private int version;
 
+  /**
+   * ID des Kunden, dem der Kontakt gehört.
+   */
+  private UUID customerId;
+
   private String lastName;
   private String firstName;
 
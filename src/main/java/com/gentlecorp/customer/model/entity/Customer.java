@@ -29,7 +29,7 @@ import java.util.UUID;
 @ToString
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class Customer {
 
     /**
@@ -117,11 +117,22 @@ public class Customer {
     @NotNull(message = "Adresse darf nicht null sein")
     private Address address;
 
+    /**
+     * ID des zugehörigen Benutzers in Keycloak (`sub`), wird bei der Registrierung gesetzt.
+     */
+    private String keycloakId;
+
     /**
      * Liste von Kontakten, die mit dem Kunden verknüpft sind.
      */
     private List<UUID> contactIds;
 
+    /**
+     * Eingebettete Kontakte, falls sie im Dokument des Kunden gespeichert sind (siehe
+     * {@link com.gentlecorp.customer.model.enums.ContactStorageType#EMBEDDED}); sonst `null`.
+     */
+    private List<Contact> contacts;
+
     /**
      * Zeitstempel der Erstellung des Kunden-Dokuments.
      */
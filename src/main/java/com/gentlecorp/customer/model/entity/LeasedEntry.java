@@ -0,0 +1,39 @@
+package com.gentlecorp.customer.model.entity;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Ein Eintrag einer dauerhaften Warteschlange, den ein Durchlauf für eine begrenzte Zeit sperrt.
+ * <p>
+ * Neben den Zugriffsmethoden erwartet die {@link com.gentlecorp.customer.service.LeaseQueue} die Felder
+ * `nextAttemptAt`, `lockedBy`, `lockedUntil`, `lastError` und `dead` in der Collection.
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+public interface LeasedEntry {
+
+    /**
+     * Liefert die ID des Eintrags.
+     *
+     * @return Die ID.
+     */
+    UUID getId();
+
+    /**
+     * Liefert den Zeitpunkt, zu dem der Eintrag gespeichert wurde.
+     *
+     * @return Der Zeitpunkt.
+     */
+    Instant getCreatedAt();
+
+    /**
+     * Liefert die Anzahl der fehlgeschlagenen Versuche.
+     *
+     * @return Die Anzahl.
+     */
+    int getAttempts();
+}
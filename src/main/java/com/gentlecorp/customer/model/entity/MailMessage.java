@@ -0,0 +1,97 @@
+package com.gentlecorp.customer.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Eine fertig gerenderte, noch nicht versendete Mail.
+ * <p>
+ * Mails werden in der Collection 'MailQueue' gespeichert und von der {@link com.gentlecorp.customer.service.MailQueue}
+ * gebündelt versendet und anschließend gelöscht.
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@Document(collection = "MailQueue")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MailMessage implements LeasedEntry {
+
+    /**
+     * ID der Mail; entspricht der ID des auslösenden Outbox-Eintrags, damit sie nur einmal eingereiht wird.
+     */
+    @Id
+    private UUID id;
+
+    /**
+     * ID des Kunden, den die Mail betrifft.
+     */
+    private UUID customerId;
+
+    /**
+     * Empfängeradresse.
+     */
+    @ToString.Exclude
+    private String to;
+
+    /**
+     * Betreff.
+     */
+    private String subject;
+
+    /**
+     * HTML-Text der Mail.
+     */
+    @ToString.Exclude
+    private String body;
+
+    /**
+     * Zeitpunkt, zu dem die Mail eingereiht wurde.
+     */
+    private Instant createdAt;
+
+    /**
+     * Anzahl der fehlgeschlagenen Versandversuche.
+     */
+    private int attempts;
+
+    /**
+     * Frühester Zeitpunkt des nächsten Versandversuchs.
+     */
+    private Instant nextAttemptAt;
+
+    /**
+     * Kennung des Durchlaufs, der die Mail gerade versendet.
+     */
+    private String lockedBy;
+
+    /**
+     * Zeitpunkt, bis zu dem die Mail für andere Durchläufe gesperrt ist.
+     */
+    private Instant lockedUntil;
+
+    /**
+     * Fehlermeldung des letzten Versandversuchs.
+     */
+    private String lastError;
+
+    /**
+     * Gibt an, ob die Mail nach zu vielen Versuchen aufgegeben wurde.
+     */
+    private boolean dead;
+}
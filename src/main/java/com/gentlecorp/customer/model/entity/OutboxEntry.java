@@ -0,0 +1,130 @@
+package com.gentlecorp.customer.model.entity;
+
+import com.gentlecorp.customer.model.enums.OutboxType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Eine noch nicht zugestellte Nebenwirkung einer Kundenänderung.
+ * <p>
+ * Einträge werden gemeinsam mit der Änderung des Kunden in der Collection 'Outbox' gespeichert und anschließend
+ * vom {@link com.gentlecorp.customer.service.OutboxRelay} zugestellt und gelöscht. Die Reihenfolge je Kunde ergibt
+ * sich aus {@link #createdAt} und {@link #position}.
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@Document(collection = "Outbox")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEntry implements LeasedEntry {
+
+    @Id
+    private UUID id;
+
+    /**
+     * ID des Kunden, dessen Änderung den Eintrag ausgelöst hat; zugleich Kafka-Schlüssel.
+     */
+    private UUID customerId;
+
+    /**
+     * Zeitpunkt, zu dem die Änderung gespeichert wurde.
+     */
+    private Instant createdAt;
+
+    /**
+     * Position innerhalb derselben Änderung.
+     */
+    private int position;
+
+    /**
+     * Zustellweg des Eintrags.
+     */
+    private OutboxType type;
+
+    /**
+     * Kafka-Topic; nur bei {@link OutboxType#KAFKA}.
+     */
+    private String topic;
+
+    /**
+     * Nachricht für Kafka; nur bei {@link OutboxType#KAFKA}.
+     */
+    @ToString.Exclude
+    private Object payload;
+
+    /**
+     * Anzahl der fehlgeschlagenen Zustellversuche.
+     */
+    private int attempts;
+
+    /**
+     * Frühester Zeitpunkt des nächsten Zustellversuchs.
+     */
+    private Instant nextAttemptAt;
+
+    /**
+     * Kennung des Relay-Durchlaufs, der den Eintrag gerade zustellt.
+     */
+    private String lockedBy;
+
+    /**
+     * Zeitpunkt, bis zu dem der Eintrag für andere Relay-Durchläufe gesperrt ist.
+     */
+    private Instant lockedUntil;
+
+    /**
+     * Fehlermeldung des letzten Zustellversuchs.
+     */
+    private String lastError;
+
+    /**
+     * Gibt an, ob der Eintrag nach zu vielen Versuchen aufgegeben wurde.
+     */
+    private boolean dead;
+
+    /**
+     * Erstellt einen Eintrag für eine Kafka-Nachricht.
+     *
+     * @param customerId Die ID des Kunden.
+     * @param topic      Das Kafka-Topic.
+     * @param payload    Die Nachricht.
+     * @return Der Eintrag.
+     */
+    public static OutboxEntry kafka(final UUID customerId, final String topic, final Object payload) {
+        return OutboxEntry.builder()
+            .customerId(customerId)
+            .type(OutboxType.KAFKA)
+            .topic(topic)
+            .payload(payload)
+            .build();
+    }
+
+    /**
+     * Erstellt einen Eintrag für die Begrüßungsmail.
+     *
+     * @param customerId Die ID des Kunden.
+     * @return Der Eintrag.
+     */
+    public static OutboxEntry mail(final UUID customerId) {
+        return OutboxEntry.builder()
+            .customerId(customerId)
+            .type(OutboxType.MAIL)
+            .build();
+    }
+}
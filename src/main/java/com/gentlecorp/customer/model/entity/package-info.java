@@ -8,6 +8,9 @@
  *   <li>{@link com.gentlecorp.customer.model.entity.Address} – Repräsentiert eine Kundenadresse.</li>
  *   <li>{@link com.gentlecorp.customer.model.entity.Contact} – Repräsentiert eine Kontaktbeziehung zwischen Kunden.</li>
  *   <li>{@link com.gentlecorp.customer.model.entity.Customer} – Repräsentiert einen Kunden.</li>
+ *   <li>{@link com.gentlecorp.customer.model.entity.LeasedEntry} – Gemeinsame Sicht auf gesperrte Einträge einer Warteschlange.</li>
+ *   <li>{@link com.gentlecorp.customer.model.entity.MailMessage} – Repräsentiert eine noch nicht versendete Mail.</li>
+ *   <li>{@link com.gentlecorp.customer.model.entity.OutboxEntry} – Repräsentiert eine noch nicht zugestellte Nebenwirkung.</li>
  * </ul>
  *
  * @since 13.02.2025
@@ -0,0 +1,16 @@
+package com.gentlecorp.customer.model.enums;
+
+/**
+ * Definiert, wo die Kontakte eines Kunden gespeichert werden.
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+public enum ContactStorageType {
+
+    /** Eigene Collection `Contact`, der Kunde verweist über `contactIds` darauf */
+    COLLECTION,
+    /** Als begrenztes Array `contacts` im Dokument des Kunden */
+    EMBEDDED
+}
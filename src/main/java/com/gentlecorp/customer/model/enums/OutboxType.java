@@ -0,0 +1,16 @@
+package com.gentlecorp.customer.model.enums;
+
+/**
+ * Definiert die Zustellwege für Einträge der Outbox.
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+public enum OutboxType {
+
+    /** Nachricht auf ein Kafka-Topic */
+    KAFKA,
+    /** Begrüßungsmail an den Kunden */
+    MAIL
+}
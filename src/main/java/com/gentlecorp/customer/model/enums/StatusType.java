@@ -10,7 +10,8 @@ import java.util.stream.Stream;
 /**
  * Definiert die möglichen Statusarten eines Kunden.
  * <p>
- * Unterstützt Kurzformen ("A", "B", "I", "C") sowie Langformen ("ACTIVE", "BLOCKED", "INACTIVE", "CLOSED").
+ * Unterstützt Kurzformen ("A", "B", "I", "C", "P") sowie Langformen ("ACTIVE", "BLOCKED", "INACTIVE", "CLOSED",
+ * "PENDING").
  * Optimiert für JSON-Verarbeitung.
  * </p>
  * @since 13.02.2025
@@ -23,7 +24,9 @@ public enum StatusType {
     ACTIVE("A", "ACTIVE"),
     BLOCKED("B", "BLOCKED"),
     INACTIVE("I", "INACTIVE"),
-    CLOSED("C", "CLOSED");
+    CLOSED("C", "CLOSED"),
+    /** Angelegt, aber noch nicht in Keycloak registriert */
+    PENDING("P", "PENDING");
 
     private final String shortValue;
     private final String longValue;
@@ -45,7 +48,7 @@ public enum StatusType {
 
     /**
      * Wandelt einen String-Wert in den entsprechenden Enum-Wert um.
-     * Unterstützt sowohl "A", "B", "I", "C" als auch "ACTIVE", "BLOCKED", "INACTIVE", "CLOSED".
+     * Unterstützt sowohl "A", "B", "I", "C", "P" als auch "ACTIVE", "BLOCKED", "INACTIVE", "CLOSED", "PENDING".
      *
      * @param value der String-Wert des Status.
      * @return der entsprechende Enum-Wert.
@@ -65,7 +68,7 @@ public enum StatusType {
         }
 
         throw new IllegalArgumentException(
-            String.format("Ungültiger Statuswert '%s' für StatusType. Erlaubt: A, B, I, C oder ACTIVE, BLOCKED, INACTIVE, CLOSED", value)
+            String.format("Ungültiger Statuswert '%s' für StatusType. Erlaubt: A, B, I, C, P oder ACTIVE, BLOCKED, INACTIVE, CLOSED, PENDING", value)
         );
     }
 }
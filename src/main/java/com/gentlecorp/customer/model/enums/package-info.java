@@ -7,12 +7,14 @@
  *
  * <ul>
  *   <li>{@link com.gentlecorp.customer.model.enums.ContactOptionsType} – Kontaktmöglichkeiten.</li>
+ *   <li>{@link com.gentlecorp.customer.model.enums.ContactStorageType} – Speicherort der Kontakte.</li>
  *   <li>{@link com.gentlecorp.customer.model.enums.FilterOptions} – Filteroptionen für Abfragen.</li>
  *   <li>{@link com.gentlecorp.customer.model.enums.GenderType} – Geschlechtsoptionen.</li>
  *   <li>{@link com.gentlecorp.customer.model.enums.InterestType} – Interessenbereiche.</li>
  *   <li>{@link com.gentlecorp.customer.model.enums.MaritalStatusType} – Familienstand des Kunden.</li>
  *   <li>{@link com.gentlecorp.customer.model.enums.Operator} – Vergleichsoperatoren für Filter.</li>
  *   <li>{@link com.gentlecorp.customer.model.enums.OrderDirection} – Sortierreihenfolge für Abfragen.</li>
+ *   <li>{@link com.gentlecorp.customer.model.enums.OutboxType} – Zustellwege der Outbox.</li>
  *   <li>{@link com.gentlecorp.customer.model.enums.ProblemType} – Verschiedene Problemtypen.</li>
  *   <li>{@link com.gentlecorp.customer.model.enums.RelationshipType} – Arten von Beziehungen zwischen Kunden.</li>
  *   <li>{@link com.gentlecorp.customer.model.enums.StatusType} – Status eines Kundenkontos.</li>
@@ -0,0 +1,17 @@
+package com.gentlecorp.customer.model.input;
+
+/**
+ * Record zur Definition der Parameter eines Kundenexports.
+ * <p>
+ * Verwendet dieselben Filter- und Sortierparameter wie die GraphQL-Abfrage `customers`.
+ * </p>
+ *
+ * @param filter Die Filterbedingungen (optional).
+ * @param order  Die Sortierkriterien (optional).
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+public record ExportInput(FilterInput filter, SortInput order) {
+}
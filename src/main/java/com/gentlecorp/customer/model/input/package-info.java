@@ -9,6 +9,7 @@
  *   <li>{@link com.gentlecorp.customer.model.input.FilterInput} – Definiert Filterparameter für Abfragen.</li>
  *   <li>{@link com.gentlecorp.customer.model.input.PaginationInput} – Definiert Paginierungseinstellungen.</li>
  *   <li>{@link com.gentlecorp.customer.model.input.SortInput} – Enthält Sortierparameter.</li>
+ *   <li>{@link com.gentlecorp.customer.model.input.ExportInput} – Enthält Filter und Sortierung für Exporte.</li>
  * </ul>
  *
  * @since 13.02.2025
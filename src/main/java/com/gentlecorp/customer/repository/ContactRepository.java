@@ -6,4 +6,14 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import java.util.UUID;
 
 public interface ContactRepository extends MongoRepository<Contact, UUID> {
+
+    /**
+     * Prüft über den Index `(customerId, lastName, firstName)`, ob ein Kunde bereits einen gleichnamigen Kontakt hat.
+     *
+     * @param customerId Die ID des Kunden.
+     * @param lastName   Der Nachname des Kontakts.
+     * @param firstName  Der Vorname des Kontakts.
+     * @return {@code true}, falls ein solcher Kontakt existiert.
+     */
+    boolean existsByCustomerIdAndLastNameAndFirstName(UUID customerId, String lastName, String firstName);
 }
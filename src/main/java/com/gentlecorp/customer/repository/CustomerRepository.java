@@ -1,12 +1,15 @@
 package com.gentlecorp.customer.repository;
 
 import com.gentlecorp.customer.model.entity.Customer;
+import com.gentlecorp.customer.model.enums.StatusType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -39,5 +42,31 @@ public interface CustomerRepository extends MongoRepository<Customer, UUID> {
     boolean existsByEmail(String email);
 
     boolean existsByUsername(String username);
+
+    /**
+     * Prüft, ob ein Kunde außerhalb des angegebenen Zustands die E-Mail-Adresse verwendet.
+     *
+     * @param email         Die E-Mail-Adresse.
+     * @param customerState Der nicht zu berücksichtigende Zustand.
+     * @return {@code true}, falls ein solcher Kunde existiert.
+     */
+    boolean existsByEmailAndCustomerStateNot(String email, StatusType customerState);
+
+    /**
+     * Prüft, ob ein Kunde außerhalb des angegebenen Zustands den Benutzernamen verwendet.
+     *
+     * @param username      Der Benutzername.
+     * @param customerState Der nicht zu berücksichtigende Zustand.
+     * @return {@code true}, falls ein solcher Kunde existiert.
+     */
+    boolean existsByUsernameAndCustomerStateNot(String username, StatusType customerState);
+
+    /**
+     * Findet alle Kunden zu den angegebenen Benutzernamen mit einer `$in`-Abfrage.
+     *
+     * @param usernames Die gesuchten Benutzernamen.
+     * @return Die gefundenen Kunden in beliebiger Reihenfolge.
+     */
+    List<Customer> findByUsernameIn(Collection<String> usernames);
 }
 
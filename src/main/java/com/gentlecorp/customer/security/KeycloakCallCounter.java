@@ -0,0 +1,77 @@
+package com.gentlecorp.customer.security;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.function.Supplier;
+
+/**
+ * Zählt die HTTP-Aufrufe an Keycloak, die innerhalb einer fachlichen Operation anfallen.
+ * <p>
+ * Der Zähler wird als Interceptor im REST-Client des {@link KeycloakRepository} registriert. Innerhalb von
+ * {@link #measure(String, Supplier)} werden alle Aufrufe des aktuellen Threads gezählt und als
+ * `keycloak.calls.per.operation` mit dem Tag `operation` veröffentlicht.
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@Component
+public class KeycloakCallCounter implements ClientHttpRequestInterceptor {
+
+  private final ThreadLocal<int[]> calls = new ThreadLocal<>();
+  private final MeterRegistry meterRegistry;
+
+  /**
+   * Erstellt den Zähler.
+   *
+   * @param meterRegistry Die Registry für Micrometer-Metriken.
+   */
+  public KeycloakCallCounter(final MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * Führt eine Operation aus und erfasst die Anzahl der dabei ausgelösten Keycloak-Aufrufe.
+   *
+   * @param operation Der Name der Operation, z. B. `createCustomer`.
+   * @param action    Die auszuführende Operation.
+   * @param <T>       Der Ergebnistyp der Operation.
+   * @return Das Ergebnis der Operation.
+   */
+  public <T> T measure(final String operation, final Supplier<T> action) {
+    final var previous = calls.get();
+    final var counter = new int[1];
+    calls.set(counter);
+    try {
+      return action.get();
+    } finally {
+      calls.set(previous);
+      DistributionSummary.builder("keycloak.calls.per.operation")
+        .description("Anzahl der Keycloak-Aufrufe je fachlicher Operation")
+        .tag("operation", operation)
+        .register(meterRegistry)
+        .record(counter[0]);
+    }
+  }
+
+  @Override
+  public ClientHttpResponse intercept(
+    final HttpRequest request,
+    final byte[] body,
+    final ClientHttpRequestExecution execution
+  ) throws IOException {
+    final var counter = calls.get();
+    if (counter != null) {
+      counter[0]++;
+    }
+    return execution.execute(request, body);
+  }
+}
@@ -4,6 +4,7 @@ import com.gentlecorp.customer.security.dto.RoleDTO;
 import com.gentlecorp.customer.security.dto.TokenDTO;
 import com.gentlecorp.customer.security.dto.UserInfoDTO;
 import com.gentlecorp.customer.security.dto.UserRepresentation;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
@@ -42,8 +43,11 @@ public interface KeycloakRepository {
     @RequestHeader(CONTENT_TYPE) String contentType
   );
 
+  /**
+   * Legt einen Benutzer an; der `Location`-Header der Antwort enthält die URL mit seiner ID.
+   */
   @PostExchange("auth/admin/realms/camunda-platform/users")
-  void signIn(
+  ResponseEntity<Void> signIn(
     @RequestBody String customer,
     @RequestHeader(AUTHORIZATION) String authorization,
     @RequestHeader(CONTENT_TYPE) String contentType
@@ -91,6 +95,13 @@ public interface KeycloakRepository {
     @PathVariable("userId") String userId
   );
 
+  @GetExchange("auth/admin/realms/camunda-platform/users?first={first}&max={max}&briefRepresentation=true")
+  List<UserRepresentation> getUsers(
+    @RequestHeader(AUTHORIZATION) String authorization,
+    @PathVariable("first") int first,
+    @PathVariable("max") int max
+  );
+
   @GetExchange("auth/admin/realms/camunda-platform/users?username={username}")
   List<UserRepresentation> getUserByUsername(
     @RequestHeader(AUTHORIZATION) String authorization,
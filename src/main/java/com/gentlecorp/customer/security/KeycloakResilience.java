@@ -0,0 +1,128 @@
+package com.gentlecorp.customer.security;
+
+import com.gentlecorp.customer.exception.KeycloakUnavailableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.functions.CheckedSupplier;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.service.annotation.HttpExchange;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Schützt die Aufrufe des {@link KeycloakRepository} mit Bulkhead, Circuit Breaker und Retry von Resilience4j.
+ * <p>
+ * Die Instanzen heißen {@value #INSTANCE} und werden unter `resilience4j.*.instances.keycloak` in der
+ * `application.yaml` konfiguriert. Solange der Circuit Breaker offen ist oder alle Plätze des Bulkheads belegt sind,
+ * schlagen Aufrufe sofort mit einer {@link KeycloakUnavailableException} fehl, statt einen Request-Thread zu
+ * blockieren. Nur idempotente Aufrufe (`GET` und `PUT`) werden wiederholt.
+ * </p>
+ * <p>
+ * Zustand und Metriken stellt der Starter von Resilience4j bereit: `/actuator/health/circuitBreakers` sowie
+ * `resilience4j.circuitbreaker.*`, `resilience4j.bulkhead.*` und `resilience4j.retry.*`.
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@Component
+@Slf4j
+public class KeycloakResilience {
+
+  /**
+   * Name der Resilience4j-Instanzen für Keycloak.
+   */
+  public static final String INSTANCE = "keycloak";
+
+  private static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "PUT");
+
+  private final CircuitBreaker circuitBreaker;
+  private final Bulkhead bulkhead;
+  private final Retry retry;
+  private final Map<Method, Boolean> idempotent;
+
+  /**
+   * Erstellt den Schutz aus den Instanzen {@value #INSTANCE} der Registries.
+   *
+   * @param circuitBreakerRegistry Die Registry der Circuit Breaker.
+   * @param bulkheadRegistry       Die Registry der Bulkheads.
+   * @param retryRegistry          Die Registry der Retries.
+   */
+  public KeycloakResilience(
+    final CircuitBreakerRegistry circuitBreakerRegistry,
+    final BulkheadRegistry bulkheadRegistry,
+    final RetryRegistry retryRegistry
+  ) {
+    circuitBreaker = circuitBreakerRegistry.circuitBreaker(INSTANCE);
+    bulkhead = bulkheadRegistry.bulkhead(INSTANCE);
+    retry = retryRegistry.retry(INSTANCE);
+    idempotent = Arrays.stream(KeycloakRepository.class.getMethods())
+      .collect(Collectors.toUnmodifiableMap(Function.identity(), KeycloakResilience::isIdempotent));
+    circuitBreaker.getEventPublisher().onStateTransition(event ->
+      log.warn("circuitBreaker: {}", event.getStateTransition()));
+  }
+
+  /**
+   * Umhüllt das Repository mit einem Proxy, der jeden Aufruf schützt.
+   *
+   * @param repository Das zu schützende Repository.
+   * @return Das geschützte Repository.
+   */
+  public KeycloakRepository decorate(final KeycloakRepository repository) {
+    return (KeycloakRepository) Proxy.newProxyInstance(
+      KeycloakRepository.class.getClassLoader(),
+      new Class<?>[]{KeycloakRepository.class},
+      (proxy, method, args) -> {
+        if (method.getDeclaringClass() == Object.class) {
+          return method.invoke(repository, args);
+        }
+        return execute(method, () -> {
+          try {
+            return method.invoke(repository, args);
+          } catch (final InvocationTargetException e) {
+            throw e.getCause();
+          }
+        });
+      }
+    );
+  }
+
+  private Object execute(final Method method, final CheckedSupplier<Object> call) throws Throwable {
+    // Wie die Annotationen von Resilience4j: Retry außen, dann Circuit Breaker, innen Bulkhead
+    var decorated = CircuitBreaker.decorateCheckedSupplier(
+      circuitBreaker,
+      Bulkhead.decorateCheckedSupplier(bulkhead, call)
+    );
+    if (idempotent.getOrDefault(method, false)) {
+      decorated = Retry.decorateCheckedSupplier(retry, decorated);
+    }
+    try {
+      return decorated.get();
+    } catch (final CallNotPermittedException e) {
+      throw new KeycloakUnavailableException("Keycloak ist vorübergehend nicht erreichbar");
+    } catch (final BulkheadFullException e) {
+      throw new KeycloakUnavailableException("Zu viele gleichzeitige Aufrufe an Keycloak");
+    }
+  }
+
+  private static boolean isIdempotent(final Method method) {
+    final var exchange = AnnotatedElementUtils.findMergedAnnotation(method, HttpExchange.class);
+    return exchange != null && IDEMPOTENT_METHODS.contains(exchange.method());
+  }
+}
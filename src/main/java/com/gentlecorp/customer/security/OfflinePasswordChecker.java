@@ -0,0 +1,160 @@
+package com.gentlecorp.customer.security;
+
+import org.springframework.security.authentication.password.CompromisedPasswordChecker;
+import org.springframework.security.authentication.password.CompromisedPasswordDecision;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Prüft Passwörter ohne Netzwerkzugriff gegen einen Bloom-Filter kompromittierter SHA-1-Hashes.
+ * <p>
+ * Der Filter wird mit dem {@link PasswordFilterBuilder} aus einer Hash-Liste im Format von
+ * <a href="https://haveibeenpwned.com/Passwords">Have I Been Pwned</a> erzeugt und beim Start nur in den Speicher
+ * eingeblendet (memory-mapped), nicht gelesen; das Betriebssystem lädt die benötigten Seiten bei Bedarf. Eine Prüfung
+ * besteht aus einem SHA-1-Hash und wenigen Bit-Zugriffen. Mit der beim Erzeugen gewählten Wahrscheinlichkeit wird
+ * ein sicheres Passwort fälschlich als kompromittiert gemeldet, ein kompromittiertes aber nie übersehen.
+ * </p>
+ *
+ * <p>
+ * Dateiformat (Big Endian): Magic {@value #MAGIC}, Version, Anzahl der Bits, Anzahl der Hash-Funktionen, Anzahl
+ * der Einträge, danach ab Byte {@value #HEADER_SIZE} die Bits als `long`-Wörter.
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+public final class OfflinePasswordChecker implements CompromisedPasswordChecker {
+
+  /** Kennung der Filterdatei: "PWBF" */
+  static final int MAGIC = 0x50574246;
+  /** Version des Dateiformats */
+  static final int VERSION = 1;
+  /** Größe des Dateikopfs in Bytes */
+  static final int HEADER_SIZE = 32;
+  /** Größe eines eingeblendeten Abschnitts; ein `MappedByteBuffer` ist auf 2 GiB begrenzt */
+  static final int SEGMENT_BITS = 30;
+
+  private static final ThreadLocal<MessageDigest> SHA1 = ThreadLocal.withInitial(OfflinePasswordChecker::sha1);
+
+  private final ByteBuffer[] segments;
+  private final long bits;
+  private final int hashes;
+  private final long entries;
+
+  private OfflinePasswordChecker(final ByteBuffer[] segments, final long bits, final int hashes, final long entries) {
+    this.segments = segments;
+    this.bits = bits;
+    this.hashes = hashes;
+    this.entries = entries;
+  }
+
+  /**
+   * Blendet eine Filterdatei ein.
+   *
+   * @param file Die mit dem {@link PasswordFilterBuilder} erzeugte Datei.
+   * @return Der Checker.
+   * @throws UncheckedIOException Falls die Datei nicht gelesen werden kann.
+   * @throws IllegalArgumentException Falls die Datei kein gültiger Filter ist.
+   */
+  public static OfflinePasswordChecker open(final Path file) {
+    try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      final var header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+      if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+        throw new IllegalArgumentException("Keine Passwort-Filterdatei: " + file);
+      }
+      final var bits = header.getLong();
+      final var hashes = header.getInt();
+      final var entries = header.getLong();
+      final var size = bits / Byte.SIZE;
+      if (bits <= 0 || bits % Long.SIZE != 0 || hashes <= 0 || channel.size() != HEADER_SIZE + size) {
+        throw new IllegalArgumentException("Beschädigte Passwort-Filterdatei: " + file);
+      }
+      return new OfflinePasswordChecker(
+        map(channel, FileChannel.MapMode.READ_ONLY, size),
+        bits,
+        hashes,
+        entries
+      );
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public CompromisedPasswordDecision check(final String password) {
+    if (password == null) {
+      return new CompromisedPasswordDecision(false);
+    }
+    final var digest = SHA1.get().digest(password.getBytes(StandardCharsets.UTF_8));
+    return new CompromisedPasswordDecision(mightContain(digest));
+  }
+
+  /**
+   * Liefert die Anzahl der Hashes, aus denen der Filter erzeugt wurde.
+   *
+   * @return Die Anzahl der Einträge.
+   */
+  public long getEntries() {
+    return entries;
+  }
+
+  boolean mightContain(final byte[] sha1) {
+    final var h1 = toLong(sha1, 0);
+    final var h2 = toLong(sha1, Long.BYTES);
+    for (var i = 0; i < hashes; i++) {
+      final var bit = index(h1, h2, i, bits);
+      final var offset = (bit >>> 6) * Long.BYTES;
+      final var word = segments[(int) (offset >>> SEGMENT_BITS)].getLong((int) (offset & ((1L << SEGMENT_BITS) - 1)));
+      if ((word & 1L << (bit & 63)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Berechnet die Position des `i`-ten Bits nach Kirsch und Mitzenmacher aus zwei Hash-Werten.
+   */
+  static long index(final long h1, final long h2, final int i, final long bits) {
+    return ((h1 + i * h2) & Long.MAX_VALUE) % bits;
+  }
+
+  static long toLong(final byte[] bytes, final int offset) {
+    var result = 0L;
+    for (var i = offset; i < offset + Long.BYTES; i++) {
+      result = result << Byte.SIZE | bytes[i] & 0xFF;
+    }
+    return result;
+  }
+
+  static MappedByteBuffer[] map(final FileChannel channel, final FileChannel.MapMode mode, final long size)
+    throws IOException {
+    final var segmentSize = 1L << SEGMENT_BITS;
+    final var segments = new MappedByteBuffer[(int) ((size + segmentSize - 1) / segmentSize)];
+    for (var i = 0; i < segments.length; i++) {
+      final var position = i * segmentSize;
+      segments[i] = channel.map(mode, HEADER_SIZE + position, Math.min(segmentSize, size - position));
+      segments[i].order(ByteOrder.BIG_ENDIAN);
+    }
+    return segments;
+  }
+
+  private static MessageDigest sha1() {
+    try {
+      return MessageDigest.getInstance("SHA-1");
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
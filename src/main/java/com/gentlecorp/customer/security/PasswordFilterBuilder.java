@@ -0,0 +1,129 @@
+package com.gentlecorp.customer.security;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HexFormat;
+
+import static com.gentlecorp.customer.security.OfflinePasswordChecker.HEADER_SIZE;
+import static com.gentlecorp.customer.security.OfflinePasswordChecker.MAGIC;
+import static com.gentlecorp.customer.security.OfflinePasswordChecker.SEGMENT_BITS;
+import static com.gentlecorp.customer.security.OfflinePasswordChecker.VERSION;
+import static com.gentlecorp.customer.util.Constants.PASSWORD_FILTER_FALSE_POSITIVE_RATE;
+
+/**
+ * Erzeugt die Filterdatei für den {@link OfflinePasswordChecker}.
+ * <p>
+ * Eingabe ist eine Hash-Liste im Format von Have I Been Pwned, d.h. je Zeile ein SHA-1-Hash als Hexadezimalzahl,
+ * optional gefolgt von `:` und der Häufigkeit. Größe und Anzahl der Hash-Funktionen werden aus der Anzahl der
+ * Zeilen und der gewünschten Fehlerrate berechnet; die Datei wird dabei direkt eingeblendet beschrieben, sodass
+ * auch die vollständige Liste ohne großen Heap verarbeitet wird.
+ * </p>
+ * <p>
+ * Aufruf: `./gradlew passwordFilter -Phashes=pwned-passwords-sha1.txt -Pfilter=password-filter.bin [-Pfpp=0.001]`
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@Slf4j
+public final class PasswordFilterBuilder {
+
+  private static final int SHA1_HEX_LENGTH = 40;
+
+  private PasswordFilterBuilder() {
+  }
+
+  /**
+   * Kommandozeilenaufruf.
+   *
+   * @param args Hash-Liste, Zieldatei und optional die Fehlerrate.
+   * @throws IOException Falls eine der Dateien nicht gelesen oder geschrieben werden kann.
+   */
+  public static void main(final String[] args) throws IOException {
+    if (args.length < 2) {
+      log.error("Aufruf: PasswordFilterBuilder <hashes.txt> <filter.bin> [fpp]");
+      System.exit(1);
+    }
+    final var fpp = args.length > 2 ? Double.parseDouble(args[2]) : PASSWORD_FILTER_FALSE_POSITIVE_RATE;
+    build(Path.of(args[0]), Path.of(args[1]), fpp);
+  }
+
+  /**
+   * Erzeugt die Filterdatei.
+   *
+   * @param hashes Die Hash-Liste.
+   * @param target Die Filterdatei; sie wird überschrieben.
+   * @param fpp    Die gewünschte Wahrscheinlichkeit, ein sicheres Passwort als kompromittiert zu melden.
+   * @return Die Anzahl der eingetragenen Hashes.
+   * @throws IOException Falls eine der Dateien nicht gelesen oder geschrieben werden kann.
+   */
+  public static long build(final Path hashes, final Path target, final double fpp) throws IOException {
+    if (fpp <= 0 || fpp >= 1) {
+      throw new IllegalArgumentException("Die Fehlerrate muss zwischen 0 und 1 liegen: " + fpp);
+    }
+    final long entries;
+    try (var lines = Files.lines(hashes, StandardCharsets.US_ASCII)) {
+      entries = lines.filter(line -> !line.isBlank()).count();
+    }
+    final var n = Math.max(entries, 1);
+    // m = -n ln(p) / ln(2)², auf ganze `long`-Wörter aufgerundet; k = m/n ln(2)
+    final var optimalBits = (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+    final var bits = (optimalBits + Long.SIZE - 1) / Long.SIZE * Long.SIZE;
+    final var hashFunctions = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+    log.info("build: entries={}, bits={}, hashes={}, size={} MiB", entries, bits, hashFunctions, bits >>> 23);
+
+    Files.deleteIfExists(target);
+    try (var channel = FileChannel.open(
+      target,
+      StandardOpenOption.CREATE_NEW,
+      StandardOpenOption.READ,
+      StandardOpenOption.WRITE
+    )) {
+      final var header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.BIG_ENDIAN)
+        .putInt(MAGIC)
+        .putInt(VERSION)
+        .putLong(bits)
+        .putInt(hashFunctions)
+        .putLong(entries)
+        .flip();
+      channel.write(header, 0);
+
+      final var segments = OfflinePasswordChecker.map(channel, FileChannel.MapMode.READ_WRITE, bits / Byte.SIZE);
+      final var hex = HexFormat.of();
+      try (var reader = Files.newBufferedReader(hashes, StandardCharsets.US_ASCII)) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          if (line.isBlank()) {
+            continue;
+          }
+          if (line.length() < SHA1_HEX_LENGTH) {
+            throw new IllegalArgumentException("Kein SHA-1-Hash: " + line);
+          }
+          final var sha1 = hex.parseHex(line, 0, SHA1_HEX_LENGTH);
+          final var h1 = OfflinePasswordChecker.toLong(sha1, 0);
+          final var h2 = OfflinePasswordChecker.toLong(sha1, Long.BYTES);
+          for (var i = 0; i < hashFunctions; i++) {
+            final var bit = OfflinePasswordChecker.index(h1, h2, i, bits);
+            final var offset = (bit >>> 6) * Long.BYTES;
+            final var segment = segments[(int) (offset >>> SEGMENT_BITS)];
+            final var position = (int) (offset & ((1L << SEGMENT_BITS) - 1));
+            segment.putLong(position, segment.getLong(position) | 1L << (bit & 63));
+          }
+        }
+      }
+      for (final var segment : segments) {
+        segment.force();
+      }
+    }
+    return entries;
+  }
+}
@@ -10,6 +10,10 @@
  *   <li>{@link com.gentlecorp.customer.security.CustomUserDetails} – Enthält benutzerdefinierte Benutzerinformationen.</li>
  *   <li>{@link com.gentlecorp.customer.security.JwtToUserDetailsConverter} – Konvertiert ein JWT in `UserDetails`.</li>
  *   <li>{@link com.gentlecorp.customer.security.KeycloakRepository} – Kommuniziert mit dem Keycloak-Server.</li>
+ *   <li>{@link com.gentlecorp.customer.security.KeycloakCallCounter} – Zählt die Keycloak-Aufrufe je fachlicher Operation.</li>
+ *   <li>{@link com.gentlecorp.customer.security.KeycloakResilience} – Schützt die Keycloak-Aufrufe mit Bulkhead, Circuit Breaker und Retry von Resilience4j.</li>
+ *   <li>{@link com.gentlecorp.customer.security.OfflinePasswordChecker} – Prüft Passwörter offline gegen einen Filter bekannter Datenlecks.</li>
+ *   <li>{@link com.gentlecorp.customer.security.PasswordFilterBuilder} – Erzeugt den Filter aus einer Hash-Liste.</li>
  * </ul>
  *
  * <p>
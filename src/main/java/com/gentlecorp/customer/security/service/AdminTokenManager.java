@@ -0,0 +1,226 @@
+package com.gentlecorp.customer.security.service;
+
+import com.gentlecorp.customer.security.dto.TokenDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static com.gentlecorp.customer.util.Constants.ADMIN_TOKEN_EXPIRY_SKEW;
+
+/**
+ * Verwaltet das Admin-Token für Aufrufe der Keycloak-Admin-API.
+ * <p>
+ * Das Token wird beim ersten Zugriff geholt, zwischengespeichert und nach drei Vierteln seiner Laufzeit im
+ * Hintergrund erneuert, sofern es seit der letzten Erneuerung verwendet wurde; bevorzugt über das Refresh-Token
+ * und sonst über eine erneute Anmeldung. Es läuft immer höchstens eine Erneuerung gleichzeitig; andere Aufrufer
+ * warten auf deren Ergebnis.
+ * </p>
+ * <p>
+ * Lehnt Keycloak das Token vor seinem Ablauf ab, z.B. nach einem Neustart oder dem Widerruf der Sitzung, verwerfen
+ * {@link #withToken(Function)} und {@link #runWithToken(Consumer)} es und wiederholen den Aufruf einmal mit einem
+ * neuen Token.
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@Service
+@Slf4j
+public class AdminTokenManager {
+
+  private static final String ADMIN_USERNAME = "admin";
+  private static final String ADMIN_PASSWORD = "p";
+
+  private final KeycloakTokenClient keycloakTokenClient;
+  private final ReentrantLock refreshLock = new ReentrantLock();
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+    Thread.ofPlatform().name("keycloak-admin-token").daemon().factory()
+  );
+
+  private volatile CachedToken current;
+  /** Gibt an, ob das Token seit der letzten Erneuerung im Hintergrund verwendet wurde */
+  private volatile boolean used;
+  private ScheduledFuture<?> scheduledRefresh;
+
+  /**
+   * Erstellt den Token-Manager.
+   *
+   * @param keycloakTokenClient Der Client für die Token-Anfragen.
+   */
+  public AdminTokenManager(final KeycloakTokenClient keycloakTokenClient) {
+    this.keycloakTokenClient = keycloakTokenClient;
+  }
+
+  /**
+   * Liefert ein gültiges Admin-Zugriffstoken.
+   *
+   * @return Das Zugriffstoken ohne `Bearer`-Präfix.
+   */
+  public String getToken() {
+    used = true;
+    final var token = current;
+    if (token != null && token.isValid()) {
+      return token.accessToken();
+    }
+
+    refreshLock.lock();
+    try {
+      // Ein anderer Thread kann das Token inzwischen erneuert haben
+      final var refreshed = current;
+      if (refreshed != null && refreshed.isValid()) {
+        return refreshed.accessToken();
+      }
+      return refresh().accessToken();
+    } finally {
+      refreshLock.unlock();
+    }
+  }
+
+  /**
+   * Ruft die Admin-API mit einem gültigen Token auf; bei `401 Unauthorized` einmal mit einem neuen Token.
+   *
+   * @param call Der Aufruf, der das Token ohne `Bearer`-Präfix erhält.
+   * @param <T>  Der Typ des Ergebnisses.
+   * @return Das Ergebnis des Aufrufs.
+   */
+  public <T> T withToken(final Function<String, T> call) {
+    final var token = getToken();
+    try {
+      return call.apply(token);
+    } catch (final HttpClientErrorException.Unauthorized e) {
+      log.debug("withToken: admin token rejected, retrying with a new token");
+      invalidate(token);
+      return call.apply(getToken());
+    }
+  }
+
+  /**
+   * Ruft die Admin-API ohne Ergebnis mit einem gültigen Token auf; bei `401 Unauthorized` einmal mit einem neuen
+   * Token.
+   *
+   * @param call Der Aufruf, der das Token ohne `Bearer`-Präfix erhält.
+   */
+  public void runWithToken(final Consumer<String> call) {
+    withToken(token -> {
+      call.accept(token);
+      return null;
+    });
+  }
+
+  /**
+   * Verwirft ein abgelehntes Token, damit der nächste Zugriff ein neues holt.
+   *
+   * @param token Das abgelehnte Zugriffstoken; ein inzwischen erneuertes Token bleibt erhalten.
+   */
+  public void invalidate(final String token) {
+    refreshLock.lock();
+    try {
+      final var cached = current;
+      if (cached != null && cached.accessToken().equals(token)) {
+        current = null;
+      }
+    } finally {
+      refreshLock.unlock();
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    scheduler.shutdownNow();
+  }
+
+  private void refreshInBackground() {
+    if (!used) {
+      // Ohne Zugriffe kein Token vorhalten; der nächste Aufrufer holt es synchron
+      log.trace("refreshInBackground: idle, skipping");
+      return;
+    }
+    used = false;
+    refreshLock.lock();
+    try {
+      refresh();
+    } catch (final RuntimeException e) {
+      // Beim nächsten Zugriff wird das Token synchron geholt
+      log.warn("refreshInBackground: failed", e);
+    } finally {
+      refreshLock.unlock();
+    }
+  }
+
+  private CachedToken refresh() {
+    // Aufruf nur unter `refreshLock`
+    final var previous = current;
+    TokenDTO tokenDTO = null;
+    if (previous != null && previous.canRefresh()) {
+      try {
+        tokenDTO = keycloakTokenClient.refresh(previous.refreshToken());
+        log.debug("refresh: refreshed admin token");
+      } catch (final RuntimeException e) {
+        log.debug("refresh: refresh token rejected, logging in again", e);
+      }
+    }
+    if (tokenDTO == null) {
+      tokenDTO = keycloakTokenClient.login(ADMIN_USERNAME, ADMIN_PASSWORD);
+      log.debug("refresh: obtained new admin token");
+    }
+
+    final var token = CachedToken.of(tokenDTO, Instant.now());
+    current = token;
+    schedule(token);
+    return token;
+  }
+
+  private void schedule(final CachedToken token) {
+    if (scheduledRefresh != null) {
+      scheduledRefresh.cancel(false);
+    }
+    final var delay = Duration.between(Instant.now(), token.refreshAt());
+    scheduledRefresh = scheduler.schedule(
+      this::refreshInBackground,
+      Math.max(delay.toMillis(), 0),
+      TimeUnit.MILLISECONDS
+    );
+  }
+
+  /**
+   * Ein zwischengespeichertes Token mit seinen Ablaufzeitpunkten.
+   */
+  private record CachedToken(
+    String accessToken,
+    Instant expiresAt,
+    Instant refreshAt,
+    String refreshToken,
+    Instant refreshExpiresAt
+  ) {
+    static CachedToken of(final TokenDTO token, final Instant issuedAt) {
+      final var lifetime = Duration.ofSeconds(token.expires_in());
+      return new CachedToken(
+        token.access_token(),
+        issuedAt.plus(lifetime),
+        issuedAt.plus(lifetime.multipliedBy(3).dividedBy(4)),
+        token.refresh_token(),
+        issuedAt.plusSeconds(token.refresh_expires_in())
+      );
+    }
+
+    boolean isValid() {
+      return Instant.now().plus(ADMIN_TOKEN_EXPIRY_SKEW).isBefore(expiresAt);
+    }
+
+    boolean canRefresh() {
+      return refreshToken != null && Instant.now().plus(ADMIN_TOKEN_EXPIRY_SKEW).isBefore(refreshExpiresAt);
+    }
+  }
+}
@@ -1,22 +1,20 @@
 package com.gentlecorp.customer.security.service;
 
-import com.gentlecorp.customer.KeycloakProps;
 import com.gentlecorp.customer.exception.NotFoundException;
 import com.gentlecorp.customer.exception.SignUpException;
 import com.gentlecorp.customer.model.entity.Customer;
 import com.gentlecorp.customer.security.KeycloakRepository;
 import com.gentlecorp.customer.security.dto.TokenDTO;
 import com.gentlecorp.customer.security.dto.UserRepresentation;
-import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
 
-import java.nio.charset.Charset;
-import java.util.Base64;
+import java.net.URI;
+import java.util.List;
 
-import static org.springframework.http.MediaType.APPLICATION_FORM_URLENCODED_VALUE;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
 /**
@@ -24,6 +22,10 @@ import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
  * <p>
  * Dieser Service ermöglicht Benutzerregistrierung, Authentifizierung und Rollenverwaltung über Keycloak.
  * </p>
+ * <p>
+ * Nur Fehler der HTTP-Aufrufe ({@link RestClientException}) werden übersetzt; eine
+ * {@link com.gentlecorp.customer.exception.KeycloakUnavailableException} erreicht den Aufrufer unverändert.
+ * </p>
  *
  * @since 14.02.2025
  * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
@@ -35,20 +37,10 @@ import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 public class KeycloakService {
 
   private final KeycloakRepository keycloakRepository;
-  private final KeycloakProps keycloakProps;
-  private String clientAndSecretEncoded;
+  private final KeycloakTokenClient keycloakTokenClient;
   private final JwtService jwtService;
-
-  /**
-   * Kodiert die Client-ID und das Client-Secret für die Authentifizierung mit Keycloak.
-   */
-  @PostConstruct
-  private void encodeClientAndSecret() {
-    final var clientAndSecret = keycloakProps.clientId() + ':' + keycloakProps.clientSecret();
-    clientAndSecretEncoded = Base64
-      .getEncoder()
-      .encodeToString(clientAndSecret.getBytes(Charset.defaultCharset()));
-  }
+  private final AdminTokenManager adminTokenManager;
+  private final RoleDirectory roleDirectory;
 
   /**
    * Meldet einen Benutzer mit Benutzername und Passwort bei Keycloak an.
@@ -58,33 +50,51 @@ public class KeycloakService {
    * @return Ein `TokenDTO`, das ein Zugriffstoken enthält.
    */
   public TokenDTO login(final String username, final String password) {
-    return keycloakRepository.login(
-      "grant_type=password&username=" + username
-        + "&password=" + password
-        + "&client_id=" + keycloakProps.clientId()
-        + "&client_secret=" + keycloakProps.clientSecret()
-        + "&scope=openid",
-      "Basic " + clientAndSecretEncoded,
-      APPLICATION_FORM_URLENCODED_VALUE
-    );
+    return keycloakTokenClient.login(username, password);
+  }
+
+  /**
+   * Ermittelt die Keycloak-ID eines Benutzers über seinen Benutzernamen.
+   * <p>
+   * Wird nur für Kunden benötigt, bei denen die ID noch nicht gespeichert ist.
+   * </p>
+   *
+   * @param authToken Das Token inklusive `Bearer`-Präfix.
+   * @param username  Der Benutzername.
+   * @return Die ID des Benutzers in Keycloak.
+   * @throws NotFoundException Falls kein Benutzer mit dem Benutzernamen existiert.
+   */
+  public String findUserId(final String authToken, final String username) {
+    final var userList = keycloakRepository.getUserByUsername(authToken, username);
+    log.debug("findUserId: users={}", userList);
+    return userList.stream()
+      .filter(user -> username.equalsIgnoreCase(user.username()))
+      .map(UserRepresentation::id)
+      .findFirst().orElseThrow(() -> new NotFoundException(username));
   }
 
   /**
-   * Ruft das Admin-Token aus Keycloak ab.
+   * Liefert eine Seite aller Benutzer des Realms.
    *
-   * @return Das Zugriffstoken für den Admin.
+   * @param first Der Index des ersten Benutzers.
+   * @param max   Die maximale Anzahl an Benutzern.
+   * @return Die Benutzer der Seite; weniger als `max`, wenn keine weiteren folgen.
    */
-  private String getAdminToken() {
-    log.debug("getAdminToken");
-    final var adminToken = login("admin", "p");
-    return adminToken.access_token();
+  public List<UserRepresentation> findUsers(final int first, final int max) {
+    log.debug("findUsers: first={}, max={}", first, max);
+    return adminTokenManager.withToken(token -> keycloakRepository.getUsers("Bearer " + token, first, max));
   }
 
-  private String getUserInfo(final String token) {
-    // log.debug("getUserInfo: token={}", token);
+  private String getUserId(final Customer customer, final String authToken, final String username) {
+    return customer.getKeycloakId() != null ? customer.getKeycloakId() : findUserId(authToken, username);
+  }
 
-    final var info = keycloakRepository.userInfo("Bearer " + token, APPLICATION_FORM_URLENCODED_VALUE);
-    return info.sub();
+  private static String getUserIdFromLocation(final URI location) {
+    if (location == null) {
+      throw new SignUpException("Missing Location header");
+    }
+    final var path = location.getPath();
+    return path.substring(path.lastIndexOf('/') + 1);
   }
 
   /**
@@ -93,8 +103,9 @@ public class KeycloakService {
    * @param customer Die Kundendaten.
    * @param password Das Passwort des Kunden.
    * @param role     Die zugewiesene Rolle.
+   * @return Die ID des angelegten Benutzers in Keycloak.
    */
-  public void signIn(final Customer customer, final String password, final String role) {
+  public String signIn(final Customer customer, final String password, final String role) {
     log.debug("signIn: customer data prepared for registration");
     // log.debug("signIn: customer={}", customer.getUsername());
 
@@ -124,21 +135,22 @@ public class KeycloakService {
 
     try {
       // Register user in Keycloak and get user ID
-      keycloakRepository.signIn(
+      final var response = adminTokenManager.withToken(token -> keycloakRepository.signIn(
         customerData,
-        "Bearer " + getAdminToken(),
+        "Bearer " + token,
         APPLICATION_JSON_VALUE
-      );
+      ));
       log.info("signIn: Customer registered in Keycloak");
 
-      final var accessToken = login(customer.getUsername(), password).access_token();
-      final var userId = getUserInfo(accessToken);
+      // Die ID steht im Location-Header; ein Login samt userinfo-Aufruf ist dafür nicht nötig
+      final var userId = getUserIdFromLocation(response.getHeaders().getLocation());
       log.debug("signIn: userId={}", userId);
 
       // Assign role to user
       assignRoleToUser(userId, role);
+      return userId;
 
-    } catch (Exception e) {
+    } catch (final RestClientException e) {
       log.error("Error during user registration: ", e);
       throw new SignUpException("User registration failed: " + e.getMessage());
     }
@@ -147,8 +159,7 @@ public class KeycloakService {
   private void assignRoleToUser(String userId, String roleName) {
     log.debug("Assigning role {} to user {}", roleName, userId);
 
-    final var token = getAdminToken();
-    final var roleId = getRole(roleName, token);
+    final var roleId = roleDirectory.getRoleId(roleName);
 
     // JSON data for role assignment
     final var roleData = """
@@ -160,34 +171,17 @@ public class KeycloakService {
 
     log.debug("roleData={}", roleData);
     try {
-      keycloakRepository.assignRoleToUser(
+      adminTokenManager.runWithToken(token -> keycloakRepository.assignRoleToUser(
         roleData,
-        "Bearer " + getAdminToken(),
+        "Bearer " + token,
         APPLICATION_JSON_VALUE,
         userId
-      );
+      ));
 
-    } catch (Exception e) {
+    } catch (final RestClientException e) {
       log.error("Error assigning role to user: ", e);
-      throw new RuntimeException("Failed to assign role to user: " + e.getMessage());
-    }
-  }
-
-  private String getRole(final String roleName, final String token) {
-    log.debug("getRole: roleName={}", roleName);
-    // log.debug("getRole: roleName={}, token={}", roleName, token);
-
-    final var roles = keycloakRepository.getRoles("Bearer " + token, APPLICATION_JSON_VALUE);
-    log.debug("getRole: roles={}", roles);
-
-    final var role = roles.stream()
-      .filter(r -> r.name().equals(roleName)).findFirst().orElse(null);
-
-    if (role == null) {
-      throw new RuntimeException("RoleDTO not found: " + roleName);
+      throw new SignUpException("Failed to assign role to user: " + e.getMessage());
     }
-    log.debug("getRole: role={}", role);
-    return role.id();
   }
 
   public void update(final Customer customer, final Jwt jwt, final boolean isAdmin, final String oldUsername) {
@@ -196,11 +190,7 @@ public class KeycloakService {
     // Retrieve user ID based on access token
     String userId;
     if (isAdmin)  {
-      final var token = "Bearer " + jwt.getTokenValue();
-      final var userList = keycloakRepository.getUserByUsername(token, oldUsername);
-      userId = userList.stream()
-        .map(UserRepresentation::id)
-        .findFirst().orElseThrow(() -> new NotFoundException(customer.getUsername()));
+      userId = getUserId(customer, "Bearer " + jwt.getTokenValue(), oldUsername);
     } else {
        userId = jwtService.getUserID(jwt);
     }
@@ -222,18 +212,16 @@ public class KeycloakService {
     );
     log.debug("update: userData={}", userData);
 
-    final var adminToken = isAdmin
-      ? jwt.getTokenValue()
-      : getAdminToken();
     try {
       // Call repository to update user in Keycloak
-      keycloakRepository.updateUser(
-        userData,
-        "Bearer " + adminToken,
-        APPLICATION_JSON_VALUE,
-        userId
-      );
-    } catch (Exception e) {
+      if (isAdmin) {
+        keycloakRepository.updateUser(userData, "Bearer " + jwt.getTokenValue(), APPLICATION_JSON_VALUE, userId);
+      } else {
+        adminTokenManager.runWithToken(token ->
+          keycloakRepository.updateUser(userData, "Bearer " + token, APPLICATION_JSON_VALUE, userId)
+        );
+      }
+    } catch (final RestClientException e) {
       log.error("Error updating user: ", e);
       throw new RuntimeException("Failed to update user: " + e.getMessage());
     }
@@ -255,26 +243,22 @@ public class KeycloakService {
     //  log.debug("updatePassword: passwordData={}", passwordData);
 
     try {
-      keycloakRepository.updateUserPassword(
+      adminTokenManager.runWithToken(token -> keycloakRepository.updateUserPassword(
         passwordData,
-        "Bearer " + getAdminToken(),
+        "Bearer " + token,
         APPLICATION_JSON_VALUE,
         userId
-      );
-    } catch (Exception e) {
+      ));
+    } catch (final RestClientException e) {
       log.error("Error updating password for user {}: ", userId, e);
       throw new RuntimeException("Failed to update password for user: " + e.getMessage());
     }
   }
 
-  public void delete(final String token, final String username) {
-    log.debug("delete: username={}", username);
+  public void delete(final String token, final Customer customer) {
+    log.debug("delete: username={}", customer.getUsername());
     final var authToken = String.format("Bearer %s", token);
-    final var userList = keycloakRepository.getUserByUsername(authToken, username);
-    log.debug("delete: users={}", userList);
-    final var userId = userList.stream()
-      .map(UserRepresentation::id)
-      .findFirst().orElseThrow(() -> new NotFoundException(username));
+    final var userId = getUserId(customer, authToken, customer.getUsername());
 
     log.debug("delete: userId={}", userId);
     keycloakRepository.deleteUser(authToken, userId);
@@ -0,0 +1,84 @@
+package com.gentlecorp.customer.security.service;
+
+import com.gentlecorp.customer.KeycloakProps;
+import com.gentlecorp.customer.security.KeycloakRepository;
+import com.gentlecorp.customer.security.dto.TokenDTO;
+import org.springframework.stereotype.Component;
+
+import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.util.Base64;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.springframework.http.MediaType.APPLICATION_FORM_URLENCODED_VALUE;
+
+/**
+ * Fordert Tokens am Token-Endpunkt von Keycloak an.
+ * <p>
+ * Jede Anfrage authentifiziert den Client per `Basic`-Header und im Formular; {@link KeycloakService} und
+ * {@link AdminTokenManager} teilen sich diesen Aufbau.
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@Component
+public class KeycloakTokenClient {
+
+  private final KeycloakRepository keycloakRepository;
+  private final KeycloakProps keycloakProps;
+  private final String clientAndSecretEncoded;
+
+  /**
+   * Erstellt den Client und kodiert die Client-Zugangsdaten für den `Basic`-Header.
+   *
+   * @param keycloakRepository Das Repository für die Token-Anfragen.
+   * @param keycloakProps      Die Client-Zugangsdaten für Keycloak.
+   */
+  public KeycloakTokenClient(final KeycloakRepository keycloakRepository, final KeycloakProps keycloakProps) {
+    this.keycloakRepository = keycloakRepository;
+    this.keycloakProps = keycloakProps;
+    final var clientAndSecret = keycloakProps.clientId() + ':' + keycloakProps.clientSecret();
+    clientAndSecretEncoded = Base64
+      .getEncoder()
+      .encodeToString(clientAndSecret.getBytes(Charset.defaultCharset()));
+  }
+
+  /**
+   * Meldet einen Benutzer mit Benutzername und Passwort an.
+   *
+   * @param username Der Benutzername.
+   * @param password Das Passwort.
+   * @return Ein `TokenDTO` mit Zugriffs- und Refresh-Token.
+   */
+  public TokenDTO login(final String username, final String password) {
+    return request(
+      "grant_type=password&username=" + encode(username) + "&password=" + encode(password) + "&scope=openid"
+    );
+  }
+
+  /**
+   * Erneuert ein Token über sein Refresh-Token.
+   *
+   * @param refreshToken Das Refresh-Token.
+   * @return Ein `TokenDTO` mit den neuen Tokens.
+   */
+  public TokenDTO refresh(final String refreshToken) {
+    return request("grant_type=refresh_token&refresh_token=" + encode(refreshToken));
+  }
+
+  private TokenDTO request(final String grant) {
+    return keycloakRepository.login(
+      grant
+        + "&client_id=" + encode(keycloakProps.clientId())
+        + "&client_secret=" + encode(keycloakProps.clientSecret()),
+      "Basic " + clientAndSecretEncoded,
+      APPLICATION_FORM_URLENCODED_VALUE
+    );
+  }
+
+  private static String encode(final String value) {
+    return URLEncoder.encode(value, UTF_8);
+  }
+}
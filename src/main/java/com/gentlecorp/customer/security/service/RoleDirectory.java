@@ -0,0 +1,115 @@
+package com.gentlecorp.customer.security.service;
+
+import com.gentlecorp.customer.security.KeycloakRepository;
+import com.gentlecorp.customer.security.dto.RoleDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.gentlecorp.customer.util.Constants.ROLE_DIRECTORY_REFRESH_INTERVAL;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+/**
+ * Verzeichnis der Realm-Rollen aus Keycloak, geschlüsselt nach Rollenname.
+ * <p>
+ * Die Rollen werden beim Start geladen und alle
+ * {@link com.gentlecorp.customer.util.Constants#ROLE_DIRECTORY_REFRESH_INTERVAL} sowie bei einem unbekannten
+ * Rollennamen neu eingelesen. Die Zuweisung einer Rolle benötigt dadurch nur noch den Aufruf für das Role-Mapping.
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@Service
+@Slf4j
+public class RoleDirectory {
+
+  private final KeycloakRepository keycloakRepository;
+  private final AdminTokenManager adminTokenManager;
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+    Thread.ofPlatform().name("keycloak-roles").daemon().factory()
+  );
+
+  private volatile Map<String, String> roleIds = Map.of();
+
+  /**
+   * Erstellt das Rollenverzeichnis.
+   *
+   * @param keycloakRepository Das Repository für das Laden der Rollen.
+   * @param adminTokenManager  Liefert das Admin-Token für die Admin-API.
+   */
+  public RoleDirectory(final KeycloakRepository keycloakRepository, final AdminTokenManager adminTokenManager) {
+    this.keycloakRepository = keycloakRepository;
+    this.adminTokenManager = adminTokenManager;
+  }
+
+  /**
+   * Lädt die Rollen beim Start und plant die regelmäßige Aktualisierung.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  void start() {
+    reloadQuietly();
+    final var interval = ROLE_DIRECTORY_REFRESH_INTERVAL.toMillis();
+    scheduler.scheduleWithFixedDelay(this::reloadQuietly, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    scheduler.shutdownNow();
+  }
+
+  /**
+   * Liefert die Keycloak-ID einer Realm-Rolle.
+   *
+   * @param roleName Der Name der Rolle, z. B. `Basic`.
+   * @return Die ID der Rolle.
+   * @throws RuntimeException Falls die Rolle auch nach dem Neuladen nicht existiert.
+   */
+  public String getRoleId(final String roleName) {
+    final var roleId = roleIds.get(roleName);
+    if (roleId != null) {
+      return roleId;
+    }
+    return reloadAndGet(roleName);
+  }
+
+  private synchronized String reloadAndGet(final String roleName) {
+    // Ein gleichzeitiger Aufruf kann die Rollen bereits neu geladen haben
+    var roleId = roleIds.get(roleName);
+    if (roleId == null) {
+      log.debug("reloadAndGet: unknown role {}", roleName);
+      reload();
+      roleId = roleIds.get(roleName);
+    }
+    if (roleId == null) {
+      throw new RuntimeException("RoleDTO not found: " + roleName);
+    }
+    return roleId;
+  }
+
+  private void reloadQuietly() {
+    try {
+      reload();
+    } catch (final RuntimeException e) {
+      // Beim nächsten unbekannten Rollennamen wird erneut geladen
+      log.warn("reloadQuietly: loading roles failed: {}", e.getMessage());
+    }
+  }
+
+  private synchronized void reload() {
+    final var roles = adminTokenManager.withToken(token ->
+      keycloakRepository.getRoles("Bearer " + token, APPLICATION_JSON_VALUE)
+    );
+    roleIds = roles.stream().collect(Collectors.toUnmodifiableMap(RoleDTO::name, RoleDTO::id, (first, second) -> first));
+    log.debug("reload: roles={}", roleIds.keySet());
+  }
+}
@@ -7,6 +7,9 @@
  * <ul>
  *   <li>{@link com.gentlecorp.customer.security.service.JwtUserDetailsService} – Erstellt Benutzerdetails aus JWTs.</li>
  *   <li>{@link com.gentlecorp.customer.security.service.KeycloakService} – Verwaltet Benutzeranmeldung und Registrierung über Keycloak.</li>
+ *   <li>{@link com.gentlecorp.customer.security.service.AdminTokenManager} – Hält das Admin-Token für die Keycloak-Admin-API vor.</li>
+ *   <li>{@link com.gentlecorp.customer.security.service.KeycloakTokenClient} – Fordert Tokens am Token-Endpunkt von Keycloak an.</li>
+ *   <li>{@link com.gentlecorp.customer.security.service.RoleDirectory} – Hält die IDs der Realm-Rollen vor.</li>
  *   <li>{@link com.gentlecorp.customer.security.service.JwtService} – Verarbeitet JWT-Token und extrahiert Benutzerinformationen.</li>
  * </ul>
  *
@@ -0,0 +1,110 @@
+package com.gentlecorp.customer.service;
+
+import com.gentlecorp.customer.model.entity.Contact;
+import com.gentlecorp.customer.model.entity.Customer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import static com.gentlecorp.customer.util.Constants.CONTACT_BACKFILL_BATCH_SIZE;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Trägt den Rückverweis `customerId` bei Kontakten nach, die vor Einführung des Feldes angelegt wurden.
+ * <p>
+ * Zuerst wird der Index `(customerId, lastName, firstName)` aus der Annotation an {@link Contact} angelegt. Danach
+ * werden die Kunden mit Kontakten gestreamt und die `customerId` je {@value
+ * com.gentlecorp.customer.util.Constants#CONTACT_BACKFILL_BATCH_SIZE} Kunden mit einer Bulk-Operation gesetzt. Der
+ * Job ist idempotent und überspringt sich selbst, wenn alle Kontakte bereits einen Rückverweis haben. Bis er
+ * durchgelaufen ist, findet die Duplikatprüfung nur migrierte Kontakte; das Löschen eines Kunden erfasst über
+ * `contactIds` auch die übrigen.
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ContactCustomerIdBackfill {
+
+    private static final String CUSTOMER_ID = "customerId";
+    private static final String CONTACT_IDS = "contactIds";
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Startet das Nachtragen nach dem Hochfahren der Anwendung.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void run() {
+        ensureIndexes();
+        if (!mongoTemplate.exists(query(where(CUSTOMER_ID).exists(false)), Contact.class)) {
+            log.debug("run: all contacts have a customerId");
+            return;
+        }
+
+        try {
+            final var updated = backfill();
+            log.info("run: customerId set for {} contacts", updated);
+        } catch (final RuntimeException e) {
+            // Ohne Rückverweis werden die Kontakte beim nächsten Ändern oder Start migriert
+            log.warn("run: backfill failed: {}", e.getMessage());
+        }
+    }
+
+    private void ensureIndexes() {
+        final var resolver = new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        final var indexOps = mongoTemplate.indexOps(Contact.class);
+        resolver.resolveIndexFor(Contact.class).forEach(index -> {
+            try {
+                indexOps.ensureIndex(index);
+            } catch (final RuntimeException e) {
+                // z.B. bereits doppelte Kontakte: die Duplikatprüfung fragt dann ohne Index
+                log.error("ensureIndexes: index {} could not be created: {}", index.getIndexKeys(), e.getMessage());
+            }
+        });
+    }
+
+    private long backfill() {
+        final var customers = new Query(where(CONTACT_IDS + ".0").exists(true));
+        customers.fields().include(CONTACT_IDS);
+
+        long updated = 0;
+        var pending = 0;
+        BulkOperations bulk = null;
+        try (var stream = mongoTemplate.stream(customers, Customer.class)) {
+            for (final var iterator = stream.iterator(); iterator.hasNext(); ) {
+                final var customer = iterator.next();
+                if (bulk == null) {
+                    bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, Contact.class);
+                }
+                bulk.updateMulti(
+                    query(where("_id").in(customer.getContactIds()).and(CUSTOMER_ID).exists(false)),
+                    Update.update(CUSTOMER_ID, customer.getId())
+                );
+                if (++pending == CONTACT_BACKFILL_BATCH_SIZE) {
+                    updated += bulk.execute().getModifiedCount();
+                    bulk = null;
+                    pending = 0;
+                }
+            }
+        }
+        if (bulk != null) {
+            updated += bulk.execute().getModifiedCount();
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,274 @@
+package com.gentlecorp.customer.service;
+
+import com.gentlecorp.customer.model.entity.Contact;
+import com.gentlecorp.customer.model.entity.Customer;
+import com.gentlecorp.customer.model.enums.ContactStorageType;
+import com.gentlecorp.customer.repository.ContactRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.gentlecorp.customer.model.enums.ContactStorageType.EMBEDDED;
+import static com.gentlecorp.customer.util.Constants.CONTACT_EMBED_ATTEMPTS;
+import static com.gentlecorp.customer.util.Constants.MAX_EMBEDDED_CONTACTS;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Legt fest, wo die Kontakte der Kunden gespeichert werden, und migriert Kunden zwischen beiden Layouts.
+ * <p>
+ * Mit `app.contacts.storage=EMBEDDED` liegen die Kontakte als begrenztes Array `contacts` im Dokument des Kunden, so
+ * dass ein Kunde samt Kontakten mit einem Zugriff gelesen wird. Mit `COLLECTION` (Standard) liegen sie wie bisher in
+ * der Collection `Contact`. In beiden Fällen bleibt `contactIds` die Liste der zugeordneten Kontakte.
+ * </p>
+ * <p>
+ * Nach dem Start werden alle Kunden im anderen Layout im Hintergrund umgestellt; Schreibzugriffe auf die Kontakte
+ * eines noch nicht umgestellten Kunden stellen ihn vorher selbst um. Jede Umstellung ist über die Version des
+ * Kunden abgesichert und kann bei einem Konflikt gefahrlos wiederholt werden; beim Einbetten werden die Kontakte
+ * zudem nur in ihrer gelesenen Version aus der Collection gelöscht. Lesende Zugriffe bedienen beide
+ * Layouts: ist `contacts` gesetzt, wird es verwendet, sonst werden die Kontakte über `contactIds` geladen.
+ * </p>
+ * <p>
+ * Kunden mit mehr als {@value com.gentlecorp.customer.util.Constants#MAX_EMBEDDED_CONTACTS} Kontakten werden nicht
+ * eingebettet, damit das Array begrenzt bleibt; sie bleiben im Layout `COLLECTION` und werden beim Start gemeldet.
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@Component
+@Slf4j
+public class ContactStorage {
+
+    private static final String CONTACTS = "contacts";
+    private static final String CONTACT_IDS = "contactIds";
+
+    private final ContactStorageType storageType;
+    private final MongoTemplate mongoTemplate;
+    private final ContactRepository contactRepository;
+    private final CustomerPatcher customerPatcher;
+    private final CustomerCache customerCache;
+    private final CustomerCacheInvalidator customerCacheInvalidator;
+
+    /**
+     * Erstellt die Komponente für das konfigurierte Layout.
+     *
+     * @param storageType              Das Layout aus `app.contacts.storage`.
+     * @param mongoTemplate            Das Template für die Migration.
+     * @param contactRepository        Das Repository der Collection `Contact`.
+     * @param customerPatcher          Schreibt die Umstellung eines Kunden versionsgeprüft.
+     * @param customerCache            Der lokale Kunden-Cache.
+     * @param customerCacheInvalidator Gleicht die Caches der übrigen Instanzen ab.
+     */
+    public ContactStorage(
+        @Value("${app.contacts.storage:COLLECTION}") final ContactStorageType storageType,
+        final MongoTemplate mongoTemplate,
+        final ContactRepository contactRepository,
+        final CustomerPatcher customerPatcher,
+        final CustomerCache customerCache,
+        final CustomerCacheInvalidator customerCacheInvalidator
+    ) {
+        this.storageType = storageType;
+        this.mongoTemplate = mongoTemplate;
+        this.contactRepository = contactRepository;
+        this.customerPatcher = customerPatcher;
+        this.customerCache = customerCache;
+        this.customerCacheInvalidator = customerCacheInvalidator;
+    }
+
+    /**
+     * Liefert, ob die Kontakte im Dokument des Kunden eingebettet werden.
+     *
+     * @return {@code true} für {@link ContactStorageType#EMBEDDED}.
+     */
+    public boolean isEmbedded() {
+        return storageType == EMBEDDED;
+    }
+
+    /**
+     * Liefert, ob die Kontakte eines bestimmten Kunden eingebettet sind bzw. beim nächsten Schreiben eingebettet
+     * werden.
+     * <p>
+     * Neben dem konfigurierten Layout zählt der gespeicherte Stand: ein Kunde mit zu vielen Kontakten bleibt auch im
+     * Modus `EMBEDDED` in der Collection `Contact`.
+     * </p>
+     *
+     * @param customer Der gespeicherte Kunde, ggf. bereits über {@link #migrate(Customer)} umgestellt.
+     * @return {@code true}, falls Kontakte im Array `contacts` des Kunden gelesen und geschrieben werden.
+     */
+    public boolean isEmbedded(final Customer customer) {
+        return customer.getContacts() != null || isEmbedded() && !hasContacts(customer);
+    }
+
+    /**
+     * Stellt einen Kunden auf das konfigurierte Layout um, falls er noch im anderen gespeichert ist.
+     *
+     * @param customer Der gespeicherte Kunde.
+     * @return Der Kunde im konfigurierten Layout, ggf. in einer neuen Version.
+     * @throws com.gentlecorp.customer.exception.VersionOutdatedException Falls der Kunde inzwischen geändert wurde.
+     */
+    public Customer migrate(final Customer customer) {
+        final Customer migrated;
+        if (isEmbedded() && customer.getContacts() == null && hasContacts(customer)) {
+            if (customer.getContactIds().size() > MAX_EMBEDDED_CONTACTS) {
+                log.debug("migrate: id={} has {} contacts and keeps the COLLECTION layout", customer.getId(),
+                    customer.getContactIds().size());
+                return customer;
+            }
+            migrated = embed(customer);
+        } else if (!isEmbedded() && customer.getContacts() != null) {
+            migrated = unembed(customer);
+        } else {
+            return customer;
+        }
+        customerCache.put(migrated);
+        customerCacheInvalidator.publish(migrated);
+        return migrated;
+    }
+
+    /**
+     * Stellt nach dem Start alle Kunden im anderen Layout um.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateAll() {
+        if (isEmbedded()) {
+            // `contactIds.<n>` existiert genau dann, wenn der Kunde mehr als n Kontakte hat
+            final var oversized = mongoTemplate.count(
+                query(where(CONTACTS).exists(false).and(CONTACT_IDS + "." + MAX_EMBEDDED_CONTACTS).exists(true)),
+                Customer.class
+            );
+            if (oversized > 0) {
+                log.warn("migrateAll: {} customers have more than {} contacts and keep the COLLECTION layout",
+                    oversized, MAX_EMBEDDED_CONTACTS);
+            }
+        }
+        final var pending = isEmbedded()
+            ? query(where(CONTACTS).exists(false)
+                .and(CONTACT_IDS + ".0").exists(true)
+                .and(CONTACT_IDS + "." + MAX_EMBEDDED_CONTACTS).exists(false))
+            : query(where(CONTACTS).exists(true));
+        if (!mongoTemplate.exists(pending, Customer.class)) {
+            log.debug("migrateAll: all customers use the {} layout", storageType);
+            return;
+        }
+
+        var migrated = 0;
+        var failed = 0;
+        try (var customers = mongoTemplate.stream(pending, Customer.class)) {
+            for (final var iterator = customers.iterator(); iterator.hasNext(); ) {
+                try {
+                    migrate(iterator.next());
+                    migrated++;
+                } catch (final RuntimeException e) {
+                    // Z. B. gleichzeitig geändert: der Kunde wird beim nächsten Schreibzugriff oder Start umgestellt
+                    failed++;
+                    log.debug("migrateAll: {}", e.getMessage());
+                }
+            }
+        } catch (final RuntimeException e) {
+            log.warn("migrateAll: migration aborted: {}", e.getMessage());
+        }
+        log.info("migrateAll: {} customers migrated to the {} layout, {} failed", migrated, storageType, failed);
+    }
+
+    /**
+     * Bettet die Kontakte ein und löscht sie danach nur in der gelesenen Version aus der Collection.
+     * <p>
+     * Ein Kontakt, den eine andere Instanz nach dem Lesen noch in der Collection geändert hat, bleibt dort erhalten;
+     * sein neuer Stand wird unter der neuen Version des Kunden nachgetragen und erst dann gelöscht.
+     * </p>
+     */
+    private Customer embed(final Customer customer) {
+        final Map<UUID, Contact> contacts = new HashMap<>(findContacts(customer.getContactIds()));
+        var updated = customerPatcher.update(customer.getId(), customer.getVersion(), embedUpdate(customer, contacts));
+        var pending = contacts.values();
+        for (var attempt = 1; ; attempt++) {
+            final var changed = deleteUnchanged(pending);
+            if (changed.isEmpty()) {
+                break;
+            }
+            if (attempt == CONTACT_EMBED_ATTEMPTS) {
+                log.error("embed: id={}, contacts {} keep changing and remain in the collection", customer.getId(),
+                    changed.keySet());
+                throw new OptimisticLockingFailureException("Contacts of customer " + customer.getId()
+                    + " were modified concurrently");
+            }
+            log.debug("embed: id={}, contacts {} were modified concurrently", customer.getId(), changed.keySet());
+            contacts.putAll(changed);
+            updated = customerPatcher.update(updated.getId(), updated.getVersion(), embedUpdate(updated, contacts));
+            pending = changed.values();
+        }
+        log.trace("embed: id={}, contacts={}", customer.getId(), contacts.size());
+        return updated;
+    }
+
+    private Map<UUID, Contact> findContacts(final Collection<UUID> ids) {
+        return contactRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Contact::getId, Function.identity()));
+    }
+
+    private static Update embedUpdate(final Customer customer, final Map<UUID, Contact> contacts) {
+        final var embedded = customer.getContactIds().stream()
+            .map(contacts::get)
+            .filter(Objects::nonNull)
+            .toList();
+        embedded.forEach(contact -> contact.setCustomerId(customer.getId()));
+        return new Update().set(CONTACTS, embedded);
+    }
+
+    /**
+     * Löscht die Kontakte, die noch in der eingebetteten Version in der Collection liegen.
+     *
+     * @return Die übrigen Kontakte im inzwischen geänderten Stand.
+     */
+    private Map<UUID, Contact> deleteUnchanged(final Collection<Contact> contacts) {
+        if (contacts.isEmpty()) {
+            return Map.of();
+        }
+        final var bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, Contact.class);
+        contacts.forEach(contact -> bulk.remove(
+            query(where("_id").is(contact.getId()).and("version").is(contact.getVersion()))
+        ));
+        if (bulk.execute().getDeletedCount() == contacts.size()) {
+            return Map.of();
+        }
+        return findContacts(contacts.stream().map(Contact::getId).toList());
+    }
+
+    private Customer unembed(final Customer customer) {
+        if (!customer.getContacts().isEmpty()) {
+            // Ersetzen statt `save`: die Kontakte haben bereits eine Version und wären für Spring Data nicht neu
+            final var bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, Contact.class);
+            customer.getContacts().forEach(contact -> {
+                contact.setCustomerId(customer.getId());
+                bulk.replaceOne(query(where("_id").is(contact.getId())), contact, FindAndReplaceOptions.options().upsert());
+            });
+            bulk.execute();
+        }
+        final var updated = customerPatcher.update(customer.getId(), customer.getVersion(), new Update().unset(CONTACTS));
+        log.trace("unembed: id={}, contacts={}", customer.getId(), customer.getContacts().size());
+        return updated;
+    }
+
+    private static boolean hasContacts(final Customer customer) {
+        return customer.getContactIds() != null && !customer.getContactIds().isEmpty();
+    }
+}
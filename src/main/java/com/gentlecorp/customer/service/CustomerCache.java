@@ -0,0 +1,227 @@
+package com.gentlecorp.customer.service;
+
+import com.gentlecorp.customer.model.entity.Customer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.gentlecorp.customer.util.Constants.CUSTOMER_CACHE_MAX_WEIGHT;
+import static com.gentlecorp.customer.util.Constants.CUSTOMER_CACHE_TTL;
+
+/**
+ * Read-Through-Cache für Kunden, geschlüsselt nach der Kunden-ID.
+ * <p>
+ * Die Verdrängung erfolgt über Caffeine (W-TinyLFU) anhand eines geschätzten Gewichts je Kunde, Einträge
+ * verfallen spätestens nach {@link com.gentlecorp.customer.util.Constants#CUSTOMER_CACHE_TTL}. Neue Einträge
+ * ersetzen vorhandene nur, wenn ihre `version` nicht älter ist, und Invalidierungen mit Versionsangabe entfernen
+ * nur ältere Einträge. Treffer, Fehlschläge und Verdrängungen werden als Metriken unter `cache.*` mit dem
+ * Tag `cache=customer` veröffentlicht.
+ * </p>
+ * <p>
+ * Eine Invalidierung, die eintrifft, während ein Kunde geladen wird, findet noch keinen Eintrag. Jede
+ * Invalidierung erhöht daher zuvor einen Zähler für einen Streifen von IDs; hat er sich während des Ladens
+ * geändert, wird der geladene, möglicherweise veraltete Stand wieder verworfen.
+ * </p>
+ * <p>
+ * Da `Customer` veränderlich ist, werden nur Kopien gespeichert und herausgegeben; eingebettete Kontakte werden
+ * dabei mitkopiert, weil sie ebenfalls veränderlich sind.
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@Component
+@Slf4j
+public class CustomerCache {
+
+    private static final String CACHE_NAME = "customer";
+    /** Anzahl der Streifen, auf die die IDs für die Erkennung von Invalidierungen verteilt werden */
+    private static final int STRIPES = 1024;
+
+    private final Cache<UUID, Customer> customers = Caffeine.newBuilder()
+        .maximumWeight(CUSTOMER_CACHE_MAX_WEIGHT)
+        .weigher(CustomerCache::weigh)
+        .expireAfterWrite(CUSTOMER_CACHE_TTL)
+        .recordStats()
+        .build();
+    /** Invalidierungen je Streifen von IDs */
+    private final AtomicLongArray invalidations = new AtomicLongArray(STRIPES);
+    /** Invalidierungen aller Kunden */
+    private final AtomicLong invalidatedAll = new AtomicLong();
+
+    /**
+     * Registriert die Cache-Metriken.
+     *
+     * @param meterRegistry Die Registry für Micrometer-Metriken.
+     */
+    public CustomerCache(final MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, customers, CACHE_NAME);
+    }
+
+    /**
+     * Liefert einen Kunden aus dem Cache oder lädt ihn bei einem Fehlschlag.
+     * <p>
+     * Der Loader wird außerhalb des Caches aufgerufen, damit er gleichzeitige Fehlschläge selbst bündeln kann
+     * (siehe {@link CustomerLookupCoalescer}).
+     * </p>
+     *
+     * @param id     Die Kunden-ID.
+     * @param loader Lädt den Kunden aus der Datenbank.
+     * @return Eine Kopie des Kunden oder ein leeres `Optional`, falls er nicht existiert.
+     */
+    public Optional<Customer> get(final UUID id, final Function<UUID, Optional<Customer>> loader) {
+        final var cached = customers.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(copy(cached));
+        }
+
+        log.trace("get: miss id={}", id);
+        final var stamp = stamp(id);
+        final var customer = loader.apply(id);
+        customer.ifPresent(loaded -> putLoaded(loaded, stamp));
+        return customer.map(CustomerCache::copy);
+    }
+
+    /**
+     * Liefert mehrere Kunden aus dem Cache und lädt die fehlenden gemeinsam nach.
+     *
+     * @param ids    Die Kunden-IDs.
+     * @param loader Lädt die fehlenden Kunden mit einer Abfrage aus der Datenbank.
+     * @return Kopien der gefundenen Kunden, geschlüsselt nach ihrer ID; nicht vorhandene IDs fehlen.
+     */
+    public Map<UUID, Customer> getAll(
+        final Collection<UUID> ids,
+        final Function<Set<UUID>, Collection<Customer>> loader
+    ) {
+        final Map<UUID, Customer> result = new HashMap<>();
+        customers.getAllPresent(ids).forEach((id, customer) -> result.put(id, copy(customer)));
+
+        final var missing = new HashSet<>(ids);
+        missing.removeAll(result.keySet());
+        if (!missing.isEmpty()) {
+            log.trace("getAll: missing={}", missing.size());
+            final Map<UUID, Long> stamps = new HashMap<>();
+            missing.forEach(id -> stamps.put(id, stamp(id)));
+            loader.apply(missing).forEach(customer -> {
+                putLoaded(customer, stamps.get(customer.getId()));
+                result.put(customer.getId(), copy(customer));
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Übernimmt den gespeicherten Stand eines Kunden, sofern der Cache keine neuere Version enthält.
+     *
+     * @param customer Der gespeicherte Kunde.
+     * @return Der übergebene Kunde.
+     */
+    public Customer put(final Customer customer) {
+        log.trace("put: id={}, version={}", customer.getId(), customer.getVersion());
+        merge(copy(customer));
+        return customer;
+    }
+
+    /**
+     * Entfernt einen Kunden, sofern der Eintrag älter als die angegebene Version ist.
+     *
+     * @param id      Die Kunden-ID.
+     * @param version Die aktuelle Version des Kunden in der Datenbank.
+     */
+    public void invalidate(final UUID id, final int version) {
+        log.trace("invalidate: id={}, version={}", id, version);
+        invalidations.incrementAndGet(stripe(id));
+        customers.asMap().computeIfPresent(id, (key, cached) -> cached.getVersion() < version ? null : cached);
+    }
+
+    /**
+     * Entfernt einen Kunden unabhängig von seiner Version, z. B. nach dem Löschen.
+     *
+     * @param id Die Kunden-ID.
+     */
+    public void invalidate(final UUID id) {
+        log.trace("invalidate: id={}", id);
+        invalidations.incrementAndGet(stripe(id));
+        customers.invalidate(id);
+    }
+
+    /**
+     * Entfernt alle Kunden, z. B. nachdem Dokumente direkt in der Datenbank geändert wurden.
+     */
+    public void invalidateAll() {
+        log.trace("invalidateAll");
+        invalidatedAll.incrementAndGet();
+        customers.invalidateAll();
+    }
+
+    private void putLoaded(final Customer customer, final long stamp) {
+        final var id = customer.getId();
+        final var loaded = copy(customer);
+        merge(loaded);
+        if (stamp(id) != stamp) {
+            // Während des Ladens invalidiert: der geladene Stand kann bereits veraltet sein
+            log.trace("putLoaded: invalidated while loading id={}", id);
+            customers.asMap().remove(id, loaded);
+        }
+    }
+
+    private void merge(final Customer customer) {
+        customers.asMap().merge(
+            customer.getId(),
+            customer,
+            (cached, updated) -> updated.getVersion() >= cached.getVersion() ? updated : cached
+        );
+    }
+
+    private long stamp(final UUID id) {
+        // Beide Zähler wachsen nur, daher ändert jede Invalidierung die Summe
+        return invalidations.get(stripe(id)) + invalidatedAll.get();
+    }
+
+    private static int stripe(final UUID id) {
+        return id.hashCode() & (STRIPES - 1);
+    }
+
+    private static int weigh(final UUID id, final Customer customer) {
+        // Grobe Schätzung: das Dokument selbst plus die Listen, deren Länge je Kunde variiert
+        return 1 + size(customer.getContactIds()) + size(customer.getContacts()) + size(customer.getInterests())
+            + size(customer.getContactOptions());
+    }
+
+    private static int size(final List<?> list) {
+        return list == null ? 0 : list.size();
+    }
+
+    private static Customer copy(final Customer customer) {
+        return customer.toBuilder()
+            .contactIds(copy(customer.getContactIds()))
+            .contacts(customer.getContacts() == null ? null : customer.getContacts().stream()
+                .map(contact -> contact.toBuilder().build())
+                .collect(Collectors.toCollection(ArrayList::new)))
+            .interests(copy(customer.getInterests()))
+            .contactOptions(copy(customer.getContactOptions()))
+            .build();
+    }
+
+    private static <T> List<T> copy(final List<T> list) {
+        return list == null ? null : new ArrayList<>(list);
+    }
+}
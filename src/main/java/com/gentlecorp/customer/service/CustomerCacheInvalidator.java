@@ -0,0 +1,166 @@
+package com.gentlecorp.customer.service;
+
+import com.gentlecorp.customer.model.dto.CustomerInvalidationDTO;
+import com.gentlecorp.customer.model.entity.Customer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static com.gentlecorp.customer.util.Constants.CUSTOMER_INVALIDATION_TOPIC;
+
+/**
+ * Gleicht den {@link CustomerCache} aller Instanzen über Kafka ab.
+ * <p>
+ * Nach jeder Änderung wird `{customerId, version, email, username}` auf
+ * {@value com.gentlecorp.customer.util.Constants#CUSTOMER_INVALIDATION_TOPIC} veröffentlicht, mit der Kunden-ID
+ * als Schlüssel, damit Ereignisse zu einem Kunden geordnet bleiben. Jede Instanz liest das Topic in einer eigenen
+ * Consumer-Gruppe ab dem aktuellen Ende und entfernt veraltete Einträge; der eigene, bereits aktuelle Eintrag der
+ * schreibenden Instanz bleibt dabei erhalten. E-Mail-Adresse und Benutzername werden in den
+ * {@link CustomerUniquenessFilter} eingetragen, damit er auch Änderungen anderer Instanzen kennt. Ein Ereignis
+ * ohne Kunden-ID leert den Cache jeder Instanz vollständig.
+ * </p>
+ * <p>
+ * Die Veröffentlichung folgt auf bereits gespeicherte Änderungen und lässt sie deshalb nie scheitern: Ist der Broker
+ * nicht erreichbar, blockiert `send` höchstens `max.block.ms` (siehe `application.yaml`), der Fehler wird nur
+ * protokolliert und als `customer.cache.invalidation.failed` gezählt.
+ * </p>
+ * <p>
+ * Die Zeit zwischen Veröffentlichung und Invalidierung wird als `customer.cache.invalidation.lag` gemessen.
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@Component
+@Slf4j
+public class CustomerCacheInvalidator {
+
+    private final CustomerCache customerCache;
+    private final CustomerUniquenessFilter customerUniquenessFilter;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final Timer lag;
+    private final Counter failedSends;
+
+    /**
+     * Erstellt den Invalidator und registriert seine Metriken.
+     *
+     * @param customerCache            Der lokale Kunden-Cache.
+     * @param customerUniquenessFilter Der lokale Filter für die Eindeutigkeitsprüfung.
+     * @param kafkaTemplate            Das Template zum Veröffentlichen der Ereignisse.
+     * @param meterRegistry            Die Registry für Micrometer-Metriken.
+     */
+    public CustomerCacheInvalidator(
+        final CustomerCache customerCache,
+        final CustomerUniquenessFilter customerUniquenessFilter,
+        final KafkaTemplate<String, Object> kafkaTemplate,
+        final MeterRegistry meterRegistry
+    ) {
+        this.customerCache = customerCache;
+        this.customerUniquenessFilter = customerUniquenessFilter;
+        this.kafkaTemplate = kafkaTemplate;
+        lag = Timer.builder("customer.cache.invalidation.lag")
+            .description("Zeit zwischen der Änderung eines Kunden und der Invalidierung in dieser Instanz")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        failedSends = Counter.builder("customer.cache.invalidation.failed")
+            .description("Nicht veröffentlichte Invalidierungen")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Meldet den gespeicherten Stand eines Kunden an alle Instanzen.
+     *
+     * @param customer Der gespeicherte Kunde.
+     */
+    public void publish(final Customer customer) {
+        send(new CustomerInvalidationDTO(
+            customer.getId(),
+            customer.getVersion(),
+            false,
+            customer.getEmail(),
+            customer.getUsername()
+        ));
+    }
+
+    /**
+     * Meldet einen gelöschten Kunden an alle Instanzen.
+     *
+     * @param id Die ID des gelöschten Kunden.
+     */
+    public void publishDeleted(final UUID id) {
+        send(new CustomerInvalidationDTO(id, 0, true, null, null));
+    }
+
+    /**
+     * Meldet allen Instanzen, dass sie sämtliche zwischengespeicherten Kunden entfernen sollen.
+     * <p>
+     * Für Änderungen, die ohne einzelne Kunden-IDs in MongoDB geschrieben werden, z.B. durch
+     * {@link KeycloakIdBackfill}.
+     * </p>
+     */
+    public void publishAll() {
+        send(new CustomerInvalidationDTO(null, 0, false, null, null));
+    }
+
+    /**
+     * Verarbeitet ein Invalidierungsereignis einer beliebigen Instanz.
+     *
+     * @param event     Das Ereignis.
+     * @param timestamp Der Zeitstempel des Kafka-Records in Millisekunden.
+     */
+    @KafkaListener(
+        topics = CUSTOMER_INVALIDATION_TOPIC,
+        groupId = "#{'customer-cache-' + T(java.util.UUID).randomUUID()}",
+        properties = "auto.offset.reset=latest"
+    )
+    void onInvalidation(
+        @Payload final CustomerInvalidationDTO event,
+        @Header(KafkaHeaders.RECEIVED_TIMESTAMP) final long timestamp
+    ) {
+        log.trace("onInvalidation: event={}", event);
+        if (event.customerId() == null) {
+            customerCache.invalidateAll();
+        } else if (event.deleted()) {
+            customerCache.invalidate(event.customerId());
+        } else {
+            customerCache.invalidate(event.customerId(), event.version());
+            customerUniquenessFilter.add(event.email(), event.username());
+        }
+        lag.record(Duration.between(Instant.ofEpochMilli(timestamp), Instant.now()));
+    }
+
+    private void send(final CustomerInvalidationDTO event) {
+        log.trace("send: event={}", event);
+        final var key = event.customerId() == null ? null : event.customerId().toString();
+        try {
+            kafkaTemplate.send(CUSTOMER_INVALIDATION_TOPIC, key, event)
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        failed(event, ex);
+                    }
+                });
+        } catch (final RuntimeException e) {
+            // Die Änderung ist bereits gespeichert: der Aufrufer erhält keinen Fehler, z. B. nach Ablauf von
+            // `max.block.ms` ohne erreichbaren Broker
+            failed(event, e);
+        }
+    }
+
+    private void failed(final CustomerInvalidationDTO event, final Throwable ex) {
+        // Andere Instanzen bereinigen den Eintrag spätestens nach Ablauf der TTL
+        log.warn("send: invalidation for {} failed", event.customerId(), ex);
+        failedSends.increment();
+    }
+}
@@ -0,0 +1,187 @@
+package com.gentlecorp.customer.service;
+
+import com.gentlecorp.customer.model.entity.Customer;
+import com.gentlecorp.customer.repository.CustomerRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.gentlecorp.customer.util.Constants.CUSTOMER_LOOKUP_MAX_BATCH_SIZE;
+import static com.gentlecorp.customer.util.Constants.CUSTOMER_LOOKUP_THREADS;
+import static com.gentlecorp.customer.util.Constants.CUSTOMER_LOOKUP_TIMEOUT;
+import static com.gentlecorp.customer.util.Constants.CUSTOMER_LOOKUP_WINDOW;
+
+/**
+ * Bündelt gleichzeitige Einzelabfragen von Kunden zu einer `$in`-Abfrage.
+ * <p>
+ * Anfragen für verschiedene IDs, die innerhalb von {@link com.gentlecorp.customer.util.Constants#CUSTOMER_LOOKUP_WINDOW}
+ * eintreffen, werden gemeinsam geladen; ein volles Bündel wird sofort abgeschickt. Gleichzeitige Anfragen für
+ * dieselbe ID warten auf dieselbe Abfrage (Single-Flight), jeder Aufrufer jedoch höchstens
+ * {@link com.gentlecorp.customer.util.Constants#CUSTOMER_LOOKUP_TIMEOUT}.
+ * </p>
+ * <p>
+ * Metriken: `customer.lookup.batch.size` (IDs je Abfrage) und `customer.lookup.coalescing.ratio`
+ * (bediente Anfragen je Abfrage).
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@Component
+@Slf4j
+public class CustomerLookupCoalescer {
+
+    private final CustomerRepository customerRepository;
+    private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(
+        CUSTOMER_LOOKUP_THREADS,
+        Thread.ofPlatform().name("customer-lookup-", 0).daemon().factory()
+    );
+    private final DistributionSummary batchSize;
+    private final DistributionSummary coalescingRatio;
+
+    private final Object lock = new Object();
+    /** Alle noch nicht beantworteten IDs mit ihrem Bündel */
+    private final Map<UUID, Batch> inFlight = new HashMap<>();
+    /** Das Bündel, das noch auf weitere IDs wartet */
+    private Batch pending;
+
+    /**
+     * Erstellt den Coalescer und registriert seine Metriken.
+     *
+     * @param customerRepository Das Repository für den gebündelten Zugriff.
+     * @param meterRegistry      Die Registry für Micrometer-Metriken.
+     */
+    public CustomerLookupCoalescer(final CustomerRepository customerRepository, final MeterRegistry meterRegistry) {
+        this.customerRepository = customerRepository;
+        batchSize = DistributionSummary.builder("customer.lookup.batch.size")
+            .description("Anzahl der IDs je gebündelter Abfrage")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        coalescingRatio = DistributionSummary.builder("customer.lookup.coalescing.ratio")
+            .description("Anzahl der bedienten Einzelanfragen je gebündelter Abfrage")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    /**
+     * Lädt einen Kunden, gegebenenfalls gemeinsam mit gleichzeitig angefragten Kunden.
+     * <p>
+     * Der zurückgegebene Kunde kann mit anderen Aufrufern geteilt sein und darf nicht verändert werden.
+     * </p>
+     *
+     * @param id Die Kunden-ID.
+     * @return Der Kunde oder ein leeres `Optional`, falls er nicht existiert.
+     * @throws QueryTimeoutException Falls die Abfrage nicht rechtzeitig beantwortet wird.
+     */
+    public Optional<Customer> findById(final UUID id) {
+        final CompletableFuture<Optional<Customer>> future;
+        synchronized (lock) {
+            var batch = inFlight.get(id);
+            if (batch == null) {
+                batch = enqueue(id);
+            }
+            batch.requests++;
+            future = batch.futures.get(id);
+        }
+
+        try {
+            // Die Kopie begrenzt nur die eigene Wartezeit, nicht die der anderen Aufrufer
+            return future.copy().orTimeout(CUSTOMER_LOOKUP_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS).join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new QueryTimeoutException("Customer lookup timed out after " + CUSTOMER_LOOKUP_TIMEOUT, e);
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private Batch enqueue(final UUID id) {
+        // Aufruf nur unter `lock`
+        if (pending == null) {
+            final var batch = new Batch();
+            pending = batch;
+            executor.schedule(() -> dispatch(batch), CUSTOMER_LOOKUP_WINDOW.toNanos(), TimeUnit.NANOSECONDS);
+        }
+
+        final var batch = pending;
+        batch.futures.put(id, new CompletableFuture<>());
+        inFlight.put(id, batch);
+        if (batch.futures.size() >= CUSTOMER_LOOKUP_MAX_BATCH_SIZE) {
+            pending = null;
+            executor.execute(() -> load(batch));
+        }
+        return batch;
+    }
+
+    private void dispatch(final Batch batch) {
+        synchronized (lock) {
+            if (pending != batch) {
+                // Bereits wegen voller Größe abgeschickt
+                return;
+            }
+            pending = null;
+        }
+        load(batch);
+    }
+
+    private void load(final Batch batch) {
+        final Map<UUID, Customer> customers = new HashMap<>();
+        Exception failure = null;
+        try {
+            // Die Menge der IDs ist nach dem Abschicken unveränderlich
+            customerRepository.findAllById(batch.futures.keySet())
+                .forEach(customer -> customers.put(customer.getId(), customer));
+        } catch (final RuntimeException e) {
+            failure = e;
+        }
+
+        final int requests;
+        synchronized (lock) {
+            batch.futures.keySet().forEach(inFlight::remove);
+            requests = batch.requests;
+        }
+        batchSize.record(batch.futures.size());
+        coalescingRatio.record(requests);
+        log.trace("load: ids={}, requests={}, found={}", batch.futures.size(), requests, customers.size());
+
+        for (final var entry : batch.futures.entrySet()) {
+            if (failure == null) {
+                entry.getValue().complete(Optional.ofNullable(customers.get(entry.getKey())));
+            } else {
+                entry.getValue().completeExceptionally(failure);
+            }
+        }
+    }
+
+    /**
+     * Ein Bündel von IDs, die mit einer gemeinsamen Abfrage geladen werden.
+     */
+    private static final class Batch {
+        private final Map<UUID, CompletableFuture<Optional<Customer>>> futures = new HashMap<>();
+        /** Anzahl der Aufrufer, die auf dieses Bündel warten; nur unter `lock` verändert */
+        private int requests;
+    }
+}
@@ -0,0 +1,116 @@
+package com.gentlecorp.customer.service;
+
+import com.gentlecorp.customer.model.entity.OutboxEntry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Speichert die Nebenwirkungen einer Kundenänderung gemeinsam mit der Änderung in der Outbox.
+ * <p>
+ * Änderung und Outbox-Einträge werden in einer MongoDB-Transaktion geschrieben: Entweder sind beide dauerhaft
+ * gespeichert oder keines von beiden. Kafka-Nachrichten und Mails verschickt anschließend der {@link OutboxRelay},
+ * der nach dem Commit sofort angestoßen wird; die Mutation wartet nicht auf die Zustellung.
+ * </p>
+ * <p>
+ * Transaktionen setzen ein Replica Set oder einen Sharded Cluster voraus. Auf einem Standalone-Server werden
+ * Änderung und Einträge nacheinander geschrieben; ein Absturz dazwischen kann dann Nebenwirkungen verlieren.
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@Component
+@Slf4j
+public class CustomerOutbox {
+
+    private final MongoTemplate mongoTemplate;
+    private final OutboxRelay outboxRelay;
+    private final TransactionTemplate transactionTemplate;
+    private volatile Boolean transactional;
+
+    /**
+     * Erstellt die Outbox.
+     *
+     * @param mongoTemplate   Das Template für den Zugriff auf die Outbox.
+     * @param databaseFactory Die Factory für MongoDB-Sitzungen der Transaktionen.
+     * @param outboxRelay     Das Relay, das nach dem Schreiben angestoßen wird.
+     */
+    public CustomerOutbox(
+        final MongoTemplate mongoTemplate,
+        final MongoDatabaseFactory databaseFactory,
+        final OutboxRelay outboxRelay
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.outboxRelay = outboxRelay;
+        // Bewusst keine Bean: `@Transactional` der Services soll nicht auf MongoDB-Transaktionen umgestellt werden
+        transactionTemplate = new TransactionTemplate(new MongoTransactionManager(databaseFactory));
+    }
+
+    /**
+     * Führt eine Kundenänderung aus und speichert die zugehörigen Outbox-Einträge atomar mit ihr.
+     *
+     * @param change  Die Änderung, z. B. das Speichern des Kunden.
+     * @param entries Die Nebenwirkungen in der Reihenfolge, in der sie zugestellt werden sollen.
+     * @param <T>     Der Ergebnistyp der Änderung.
+     * @return Das Ergebnis der Änderung.
+     */
+    public <T> T write(final Supplier<T> change, final List<OutboxEntry> entries) {
+        if (!isTransactional()) {
+            final var result = change.get();
+            insert(entries);
+            outboxRelay.wakeUp();
+            return result;
+        }
+
+        return transactionTemplate.execute(status -> {
+            final var result = change.get();
+            insert(entries);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    outboxRelay.wakeUp();
+                }
+            });
+            return result;
+        });
+    }
+
+    private void insert(final List<OutboxEntry> entries) {
+        final var now = Instant.now();
+        for (var i = 0; i < entries.size(); i++) {
+            final var entry = entries.get(i);
+            entry.setId(UUID.randomUUID());
+            entry.setCreatedAt(now);
+            entry.setPosition(i);
+            entry.setNextAttemptAt(now);
+        }
+        mongoTemplate.insertAll(entries);
+        log.trace("insert: entries={}", entries);
+    }
+
+    private boolean isTransactional() {
+        var result = transactional;
+        if (result == null) {
+            final var hello = mongoTemplate.executeCommand(new Document("hello", 1));
+            result = hello.containsKey("setName") || "isdbgrid".equals(hello.getString("msg"));
+            if (!result) {
+                log.warn("isTransactional: MongoDB is a standalone server, outbox entries are written without transaction");
+            }
+            transactional = result;
+        }
+        return result;
+    }
+}
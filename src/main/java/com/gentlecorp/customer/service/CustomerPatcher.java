@@ -0,0 +1,145 @@
+package com.gentlecorp.customer.service;
+
+import com.gentlecorp.customer.exception.NotFoundException;
+import com.gentlecorp.customer.model.entity.Customer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static com.gentlecorp.customer.util.VersionUtils.validateVersion;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Schreibt Änderungen an Kunden als partielles Update statt als vollständiges Dokument.
+ * <p>
+ * Aus dem gespeicherten und dem geänderten Kunden werden die geänderten Felder ermittelt und mit einem einzigen
+ * `findAndModify` geschrieben: `$set` bzw. `$unset` nur für diese Felder, `$inc` auf die Version und
+ * `{_id, version}` als Filter. Die Versionsprüfung erfolgt damit in MongoDB; erst wenn kein Dokument passt, wird
+ * nachgesehen, ob der Kunde fehlt oder die Version abweicht.
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerPatcher {
+
+    private static final String ID = "_id";
+    private static final String VERSION = "version";
+    private static final String UPDATED = "updated";
+
+    /** Felder, die nie aus dem Vergleich übernommen werden */
+    private static final Set<String> IGNORED = Set.of(ID, VERSION, "_class", "created", UPDATED);
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Ändert einen gespeicherten Kunden und schreibt nur die geänderten Felder.
+     *
+     * @param customerDb Der gespeicherte Kunde in der erwarteten Version; er wird durch {@code change} verändert.
+     * @param change     Die Änderung, z. B. {@code customerDb -> customerDb.set(customerInput)}.
+     * @return Der Kunde im neuen Stand aus der Datenbank.
+     * @throws NotFoundException Falls der Kunde inzwischen gelöscht wurde.
+     * @throws com.gentlecorp.customer.exception.VersionOutdatedException Falls der Kunde inzwischen geändert wurde.
+     */
+    public Customer update(final Customer customerDb, final Consumer<Customer> change) {
+        final var before = toDocument(customerDb);
+        change.accept(customerDb);
+        final var update = diff(before, toDocument(customerDb));
+        log.debug("update: id={}, version={}, update={}", customerDb.getId(), customerDb.getVersion(), update);
+        return update(customerDb.getId(), customerDb.getVersion(), update);
+    }
+
+    /**
+     * Wendet ein Update auf einen Kunden an, sofern er noch in der erwarteten Version vorliegt.
+     *
+     * @param id      Die Kunden-ID.
+     * @param version Die erwartete Version.
+     * @param update  Das Update; Version und Änderungszeitpunkt werden ergänzt.
+     * @return Der Kunde im neuen Stand aus der Datenbank.
+     * @throws NotFoundException Falls der Kunde nicht existiert.
+     * @throws com.gentlecorp.customer.exception.VersionOutdatedException Falls die Version veraltet ist.
+     * @throws com.gentlecorp.customer.exception.VersionAheadException Falls die Version neuer als gespeichert ist.
+     */
+    public Customer update(final UUID id, final int version, final Update update) {
+        final var updated = update(where(ID).is(id).and(VERSION).is(version), update);
+        if (updated.isPresent()) {
+            return updated.get();
+        }
+
+        final var current = query(where(ID).is(id));
+        current.fields().include(VERSION);
+        final var customerDb = mongoTemplate.findOne(current, Customer.class);
+        if (customerDb == null) {
+            throw new NotFoundException(id);
+        }
+        validateVersion(version, customerDb);
+        // Die Version stimmte beim Nachsehen wieder; das ist nur bei gleichzeitigem Löschen und Anlegen möglich
+        throw new OptimisticLockingFailureException("Customer " + id + " was modified concurrently");
+    }
+
+    /**
+     * Wendet ein Update auf den Kunden an, der zu einem Filter passt, z. B. mit einer Bedingung auf einen eingebetteten
+     * Kontakt.
+     *
+     * @param criteria Der Filter; er muss höchstens einen Kunden treffen.
+     * @param update   Das Update; Version und Änderungszeitpunkt werden ergänzt.
+     * @return Der Kunde im neuen Stand oder ein leeres `Optional`, falls kein Kunde zum Filter passt.
+     */
+    public Optional<Customer> update(final Criteria criteria, final Update update) {
+        // `findAndModify` umgeht das Auditing: den Änderungszeitpunkt deshalb selbst setzen
+        update.inc(VERSION, 1).set(UPDATED, LocalDateTime.now());
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+            query(criteria),
+            update,
+            FindAndModifyOptions.options().returnNew(true),
+            Customer.class
+        ));
+    }
+
+    /**
+     * Ermittelt die Änderungen zwischen zwei Ständen eines Dokuments auf oberster Ebene.
+     * <p>
+     * Eingebettete Dokumente wie die Adresse werden als Ganzes ersetzt, sobald sich eines ihrer Felder ändert.
+     * </p>
+     *
+     * @param before Das gespeicherte Dokument.
+     * @param after  Das geänderte Dokument.
+     * @return Ein Update mit `$set` für geänderte und neue sowie `$unset` für entfallene Felder.
+     */
+    public static Update diff(final Document before, final Document after) {
+        final var update = new Update();
+        after.forEach((field, value) -> {
+            if (!IGNORED.contains(field) && !Objects.equals(before.get(field), value)) {
+                update.set(field, value);
+            }
+        });
+        before.keySet().stream()
+            .filter(field -> !IGNORED.contains(field) && !after.containsKey(field))
+            .forEach(update::unset);
+        return update;
+    }
+
+    private Document toDocument(final Customer customer) {
+        final var document = new Document();
+        mongoTemplate.getConverter().write(customer, document);
+        return document;
+    }
+}
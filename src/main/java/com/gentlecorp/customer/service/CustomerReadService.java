@@ -2,19 +2,24 @@ package com.gentlecorp.customer.service;
 
 import com.gentlecorp.customer.exception.AccessForbiddenException;
 import com.gentlecorp.customer.exception.NotFoundException;
+import com.gentlecorp.customer.model.entity.Contact;
 import com.gentlecorp.customer.model.entity.Customer;
+import com.gentlecorp.customer.repository.ContactRepository;
 import com.gentlecorp.customer.security.enums.RoleType;
 import com.gentlecorp.customer.repository.CustomerRepository;
 import io.micrometer.observation.annotation.Observed;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.mongodb.core.MongoTemplate;
-import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.BasicQuery;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -22,18 +27,30 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import static com.gentlecorp.customer.model.enums.StatusType.PENDING;
 import static com.gentlecorp.customer.security.enums.RoleType.ADMIN;
 import static com.gentlecorp.customer.security.enums.RoleType.USER;
+import static com.gentlecorp.customer.util.Constants.EXPORT_BATCH_SIZE;
+import static java.util.Locale.GERMAN;
 
 /**
  * Serviceklasse zur Verwaltung von Kundenleseoperationen.
  * <p>
  * Diese Klasse bietet Methoden zum Abrufen einzelner Kunden sowie zur Durchführung dynamischer Suchabfragen.
  * </p>
+ * <p>
+ * Kunden im Zustand {@code PENDING} werden gerade angelegt und sind noch nicht in Keycloak registriert; keine der
+ * Methoden liefert sie, bis die Anlage abgeschlossen ist.
+ * </p>
  *
  * @author Caleb Gyamfi
  * @version 1.0
@@ -44,9 +61,14 @@ import static com.gentlecorp.customer.security.enums.RoleType.USER;
 @Slf4j
 public class CustomerReadService {
 
+    private static final String CUSTOMER_STATE = "customerState";
+
     @Autowired
     private MongoTemplate mongoTemplate;
     private final CustomerRepository customerRepository;
+    private final ContactRepository contactRepository;
+    private final CustomerCache customerCache;
+    private final CustomerLookupCoalescer customerLookupCoalescer;
 
 
     /**
@@ -54,6 +76,8 @@ public class CustomerReadService {
      * <p>
      * Diese Methode überprüft, ob der angemeldete Benutzer Zugriff auf die angeforderte Kunden-ID hat.
      * Administratoren und Benutzer mit entsprechender Berechtigung dürfen alle Kunden einsehen.
+     * Der Kunde wird über den {@link CustomerCache} gelesen; bei einem Fehlschlag wird er über den
+     * {@link CustomerLookupCoalescer} gemeinsam mit gleichzeitig angefragten Kunden aus der Datenbank geladen.
      * </p>
      *
      * @param id   Die eindeutige Kunden-ID.
@@ -65,11 +89,86 @@ public class CustomerReadService {
     @Observed(name = "find-by-id")
     public @NonNull Customer findById(final UUID id, final UserDetails user) {
         log.debug("findById: id={}", id);
-        final var customer = customerRepository.findById(id)
+        final var customer = customerCache.get(id, customerLookupCoalescer::findById)
+            .filter(CustomerReadService::isVisible)
             .orElseThrow(() -> new NotFoundException(id));
+        checkAccess(customer, user);
+
+        log.debug("findById: customer={}", customer);
+        return customer;
+    }
+
+    /**
+     * Findet mehrere Kunden anhand ihrer IDs.
+     * <p>
+     * Kunden aus dem {@link CustomerCache} werden direkt geliefert, alle übrigen mit einer einzigen `$in`-Abfrage
+     * geladen.
+     * </p>
+     *
+     * @param ids Die IDs der gesuchten Kunden.
+     * @return Die gefundenen Kunden in der Reihenfolge der IDs; nicht vorhandene IDs fehlen.
+     */
+    @Observed(name = "find-by-ids")
+    public @NonNull List<Customer> findByIds(final Collection<UUID> ids) {
+        log.debug("findByIds: ids={}", ids);
+        final var customers = customerCache.getAll(ids, customerRepository::findAllById);
+        return ids.stream()
+            .distinct()
+            .map(customers::get)
+            .filter(Objects::nonNull)
+            .filter(CustomerReadService::isVisible)
+            .toList();
+    }
+
+    /**
+     * Findet mehrere Kunden anhand ihrer Benutzernamen mit einer einzigen `$in`-Abfrage.
+     *
+     * @param usernames Die Benutzernamen der gesuchten Kunden.
+     * @return Die gefundenen Kunden in der Reihenfolge der Benutzernamen; nicht vorhandene fehlen.
+     */
+    @Observed(name = "find-by-usernames")
+    public @NonNull List<Customer> findByUsernames(final Collection<String> usernames) {
+        log.debug("findByUsernames: usernames={}", usernames);
+        // Benutzernamen werden beim Anlegen kleingeschrieben gespeichert
+        final var normalized = usernames.stream()
+            .map(username -> username.toLowerCase(GERMAN))
+            .distinct()
+            .toList();
+        final var customers = customerRepository.findByUsernameIn(normalized).stream()
+            .filter(CustomerReadService::isVisible)
+            .map(customerCache::put)
+            .collect(Collectors.toMap(Customer::getUsername, Function.identity()));
+        return normalized.stream()
+            .map(customers::get)
+            .filter(Objects::nonNull)
+            .toList();
+    }
+
+    /**
+     * Findet Kontakte anhand ihrer IDs mit einer einzigen Abfrage.
+     * <p>
+     * Wird vom DataLoader für das Feld `contacts` verwendet, der die Kontakt-IDs aller Kunden einer Antwort sammelt.
+     * </p>
+     *
+     * @param ids Die IDs der gesuchten Kontakte.
+     * @return Die gefundenen Kontakte, geschlüsselt nach ihrer ID; nicht vorhandene IDs fehlen.
+     */
+    @Observed(name = "find-contacts-by-ids")
+    public @NonNull Map<UUID, Contact> findContactsByIds(final Collection<UUID> ids) {
+        log.debug("findContactsByIds: ids={}", ids);
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+
+        final var contacts = contactRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Contact::getId, Function.identity()));
+        log.debug("findContactsByIds: size={}", contacts.size());
+        return contacts;
+    }
 
+    private void checkAccess(final Customer customer, final UserDetails user) {
         if (customer.getUsername().equals(user.getUsername())) {
-            return customer;
+            return;
         }
 
         final var roles = user.getAuthorities().stream()
@@ -81,9 +180,6 @@ public class CustomerReadService {
         if (!roles.contains(ADMIN) && !roles.contains(USER)) {
             throw new AccessForbiddenException(user.getUsername(),roles);
         }
-
-        log.debug("findById: customer={}", customer);
-        return customer;
     }
 
     /**
@@ -92,35 +188,22 @@ public class CustomerReadService {
      * Diese Methode generiert eine MongoDB-Abfrage basierend auf den übergebenen Filterkriterien.
      * </p>
      *
-     * @param filter Eine `Map<String, Object>` mit den Filterbedingungen.
+     * @param filter Ein MongoDB-Abfragedokument mit den Filterbedingungen.
      * @param page   Die gewünschte Seite (beginnend bei 0).
      * @param size   Die Anzahl der Einträge pro Seite.
      * @param sort   Eine `Map<String, String>` mit den Sortierkriterien (Feldname -> "ASC"/"DESC").
+     * @param fields Die zu ladenden Feldpfade; bei einer leeren Menge werden vollständige Dokumente geladen.
      * @return Eine `Collection<Customer>` mit den gefundenen Kunden.
      */
     public @NonNull Collection<Customer> find(
-        Map<String, Object> filter, int page, int size, Map<String, String> sort
+        Map<String, Object> filter, int page, int size, Map<String, String> sort, Collection<String> fields
     ) {
-        log.debug("find: filter={}, page={}, size={}, sort={}", filter, page, size, sort);
-
-        // Sortierung korrekt umwandeln
-        List<Sort.Order> orders = sort.entrySet()
-            .stream()
-            .map(entry -> new Sort.Order(
-                "ASC".equalsIgnoreCase(entry.getValue()) ? Sort.Direction.ASC : Sort.Direction.DESC,
-                entry.getKey()
-            ))
-            .toList();
+        log.debug("find: filter={}, page={}, size={}, sort={}, fields={}", filter, page, size, sort, fields);
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by(orders));
+        Pageable pageable = PageRequest.of(page, size, toSort(sort));
 
         // MongoDB-Query ausführen
-        Query query = new Query();
-        if (!filter.isEmpty()) {
-            query.addCriteria(new Criteria().andOperator(filter.entrySet().stream()
-                .map(e -> Criteria.where(e.getKey()).is(e.getValue()))
-                .toArray(Criteria[]::new)));
-        }
+        Query query = withFields(toQuery(filter), fields);
         query.with(pageable);
 
         List<Customer> customers = mongoTemplate.find(query, Customer.class);
@@ -128,6 +211,97 @@ public class CustomerReadService {
         return customers;
     }
 
+    /**
+     * Führt eine Filter- und Sortierabfrage mit Keyset-Paginierung (Cursor) aus.
+     * <p>
+     * Im Gegensatz zu {@link #find(Map, int, int, Map, Collection)} wird keine Anzahl an Dokumenten übersprungen:
+     * Die Position enthält die Werte der Sortierfelder des letzten gelieferten Kunden sowie dessen `_id`
+     * als Tie-Breaker, sodass jede Seite als begrenzter Bereichsscan über den Index gelesen wird.
+     * </p>
+     *
+     * @param filter   Ein MongoDB-Abfragedokument mit den Filterbedingungen.
+     * @param sort     Eine `Map<String, String>` mit den Sortierkriterien (Feldname -> "ASC"/"DESC").
+     * @param position Die Position, ab der gelesen wird (z. B. aus dem `after`-Cursor).
+     * @param limit    Die maximale Anzahl an Kunden im Fenster.
+     * @param fields   Die zu ladenden Feldpfade; bei einer leeren Menge werden vollständige Dokumente geladen.
+     * @return Ein `Window<Customer>` mit den gefundenen Kunden und der Information, ob weitere folgen.
+     */
+    public @NonNull Window<Customer> scroll(
+        Map<String, Object> filter, Map<String, String> sort, ScrollPosition position, int limit,
+        Collection<String> fields
+    ) {
+        log.debug("scroll: filter={}, sort={}, position={}, limit={}, fields={}", filter, sort, position, limit, fields);
+
+        // Die Sortierfelder werden für den Cursor benötigt und deshalb immer mitgeladen
+        final var projection = new HashSet<>(fields);
+        if (!projection.isEmpty()) {
+            projection.addAll(sort.keySet());
+        }
+
+        // Die `_id` wird von Spring Data als eindeutiges letztes Sortierkriterium ergänzt
+        final var query = withFields(toQuery(filter), projection)
+            .with(toSort(sort))
+            .with(position)
+            .limit(limit);
+
+        final var customers = mongoTemplate.scroll(query, Customer.class);
+        log.debug("scroll: size={}, hasNext={}", customers.size(), customers.hasNext());
+        return customers;
+    }
+
+    /**
+     * Liefert alle Kunden zu den Filter- und Sortierkriterien als Stream über einen MongoDB-Cursor.
+     * <p>
+     * Die Dokumente werden in Batches von {@value com.gentlecorp.customer.util.Constants#EXPORT_BATCH_SIZE}
+     * nachgeladen, sobald der Aufrufer sie konsumiert. Der Speicherbedarf ist damit unabhängig von der
+     * Größe des Ergebnisses. Der Stream muss vom Aufrufer geschlossen werden, damit der Cursor freigegeben wird.
+     * </p>
+     *
+     * @param filter Ein MongoDB-Abfragedokument mit den Filterbedingungen.
+     * @param sort   Eine `Map<String, String>` mit den Sortierkriterien (Feldname -> "ASC"/"DESC").
+     * @return Ein `Stream<Customer>`, der auf einem offenen MongoDB-Cursor basiert.
+     */
+    public @NonNull Stream<Customer> stream(Map<String, Object> filter, Map<String, String> sort) {
+        log.debug("stream: filter={}, sort={}", filter, sort);
+        final var query = toQuery(filter)
+            .with(toSort(sort))
+            .cursorBatchSize(EXPORT_BATCH_SIZE);
+        return mongoTemplate.stream(query, Customer.class);
+    }
+
+    /**
+     * Liefert, ob ein Kunde für Leseoperationen sichtbar ist, d. h. nicht mehr im Zustand {@code PENDING}.
+     *
+     * @param customer Der gespeicherte Kunde.
+     * @return {@code true}, falls die Anlage des Kunden abgeschlossen ist.
+     */
+    static boolean isVisible(final Customer customer) {
+        return customer.getCustomerState() != PENDING;
+    }
+
+    private Query toQuery(final Map<String, Object> filter) {
+        // Der Filter liegt bereits als MongoDB-Abfragedokument vor (siehe FilterPlanCache); per `$and` kombiniert,
+        // damit ein Filter auf `customerState` den Ausschluss von PENDING nicht überschreibt
+        final var visible = new Document(CUSTOMER_STATE, new Document("$ne", PENDING.name()));
+        return new BasicQuery(filter.isEmpty() ? visible : new Document("$and", List.of(new Document(filter), visible)));
+    }
 
+    private Query withFields(final Query query, final Collection<String> fields) {
+        if (!fields.isEmpty()) {
+            query.fields().include(fields.toArray(String[]::new));
+        }
+        return query;
+    }
 
+    private Sort toSort(final Map<String, String> sort) {
+        // Sortierung korrekt umwandeln
+        final List<Sort.Order> orders = sort.entrySet()
+            .stream()
+            .map(entry -> new Sort.Order(
+                "ASC".equalsIgnoreCase(entry.getValue()) ? Sort.Direction.ASC : Sort.Direction.DESC,
+                entry.getKey()
+            ))
+            .toList();
+        return Sort.by(orders);
+    }
 }
@@ -0,0 +1,314 @@
+package com.gentlecorp.customer.service;
+
+import com.gentlecorp.customer.model.entity.Customer;
+import com.gentlecorp.customer.repository.CustomerRepository;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import static com.gentlecorp.customer.model.enums.StatusType.PENDING;
+import static com.gentlecorp.customer.util.Constants.CUSTOMER_FILTER_FALSE_POSITIVE_RATE;
+import static com.gentlecorp.customer.util.Constants.CUSTOMER_FILTER_MIN_CAPACITY;
+import static com.gentlecorp.customer.util.Constants.CUSTOMER_FILTER_REBUILD_INTERVAL;
+
+/**
+ * Bloom-Filter der vorhandenen E-Mail-Adressen und Benutzernamen für die Eindeutigkeitsprüfung.
+ * <p>
+ * Meldet der Filter einen Wert als sicher nicht vorhanden, entfällt die Abfrage in MongoDB; nur bei einem möglichen
+ * Treffer wird in MongoDB nachgesehen. Kunden im Zustand {@code PENDING} zählen dabei nicht, damit eine abgebrochene
+ * Anlage die Werte nicht dauerhaft blockiert. Die Filter werden nach dem Start aus einem Stream über beide Felder
+ * aufgebaut und bei jedem Speichern ergänzt; Änderungen anderer Instanzen trägt der {@link CustomerCacheInvalidator}
+ * aus dem Invalidierungs-Topic ein. Maßgeblich bleiben die eindeutigen Indizes, deren `DuplicateKeyException` der
+ * {@link CustomerWriteService} in die fachlichen Ausnahmen übersetzt.
+ * </p>
+ * <p>
+ * Da Bloom-Filter keine Werte entfernen können, bleiben geänderte und gelöschte Werte bis zum Neuaufbau als mögliche
+ * Treffer erhalten. Die Filter werden deshalb alle
+ * {@link com.gentlecorp.customer.util.Constants#CUSTOMER_FILTER_REBUILD_INTERVAL} neu aufgebaut, außerdem im
+ * Hintergrund mit doppelter Kapazität, sobald die Zahl der eingefügten Werte die geplante Kapazität übersteigt.
+ * </p>
+ * <p>
+ * Metriken je Filter (`filter=email|username`): `customer.uniqueness.filter.expected.fpp` (erwartete Fehlerrate),
+ * `customer.uniqueness.filter.memory` (Größe in Bytes), `customer.uniqueness.filter.checks` mit `result=skipped`
+ * (Abfrage eingespart), `result=false_positive` oder `result=exists`.
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@Component
+@Slf4j
+public class CustomerUniquenessFilter {
+
+    private static final String EMAIL = "email";
+    private static final String USERNAME = "username";
+
+    private final MongoTemplate mongoTemplate;
+    private final CustomerRepository customerRepository;
+    private final MeterRegistry meterRegistry;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("customer-uniqueness-rebuild").daemon().factory()
+    );
+
+    /** `null`, solange die Filter noch nicht aufgebaut sind; dann wird immer MongoDB gefragt */
+    private volatile Filters current;
+    /** Die Filter eines laufenden Neuaufbaus; Schreibzugriffe werden auch hier eingetragen */
+    private volatile Filters next;
+
+    /**
+     * Erstellt die Filter und registriert ihre Metriken.
+     *
+     * @param mongoTemplate      Das Template für den Aufbau der Filter und die Indizes.
+     * @param customerRepository Das Repository für die Prüfung möglicher Treffer.
+     * @param meterRegistry      Die Registry für Micrometer-Metriken.
+     */
+    public CustomerUniquenessFilter(
+        final MongoTemplate mongoTemplate,
+        final CustomerRepository customerRepository,
+        final MeterRegistry meterRegistry
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.customerRepository = customerRepository;
+        this.meterRegistry = meterRegistry;
+        for (final var field : new String[]{EMAIL, USERNAME}) {
+            Gauge.builder("customer.uniqueness.filter.expected.fpp", this, filter -> filter.expectedFpp(field))
+                .description("Erwartete Fehlerrate des Bloom-Filters")
+                .tag("filter", field)
+                .register(meterRegistry);
+            Gauge.builder("customer.uniqueness.filter.memory", this, filter -> filter.memory())
+                .description("Größe des Bloom-Filters")
+                .baseUnit("bytes")
+                .tag("filter", field)
+                .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Legt die eindeutigen Indizes an, baut die Filter auf und plant den regelmäßigen Neuaufbau.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        for (final var field : new String[]{EMAIL, USERNAME}) {
+            try {
+                mongoTemplate.indexOps(Customer.class).ensureIndex(new Index().on(field, Sort.Direction.ASC).unique());
+            } catch (final RuntimeException e) {
+                // z.B. bereits doppelte Werte: dann bleibt nur die Prüfung über den Filter und `existsBy...`
+                log.error("start: unique index on {} could not be created: {}", field, e.getMessage());
+            }
+        }
+        rebuilding.set(true);
+        rebuild();
+        final var interval = CUSTOMER_FILTER_REBUILD_INTERVAL.toMillis();
+        scheduler.scheduleWithFixedDelay(this::rebuildIfIdle, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Prüft, ob eine E-Mail-Adresse bereits vergeben ist.
+     *
+     * @param email Die E-Mail-Adresse.
+     * @return {@code true}, falls ein Kunde außerhalb des Zustands {@code PENDING} diese Adresse verwendet.
+     */
+    public boolean emailExists(final String email) {
+        final var filters = current;
+        return exists(
+            EMAIL,
+            filters == null ? null : filters.emails(),
+            email,
+            value -> customerRepository.existsByEmailAndCustomerStateNot(value, PENDING)
+        );
+    }
+
+    /**
+     * Prüft, ob ein Benutzername bereits vergeben ist.
+     *
+     * @param username Der Benutzername in Kleinbuchstaben.
+     * @return {@code true}, falls ein Kunde außerhalb des Zustands {@code PENDING} diesen Benutzernamen verwendet.
+     */
+    public boolean usernameExists(final String username) {
+        final var filters = current;
+        return exists(
+            USERNAME,
+            filters == null ? null : filters.usernames(),
+            username,
+            value -> customerRepository.existsByUsernameAndCustomerStateNot(value, PENDING)
+        );
+    }
+
+    /**
+     * Trägt E-Mail-Adresse und Benutzernamen eines gespeicherten Kunden ein.
+     *
+     * @param customer Der gespeicherte Kunde.
+     */
+    public void add(final Customer customer) {
+        add(customer.getEmail(), customer.getUsername());
+    }
+
+    /**
+     * Trägt E-Mail-Adresse und Benutzernamen ein, z.B. aus der Invalidierung einer anderen Instanz.
+     *
+     * @param email    Die E-Mail-Adresse oder {@code null}.
+     * @param username Der Benutzername oder {@code null}.
+     */
+    public void add(final String email, final String username) {
+        // Erst den Neuaufbau, dann die aktuellen Filter lesen: so geht kein Kunde beim Austausch verloren
+        final var building = next;
+        final var filters = current;
+        if (building != null && building != filters) {
+            building.add(email, username);
+        }
+        if (filters != null && filters.add(email, username) > filters.capacity()) {
+            log.debug("add: capacity {} exceeded, rebuilding", filters.capacity());
+            scheduler.execute(this::rebuildIfIdle);
+        }
+    }
+
+    private boolean exists(
+        final String field,
+        final BloomFilter<CharSequence> filter,
+        final String value,
+        final Predicate<String> database
+    ) {
+        if (value == null) {
+            return false;
+        }
+        if (filter != null && !filter.mightContain(value)) {
+            counter(field, "skipped").increment();
+            return false;
+        }
+        final var exists = database.test(value);
+        if (filter != null) {
+            counter(field, exists ? "exists" : "false_positive").increment();
+        }
+        return exists;
+    }
+
+    private void rebuildIfIdle() {
+        if (rebuilding.compareAndSet(false, true)) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Baut die Filter neu auf; der Aufrufer hat {@code rebuilding} bereits gesetzt.
+     */
+    private void rebuild() {
+        try {
+            final var count = mongoTemplate.estimatedCount(Customer.class);
+            final var capacity = Math.max(CUSTOMER_FILTER_MIN_CAPACITY, count * 2);
+            final var building = Filters.create(capacity);
+            next = building;
+
+            final var query = new Query();
+            query.fields().include(EMAIL, USERNAME);
+            try (var customers = mongoTemplate.stream(query, Customer.class)) {
+                customers.forEach(customer -> building.add(customer.getEmail(), customer.getUsername()));
+            }
+
+            current = building;
+            next = null;
+            log.info("rebuild: {} customers, capacity={}, memory={} bytes", building.size(), capacity, building.memory());
+        } catch (final RuntimeException e) {
+            // Ohne Filter wird weiterhin jede Prüfung an MongoDB gestellt
+            next = null;
+            log.warn("rebuild: failed: {}", e.getMessage());
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private double expectedFpp(final String field) {
+        final var filters = current;
+        if (filters == null) {
+            return Double.NaN;
+        }
+        return (EMAIL.equals(field) ? filters.emails() : filters.usernames()).expectedFpp();
+    }
+
+    private double memory() {
+        final var filters = current;
+        return filters == null ? 0 : filters.memory() / 2.0;
+    }
+
+    private Counter counter(final String field, final String result) {
+        return Counter.builder("customer.uniqueness.filter.checks")
+            .tag("filter", field)
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Die Filter für E-Mail-Adressen und Benutzernamen mit gemeinsamer Kapazität.
+     */
+    private record Filters(
+        BloomFilter<CharSequence> emails,
+        BloomFilter<CharSequence> usernames,
+        long capacity,
+        AtomicLong inserted
+    ) {
+        static Filters create(final long capacity) {
+            return new Filters(
+                BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), capacity, CUSTOMER_FILTER_FALSE_POSITIVE_RATE),
+                BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), capacity, CUSTOMER_FILTER_FALSE_POSITIVE_RATE),
+                capacity,
+                new AtomicLong()
+            );
+        }
+
+        /**
+         * Trägt die Werte eines Kunden ein; Guavas Bloom-Filter sind ohne Sperre threadsicher.
+         *
+         * @return Die ungefähre Anzahl der bisher eingetragenen Kunden.
+         */
+        long add(final String email, final String username) {
+            var changed = false;
+            if (email != null) {
+                changed = emails.put(email);
+            }
+            if (username != null) {
+                changed |= usernames.put(username);
+            }
+            // Unveränderte Werte bei erneutem Speichern belegen keine Kapazität
+            return changed ? inserted.incrementAndGet() : inserted.get();
+        }
+
+        long size() {
+            return inserted.get();
+        }
+
+        /**
+         * Größe beider Filter: m = -n ln(p) / ln(2)² Bits je Filter.
+         */
+        long memory() {
+            final var bits = -capacity * Math.log(CUSTOMER_FILTER_FALSE_POSITIVE_RATE) / (Math.log(2) * Math.log(2));
+            return 2 * (long) Math.ceil(bits / Byte.SIZE);
+        }
+    }
+}
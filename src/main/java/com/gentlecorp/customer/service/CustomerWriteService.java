@@ -1,45 +1,63 @@
 package com.gentlecorp.customer.service;
 
-import com.gentlecorp.customer.MailProps;
 import com.gentlecorp.customer.exception.AccessForbiddenException;
+import com.gentlecorp.customer.exception.ContactExistsException;
+import com.gentlecorp.customer.exception.ContactLimitExceededException;
 import com.gentlecorp.customer.exception.EmailExistsException;
 import com.gentlecorp.customer.exception.IllegalArgumentException;
 import com.gentlecorp.customer.exception.NotFoundException;
 import com.gentlecorp.customer.exception.PasswordInvalidException;
 import com.gentlecorp.customer.exception.UsernameExistsException;
+import com.gentlecorp.customer.exception.VersionOutdatedException;
 import com.gentlecorp.customer.model.dto.AccountDTO;
 import com.gentlecorp.customer.model.dto.ShoppingCartDTO;
 import com.gentlecorp.customer.model.entity.Contact;
 import com.gentlecorp.customer.model.entity.Customer;
+import com.gentlecorp.customer.model.entity.OutboxEntry;
 import com.gentlecorp.customer.repository.ContactRepository;
 import com.gentlecorp.customer.repository.CustomerRepository;
 import com.gentlecorp.customer.security.CustomUserDetails;
+import com.gentlecorp.customer.security.KeycloakCallCounter;
 import com.gentlecorp.customer.security.enums.RoleType;
 import com.gentlecorp.customer.security.service.KeycloakService;
+import com.gentlecorp.customer.util.IdGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.security.authentication.password.CompromisedPasswordChecker;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static com.gentlecorp.customer.model.enums.StatusType.ACTIVE;
+import static com.gentlecorp.customer.model.enums.StatusType.PENDING;
 import static com.gentlecorp.customer.security.enums.RoleType.ADMIN;
+import static com.gentlecorp.customer.util.Constants.CUSTOMER_PENDING_TIMEOUT;
 import static com.gentlecorp.customer.util.Constants.LOWERCASE;
+import static com.gentlecorp.customer.util.Constants.MAX_EMBEDDED_CONTACTS;
 import static com.gentlecorp.customer.util.Constants.MIN_LENGTH;
 import static com.gentlecorp.customer.util.Constants.NUMBERS;
 import static com.gentlecorp.customer.util.Constants.SYMBOLS;
 import static com.gentlecorp.customer.util.Constants.UPPERCASE;
-import static com.gentlecorp.customer.util.Validation.validateContact;
 import static com.gentlecorp.customer.util.VersionUtils.validateVersion;
 import static java.util.Locale.GERMAN;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
 
 @Service
 @Transactional
@@ -47,36 +65,32 @@ import static java.util.Locale.GERMAN;
 @Slf4j
 public class CustomerWriteService {
 
+    private static final String CONTACT_IDS = "contactIds";
+    private static final String CUSTOMER_ID = "customerId";
+    private static final String CONTACTS = "contacts";
+
     private final CustomerReadService customerReadService;
     private final CustomerRepository customerRepository;
+    private final MongoTemplate mongoTemplate;
+    private final CustomerCache customerCache;
+    private final CustomerCacheInvalidator customerCacheInvalidator;
     private final ContactRepository contactRepository;
-    private final MailService mailService;
-    private final MailProps props;
+    private final CustomerOutbox customerOutbox;
+    private final CustomerUniquenessFilter customerUniquenessFilter;
+    private final CustomerPatcher customerPatcher;
+    private final ContactStorage contactStorage;
     private final KeycloakService keycloakService;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final KeycloakCallCounter keycloakCallCounter;
+    private final CompromisedPasswordChecker compromisedPasswordChecker;
+    private final IdGenerator idGenerator;
 
     public Customer create(final Customer customer, final String password) {
-        customer.setCustomerState(ACTIVE);
         log.debug("create: customer={}", customer);
         log.debug("create: address={}", customer.getAddress());
 
-        if (customerRepository.existsByEmail(customer.getEmail()))
-            throw new EmailExistsException(customer.getEmail());
-
-        final var username = customer.getUsername();
-        customer.setUsername(username.toLowerCase(GERMAN));
-        final var isUsernameExisting = customerRepository.existsByUsername(username);
-        if (isUsernameExisting)
-            throw new UsernameExistsException(username);
-
         if (!checkPassword(password)) {
             throw new PasswordInvalidException(password);
         }
-
-        customer.setId(UUID.randomUUID());
-
-        log.warn("create: customer={}", customer);
-
         final var role = switch (customer.getTierLevel()) {
             case 1 -> "Basic";
             case 2 -> "Elite";
@@ -84,25 +98,52 @@ public class CustomerWriteService {
             default -> throw new IllegalArgumentException(customer.getTierLevel());
         };
 
-        keycloakService.signIn(customer, password, role);
+        // Der Filter weist bekannte Werte ohne Einfügen ab; neue Werte kosten keine Abfrage
+        customer.setUsername(customer.getUsername().toLowerCase(GERMAN));
+        if (customerUniquenessFilter.emailExists(customer.getEmail())) {
+            log.error("create: email {} already exists", customer.getEmail());
+            throw new EmailExistsException(customer.getEmail());
+        }
+        if (customerUniquenessFilter.usernameExists(customer.getUsername())) {
+            log.error("create: username {} already exists", customer.getUsername());
+            throw new UsernameExistsException(customer.getUsername());
+        }
+
+        // Dann als PENDING einfügen: maßgeblich für gleichzeitige Anlagen sind die eindeutigen Indizes
+        customer.setId(idGenerator.generate());
+        customer.setCustomerState(PENDING);
+        final var pending = insertPending(customer);
+        log.debug("create: pending={}", pending);
+
+        final String keycloakId;
+        try {
+            keycloakId = keycloakCallCounter.measure(
+                "createCustomer",
+                () -> keycloakService.signIn(pending, password, role)
+            );
+        } catch (final RuntimeException e) {
+            customerRepository.deleteById(pending.getId());
+            throw e;
+        }
+        pending.setKeycloakId(keycloakId);
+        pending.setCustomerState(ACTIVE);
         final var checkingAccount = new AccountDTO(
             new BigDecimal(0),
             "CH",
             2,
             50,
             20,
-            customer.getId()
+            pending.getId()
         );
 
-        final var customerDb = customerRepository.save(customer);
-        log.warn("create: customerDb={}", customerDb);
+        // Mail und Kafka-Nachrichten werden mit dem Kunden gespeichert und vom OutboxRelay zugestellt
+        final var customerDb = save(pending, List.of(
+            OutboxEntry.mail(pending.getId()),
+            OutboxEntry.kafka(pending.getId(), "newAccount", checkingAccount),
+            OutboxEntry.kafka(pending.getId(), "create-shopping-cart", new ShoppingCartDTO(pending.getId(), ""))
+        ));
         log.trace("create: Thread-ID={}", Thread.currentThread().threadId());
 
-        props.setTo(customerDb.getEmail());
-        mailService.send(customerDb);
-        kafkaTemplate.send("newAccount", checkingAccount);
-        kafkaTemplate.send("create-shopping-cart",new ShoppingCartDTO(customer.getId(),""));
-
         log.debug("create: customerDb={}", customerDb);
         return customerDb;
     }
@@ -111,8 +152,7 @@ public class CustomerWriteService {
         log.debug("update: id={}, version={}, customer={}", id, version, customerInput);
 
         customerInput.setCustomerState(ACTIVE);
-        final var customerDb = customerRepository.findById(id).orElseThrow(() -> new NotFoundException(id));
-        validateVersion(version, customerDb);
+        final var customerDb = findForUpdate(id, version);
         final var roles = user.getAuthorities().stream()
             .map(GrantedAuthority::getAuthority)
             .map(str -> str.substring(RoleType.ROLE_PREFIX.length()))
@@ -128,26 +168,24 @@ public class CustomerWriteService {
 
         if (customerInput.getEmail() != null) {
             final var email = customerInput.getEmail();
-            if (!Objects.equals(email, customerDb.getEmail()) && customerRepository.existsByEmail(email)) {
+            if (!Objects.equals(email, customerDb.getEmail()) && customerUniquenessFilter.emailExists(email)) {
                 log.error("update: email {} already exists", email);
                 throw new EmailExistsException(email);
             }
         }
 
         if (customerInput.getUsername() != null) {
-            final var username = customerInput.getUsername();
-            customerInput.setUsername(username.toLowerCase(GERMAN));
-            final var isUsernameExisting = customerRepository.existsByUsername(username);
-            if (isUsernameExisting && !username.equals(oldUsername)) {
+            final var username = customerInput.getUsername().toLowerCase(GERMAN);
+            customerInput.setUsername(username);
+            if (!username.equals(oldUsername) && customerUniquenessFilter.usernameExists(username)) {
                 log.error("update: username {} already exists", username);
                 throw new UsernameExistsException(username);
             }
         }
 
         log.trace("update: No conflict with the email address");
-        customerDb.set(customerInput);
-        final var updatedCustomerDb = customerRepository.save(customerDb);
-        log.debug("update: updatedCustomerDB={}", customerDb);
+        final var updatedCustomerDb = patch(customerDb, customer -> customer.set(customerInput));
+        log.debug("update: updatedCustomerDB={}", updatedCustomerDb);
 
         keycloakService.update(updatedCustomerDb, user.getJwt(), isAdmin, oldUsername);
         return updatedCustomerDb;
@@ -156,7 +194,7 @@ public class CustomerWriteService {
     public UUID addContact(final UUID customerId, final Contact contactInput, CustomUserDetails user) {
         log.debug("addContact: customerId={}, contactInput={}", customerId, contactInput);
 
-        final var customerDb = customerReadService.findById(customerId, user);
+        final var customerDb = contactStorage.migrate(customerReadService.findById(customerId, user));
 
         final var roles = user.getAuthorities().stream()
             .map(GrantedAuthority::getAuthority)
@@ -168,34 +206,50 @@ public class CustomerWriteService {
             throw new AccessForbiddenException(user.getUsername(),roles);
         }
 
-        // Sicherstellen, dass ContactIds nie `null` ist
-        if (customerDb.getContactIds() == null) {
-            customerDb.setContactIds(new ArrayList<>());
+        contactInput.setId(idGenerator.generate());
+        contactInput.setCustomerId(customerId);
+        final Update update;
+        final var embedded = contactStorage.isEmbedded(customerDb);
+        if (embedded) {
+            // Die eingebetteten Kontakte sind mit dem Kunden bereits geladen
+            final var contacts = customerDb.getContacts() == null ? List.<Contact>of() : customerDb.getContacts();
+            if (contacts.size() >= MAX_EMBEDDED_CONTACTS) {
+                throw new ContactLimitExceededException(MAX_EMBEDDED_CONTACTS);
+            }
+            checkContactExists(contacts, contactInput.getLastName(), contactInput.getFirstName(), null);
+            update = new Update().push(CONTACTS, contactInput).addToSet(CONTACT_IDS, contactInput.getId());
+        } else {
+            // Doppelte Kontakte über den Index `(customerId, lastName, firstName)` statt durch Laden aller Kontakte
+            checkContactExists(customerId, contactInput.getLastName(), contactInput.getFirstName());
+            final var contactDb = insertContact(contactInput);
+            log.debug("addContact: contactDb={}", contactDb);
+            update = new Update().addToSet(CONTACT_IDS, contactDb.getId());
         }
 
-        final var existingContacts = customerDb.getContactIds().stream()
-            .map(contactRepository::findById)  // `Optional<Contact>` wird erzeugt
-            .flatMap(Optional::stream)         // Entfernt `Optional.empty()`
-            .collect(Collectors.toList());      // Liste von `Contact` Objekten
-
-        log.debug("addContact: contacts={}", existingContacts);
-        validateContact(contactInput, existingContacts);
-        contactInput.setId(UUID.randomUUID());
-
-        final var contactDb = contactRepository.save(contactInput);
-        log.debug("addContact: contactDb={}", contactDb);
-
-        customerDb.getContactIds().add(contactDb.getId());
-        customerRepository.save(customerDb);
-        log.debug("addContact: customerDb={}", customerDb);
+        // Die Zuordnung gilt nur für die gelesene Version des Kunden
+        final Customer updatedCustomerDb;
+        try {
+            updatedCustomerDb = patch(customerDb, () -> customerPatcher.update(
+                customerId,
+                customerDb.getVersion(),
+                update
+            ));
+        } catch (final RuntimeException e) {
+            if (!embedded) {
+                // Der bereits eingefügte Kontakt wäre keinem Kunden zugeordnet und blockierte den Index
+                contactRepository.deleteById(contactInput.getId());
+            }
+            throw e;
+        }
+        log.debug("addContact: customerDb={}", updatedCustomerDb);
 
-        return contactDb.getId();
+        return contactInput.getId();
     }
 
     public Contact updateContact(final UUID customerId, final int customerVersion,  final UUID contactId, final int contactVersion, final Contact contactInput, final CustomUserDetails user) {
         log.debug("updateContact: customerId={},customerVersion={}, contactId={}, contactVersion={}, contactInput={}", customerId, customerVersion, contactId, contactVersion, contactInput);
 
-        final var customerDb = customerReadService.findById(customerId, user);
+        final var customerDb = contactStorage.migrate(customerReadService.findById(customerId, user));
 
         final var roles = user.getAuthorities().stream()
             .map(GrantedAuthority::getAuthority)
@@ -207,24 +261,38 @@ public class CustomerWriteService {
             throw new AccessForbiddenException(user.getUsername(),roles);
         }
 
-        if (!customerDb.getContactIds().contains(contactId)) {
+        if (customerDb.getContactIds() == null || !customerDb.getContactIds().contains(contactId)) {
             throw new NotFoundException(contactId);
         }
 
+        if (contactStorage.isEmbedded(customerDb)) {
+            return updateEmbeddedContact(customerDb, contactId, contactVersion, contactInput);
+        }
+
         final var contactDb = contactRepository.findById(contactId).orElseThrow(() -> new NotFoundException(contactId));
-        validateContact(contactInput, contactDb, contactId);
         validateVersion(contactVersion, contactDb);
+        final var lastName = contactDb.getLastName();
+        final var firstName = contactDb.getFirstName();
         contactDb.set(contactInput);
-        contactRepository.save(contactDb);
+        if (!Objects.equals(lastName, contactDb.getLastName()) || !Objects.equals(firstName, contactDb.getFirstName())) {
+            checkContactExists(customerId, contactDb.getLastName(), contactDb.getFirstName());
+        }
+        // Noch nicht migrierte Kontakte erhalten den Rückverweis beim Ändern
+        contactDb.setCustomerId(customerId);
+        try {
+            contactRepository.save(contactDb);
+        } catch (final DuplicateKeyException e) {
+            throw new ContactExistsException(contactDb.getLastName(), contactDb.getFirstName());
+        }
         log.debug("updateContact: contactDb={}", contactDb);
-        customerRepository.save(customerDb);
         return contactDb;
     }
 
     public boolean removeContact(final UUID customerId, final int customerVersion,  final UUID contactId, final int contactVersion, final CustomUserDetails user) {
         log.debug("removeContact: customerId={},customerVersion={}, contactId={}, contactVersion={}", customerId, customerVersion, contactId, contactVersion);
 
-        final var customerDb = customerReadService.findById(customerId, user);
+        // Die Umstellung auf das konfigurierte Layout erhöht nur die Version, nicht den fachlichen Stand des Kunden
+        final var customerDb = contactStorage.migrate(findForUpdate(customerId, customerVersion));
 
         final var roles = user.getAuthorities().stream()
             .map(GrantedAuthority::getAuthority)
@@ -236,27 +304,26 @@ public class CustomerWriteService {
             throw new AccessForbiddenException(user.getUsername(),roles);
         }
 
-        if (!customerDb.getContactIds().contains(contactId)) {
+        if (customerDb.getContactIds() == null || !customerDb.getContactIds().contains(contactId)) {
             throw new NotFoundException(contactId);
         }
 
-        final var contactDb = contactRepository.findById(contactId).orElseThrow(() -> new NotFoundException(contactId));
+        // Eingebettete Kontakte werden mit der Zuordnung entfernt, sonst zuerst die Zuordnung: scheitert die
+        // Versionsprüfung, bleibt der Kontakt erhalten
+        final var embedded = contactStorage.isEmbedded(customerDb);
+        final var contactDb = embedded
+            ? findEmbeddedContact(customerDb, contactId)
+            : contactRepository.findById(contactId).orElseThrow(() -> new NotFoundException(contactId));
         validateVersion(contactVersion, contactDb);
-        validateVersion(customerVersion, customerDb);
-        contactRepository.deleteById(contactId);
-
-//        final var contactDb = customerDb.getContacts().stream()
-//            .filter(contact -> contact.getId().equals(contactId))
-//            .findFirst()
-//            .orElseThrow(() -> new NotFoundException(contactId));
 
-
-        customerDb.getContactIds()
-            .stream()
-            .filter(contactIdDb -> contactIdDb.equals(contactId))
-            .toList()
-            .forEach(contactIdDb -> customerDb.getContactIds().remove(contactIdDb));
-        customerRepository.save(customerDb);
+        final var update = new Update().pull(CONTACT_IDS, contactId);
+        if (embedded) {
+            update.pull(CONTACTS, new Document("_id", contactId));
+        }
+        patch(customerDb, () -> customerPatcher.update(customerId, customerDb.getVersion(), update));
+        if (!embedded) {
+            contactRepository.deleteById(contactId);
+        }
 
         return true;
     }
@@ -288,16 +355,211 @@ public class CustomerWriteService {
             customerDb.setContactIds(new ArrayList<>());
         }
 
-        final var existingContacts = customerDb.getContactIds().stream()
-            .map(contactRepository::findById)  // `Optional<Contact>` wird erzeugt
-            .flatMap(Optional::stream)         // Entfernt `Optional.empty()`
-            .toList();      // Liste von `Contact` Objekten
+        keycloakService.delete(user.getToken(), customerDb);
+        // Die Nachricht enthält wie beim Anlegen keinen Token: Outbox-Einträge werden gespeichert, der Bearer-Token
+        // des Aufrufers darf es nicht
+        customerOutbox.write(() -> {
+            // Alle Kontakte mit einem einzigen `deleteMany` löschen; `contactIds` deckt noch nicht migrierte Kontakte ab
+            mongoTemplate.remove(
+                query(new Criteria().orOperator(
+                    where(CUSTOMER_ID).is(id),
+                    where("_id").in(customerDb.getContactIds())
+                )),
+                Contact.class
+            );
+            customerRepository.delete(customerDb);
+            return null;
+        }, List.of(OutboxEntry.kafka(id, "delete-shopping-cart", new ShoppingCartDTO(id, ""))));
+        customerCache.invalidate(id);
+        customerCacheInvalidator.publishDeleted(id);
+    }
+
+    private Customer save(final Customer customer) {
+        return save(customer, List.of());
+    }
+
+    private Customer save(final Customer customer, final List<OutboxEntry> outboxEntries) {
+        try {
+            final var saved = outboxEntries.isEmpty()
+                ? customerRepository.save(customer)
+                : customerOutbox.write(() -> customerRepository.save(customer), outboxEntries);
+            return saved(saved);
+        } catch (final DuplicateKeyException e) {
+            // Die eindeutigen Indizes sind maßgeblich, falls der Filter oder `existsBy...` einen Konflikt übersehen
+            throw toConflict(e, customer);
+        } catch (final OptimisticLockingFailureException e) {
+            // Der Kunde im Cache war veraltet: beim nächsten Lesen wieder aus der Datenbank laden
+            customerCache.invalidate(customer.getId());
+            throw e;
+        }
+    }
 
-        existingContacts.forEach(existingContact -> contactRepository.deleteById(existingContact.getId()));
+    /**
+     * Schreibt nur die durch {@code change} geänderten Felder, siehe {@link CustomerPatcher}.
+     */
+    private Customer patch(final Customer customerDb, final Consumer<Customer> change) {
+        return patch(customerDb, () -> customerPatcher.update(customerDb, change));
+    }
 
-        keycloakService.delete(user.getToken(), customerDb.getUsername());
-        customerRepository.delete(customerDb);
-        kafkaTemplate.send("delete-shopping-cart",new ShoppingCartDTO(id,user.getToken()));
+    private Customer patch(final Customer customerDb, final Supplier<Customer> update) {
+        try {
+            return saved(update.get());
+        } catch (final DuplicateKeyException e) {
+            throw toConflict(e, customerDb);
+        } catch (final VersionOutdatedException | OptimisticLockingFailureException e) {
+            customerCache.invalidate(customerDb.getId());
+            throw e;
+        }
+    }
+
+    /**
+     * Ändert einen eingebetteten Kontakt mit einem gefiltert positionalen `$set` auf `contacts.$[contact]`.
+     * <p>
+     * Filter und `arrayFilters` enthalten den Kontakt in der erwarteten Version; die Version des Kunden wird erhöht,
+     * damit Caches den neuen Stand übernehmen.
+     * </p>
+     */
+    private Contact updateEmbeddedContact(
+        final Customer customerDb,
+        final UUID contactId,
+        final int contactVersion,
+        final Contact contactInput
+    ) {
+        // Auf einer Kopie arbeiten: scheitert eine Prüfung, bleibt der gelesene Kunde unverändert
+        final var contactDb = findEmbeddedContact(customerDb, contactId).toBuilder().build();
+        validateVersion(contactVersion, contactDb);
+        contactDb.set(contactInput);
+        checkContactExists(customerDb.getContacts(), contactDb.getLastName(), contactDb.getFirstName(), contactId);
+        contactDb.setCustomerId(customerDb.getId());
+        contactDb.setVersion(contactVersion + 1);
+
+        final var customerId = customerDb.getId();
+        final var updated = customerPatcher.update(
+            where("_id").is(customerId)
+                .and(CONTACTS).elemMatch(where("_id").is(contactId).and("version").is(contactVersion)),
+            new Update()
+                .set(CONTACTS + ".$[contact]", contactDb)
+                .filterArray(where("contact._id").is(contactId).and("contact.version").is(contactVersion))
+        );
+        if (updated.isEmpty()) {
+            // Kunde oder Kontakt wurden gleichzeitig geändert oder gelöscht
+            customerCache.invalidate(customerId);
+            final var current = customerRepository.findById(customerId).orElseThrow(() -> new NotFoundException(customerId));
+            validateVersion(contactVersion, findEmbeddedContact(current, contactId));
+            throw new OptimisticLockingFailureException("Contact " + contactId + " was modified concurrently");
+        }
+        saved(updated.get());
+        log.debug("updateEmbeddedContact: contactDb={}", contactDb);
+        return contactDb;
+    }
+
+    private static Contact findEmbeddedContact(final Customer customer, final UUID contactId) {
+        return Optional.ofNullable(customer.getContacts()).orElse(List.of()).stream()
+            .filter(contact -> contact.getId().equals(contactId))
+            .findFirst()
+            .orElseThrow(() -> new NotFoundException(contactId));
+    }
+
+    private static void checkContactExists(
+        final List<Contact> contacts,
+        final String lastName,
+        final String firstName,
+        final UUID exceptId
+    ) {
+        final var exists = contacts.stream()
+            .filter(contact -> !contact.getId().equals(exceptId))
+            .anyMatch(contact -> Objects.equals(contact.getLastName(), lastName)
+                && Objects.equals(contact.getFirstName(), firstName));
+        if (exists) {
+            log.error("checkContactExists: contact {} {} already exists", lastName, firstName);
+            throw new ContactExistsException(lastName, firstName);
+        }
+    }
+
+    private void checkContactExists(final UUID customerId, final String lastName, final String firstName) {
+        if (contactRepository.existsByCustomerIdAndLastNameAndFirstName(customerId, lastName, firstName)) {
+            log.error("checkContactExists: contact {} {} already exists", lastName, firstName);
+            throw new ContactExistsException(lastName, firstName);
+        }
+    }
+
+    private Contact insertContact(final Contact contact) {
+        try {
+            return contactRepository.insert(contact);
+        } catch (final DuplicateKeyException e) {
+            // Gleichzeitig angelegter Kontakt: der eindeutige Index ist maßgeblich
+            throw new ContactExistsException(contact.getLastName(), contact.getFirstName());
+        }
+    }
+
+    private Customer saved(final Customer saved) {
+        customerUniquenessFilter.add(saved);
+        final var customerDb = customerCache.put(saved);
+        customerCacheInvalidator.publish(customerDb);
+        return customerDb;
+    }
+
+    /**
+     * Liefert den Kunden als Grundlage einer Änderung.
+     * <p>
+     * Enthält der Cache genau die erwartete Version, wird er ohne Datenbankzugriff verwendet; die Version prüft dann
+     * erst das Update selbst. Andernfalls wird der Kunde gelesen und die Version wie bisher geprüft.
+     * </p>
+     */
+    private Customer findForUpdate(final UUID id, final int version) {
+        // Kunden im Zustand PENDING werden erst durch `create` aktiviert
+        final var cached = customerCache.get(id, customerRepository::findById)
+            .filter(CustomerReadService::isVisible)
+            .orElseThrow(() -> new NotFoundException(id));
+        if (cached.getVersion() == version) {
+            return cached;
+        }
+        final var customerDb = customerRepository.findById(id)
+            .filter(CustomerReadService::isVisible)
+            .orElseThrow(() -> new NotFoundException(id));
+        validateVersion(version, customerDb);
+        return customerDb;
+    }
+
+    /**
+     * Fügt einen neuen Kunden im Zustand {@code PENDING} ein.
+     * <p>
+     * Blockiert ein verwaister {@code PENDING}-Kunde, dessen Anlage vor mehr als
+     * {@link com.gentlecorp.customer.util.Constants#CUSTOMER_PENDING_TIMEOUT} abgebrochen wurde, E-Mail-Adresse oder
+     * Benutzernamen, wird er entfernt und das Einfügen einmal wiederholt.
+     * </p>
+     */
+    private Customer insertPending(final Customer customer) {
+        try {
+            return customerRepository.insert(customer);
+        } catch (final DuplicateKeyException e) {
+            final var stale = mongoTemplate.remove(
+                query(where("customerState").is(PENDING)
+                    .and("created").lt(LocalDateTime.now().minus(CUSTOMER_PENDING_TIMEOUT))
+                    .orOperator(where("email").is(customer.getEmail()), where("username").is(customer.getUsername()))),
+                Customer.class
+            );
+            if (stale.getDeletedCount() == 0) {
+                throw toConflict(e, customer);
+            }
+            log.warn("insertPending: removed {} abandoned pending customers", stale.getDeletedCount());
+            try {
+                return customerRepository.insert(customer);
+            } catch (final DuplicateKeyException retry) {
+                throw toConflict(retry, customer);
+            }
+        }
+    }
+
+    private static RuntimeException toConflict(final DuplicateKeyException e, final Customer customer) {
+        final var message = String.valueOf(e.getMessage());
+        if (message.contains("index: email")) {
+            return new EmailExistsException(customer.getEmail());
+        }
+        if (message.contains("index: username")) {
+            return new UsernameExistsException(customer.getUsername());
+        }
+        return e;
     }
 
     @SuppressWarnings("ReturnCount")
@@ -314,6 +576,19 @@ public class CustomerWriteService {
         if (!NUMBERS.matcher(password).matches()) {
             return false;
         }
-        return SYMBOLS.matcher(password).matches();
+        if (!SYMBOLS.matcher(password).matches()) {
+            return false;
+        }
+        return !isCompromised(password);
+    }
+
+    private boolean isCompromised(final CharSequence password) {
+        try {
+            return compromisedPasswordChecker.check(password.toString()).isCompromised();
+        } catch (final RuntimeException e) {
+            // Nur mit `app.password-hibp` wird die HIBP-API gefragt; ist sie nicht erreichbar, bleibt es bei den Regeln
+            log.warn("isCompromised: check failed: {}", e.getMessage());
+            return false;
+        }
     }
 }
@@ -0,0 +1,97 @@
+package com.gentlecorp.customer.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Veröffentlicht Nachrichten asynchron auf Kafka und misst die Zustellung je Topic.
+ * <p>
+ * Der Aufrufer wartet nicht auf die Bestätigung des Brokers; der Producer bündelt gleichzeitig offene Nachrichten
+ * gemäß `linger.ms` und `batch.size` (siehe `spring.kafka.producer` in `application.yaml`). Nach der Bestätigung
+ * oder dem Fehlschlag werden `kafka.publish.latency` (Tags `topic` und `outcome`) und bei Fehlern
+ * `kafka.publish.failed` erfasst. Fehlgeschlagene Nachrichten wiederholt der {@link OutboxRelay}, da jede Nachricht
+ * bis zur Bestätigung als Outbox-Eintrag gespeichert bleibt.
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@Component
+@Slf4j
+public class KafkaPublisher {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Erstellt den Publisher.
+     *
+     * @param kafkaTemplate Das Template für Kafka-Nachrichten.
+     * @param meterRegistry Die Registry für Micrometer-Metriken.
+     */
+    public KafkaPublisher(final KafkaTemplate<String, Object> kafkaTemplate, final MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Veröffentlicht eine Nachricht mit der Kunden-ID als Schlüssel, damit die Nachrichten eines Kunden in einer
+     * Partition geordnet bleiben.
+     *
+     * @param topic      Das Kafka-Topic.
+     * @param customerId Die ID des Kunden.
+     * @param payload    Die Nachricht.
+     * @return Ein Future, das mit der Bestätigung des Brokers abgeschlossen wird.
+     */
+    public CompletableFuture<SendResult<String, Object>> send(
+        final String topic,
+        final UUID customerId,
+        final Object payload
+    ) {
+        final var sample = Timer.start(meterRegistry);
+        final CompletableFuture<SendResult<String, Object>> future;
+        try {
+            future = kafkaTemplate.send(topic, customerId.toString(), payload);
+        } catch (final RuntimeException e) {
+            // z. B. Serialisierungsfehler oder voller Puffer
+            onFailure(topic, customerId, sample, e);
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return future.whenComplete((result, ex) -> {
+            if (ex == null) {
+                sample.stop(timer(topic, "SUCCESS"));
+            } else {
+                onFailure(topic, customerId, sample, ex);
+            }
+        });
+    }
+
+    private void onFailure(final String topic, final UUID customerId, final Timer.Sample sample, final Throwable ex) {
+        sample.stop(timer(topic, "ERROR"));
+        Counter.builder("kafka.publish.failed")
+            .description("Nicht bestätigte Kafka-Nachrichten")
+            .tag("topic", topic)
+            .register(meterRegistry)
+            .increment();
+        log.warn("send: {} for customer {} failed: {}", topic, customerId, ex.getMessage());
+    }
+
+    private Timer timer(final String topic, final String outcome) {
+        return Timer.builder("kafka.publish.latency")
+            .description("Zeit bis zur Bestätigung einer Kafka-Nachricht durch den Broker")
+            .tag("topic", topic)
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+}
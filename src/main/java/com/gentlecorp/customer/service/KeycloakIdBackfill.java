@@ -0,0 +1,110 @@
+package com.gentlecorp.customer.service;
+
+import com.gentlecorp.customer.model.entity.Customer;
+import com.gentlecorp.customer.security.service.KeycloakService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.gentlecorp.customer.model.enums.StatusType.PENDING;
+import static com.gentlecorp.customer.util.Constants.KEYCLOAK_BACKFILL_BATCH_SIZE;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Trägt die Keycloak-ID bei Kunden nach, die vor Einführung des Feldes `keycloakId` angelegt wurden.
+ * <p>
+ * Der Job läuft nach dem Start asynchron, liest die Benutzer des Realms seitenweise und setzt die IDs je Seite mit
+ * einer Bulk-Operation. Er ist idempotent und überspringt sich selbst, wenn kein Kunde mehr ohne das Feld existiert.
+ * Noch nicht aktivierte Kunden im Zustand `PENDING` erhalten ihre ID bei der Anlage und werden übergangen. Kunden
+ * ohne passenden Benutzer im Realm erhalten nach einem vollständigen Durchlauf `keycloakId: null`, damit sie den Job
+ * nicht bei jedem Start erneut auslösen; für sie ermittelt {@link KeycloakService} die ID weiterhin über den
+ * Benutzernamen.
+ * </p>
+ * <p>
+ * Die `version` der Kunden bleibt unverändert, da sich ihre fachlichen Daten nicht ändern; stattdessen entfernen alle
+ * Instanzen über {@link CustomerCacheInvalidator#publishAll()} sämtliche zwischengespeicherten Kunden, sofern
+ * mindestens eine ID gesetzt wurde.
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class KeycloakIdBackfill {
+
+    private static final String KEYCLOAK_ID = "keycloakId";
+
+    private final MongoTemplate mongoTemplate;
+    private final KeycloakService keycloakService;
+    private final CustomerCache customerCache;
+    private final CustomerCacheInvalidator customerCacheInvalidator;
+
+    /**
+     * Startet das Nachtragen nach dem Hochfahren der Anwendung.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void run() {
+        if (!mongoTemplate.exists(missing(), Customer.class)) {
+            log.debug("run: all customers have a keycloakId");
+            return;
+        }
+
+        final var updated = new AtomicLong();
+        try {
+            backfill(updated);
+            final var unmatched = mongoTemplate.updateMulti(missing(), Update.update(KEYCLOAK_ID, null), Customer.class)
+                .getModifiedCount();
+            log.info("run: keycloakId set for {} customers, {} without Keycloak user", updated.get(), unmatched);
+        } catch (final RuntimeException e) {
+            // Ohne gespeicherte ID ermittelt KeycloakService die ID weiterhin über den Benutzernamen
+            log.warn("run: backfill failed after {} customers: {}", updated.get(), e.getMessage());
+        } finally {
+            if (updated.get() > 0) {
+                // Zwischengespeicherte Kunden ohne ID dürfen in keiner Instanz mehr zurückgeschrieben werden; die
+                // eigene Instanz sofort, auch wenn die Veröffentlichung scheitert
+                customerCache.invalidateAll();
+                customerCacheInvalidator.publishAll();
+            }
+        }
+    }
+
+    private void backfill(final AtomicLong updated) {
+        var first = 0;
+        while (true) {
+            final var users = keycloakService.findUsers(first, KEYCLOAK_BACKFILL_BATCH_SIZE);
+            if (!users.isEmpty()) {
+                final var bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, Customer.class);
+                users.forEach(user -> bulk.updateOne(
+                    missing().addCriteria(where("username").is(user.username())),
+                    Update.update(KEYCLOAK_ID, user.id())
+                ));
+                updated.addAndGet(bulk.execute().getModifiedCount());
+            }
+            if (users.size() < KEYCLOAK_BACKFILL_BATCH_SIZE) {
+                return;
+            }
+            first += KEYCLOAK_BACKFILL_BATCH_SIZE;
+        }
+    }
+
+    /**
+     * Aktivierte Kunden, für die das Feld `keycloakId` noch fehlt.
+     */
+    private static Query missing() {
+        return query(where(KEYCLOAK_ID).exists(false).and("customerState").ne(PENDING));
+    }
+}
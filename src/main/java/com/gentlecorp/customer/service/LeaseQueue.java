@@ -0,0 +1,270 @@
+package com.gentlecorp.customer.service;
+
+import com.gentlecorp.customer.model.entity.LeasedEntry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Gemeinsame Grundlage der dauerhaften Warteschlangen {@link OutboxRelay} und {@link MailQueue}.
+ * <p>
+ * Ein Durchlauf läuft alle {@link Settings#pollInterval()} sowie nach {@link #wakeUp()} auf einem eigenen Thread.
+ * Er sperrt fällige Einträge mit einer zufälligen Kennung für {@link Settings#lease()}, sodass mehrere Instanzen
+ * dieselbe Collection abarbeiten können; die Zustellung ist daher mindestens einmal, nicht genau einmal.
+ * Fehlgeschlagene Einträge werden mit exponentiell wachsender, zufällig gestreuter Wartezeit wiederholt und nach
+ * {@link Settings#maxAttempts()} Versuchen als `dead` markiert; sie bleiben zur Analyse erhalten.
+ * </p>
+ * <p>
+ * Welche Einträge ein Durchlauf sperrt und wie er sie zustellt, legen die Unterklassen in {@link #drain()} fest.
+ * Metrik: `&lt;name&gt;.dead` (aufgegebene Einträge).
+ * </p>
+ *
+ * @param <T> Der Typ der Einträge.
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@Slf4j
+public abstract class LeaseQueue<T extends LeasedEntry> {
+
+    /**
+     * Das Template für den Zugriff auf die Collection der Einträge.
+     */
+    protected final MongoTemplate mongoTemplate;
+
+    /**
+     * Die Threads, auf denen die Unterklassen zustellen.
+     */
+    protected final ExecutorService workers;
+
+    private final Class<T> type;
+    private final Settings settings;
+    private final ScheduledExecutorService scheduler;
+    /** Gibt an, ob bereits ein Durchlauf angestoßen, aber noch nicht begonnen wurde */
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private final Counter dead;
+
+    /**
+     * Zeiten und Grenzen einer Warteschlange.
+     *
+     * @param pollInterval  Abstand der regelmäßigen Durchläufe.
+     * @param lease         Dauer, für die ein Durchlauf seine Einträge sperrt.
+     * @param maxAttempts   Anzahl der Versuche, nach denen ein Eintrag aufgegeben wird.
+     * @param retryBackoff  Wartezeit nach dem ersten Fehlschlag; sie verdoppelt sich mit jedem weiteren.
+     * @param maxBackoff    Obergrenze der Wartezeit.
+     * @param workerThreads Anzahl der Threads für die Zustellung.
+     */
+    public record Settings(
+        Duration pollInterval,
+        Duration lease,
+        int maxAttempts,
+        Duration retryBackoff,
+        Duration maxBackoff,
+        int workerThreads
+    ) {
+    }
+
+    /**
+     * Erstellt die Warteschlange und registriert ihre Metrik.
+     *
+     * @param type          Der Typ der Einträge.
+     * @param name          Der Name für Threads und Metriken, z.B. `outbox`.
+     * @param settings      Zeiten und Grenzen der Warteschlange.
+     * @param mongoTemplate Das Template für den Zugriff auf die Einträge.
+     * @param meterRegistry Die Registry für Micrometer-Metriken.
+     */
+    protected LeaseQueue(
+        final Class<T> type,
+        final String name,
+        final Settings settings,
+        final MongoTemplate mongoTemplate,
+        final MeterRegistry meterRegistry
+    ) {
+        this.type = type;
+        this.settings = settings;
+        this.mongoTemplate = mongoTemplate;
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name(name).daemon().factory());
+        workers = Executors.newFixedThreadPool(
+            settings.workerThreads(),
+            Thread.ofPlatform().name(name + "-worker-", 0).daemon().factory()
+        );
+        dead = Counter.builder(name + ".dead")
+            .description("Nach zu vielen Versuchen aufgegebene Einträge")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Legt den Index der Collection an und plant die regelmäßigen Durchläufe.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        final var indexOps = mongoTemplate.indexOps(type);
+        indexes().forEach(indexOps::ensureIndex);
+        final var interval = settings.pollInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::drainQuietly, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+        workers.shutdown();
+    }
+
+    /**
+     * Stößt einen Durchlauf an, ohne auf ihn zu warten.
+     */
+    public void wakeUp() {
+        if (wakeUpPending.compareAndSet(false, true)) {
+            scheduler.execute(this::drainQuietly);
+        }
+    }
+
+    /**
+     * Liefert die Indizes, mit denen ein Durchlauf die fälligen Einträge findet.
+     *
+     * @return Die Indizes.
+     */
+    protected abstract List<Index> indexes();
+
+    /**
+     * Sperrt und bearbeitet die fälligen Einträge.
+     */
+    protected abstract void drain();
+
+    private void drainQuietly() {
+        wakeUpPending.set(false);
+        try {
+            drain();
+        } catch (final RuntimeException e) {
+            // Der nächste Durchlauf versucht es erneut
+            log.warn("drain: failed", e);
+        }
+    }
+
+    /**
+     * Sperrt die angegebenen Einträge, soweit sie noch fällig und nicht anderweitig gesperrt sind.
+     *
+     * @param ids Die IDs der Einträge.
+     * @param now Der Zeitpunkt, zu dem die Einträge ausgewählt wurden.
+     * @return Die gesperrten Einträge in beliebiger Reihenfolge.
+     */
+    protected List<T> lease(final Collection<UUID> ids, final Instant now) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        final var leaseId = UUID.randomUUID().toString();
+        mongoTemplate.updateMulti(
+            new Query(where("_id").in(ids).and("dead").is(false).and("nextAttemptAt").lte(now).orOperator(
+                where("lockedUntil").is(null),
+                where("lockedUntil").lte(now)
+            )),
+            new Update().set("lockedBy", leaseId).set("lockedUntil", now.plus(settings.lease())),
+            type
+        );
+        return mongoTemplate.find(new Query(where("_id").in(ids).and("lockedBy").is(leaseId)), type);
+    }
+
+    /**
+     * Wartet höchstens {@link Settings#lease()} auf die Zustellung eines Durchlaufs.
+     *
+     * @param futures Die laufenden Zustellungen.
+     */
+    protected void await(final CompletableFuture<?>... futures) {
+        try {
+            CompletableFuture.allOf(futures).get(settings.lease().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (final TimeoutException e) {
+            // Nicht abgeschlossene Einträge werden nach Ablauf der Sperre erneut zugestellt
+            log.warn("await: deliveries did not complete within {}", settings.lease());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException e) {
+            log.warn("await: unexpected failure", e.getCause());
+        }
+    }
+
+    /**
+     * Löscht zugestellte Einträge.
+     *
+     * @param ids Die IDs der Einträge.
+     */
+    protected void remove(final Collection<UUID> ids) {
+        if (!ids.isEmpty()) {
+            mongoTemplate.remove(new Query(where("_id").in(ids)), type);
+        }
+    }
+
+    /**
+     * Gibt die Sperre nicht bearbeiteter Einträge frei.
+     *
+     * @param ids Die IDs der Einträge.
+     */
+    protected void release(final Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        mongoTemplate.updateMulti(
+            new Query(where("_id").in(ids)),
+            new Update().unset("lockedBy").unset("lockedUntil"),
+            type
+        );
+    }
+
+    /**
+     * Plant einen fehlgeschlagenen Eintrag neu ein oder gibt ihn nach zu vielen Versuchen auf.
+     *
+     * @param entry Der Eintrag.
+     * @param ex    Der Fehler des Versuchs.
+     */
+    protected void failed(final T entry, final Throwable ex) {
+        final var attempts = entry.getAttempts() + 1;
+        final var update = new Update()
+            .set("attempts", attempts)
+            .set("lastError", String.valueOf(ex.getMessage()))
+            .unset("lockedBy")
+            .unset("lockedUntil");
+        if (attempts >= settings.maxAttempts()) {
+            log.error("failed: giving up on {} after {} attempts", entry, attempts, ex);
+            update.set("dead", true);
+            dead.increment();
+        } else {
+            final var backoff = backoff(attempts);
+            log.warn("failed: {} (attempt {}), retrying in {}: {}", entry, attempts, backoff, ex.getMessage());
+            update.set("nextAttemptAt", Instant.now().plus(backoff));
+        }
+        mongoTemplate.updateFirst(new Query(where("_id").is(entry.getId())), update, type);
+    }
+
+    private Duration backoff(final int attempts) {
+        final var ceiling = Math.min(
+            settings.maxBackoff().toMillis(),
+            settings.retryBackoff().toMillis() << Math.min(attempts - 1, 20)
+        );
+        // Zufällig gestreut, damit fehlgeschlagene Einträge nicht gleichzeitig erneut zugestellt werden
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1));
+    }
+}
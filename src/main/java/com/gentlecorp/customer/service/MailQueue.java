@@ -0,0 +1,226 @@
+package com.gentlecorp.customer.service;
+
+import com.gentlecorp.customer.model.entity.MailMessage;
+import com.gentlecorp.customer.repository.CustomerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.gentlecorp.customer.util.Constants.MAIL_BATCH_SIZE;
+import static com.gentlecorp.customer.util.Constants.MAIL_LEASE;
+import static com.gentlecorp.customer.util.Constants.MAIL_MAX_ATTEMPTS;
+import static com.gentlecorp.customer.util.Constants.MAIL_MAX_BACKOFF;
+import static com.gentlecorp.customer.util.Constants.MAIL_POLL_INTERVAL;
+import static com.gentlecorp.customer.util.Constants.MAIL_RETRY_BACKOFF;
+import static com.gentlecorp.customer.util.Constants.MAIL_WORKER_THREADS;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Dauerhafte Warteschlange für ausgehende Mails.
+ * <p>
+ * Der {@link OutboxRelay} reiht die gerenderte Mail hier ein, statt sie selbst zu versenden; ein nicht erreichbarer
+ * Mailserver hält dadurch die Kafka-Nachrichten desselben Kunden nicht auf. Die Mails werden in der Collection
+ * 'MailQueue' gespeichert und von höchstens {@link com.gentlecorp.customer.util.Constants#MAIL_WORKER_THREADS}
+ * Threads in Bündeln von bis zu {@link com.gentlecorp.customer.util.Constants#MAIL_BATCH_SIZE} Mails je
+ * SMTP-Verbindung versendet.
+ * </p>
+ * <p>
+ * Sperren, Wiederholung und Aufgabe nach {@link com.gentlecorp.customer.util.Constants#MAIL_MAX_ATTEMPTS} Versuchen
+ * übernimmt wie beim Relay die {@link LeaseQueue}. Ist SMTP deaktiviert, werden die Mails verworfen und nur als
+ * `mail.skipped` gezählt.
+ * </p>
+ * <p>
+ * Metriken: `mail.queue.depth` (offene Mails), `mail.sent`, `mail.failed`, `mail.skipped`, `mail.dead`,
+ * `mail.delivery.latency` (Zeit zwischen Einreihen und Versand) und `mail.batch.duration` (Dauer eines Bündels).
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@Component
+@Slf4j
+public class MailQueue extends LeaseQueue<MailMessage> {
+
+    private static final Settings SETTINGS = new Settings(
+        MAIL_POLL_INTERVAL,
+        MAIL_LEASE,
+        MAIL_MAX_ATTEMPTS,
+        MAIL_RETRY_BACKOFF,
+        MAIL_MAX_BACKOFF,
+        MAIL_WORKER_THREADS
+    );
+
+    private final MailService mailService;
+    private final CustomerRepository customerRepository;
+    private final AtomicLong depth = new AtomicLong();
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter skipped;
+    private final Timer latency;
+    private final Timer batchDuration;
+
+    /**
+     * Erstellt die Warteschlange und registriert ihre Metriken.
+     *
+     * @param mongoTemplate      Das Template für den Zugriff auf die Warteschlange.
+     * @param mailService        Der Service zum Rendern und Versenden der Mails.
+     * @param customerRepository Das Repository für die Empfänger der Mails.
+     * @param meterRegistry      Die Registry für Micrometer-Metriken.
+     */
+    public MailQueue(
+        final MongoTemplate mongoTemplate,
+        final MailService mailService,
+        final CustomerRepository customerRepository,
+        final MeterRegistry meterRegistry
+    ) {
+        super(MailMessage.class, "mail", SETTINGS, mongoTemplate, meterRegistry);
+        this.mailService = mailService;
+        this.customerRepository = customerRepository;
+        Gauge.builder("mail.queue.depth", depth, AtomicLong::get)
+            .description("Noch nicht versendete Mails, ohne aufgegebene")
+            .register(meterRegistry);
+        sent = Counter.builder("mail.sent")
+            .description("Versendete Mails")
+            .register(meterRegistry);
+        failed = Counter.builder("mail.failed")
+            .description("Fehlgeschlagene Versandversuche")
+            .register(meterRegistry);
+        skipped = Counter.builder("mail.skipped")
+            .description("Wegen deaktiviertem SMTP verworfene Mails")
+            .register(meterRegistry);
+        latency = Timer.builder("mail.delivery.latency")
+            .description("Zeit zwischen dem Einreihen und dem Versand einer Mail")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        batchDuration = Timer.builder("mail.batch.duration")
+            .description("Dauer des Versands eines Bündels über eine SMTP-Verbindung")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Rendert die Begrüßungsmail eines Kunden und reiht sie ein.
+     *
+     * @param id         Die ID der Mail; wiederholtes Einreihen mit derselben ID wird ignoriert.
+     * @param customerId Die ID des Kunden.
+     */
+    public void enqueue(final UUID id, final UUID customerId) {
+        final var customer = customerRepository.findById(customerId);
+        if (customer.isEmpty()) {
+            log.debug("enqueue: customer {} no longer exists", customerId);
+            return;
+        }
+
+        final var now = Instant.now();
+        final var mail = mailService.render(customer.get());
+        mail.setId(id);
+        mail.setCreatedAt(now);
+        mail.setNextAttemptAt(now);
+        try {
+            mongoTemplate.insert(mail);
+        } catch (final DuplicateKeyException e) {
+            log.debug("enqueue: mail {} already queued", id);
+            return;
+        }
+        log.trace("enqueue: {}", mail);
+        wakeUp();
+    }
+
+    @Override
+    protected List<Index> indexes() {
+        return List.of(new Index().on("dead", Sort.Direction.ASC).on("nextAttemptAt", Sort.Direction.ASC));
+    }
+
+    @Override
+    protected void drain() {
+        boolean more;
+        do {
+            final List<List<MailMessage>> batches = new ArrayList<>();
+            more = false;
+            while (batches.size() < MAIL_WORKER_THREADS) {
+                final var batch = claim();
+                if (batch.isEmpty()) {
+                    break;
+                }
+                batches.add(batch);
+                more = batch.size() == MAIL_BATCH_SIZE;
+                if (!more) {
+                    break;
+                }
+            }
+            deliver(batches);
+        } while (more);
+        depth.set(mongoTemplate.count(new Query(where("dead").is(false)), MailMessage.class));
+    }
+
+    /**
+     * Sperrt die ältesten fälligen Mails für einen Worker.
+     */
+    private List<MailMessage> claim() {
+        final var now = Instant.now();
+        final var due = new Query(where("dead").is(false).and("nextAttemptAt").lte(now).orOperator(
+            where("lockedUntil").is(null),
+            where("lockedUntil").lte(now)
+        ));
+        due.fields().include("_id");
+        final var candidates = mongoTemplate.find(
+            due.with(Sort.by("nextAttemptAt")).limit(MAIL_BATCH_SIZE),
+            MailMessage.class
+        );
+        return lease(candidates.stream().map(MailMessage::getId).toList(), now);
+    }
+
+    private void deliver(final List<List<MailMessage>> batches) {
+        if (batches.isEmpty()) {
+            return;
+        }
+        await(batches.stream()
+            .map(batch -> CompletableFuture.runAsync(() -> send(batch), workers))
+            .toArray(CompletableFuture[]::new));
+    }
+
+    private void send(final List<MailMessage> batch) {
+        final var ids = batch.stream().map(MailMessage::getId).toList();
+        if (!mailService.isActivated()) {
+            // Ohne SMTP werden die Mails wie bisher verworfen, aber nicht als versendet gezählt
+            remove(ids);
+            skipped.increment(ids.size());
+            log.warn("send: SMTP is disabled, discarded {} mails", ids.size());
+            return;
+        }
+
+        final Map<UUID, Exception> failures = batchDuration.record(() -> mailService.send(batch));
+        final var now = Instant.now();
+        final List<UUID> sentIds = new ArrayList<>();
+        for (final var mail : batch) {
+            final var failure = failures.get(mail.getId());
+            if (failure == null) {
+                sentIds.add(mail.getId());
+                latency.record(Duration.between(mail.getCreatedAt(), now));
+            } else {
+                failed.increment();
+                failed(mail, failure);
+            }
+        }
+        remove(sentIds);
+        sent.increment(sentIds.size());
+        log.debug("send: sent={}, failed={}", sentIds.size(), failures.size());
+    }
+}
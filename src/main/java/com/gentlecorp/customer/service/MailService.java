@@ -2,18 +2,29 @@ package com.gentlecorp.customer.service;
 
 import com.gentlecorp.customer.MailProps;
 import com.gentlecorp.customer.model.entity.Customer;
+import com.gentlecorp.customer.model.entity.MailMessage;
+import jakarta.mail.MessagingException;
 import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.MailAuthenticationException;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.mail.MailException;
 import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessagePreparator;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
 
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.UUID;
 
 import static jakarta.mail.Message.RecipientType.TO;
 
@@ -24,34 +35,99 @@ public class MailService {
 
   private static final boolean SMTP_ACTIVATED = Objects.equals(System.getProperty("SMTP_ACTIVATED"), "true") ||
     Objects.equals(System.getProperty("smtp-activated"), "true");
+  private static final String NEW_CUSTOMER_TEMPLATE = "mail/new-customer";
 
   private final JavaMailSender mailSender;
   private final MailProps props;
+  private final ITemplateEngine templateEngine;
 
   @Value("${spring.mail.host}")
   private String mailhost;
 
-  @Async
-  public void send(final Customer neuerKunde) {
+  /**
+   * Lädt die Templates beim Start, damit die erste Mail nicht auf das Parsen wartet; Thymeleaf hält sie danach
+   * im Cache.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  void warmUp() {
+    templateEngine.process(NEW_CUSTOMER_TEMPLATE, new Context(Locale.GERMANY));
+  }
+
+  /**
+   * Rendert die Begrüßungsmail für einen neuen Kunden.
+   *
+   * @param neuerKunde Der neue Kunde.
+   * @return Die Mail ohne ID und Zeitpunkte.
+   */
+  public MailMessage render(final Customer neuerKunde) {
+    final var context = new Context(Locale.GERMANY);
+    context.setVariable("lastName", neuerKunde.getLastName());
+    return MailMessage.builder()
+      .customerId(neuerKunde.getId())
+      .to(neuerKunde.getEmail())
+      .subject("New Customer " + neuerKunde.getId())
+      .body(templateEngine.process(NEW_CUSTOMER_TEMPLATE, context))
+      .build();
+  }
+
+  /**
+   * Gibt an, ob Mails über SMTP versendet werden.
+   *
+   * @return {@code true}, falls SMTP aktiviert ist.
+   */
+  public boolean isActivated() {
+    return SMTP_ACTIVATED;
+  }
+
+  /**
+   * Versendet mehrere Mails über eine gemeinsame SMTP-Verbindung.
+   *
+   * @param mails Die Mails.
+   * @return Die Fehler der nicht versendeten Mails je Mail-ID; leer, falls alle versendet wurden.
+   */
+  public Map<UUID, Exception> send(final List<MailMessage> mails) {
     if (!SMTP_ACTIVATED) {
       log.warn("SMTP is disabled.");
-      return;
+      final var disabled = new MailSendException("SMTP ist deaktiviert");
+      final Map<UUID, Exception> failures = new HashMap<>();
+      mails.forEach(mail -> failures.put(mail.getId(), disabled));
+      return failures;
     }
 
-    final MimeMessagePreparator preparator = mimeMessage -> {
-      mimeMessage.setFrom(new InternetAddress(props.getFrom()));
-      mimeMessage.setRecipient(TO, new InternetAddress(props.getTo()));
-      mimeMessage.setSubject(String.format("New Customer %s", neuerKunde.getId()));
-      final var body = String.format("<strong>New Customer:</strong> <em>%s</em>", neuerKunde.getLastName());
-      log.trace("send: Mail server={}, Thread ID={}, body={}", mailhost, Thread.currentThread().threadId(), body);
-      mimeMessage.setText(body, "UTF-8", "html");
-    };
+    final Map<UUID, Exception> failures = new HashMap<>();
+    final Map<MimeMessage, UUID> ids = new IdentityHashMap<>();
+    for (final var mail : mails) {
+      try {
+        ids.put(toMimeMessage(mail), mail.getId());
+      } catch (final MessagingException e) {
+        failures.put(mail.getId(), e);
+      }
+    }
+    if (ids.isEmpty()) {
+      return failures;
+    }
 
+    log.trace("send: Mail server={}, Thread ID={}, count={}", mailhost, Thread.currentThread().threadId(), ids.size());
     try {
-      mailSender.send(preparator);
-    } catch (final MailSendException | MailAuthenticationException e) {
-      // TODO: Add retry logic for sending the email
-      log.warn("Email not sent: Is the mail server {} reachable?", mailhost);
+      mailSender.send(ids.keySet().toArray(MimeMessage[]::new));
+    } catch (final MailSendException e) {
+      // Ohne einzelne Fehler ist keine der Mails versendet worden, z. B. weil der Server nicht erreichbar war
+      if (e.getFailedMessages().isEmpty()) {
+        ids.values().forEach(id -> failures.put(id, e));
+      }
+      e.getFailedMessages().forEach((message, ex) -> failures.put(ids.get(message), ex));
+    } catch (final MailException e) {
+      ids.values().forEach(id -> failures.put(id, e));
     }
+    return failures;
+  }
+
+  private MimeMessage toMimeMessage(final MailMessage mail) throws MessagingException {
+    final var mimeMessage = mailSender.createMimeMessage();
+    mimeMessage.setFrom(new InternetAddress(props.getFrom()));
+    mimeMessage.setRecipient(TO, new InternetAddress(mail.getTo()));
+    mimeMessage.setSubject(mail.getSubject());
+    mimeMessage.setText(mail.getBody(), "UTF-8", "html");
+    return mimeMessage;
   }
 }
@@ -0,0 +1,275 @@
+package com.gentlecorp.customer.service;
+
+import com.gentlecorp.customer.model.entity.OutboxEntry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.gentlecorp.customer.util.Constants.OUTBOX_BATCH_SIZE;
+import static com.gentlecorp.customer.util.Constants.OUTBOX_LEASE;
+import static com.gentlecorp.customer.util.Constants.OUTBOX_MAX_ATTEMPTS;
+import static com.gentlecorp.customer.util.Constants.OUTBOX_MAX_BACKOFF;
+import static com.gentlecorp.customer.util.Constants.OUTBOX_POLL_INTERVAL;
+import static com.gentlecorp.customer.util.Constants.OUTBOX_RETRY_BACKOFF;
+import static com.gentlecorp.customer.util.Constants.OUTBOX_WORKER_THREADS;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Stellt die Einträge der Outbox an Kafka zu und reiht Mails in die {@link MailQueue} ein.
+ * <p>
+ * Das Relay läuft nach jedem Schreiben in die Outbox sowie alle
+ * {@link com.gentlecorp.customer.util.Constants#OUTBOX_POLL_INTERVAL} und liest die ältesten fälligen Einträge in
+ * Bündeln. Die Einträge eines Kunden werden streng nacheinander zugestellt, verschiedene Kunden parallel; Kafka
+ * bündelt die gleichzeitig offenen Nachrichten dabei selbst. Schlägt ein Eintrag fehl, wird er mit exponentiell
+ * wachsender Wartezeit wiederholt, und alle späteren Einträge desselben Kunden warten auf ihn. Nach
+ * {@link com.gentlecorp.customer.util.Constants#OUTBOX_MAX_ATTEMPTS} Versuchen wird er als `dead` markiert und
+ * bleibt zur Analyse erhalten.
+ * </p>
+ * <p>
+ * Sperren, Wiederholung und Aufgabe übernimmt die {@link LeaseQueue}. Kafka-Nachrichten tragen die Kunden-ID als
+ * Schlüssel.
+ * </p>
+ * <p>
+ * Metriken: `outbox.delivered` und `outbox.failed` je Zustellweg, `outbox.dead` und `outbox.delivery.lag`
+ * (Zeit zwischen Speichern und Zustellung).
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@Component
+@Slf4j
+public class OutboxRelay extends LeaseQueue<OutboxEntry> {
+
+    private static final Settings SETTINGS = new Settings(
+        OUTBOX_POLL_INTERVAL,
+        OUTBOX_LEASE,
+        OUTBOX_MAX_ATTEMPTS,
+        OUTBOX_RETRY_BACKOFF,
+        OUTBOX_MAX_BACKOFF,
+        OUTBOX_WORKER_THREADS
+    );
+
+    private final KafkaPublisher kafkaPublisher;
+    private final MailQueue mailQueue;
+    private final MeterRegistry meterRegistry;
+    private final Timer lag;
+
+    /**
+     * Erstellt das Relay und registriert seine Metriken.
+     *
+     * @param mongoTemplate      Das Template für den Zugriff auf die Outbox.
+     * @param kafkaPublisher     Der Publisher für Kafka-Nachrichten.
+     * @param mailQueue          Die Warteschlange, in die Mails eingereiht werden.
+     * @param meterRegistry      Die Registry für Micrometer-Metriken.
+     */
+    public OutboxRelay(
+        final MongoTemplate mongoTemplate,
+        final KafkaPublisher kafkaPublisher,
+        final MailQueue mailQueue,
+        final MeterRegistry meterRegistry
+    ) {
+        super(OutboxEntry.class, "outbox", SETTINGS, mongoTemplate, meterRegistry);
+        this.kafkaPublisher = kafkaPublisher;
+        this.mailQueue = mailQueue;
+        this.meterRegistry = meterRegistry;
+        lag = Timer.builder("outbox.delivery.lag")
+            .description("Zeit zwischen dem Speichern und der Zustellung eines Outbox-Eintrags")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    @Override
+    protected List<Index> indexes() {
+        return List.of(
+            new Index().on("dead", Sort.Direction.ASC).on("nextAttemptAt", Sort.Direction.ASC).on("createdAt", Sort.Direction.ASC),
+            new Index().on("customerId", Sort.Direction.ASC).on("createdAt", Sort.Direction.ASC).on("position", Sort.Direction.ASC)
+        );
+    }
+
+    @Override
+    protected void drain() {
+        List<OutboxEntry> batch;
+        do {
+            batch = claim();
+            if (!batch.isEmpty()) {
+                relay(batch);
+            }
+        } while (batch.size() == OUTBOX_BATCH_SIZE);
+    }
+
+    /**
+     * Sperrt die ältesten zustellbaren Einträge für diesen Durchlauf.
+     * <p>
+     * Gelesen werden nur fällige und nicht gesperrte Einträge, sodass wartende Einträge den Durchlauf nicht füllen.
+     * Je Kunde wird nur ein zusammenhängender Anfang seiner offenen Einträge gesperrt: Existiert ein älterer, nicht
+     * aufgegebener Eintrag desselben Kunden außerhalb dieses Durchlaufs, ist der Kunde blockiert.
+     * </p>
+     */
+    private List<OutboxEntry> claim() {
+        final var now = Instant.now();
+        final var due = new Query(where("dead").is(false).and("nextAttemptAt").lte(now).orOperator(
+            where("lockedUntil").is(null),
+            where("lockedUntil").lte(now)
+        )).with(Sort.by("createdAt", "position"));
+
+        final Set<UUID> blocked = new HashSet<>();
+        final Map<UUID, OutboxEntry> previous = new HashMap<>();
+        final List<OutboxEntry> candidates = new ArrayList<>();
+        try (var entries = mongoTemplate.stream(due, OutboxEntry.class)) {
+            final var iterator = entries.iterator();
+            while (candidates.size() < OUTBOX_BATCH_SIZE && iterator.hasNext()) {
+                final var entry = iterator.next();
+                final var customerId = entry.getCustomerId();
+                if (blocked.contains(customerId)) {
+                    continue;
+                }
+                if (hasPendingBefore(entry, previous.get(customerId))) {
+                    blocked.add(customerId);
+                    continue;
+                }
+                candidates.add(entry);
+                previous.put(customerId, entry);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        final var claimed = lease(candidates.stream().map(OutboxEntry::getId).toList(), now).stream()
+            .collect(Collectors.toMap(OutboxEntry::getId, Function.identity()));
+
+        // Hat eine andere Instanz einen früheren Eintrag eines Kunden gesperrt, bleiben die späteren liegen
+        final Set<UUID> gaps = new HashSet<>();
+        final List<OutboxEntry> batch = new ArrayList<>();
+        final List<UUID> released = new ArrayList<>();
+        for (final var candidate : candidates) {
+            final var entry = claimed.get(candidate.getId());
+            if (entry == null) {
+                gaps.add(candidate.getCustomerId());
+            } else if (gaps.contains(candidate.getCustomerId())) {
+                released.add(entry.getId());
+            } else {
+                batch.add(entry);
+            }
+        }
+        release(released);
+        log.trace("claim: candidates={}, claimed={}, blocked={}", candidates.size(), batch.size(), blocked.size());
+        return batch;
+    }
+
+    /**
+     * Prüft, ob vor einem Eintrag ein offener Eintrag desselben Kunden liegt, der nicht schon in diesem Durchlauf
+     * zugestellt wird.
+     *
+     * @param entry    Der Eintrag.
+     * @param previous Der letzte Eintrag des Kunden in diesem Durchlauf oder `null`.
+     */
+    private boolean hasPendingBefore(final OutboxEntry entry, final OutboxEntry previous) {
+        final var criteria = where("customerId").is(entry.getCustomerId()).and("dead").is(false);
+        if (previous == null) {
+            criteria.andOperator(before(entry));
+        } else {
+            criteria.andOperator(before(entry), after(previous));
+        }
+        return mongoTemplate.exists(new Query(criteria), OutboxEntry.class);
+    }
+
+    private static Criteria before(final OutboxEntry entry) {
+        return new Criteria().orOperator(
+            where("createdAt").lt(entry.getCreatedAt()),
+            where("createdAt").is(entry.getCreatedAt()).and("position").lt(entry.getPosition())
+        );
+    }
+
+    private static Criteria after(final OutboxEntry entry) {
+        return new Criteria().orOperator(
+            where("createdAt").gt(entry.getCreatedAt()),
+            where("createdAt").is(entry.getCreatedAt()).and("position").gt(entry.getPosition())
+        );
+    }
+
+    private void relay(final List<OutboxEntry> batch) {
+        final var byCustomer = new LinkedHashMap<UUID, List<OutboxEntry>>();
+        batch.forEach(entry -> byCustomer.computeIfAbsent(entry.getCustomerId(), id -> new ArrayList<>()).add(entry));
+
+        await(byCustomer.values().stream()
+            .map(entries -> relay(entries, 0))
+            .toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Stellt die Einträge eines Kunden ab `index` nacheinander zu.
+     */
+    private CompletableFuture<Void> relay(final List<OutboxEntry> entries, final int index) {
+        if (index == entries.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        final var entry = entries.get(index);
+        // Nicht auf dem Netzwerk-Thread des Kafka-Producers in MongoDB schreiben
+        return dispatch(entry)
+            .handleAsync((ignored, ex) -> {
+                if (ex == null) {
+                    delivered(entry);
+                    return true;
+                }
+                counter("outbox.failed", entry).increment();
+                failed(entry, ex instanceof CompletionException ? ex.getCause() : ex);
+                release(entries.subList(index + 1, entries.size()).stream().map(OutboxEntry::getId).toList());
+                return false;
+            }, workers)
+            .thenCompose(success -> success ? relay(entries, index + 1) : CompletableFuture.completedFuture(null));
+    }
+
+    private CompletableFuture<?> dispatch(final OutboxEntry entry) {
+        try {
+            return switch (entry.getType()) {
+                case KAFKA -> kafkaPublisher.send(entry.getTopic(), entry.getCustomerId(), entry.getPayload());
+                // Der Versand selbst erfolgt gebündelt durch die Mail-Queue
+                case MAIL -> CompletableFuture.runAsync(
+                    () -> mailQueue.enqueue(entry.getId(), entry.getCustomerId()),
+                    workers
+                );
+            };
+        } catch (final RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void delivered(final OutboxEntry entry) {
+        remove(List.of(entry.getId()));
+        lag.record(Duration.between(entry.getCreatedAt(), Instant.now()));
+        counter("outbox.delivered", entry).increment();
+    }
+
+    private Counter counter(final String name, final OutboxEntry entry) {
+        return Counter.builder(name)
+            .tag("type", entry.getType().name().toLowerCase(Locale.ROOT))
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,236 @@
+package com.gentlecorp.customer.service.event;
+
+import com.gentlecorp.customer.model.dto.AccountDTO;
+import com.gentlecorp.customer.model.dto.ShoppingCartDTO;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Conversions;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.message.BinaryMessageDecoder;
+import org.apache.avro.message.BinaryMessageEncoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Kodiert Ereignisse mit Apache Avro anhand der unter `avro/` mitgelieferten Schemas.
+ * <p>
+ * Nachrichten verwenden das Single-Object-Encoding von Avro: die Bytes `C3 01`, der 64-Bit-Fingerabdruck des
+ * Schreibschemas und danach der Datensatz im Binärformat. Über den Fingerabdruck wird das Schreibschema gefunden und
+ * per Schema-Auflösung von Avro auf das aktuelle Schema abgebildet. Ältere Versionen eines Schemas werden dafür unter
+ * `avro/` abgelegt und bei ihrem Ereignis eingetragen. Da JSON-Nachrichten nie mit `C3` beginnen, lassen sich beide
+ * Formate auf demselben Topic unterscheiden.
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+public final class AvroEventCodec {
+
+    private static final byte MAGIC_0 = (byte) 0xC3;
+    private static final byte MAGIC_1 = (byte) 0x01;
+    private static final int HEADER_LENGTH = 10;
+
+    /** Skala des Kontostands wie in `AccountDTO.avsc` */
+    private static final int BALANCE_SCALE = 2;
+
+    private static final GenericData MODEL = new GenericData();
+
+    static {
+        MODEL.addLogicalTypeConversion(new Conversions.DecimalConversion());
+        MODEL.addLogicalTypeConversion(new Conversions.UUIDConversion());
+    }
+
+    private static final List<Mapping<?>> MAPPINGS = List.of(
+        Mapping.of(
+            AccountDTO.class,
+            "avro/AccountDTO.avsc",
+            List.of(),
+            (account, record) -> {
+                record.put("balance", account.balance() == null ? null : account.balance().setScale(BALANCE_SCALE));
+                record.put("category", account.category());
+                record.put("rateOfInterest", account.rateOfInterest());
+                record.put("overdraft", account.overdraft());
+                record.put("withdrawalLimit", account.withdrawalLimit());
+                record.put("customerId", account.customerId());
+            },
+            record -> new AccountDTO(
+                (BigDecimal) record.get("balance"),
+                string(record.get("category")),
+                (int) record.get("rateOfInterest"),
+                (int) record.get("overdraft"),
+                (int) record.get("withdrawalLimit"),
+                (UUID) record.get("customerId")
+            )
+        ),
+        Mapping.of(
+            ShoppingCartDTO.class,
+            "avro/ShoppingCartDTO.avsc",
+            List.of(),
+            (cart, record) -> {
+                record.put("customerId", cart.customerId());
+                record.put("token", cart.token());
+            },
+            record -> new ShoppingCartDTO((UUID) record.get("customerId"), string(record.get("token")))
+        )
+    );
+
+    private static final Map<Class<?>, Mapping<?>> BY_TYPE = MAPPINGS.stream()
+        .collect(Collectors.toUnmodifiableMap(Mapping::type, Function.identity()));
+
+    /** Alle lesbaren Schemas, aktuelle wie ältere, nach ihrem Fingerabdruck */
+    private static final Map<Long, Mapping<?>> BY_FINGERPRINT = MAPPINGS.stream()
+        .flatMap(mapping -> mapping.fingerprints().stream().map(fingerprint -> Map.entry(fingerprint, mapping)))
+        .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, Map.Entry::getValue));
+
+    private AvroEventCodec() {
+    }
+
+    /**
+     * Prüft, ob eine Nachricht mit Avro kodiert ist.
+     *
+     * @param data Die Nachricht.
+     * @return {@code true}, falls die Nachricht mit dem Kopf des Single-Object-Encodings beginnt.
+     */
+    public static boolean isAvro(final byte[] data) {
+        return data != null && data.length >= HEADER_LENGTH && data[0] == MAGIC_0 && data[1] == MAGIC_1;
+    }
+
+    /**
+     * Prüft, ob für eine Klasse ein Avro-Schema mitgeliefert wird.
+     *
+     * @param type Die Klasse des Ereignisses.
+     * @return {@code true}, falls Ereignisse dieser Klasse mit Avro kodiert werden können.
+     */
+    public static boolean supports(final Class<?> type) {
+        return BY_TYPE.containsKey(type);
+    }
+
+    /**
+     * Kodiert ein Ereignis mit dem aktuellen Schema seiner Klasse.
+     *
+     * @param event Das Ereignis.
+     * @return Die kodierte Nachricht.
+     * @throws IllegalArgumentException Falls für die Klasse kein Schema existiert oder das Ereignis nicht zum Schema
+     *                                  passt.
+     */
+    @SuppressWarnings("unchecked")
+    public static byte[] encode(final Object event) {
+        final var mapping = (Mapping<Object>) BY_TYPE.get(event.getClass());
+        if (mapping == null) {
+            throw new IllegalArgumentException("Kein Avro-Schema für " + event.getClass().getName());
+        }
+        try {
+            return mapping.encode(event);
+        } catch (final IOException | AvroRuntimeException | NullPointerException | ArithmeticException e) {
+            throw new IllegalArgumentException("Ereignis passt nicht zum Schema " + mapping.schema().getFullName(), e);
+        }
+    }
+
+    /**
+     * Dekodiert eine mit Avro kodierte Nachricht.
+     *
+     * @param data Die Nachricht.
+     * @return Das Ereignis.
+     * @throws IllegalArgumentException Falls die Nachricht nicht mit Avro kodiert, abgeschnitten oder ihr Schema
+     *                                  unbekannt ist.
+     */
+    public static Object decode(final byte[] data) {
+        if (!isAvro(data)) {
+            throw new IllegalArgumentException("Keine mit Avro kodierte Nachricht");
+        }
+        final var fingerprint = ByteBuffer.wrap(data, 2, Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).getLong();
+        final var mapping = BY_FINGERPRINT.get(fingerprint);
+        if (mapping == null) {
+            throw new IllegalArgumentException("Unbekanntes Schema mit Fingerabdruck " + Long.toHexString(fingerprint));
+        }
+        try {
+            return mapping.decode(data);
+        } catch (final IOException | AvroRuntimeException | ClassCastException e) {
+            throw new IllegalArgumentException("Ungültige Nachricht für " + mapping.schema().getFullName(), e);
+        }
+    }
+
+    private static String string(final Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    private static Schema load(final String path) {
+        try (InputStream in = AvroEventCodec.class.getClassLoader().getResourceAsStream(path)) {
+            if (in == null) {
+                throw new IllegalStateException("Avro-Schema " + path + " fehlt");
+            }
+            return new Schema.Parser().parse(in);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Avro-Schema " + path + " ist nicht lesbar", e);
+        }
+    }
+
+    /**
+     * Die Abbildung einer Ereignisklasse auf ihr Avro-Schema.
+     *
+     * @param <T> Der Typ des Ereignisses.
+     */
+    private record Mapping<T>(
+        Class<T> type,
+        Schema schema,
+        List<Long> fingerprints,
+        BiConsumer<T, GenericRecord> writer,
+        Function<GenericRecord, T> reader,
+        BinaryMessageEncoder<GenericRecord> encoder,
+        BinaryMessageDecoder<GenericRecord> decoder
+    ) {
+
+        static <T> Mapping<T> of(
+            final Class<T> type,
+            final String schemaPath,
+            final List<String> previousSchemaPaths,
+            final BiConsumer<T, GenericRecord> writer,
+            final Function<GenericRecord, T> reader
+        ) {
+            final var schema = load(schemaPath);
+            final var previousSchemas = previousSchemaPaths.stream().map(AvroEventCodec::load).toList();
+            final var decoder = new BinaryMessageDecoder<GenericRecord>(MODEL, schema);
+            previousSchemas.forEach(decoder::addSchema);
+            final var fingerprints = Stream.concat(Stream.of(schema), previousSchemas.stream())
+                .map(SchemaNormalization::parsingFingerprint64)
+                .toList();
+            return new Mapping<>(
+                type,
+                schema,
+                fingerprints,
+                writer,
+                reader,
+                new BinaryMessageEncoder<>(MODEL, schema),
+                decoder
+            );
+        }
+
+        byte[] encode(final T event) throws IOException {
+            final var record = new GenericData.Record(schema);
+            writer.accept(event, record);
+            final var buffer = encoder.encode(record);
+            final var bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return bytes;
+        }
+
+        T decode(final byte[] data) throws IOException {
+            return reader.apply(decoder.decode(data));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.gentlecorp.customer.service.event;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.Map;
+
+/**
+ * Kafka-Deserializer für {@link AvroEventCodec mit Avro} und als JSON kodierte Nachrichten.
+ * <p>
+ * Das Format wird am ersten Byte erkannt, sodass Topics ohne Unterbrechung der Consumer umgestellt werden können.
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+public class CompactEventDeserializer implements Deserializer<Object> {
+
+    private final JsonDeserializer<Object> jsonDeserializer = new JsonDeserializer<>();
+
+    @Override
+    public void configure(final Map<String, ?> configs, final boolean isKey) {
+        jsonDeserializer.configure(configs, isKey);
+    }
+
+    @Override
+    public Object deserialize(final String topic, final byte[] data) {
+        if (!AvroEventCodec.isAvro(data)) {
+            return jsonDeserializer.deserialize(topic, data);
+        }
+        return decode(topic, data);
+    }
+
+    @Override
+    public Object deserialize(final String topic, final Headers headers, final byte[] data) {
+        if (!AvroEventCodec.isAvro(data)) {
+            return jsonDeserializer.deserialize(topic, headers, data);
+        }
+        return decode(topic, data);
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+
+    private static Object decode(final String topic, final byte[] data) {
+        try {
+            return AvroEventCodec.decode(data);
+        } catch (final IllegalArgumentException e) {
+            throw new SerializationException("Ungültige Avro-Nachricht auf Topic " + topic, e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.gentlecorp.customer.service.event;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Kafka-Serializer, der ausgewählte Topics kompakt binär {@link AvroEventCodec mit Avro} und alle übrigen als JSON
+ * kodiert.
+ * <p>
+ * Die kompakt kodierten Topics werden kommagetrennt in der Producer-Eigenschaft {@value #COMPACT_TOPICS_CONFIG}
+ * angegeben; ohne Angabe bleibt es für alle Topics bei JSON. Für Avro-Nachrichten entfallen die Typ-Header, da der
+ * Fingerabdruck des Schemas in der Nachricht selbst steht.
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+public class CompactEventSerializer implements Serializer<Object> {
+
+    /** Producer-Eigenschaft mit den kompakt kodierten Topics */
+    public static final String COMPACT_TOPICS_CONFIG = "customer.events.compact.topics";
+
+    private final JsonSerializer<Object> jsonSerializer = new JsonSerializer<>();
+    private Set<String> compactTopics = Set.of();
+
+    @Override
+    public void configure(final Map<String, ?> configs, final boolean isKey) {
+        jsonSerializer.configure(configs, isKey);
+        final var topics = configs.get(COMPACT_TOPICS_CONFIG);
+        if (topics != null) {
+            compactTopics = Arrays.stream(topics.toString().split(","))
+                .map(String::strip)
+                .filter(topic -> !topic.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        }
+    }
+
+    @Override
+    public byte[] serialize(final String topic, final Object data) {
+        if (data == null || !compactTopics.contains(topic)) {
+            return jsonSerializer.serialize(topic, data);
+        }
+        return encode(topic, data);
+    }
+
+    @Override
+    public byte[] serialize(final String topic, final Headers headers, final Object data) {
+        if (data == null || !compactTopics.contains(topic)) {
+            return jsonSerializer.serialize(topic, headers, data);
+        }
+        return encode(topic, data);
+    }
+
+    @Override
+    public void close() {
+        jsonSerializer.close();
+    }
+
+    private static byte[] encode(final String topic, final Object data) {
+        try {
+            return AvroEventCodec.encode(data);
+        } catch (final IllegalArgumentException e) {
+            throw new SerializationException("Keine Avro-Kodierung auf Topic " + topic + " möglich", e);
+        }
+    }
+}
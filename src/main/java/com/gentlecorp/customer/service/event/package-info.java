@@ -0,0 +1,15 @@
+/**
+ * Dieses Paket enthält die kompakte binäre Kodierung der Kafka-Ereignisse mit Apache Avro.
+ * <p>
+ * Die Avro-Schemas der Ereignisse liegen unter `src/main/resources/avro`; der
+ * {@link com.gentlecorp.customer.service.event.AvroEventCodec} findet sie über den Fingerabdruck in jeder Nachricht,
+ * eine Schema-Registry ist nicht nötig. Der {@link com.gentlecorp.customer.service.event.CompactEventSerializer}
+ * kodiert die Topics aus `customer.events.compact.topics` mit Avro und alle übrigen weiterhin als JSON, der
+ * {@link com.gentlecorp.customer.service.event.CompactEventDeserializer} liest beide Formate.
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+package com.gentlecorp.customer.service.event;
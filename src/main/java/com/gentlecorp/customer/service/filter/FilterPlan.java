@@ -0,0 +1,178 @@
+package com.gentlecorp.customer.service.filter;
+
+import com.gentlecorp.customer.exception.IllegalArgumentException;
+import com.gentlecorp.customer.model.enums.FilterOptions;
+import com.gentlecorp.customer.model.enums.Operator;
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static com.gentlecorp.customer.service.filter.ValueType.DATE;
+import static com.gentlecorp.customer.service.filter.ValueType.STRING;
+
+/**
+ * Kompilierte MongoDB-Abfrage für eine {@link FilterShape}.
+ * <p>
+ * Beim Kompilieren wird die Struktur einmalig validiert und in eine Vorlage mit Platzhaltern für die Werte
+ * übersetzt. Feldnamen, Operatoren und Datentypen stehen danach fest; {@link #bind(List)} ersetzt nur noch die
+ * Platzhalter durch die umgewandelten Werte.
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+public final class FilterPlan {
+
+    private static final String ADDRESS_PREFIX = "address_";
+    private static final String REGEX = "$regex";
+    private static final String OPTIONS = "$options";
+    private static final String CASE_INSENSITIVE = "i";
+
+    private final Document template;
+    private final int slotCount;
+
+    private FilterPlan(final Document template, final int slotCount) {
+        this.template = template;
+        this.slotCount = slotCount;
+    }
+
+    /**
+     * Validiert eine Filterstruktur und übersetzt sie in eine Abfragevorlage.
+     *
+     * @param shape Die Struktur des Filters.
+     * @return Der kompilierte Plan.
+     * @throws IllegalArgumentException Falls ein Operator nicht zum Datentyp des Feldes passt.
+     */
+    public static FilterPlan compile(final FilterShape shape) {
+        final var slots = new int[1];
+        final var template = compile(shape, slots);
+        return new FilterPlan(template, slots[0]);
+    }
+
+    private static Document compile(final FilterShape shape, final int[] slots) {
+        final var document = new Document();
+        if (shape.hasCondition()) {
+            final var slot = slots[0]++;
+            document.put(toMongoField(shape.field()), compileCondition(shape.field(), shape.operator(), slot));
+        }
+        compileJunction(document, "$and", shape.and(), slots);
+        compileJunction(document, "$or", shape.or(), slots);
+        compileJunction(document, "$nor", shape.nor(), slots);
+        return document;
+    }
+
+    private static void compileJunction(
+        final Document document, final String operator, final List<FilterShape> shapes, final int[] slots
+    ) {
+        if (shapes.isEmpty()) {
+            return;
+        }
+        final List<Document> children = new ArrayList<>(shapes.size());
+        shapes.forEach(child -> children.add(compile(child, slots)));
+        document.put(operator, children);
+    }
+
+    private static Object compileCondition(final FilterOptions field, final Operator operator, final int slot) {
+        final var type = ValueType.of(field);
+        return switch (operator) {
+            case LIKE -> {
+                requireType(field, operator, type, STRING);
+                yield new Document(REGEX, new Slot(slot, type, Slot.Kind.VALUE)).append(OPTIONS, CASE_INSENSITIVE);
+            }
+            case PREFIX -> {
+                requireType(field, operator, type, STRING);
+                yield new Document(REGEX, new Slot(slot, type, Slot.Kind.PREFIX)).append(OPTIONS, CASE_INSENSITIVE);
+            }
+            // Ein Datumsintervall "von,bis" statt einer Werteliste
+            case IN -> type == DATE
+                ? new Document("$gte", new Slot(slot, type, Slot.Kind.RANGE_FROM))
+                    .append("$lte", new Slot(slot, type, Slot.Kind.RANGE_TO))
+                : new Document("$in", new Slot(slot, type, Slot.Kind.LIST));
+            case EQ -> new Document("$eq", new Slot(slot, type, Slot.Kind.VALUE));
+            case GTE -> new Document("$gte", new Slot(slot, type, Slot.Kind.VALUE));
+            case LTE -> new Document("$lte", new Slot(slot, type, Slot.Kind.VALUE));
+        };
+    }
+
+    private static void requireType(
+        final FilterOptions field, final Operator operator, final ValueType actual, final ValueType expected
+    ) {
+        if (actual != expected) {
+            throw new IllegalArgumentException(field.name() + ' ' + operator.name());
+        }
+    }
+
+    private static String toMongoField(final FilterOptions field) {
+        final var name = field.name();
+        return name.startsWith(ADDRESS_PREFIX)
+            ? "address." + name.substring(ADDRESS_PREFIX.length())
+            : name;
+    }
+
+    /**
+     * Bindet die Werte eines Filters an die Platzhalter der Vorlage.
+     *
+     * @param values Die Vergleichswerte in der Reihenfolge von {@link FilterShape#of}.
+     * @return Das MongoDB-Abfragedokument.
+     * @throws IllegalArgumentException Falls ein Wert nicht zum Datentyp seines Feldes passt.
+     */
+    public Document bind(final List<String> values) {
+        if (values.size() != slotCount) {
+            throw new IllegalStateException("Expected " + slotCount + " filter values, got " + values.size());
+        }
+        return (Document) bind(template, values);
+    }
+
+    private static Object bind(final Object node, final List<String> values) {
+        return switch (node) {
+            case Slot slot -> slot.bind(values.get(slot.index()));
+            case Document document -> {
+                final var bound = new Document();
+                for (final Map.Entry<String, Object> entry : document.entrySet()) {
+                    bound.put(entry.getKey(), bind(entry.getValue(), values));
+                }
+                yield bound;
+            }
+            case List<?> list -> {
+                final List<Object> bound = new ArrayList<>(list.size());
+                list.forEach(element -> bound.add(bind(element, values)));
+                yield bound;
+            }
+            default -> node;
+        };
+    }
+
+    /**
+     * Platzhalter für einen Vergleichswert in der Abfragevorlage.
+     *
+     * @param index Die Position des Wertes in der Werteliste.
+     * @param type  Der Datentyp des Feldes.
+     * @param kind  Die Art, wie der Wert in die Abfrage eingesetzt wird.
+     */
+    private record Slot(int index, ValueType type, Kind kind) {
+
+        enum Kind { VALUE, PREFIX, LIST, RANGE_FROM, RANGE_TO }
+
+        Object bind(final String value) {
+            return switch (kind) {
+                case VALUE -> type.convert(value);
+                case PREFIX -> "^" + value;
+                case LIST -> Arrays.stream(value.split(",")).map(type::convert).toList();
+                case RANGE_FROM -> type.convert(rangeBound(value, 0));
+                case RANGE_TO -> type.convert(rangeBound(value, 1));
+            };
+        }
+
+        private static String rangeBound(final String value, final int index) {
+            final var bounds = value.split(",");
+            if (bounds.length != 2) {
+                throw new IllegalArgumentException(value);
+            }
+            return bounds[index];
+        }
+    }
+}
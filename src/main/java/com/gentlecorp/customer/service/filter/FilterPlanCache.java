@@ -0,0 +1,71 @@
+package com.gentlecorp.customer.service.filter;
+
+import com.gentlecorp.customer.model.input.FilterInput;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import static com.gentlecorp.customer.util.Constants.FILTER_PLAN_CACHE_SIZE;
+
+/**
+ * Übersetzt `FilterInput`-Objekte in MongoDB-Abfragedokumente und hält die kompilierten Pläne vor.
+ * <p>
+ * Der Cache ist nach {@link FilterShape} geschlüsselt und auf
+ * {@value com.gentlecorp.customer.util.Constants#FILTER_PLAN_CACHE_SIZE} Einträge begrenzt; selten genutzte
+ * Strukturen werden zuerst verdrängt.
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@Component
+@Slf4j
+public class FilterPlanCache {
+
+    private final Cache<FilterShape, FilterPlan> plans = CacheBuilder.newBuilder()
+        .maximumSize(FILTER_PLAN_CACHE_SIZE)
+        .build();
+
+    /**
+     * Liefert das MongoDB-Abfragedokument zu einem Filter.
+     *
+     * @param filter Der Filter aus der GraphQL-Abfrage oder {@code null}.
+     * @return Das Abfragedokument; leer, falls kein Filter angegeben ist.
+     * @throws com.gentlecorp.customer.exception.IllegalArgumentException Falls der Filter ungültig ist.
+     */
+    public Document toDocument(final FilterInput filter) {
+        if (filter == null) {
+            return new Document();
+        }
+
+        final List<String> values = new ArrayList<>();
+        final var shape = FilterShape.of(filter, values);
+        final FilterPlan plan;
+        try {
+            plan = plans.get(shape, () -> {
+                log.debug("toDocument: compiling shape={}", shape);
+                return FilterPlan.compile(shape);
+            });
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } catch (final UncheckedExecutionException e) {
+            // Validierungsfehler beim Kompilieren unverändert weiterreichen
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+
+        final var document = plan.bind(values);
+        log.trace("toDocument: document={}", document);
+        return document;
+    }
+}
@@ -0,0 +1,70 @@
+package com.gentlecorp.customer.service.filter;
+
+import com.gentlecorp.customer.model.enums.FilterOptions;
+import com.gentlecorp.customer.model.enums.Operator;
+import com.gentlecorp.customer.model.input.FilterInput;
+
+import java.util.List;
+
+/**
+ * Struktur eines Filters ohne dessen Vergleichswerte.
+ * <p>
+ * Zwei Filter mit gleichen Feldern, Operatoren und Verknüpfungen, aber unterschiedlichen Werten haben dieselbe
+ * Struktur. Die Struktur dient deshalb als Schlüssel für kompilierte {@link FilterPlan}s.
+ * </p>
+ *
+ * @param field    Das zu filternde Feld oder {@code null}, falls der Knoten keine eigene Bedingung hat.
+ * @param operator Der Vergleichsoperator oder {@code null}, falls der Knoten keine eigene Bedingung hat.
+ * @param and      Die Strukturen der UND-verknüpften Filter.
+ * @param or       Die Strukturen der ODER-verknüpften Filter.
+ * @param nor      Die Strukturen der NOR-verknüpften Filter.
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+public record FilterShape(
+    FilterOptions field,
+    Operator operator,
+    List<FilterShape> and,
+    List<FilterShape> or,
+    List<FilterShape> nor
+) {
+
+    /**
+     * Zerlegt einen Filter in seine Struktur und sammelt die Werte in Preorder-Reihenfolge.
+     *
+     * @param filter Der Filter aus der GraphQL-Abfrage.
+     * @param values Die Liste, an die die Vergleichswerte angehängt werden.
+     * @return Die Struktur des Filters.
+     */
+    public static FilterShape of(final FilterInput filter, final List<String> values) {
+        final var hasCondition = filter.field() != null && filter.operator() != null && filter.value() != null;
+        if (hasCondition) {
+            values.add(filter.value());
+        }
+        return new FilterShape(
+            hasCondition ? filter.field() : null,
+            hasCondition ? filter.operator() : null,
+            of(filter.AND(), values),
+            of(filter.OR(), values),
+            of(filter.NOR(), values)
+        );
+    }
+
+    private static List<FilterShape> of(final List<FilterInput> filters, final List<String> values) {
+        if (filters == null || filters.isEmpty()) {
+            return List.of();
+        }
+        return filters.stream().map(filter -> of(filter, values)).toList();
+    }
+
+    /**
+     * Gibt an, ob der Knoten eine eigene Bedingung besitzt.
+     *
+     * @return {@code true}, falls Feld und Operator gesetzt sind.
+     */
+    public boolean hasCondition() {
+        return field != null;
+    }
+}
@@ -0,0 +1,97 @@
+package com.gentlecorp.customer.service.filter;
+
+import com.gentlecorp.customer.exception.IllegalArgumentException;
+import com.gentlecorp.customer.model.enums.FilterOptions;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Datentyp eines filterbaren Feldes samt Umwandlung des Vergleichswerts.
+ * <p>
+ * Der Typ wird beim Kompilieren eines {@link FilterPlan} einmal je Feld bestimmt, sodass beim Binden der Werte
+ * kein Raten (z. B. über {@link NumberFormatException}) mehr nötig ist.
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+public enum ValueType {
+    STRING {
+        @Override
+        Object convert(final String value) {
+            return value;
+        }
+    },
+    NUMBER {
+        @Override
+        Object convert(final String value) {
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (final NumberFormatException e) {
+                throw new IllegalArgumentException(value);
+            }
+        }
+    },
+    BOOLEAN {
+        @Override
+        Object convert(final String value) {
+            if ("true".equalsIgnoreCase(value)) {
+                return true;
+            }
+            if ("false".equalsIgnoreCase(value)) {
+                return false;
+            }
+            throw new IllegalArgumentException(value);
+        }
+    },
+    DATE {
+        @Override
+        Object convert(final String value) {
+            try {
+                return Date.from(LocalDate.parse(value.trim()).atStartOfDay(ZoneOffset.UTC).toInstant());
+            } catch (final DateTimeParseException e) {
+                throw new IllegalArgumentException(value);
+            }
+        }
+    },
+    UUID {
+        @Override
+        Object convert(final String value) {
+            try {
+                return java.util.UUID.fromString(value.trim());
+            } catch (final java.lang.IllegalArgumentException e) {
+                throw new IllegalArgumentException(value);
+            }
+        }
+    };
+
+    /**
+     * Wandelt den Vergleichswert aus der Abfrage in den in MongoDB gespeicherten Typ um.
+     *
+     * @param value Der Vergleichswert als String.
+     * @return Der umgewandelte Wert.
+     * @throws IllegalArgumentException Falls der Wert nicht zum Typ passt.
+     */
+    abstract Object convert(String value);
+
+    /**
+     * Bestimmt den Datentyp eines filterbaren Feldes.
+     *
+     * @param field Das filterbare Feld.
+     * @return Der Datentyp des Feldes in MongoDB.
+     */
+    static ValueType of(final FilterOptions field) {
+        return switch (field) {
+            case id -> UUID;
+            case version, tierLevel -> NUMBER;
+            case subscribed -> BOOLEAN;
+            case birthdate -> DATE;
+            default -> STRING;
+        };
+    }
+}
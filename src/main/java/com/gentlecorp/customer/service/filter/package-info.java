@@ -0,0 +1,15 @@
+/**
+ * Dieses Paket enthält die Übersetzung von GraphQL-Filtern in MongoDB-Abfragen.
+ * <p>
+ * Ein {@link com.gentlecorp.customer.model.input.FilterInput} wird in seine Struktur
+ * ({@link com.gentlecorp.customer.service.filter.FilterShape}) und seine Werte zerlegt. Für jede Struktur wird
+ * einmalig ein {@link com.gentlecorp.customer.service.filter.FilterPlan} kompiliert und im
+ * {@link com.gentlecorp.customer.service.filter.FilterPlanCache} abgelegt, sodass wiederholte Suchen nur noch
+ * die Werte binden.
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+package com.gentlecorp.customer.service.filter;
@@ -7,7 +7,23 @@
  *
  * <ul>
  *   <li>{@link com.gentlecorp.customer.service.CustomerReadService} – Verwaltet Leseoperationen für Kunden.</li>
+ *   <li>{@link com.gentlecorp.customer.service.CustomerCache} – Hält häufig gelesene Kunden im Speicher vor.</li>
+ *   <li>{@link com.gentlecorp.customer.service.CustomerCacheInvalidator} – Gleicht die Caches aller Instanzen über Kafka ab.</li>
+ *   <li>{@link com.gentlecorp.customer.service.CustomerPatcher} – Schreibt nur die geänderten Felder eines Kunden.</li>
+ *   <li>{@link com.gentlecorp.customer.service.CustomerUniquenessFilter} – Spart Eindeutigkeitsabfragen über Bloom-Filter ein.</li>
+ *   <li>{@link com.gentlecorp.customer.service.CustomerLookupCoalescer} – Bündelt gleichzeitige Einzelabfragen von Kunden.</li>
+ *   <li>{@link com.gentlecorp.customer.service.KeycloakIdBackfill} – Trägt fehlende Keycloak-IDs bei Kunden nach.</li>
+ *   <li>{@link com.gentlecorp.customer.service.ContactStorage} – Speichert Kontakte eigenständig oder eingebettet und migriert zwischen beiden.</li>
+ *   <li>{@link com.gentlecorp.customer.service.ContactCustomerIdBackfill} – Trägt den Kunden als Rückverweis bei Kontakten nach.</li>
+ *   <li>{@link com.gentlecorp.customer.service.CustomerOutbox} – Speichert Nebenwirkungen gemeinsam mit der Kundenänderung.</li>
+ *   <li>{@link com.gentlecorp.customer.service.LeaseQueue} – Sperrt, wiederholt und gibt Einträge dauerhafter Warteschlangen auf.</li>
+ *   <li>{@link com.gentlecorp.customer.service.OutboxRelay} – Stellt die Einträge der Outbox an Kafka zu und reiht Mails ein.</li>
+ *   <li>{@link com.gentlecorp.customer.service.MailQueue} – Versendet eingereihte Mails gebündelt und wiederholt Fehlschläge.</li>
+ *   <li>{@link com.gentlecorp.customer.service.KafkaPublisher} – Veröffentlicht Nachrichten auf Kafka und misst die Zustellung.</li>
  * </ul>
+ * <p>
+ * Die kompakte binäre Kodierung der Kafka-Ereignisse liegt im Unterpaket {@code event}.
+ * </p>
  *
  * @since 13.02.2025
  * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
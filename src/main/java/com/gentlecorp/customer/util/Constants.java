@@ -1,5 +1,6 @@
 package com.gentlecorp.customer.util;
 
+import java.time.Duration;
 import java.util.regex.Pattern;
 
 /**
@@ -20,6 +21,90 @@ public class Constants {
   /** Fehlermeldung für fehlende Versionsnummern */
   public static final String VERSION_NUMBER_MISSING = "Versionsnummer fehlt";
 
+  /** Standardgröße einer Seite bei der Cursor-Paginierung */
+  public static final int DEFAULT_PAGE_SIZE = 20;
+  /** Maximale Anzahl an Kunden, die eine einzelne Abfrage zurückgeben darf */
+  public static final int MAX_PAGE_SIZE = 100;
+  /** Anzahl der Dokumente, die der MongoDB-Cursor beim Export je Roundtrip lädt */
+  public static final int EXPORT_BATCH_SIZE = 500;
+  /** Maximale Anzahl kompilierter Filterpläne im Cache */
+  public static final int FILTER_PLAN_CACHE_SIZE = 256;
+  /** Maximales Gesamtgewicht des Kunden-Caches (ein Kunde plus ein Punkt je Listeneintrag) */
+  public static final long CUSTOMER_CACHE_MAX_WEIGHT = 50_000;
+  /** Maximale Verweildauer eines Kunden im Cache */
+  public static final Duration CUSTOMER_CACHE_TTL = Duration.ofMinutes(10);
+  /** Fehlerrate der Bloom-Filter für die Eindeutigkeit von E-Mail-Adresse und Benutzername */
+  public static final double CUSTOMER_FILTER_FALSE_POSITIVE_RATE = 0.01;
+  /** Mindestkapazität der Bloom-Filter für die Eindeutigkeit von E-Mail-Adresse und Benutzername */
+  public static final long CUSTOMER_FILTER_MIN_CAPACITY = 10_000;
+  /** Abstand, in dem die Bloom-Filter neu aufgebaut werden, um geänderte und gelöschte Werte zu entfernen */
+  public static final Duration CUSTOMER_FILTER_REBUILD_INTERVAL = Duration.ofHours(1);
+  /** Zeit, nach der ein Kunde im Zustand PENDING als abgebrochene Anlage gilt */
+  public static final Duration CUSTOMER_PENDING_TIMEOUT = Duration.ofMinutes(15);
+  /** Kafka-Topic, über das Instanzen geänderte Kunden aus ihrem Cache entfernen */
+  public static final String CUSTOMER_INVALIDATION_TOPIC = "customer-cache-invalidation";
+  /** Zeitfenster, in dem gleichzeitige Einzelabfragen von Kunden gebündelt werden */
+  public static final Duration CUSTOMER_LOOKUP_WINDOW = Duration.ofMillis(2);
+  /** Maximale Anzahl an IDs in einer gebündelten Einzelabfrage */
+  public static final int CUSTOMER_LOOKUP_MAX_BATCH_SIZE = 100;
+  /** Anzahl der Threads, die gebündelte Einzelabfragen ausführen */
+  public static final int CUSTOMER_LOOKUP_THREADS = 4;
+  /** Maximale Wartezeit eines Aufrufers auf eine gebündelte Einzelabfrage */
+  public static final Duration CUSTOMER_LOOKUP_TIMEOUT = Duration.ofSeconds(3);
+
+  /** Sicherheitsabstand vor dem Ablauf eines Keycloak-Tokens, ab dem es nicht mehr verwendet wird */
+  public static final Duration ADMIN_TOKEN_EXPIRY_SKEW = Duration.ofSeconds(5);
+  /** Abstand, in dem die Realm-Rollen aus Keycloak neu geladen werden */
+  public static final Duration ROLE_DIRECTORY_REFRESH_INTERVAL = Duration.ofMinutes(10);
+  /** Maximale Anzahl offener Verbindungen zu Keycloak */
+  public static final int KEYCLOAK_POOL_MAX_CONNECTIONS = 50;
+  /** Maximale Wartezeit auf eine freie Verbindung aus dem Pool */
+  public static final Duration KEYCLOAK_POOL_ACQUIRE_TIMEOUT = Duration.ofSeconds(2);
+  /** Leerlaufzeit, nach der Keycloak-Verbindungen geschlossen werden */
+  public static final Duration KEYCLOAK_IDLE_TIMEOUT = Duration.ofSeconds(30);
+  /** Timeout für den Verbindungsaufbau zu Keycloak */
+  public static final Duration KEYCLOAK_CONNECT_TIMEOUT = Duration.ofSeconds(2);
+  /** Timeout für die Antwort von Keycloak */
+  public static final Duration KEYCLOAK_READ_TIMEOUT = Duration.ofSeconds(5);
+  /** Maximale Anzahl an Outbox-Einträgen, die das Relay je Durchlauf zustellt */
+  public static final int OUTBOX_BATCH_SIZE = 100;
+  /** Abstand, in dem das Relay die Outbox ohne Anstoß prüft */
+  public static final Duration OUTBOX_POLL_INTERVAL = Duration.ofSeconds(1);
+  /** Dauer, für die ein Relay-Durchlauf seine Outbox-Einträge sperrt */
+  public static final Duration OUTBOX_LEASE = Duration.ofSeconds(30);
+  /** Maximale Anzahl an Zustellversuchen je Outbox-Eintrag */
+  public static final int OUTBOX_MAX_ATTEMPTS = 10;
+  /** Basis der exponentiellen Wartezeit zwischen zwei Zustellversuchen */
+  public static final Duration OUTBOX_RETRY_BACKOFF = Duration.ofSeconds(1);
+  /** Obergrenze der Wartezeit zwischen zwei Zustellversuchen */
+  public static final Duration OUTBOX_MAX_BACKOFF = Duration.ofMinutes(5);
+  /** Anzahl der Threads, die Mails aus der Outbox einreihen und Zustellergebnisse speichern */
+  public static final int OUTBOX_WORKER_THREADS = 4;
+  /** Maximale Anzahl an Mails, die über eine SMTP-Verbindung versendet werden */
+  public static final int MAIL_BATCH_SIZE = 20;
+  /** Anzahl der Threads, die gleichzeitig Mails versenden und damit SMTP-Verbindungen halten */
+  public static final int MAIL_WORKER_THREADS = 2;
+  /** Abstand, in dem die Mail-Queue ohne Anstoß geprüft wird */
+  public static final Duration MAIL_POLL_INTERVAL = Duration.ofSeconds(5);
+  /** Dauer, für die ein Durchlauf seine Mails sperrt */
+  public static final Duration MAIL_LEASE = Duration.ofMinutes(2);
+  /** Maximale Anzahl an Versandversuchen je Mail */
+  public static final int MAIL_MAX_ATTEMPTS = 8;
+  /** Basis der exponentiellen Wartezeit zwischen zwei Versandversuchen */
+  public static final Duration MAIL_RETRY_BACKOFF = Duration.ofSeconds(10);
+  /** Obergrenze der Wartezeit zwischen zwei Versandversuchen */
+  public static final Duration MAIL_MAX_BACKOFF = Duration.ofMinutes(30);
+  /** Standard-Fehlerrate des Filters kompromittierter Passwörter; 0,1 % ergibt rund 1,8 Byte je Hash */
+  public static final double PASSWORD_FILTER_FALSE_POSITIVE_RATE = 0.001;
+  /** Anzahl der Keycloak-Benutzer, die beim Nachtragen der Keycloak-IDs je Aufruf gelesen werden */
+  public static final int KEYCLOAK_BACKFILL_BATCH_SIZE = 100;
+  /** Anzahl der Kunden, deren Kontakten je Bulk-Operation der Rückverweis `customerId` nachgetragen wird */
+  public static final int CONTACT_BACKFILL_BATCH_SIZE = 500;
+  /** Maximale Anzahl der im Kundendokument eingebetteten Kontakte */
+  public static final int MAX_EMBEDDED_CONTACTS = 20;
+  /** Maximale Anzahl der Durchläufe, in denen beim Einbetten gleichzeitig geänderte Kontakte nachgetragen werden */
+  public static final int CONTACT_EMBED_ATTEMPTS = 3;
+
   /** Minimale Länge für Passwörter */
   public static final int MIN_LENGTH = 8;
 
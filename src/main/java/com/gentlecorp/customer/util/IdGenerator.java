@@ -0,0 +1,26 @@
+package com.gentlecorp.customer.util;
+
+import java.util.UUID;
+
+/**
+ * Erzeugt die IDs neuer Kunden und Kontakte.
+ * <p>
+ * Die IDs bleiben in jedem Fall `UUID`s; bestehende IDs anderer Versionen, z. B. zufällige v4-IDs, werden unverändert
+ * gelesen und verglichen. Die Implementierung wird über `app.id-generator` gewählt, siehe
+ * {@link TimeOrderedIdGenerator} und {@link RandomIdGenerator}.
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface IdGenerator {
+
+  /**
+   * Erzeugt eine neue, eindeutige ID.
+   *
+   * @return Die ID.
+   */
+  UUID generate();
+}
@@ -0,0 +1,79 @@
+package com.gentlecorp.customer.util;
+
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.SelectedField;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Leitet aus dem Selection-Set einer GraphQL-Abfrage die Felder für eine MongoDB-Projektion ab.
+ * <p>
+ * Dadurch werden nur die vom Client angeforderten Felder eines Kunden übertragen und dekodiert.
+ * Felder, die für Zugriffsprüfung und Optimistic Locking benötigt werden, sind immer enthalten.
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+@Slf4j
+public final class ProjectionUtils {
+
+  /** Pfad der Kunden innerhalb einer `CustomerConnection` */
+  public static final String CONNECTION_NODE_PATH = "edges/node/";
+
+  /** Felder, die unabhängig von der Auswahl immer geladen werden */
+  private static final Set<String> REQUIRED_FIELDS = Set.of("id", "version", "username");
+
+  /** Persistente Felder der Entität `Customer` */
+  private static final Set<String> CUSTOMER_FIELDS = Set.of(
+    "id", "version", "lastName", "firstName", "email", "phoneNumber", "username", "tierLevel", "subscribed",
+    "birthdate", "gender", "maritalStatus", "customerState", "address", "contactIds", "contacts", "created",
+    "updated", "interests", "contactOptions"
+  );
+
+  /** GraphQL-Felder, die aus persistenten Feldern aufgelöst werden; `contacts` ist ggf. eingebettet */
+  private static final Map<String, List<String>> DERIVED_FIELDS = Map.of("contacts", List.of("contactIds", "contacts"));
+
+  private ProjectionUtils() {
+  }
+
+  /**
+   * Ermittelt die zu ladenden Felder eines Kunden aus dem Selection-Set.
+   *
+   * @param selectionSet Das Selection-Set des Feldes, das einen oder mehrere Kunden liefert.
+   * @return Die Feldpfade für die Projektion, z. B. `lastName` oder `address.city`.
+   */
+  public static Set<String> getCustomerFields(final DataFetchingFieldSelectionSet selectionSet) {
+    return getCustomerFields(selectionSet, "");
+  }
+
+  /**
+   * Ermittelt die zu ladenden Felder eines Kunden aus dem Selection-Set unterhalb eines Pfads.
+   *
+   * @param selectionSet Das Selection-Set des abgefragten Feldes.
+   * @param basePath     Der Pfad zu den Kunden, z. B. {@link #CONNECTION_NODE_PATH}.
+   * @return Die Feldpfade für die Projektion, z. B. `lastName` oder `address.city`.
+   */
+  public static Set<String> getCustomerFields(final DataFetchingFieldSelectionSet selectionSet, final String basePath) {
+    final var paths = selectionSet.getFields(basePath + "**").stream()
+      .map(SelectedField::getQualifiedName)
+      .map(name -> name.substring(basePath.length()).replace('/', '.'))
+      .flatMap(path -> DERIVED_FIELDS.getOrDefault(path.split("\\.", 2)[0], List.of(path)).stream())
+      .filter(path -> CUSTOMER_FIELDS.contains(path.split("\\.", 2)[0]))
+      .collect(Collectors.toCollection(TreeSet::new));
+    paths.addAll(REQUIRED_FIELDS);
+
+    // Nur Blätter projizieren, da MongoDB "address" und "address.city" gleichzeitig ablehnt
+    final var fields = paths.stream()
+      .filter(path -> paths.stream().noneMatch(other -> other.startsWith(path + '.')))
+      .collect(Collectors.toSet());
+    log.trace("getCustomerFields: basePath={}, fields={}", basePath, fields);
+    return fields;
+  }
+}
@@ -0,0 +1,21 @@
+package com.gentlecorp.customer.util;
+
+import java.util.UUID;
+
+/**
+ * Erzeugt zufällige IDs der Version 4, wie sie bisher vergeben wurden.
+ * <p>
+ * Aufeinanderfolgende IDs liegen beliebig im `_id`-Index verteilt; jede Einfügung trifft daher eine zufällige Seite.
+ * </p>
+ *
+ * @since 18.10.2026
+ * @author <a href="mailto:caleb-script@outlook.de">Caleb Gyamfi</a>
+ * @version 1.0
+ */
+public final class RandomIdGenerator implements IdGenerator {
+
+  @Override
+  public UUID generate() {
+    return UUID.randomUUID();
+  }
+}
@@ -1,10 +1,8 @@
 package com.gentlecorp.customer.util;
 
 import com.gentlecorp.customer.exception.ConstraintViolationsException;
-import com.gentlecorp.customer.exception.ContactExistsException;
 import com.gentlecorp.customer.model.dto.ContactDTO;
 import com.gentlecorp.customer.model.dto.CustomerDTO;
-import com.gentlecorp.customer.model.entity.Contact;
 import com.gentlecorp.customer.model.entity.Customer;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validator;
@@ -14,10 +12,7 @@ import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
-import java.util.Optional;
 import java.util.Set;
-import java.util.UUID;
 
 @Component
 @Slf4j
@@ -52,30 +47,4 @@ public class Validation {
     }
   }
 
-
-
-  public static void validateContact(Contact newContact, List<Contact> contacts) {
-    contacts.forEach(
-      contact -> {
-        if (contact.getLastName().equals(newContact.getLastName()) && contact.getFirstName().equals(newContact.getFirstName())) {
-          throw new ContactExistsException(contact.getLastName(), contact.getFirstName());
-        }
-      });
-  }
-
-  public static void validateContact(Contact newContact, Contact existingContact, final UUID contactId) {
-    if (existingContact == null) {
-      return;
-    }
-
-    if (existingContact.getId().equals(contactId)) {
-      log.error("Contact with id {} already exists", contactId);
-      return;
-    }
-
-    if (existingContact.getFirstName().equals(newContact.getFirstName()) && existingContact.getLastName().equals(newContact.getLastName())) {
-      log.error("Contact with name {} already exists", newContact.getFirstName());
-      throw new ContactExistsException(newContact.getLastName(), newContact.getFirstName());
-    }
-  }
 }
@@ -10,6 +10,10 @@
  *   <li>{@link com.gentlecorp.customer.util.Constants} – Definiert allgemeine Konstanten.</li>
  *   <li>{@link com.gentlecorp.customer.util.DateRangeValidator} – Validiert Datumsbereiche in `ContactDTO`.</li>
  *   <li>{@link com.gentlecorp.customer.util.Figlets} – Generiert zufällige ASCII-Figlet-Banner.</li>
+ *   <li>{@link com.gentlecorp.customer.util.IdGenerator} – Erzeugt IDs neuer Kunden und Kontakte.</li>
+ *   <li>{@link com.gentlecorp.customer.util.TimeOrderedIdGenerator} – Zeitlich geordnete IDs der Version 7.</li>
+ *   <li>{@link com.gentlecorp.customer.util.RandomIdGenerator} – Zufällige IDs der Version 4.</li>
+ *   <li>{@link com.gentlecorp.customer.util.ProjectionUtils} – Leitet MongoDB-Projektionen aus GraphQL-Selection-Sets ab.</li>
  * </ul>
  *
  * @author Caleb Gyamfi
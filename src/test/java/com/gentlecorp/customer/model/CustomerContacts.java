@@ -0,0 +1,8 @@
+package com.gentlecorp.customer.model;
+
+import com.gentlecorp.customer.model.entity.Contact;
+
+import java.util.List;
+import java.util.UUID;
+
+public record CustomerContacts(UUID id, List<Contact> contacts) {}
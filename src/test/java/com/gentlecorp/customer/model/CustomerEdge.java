@@ -0,0 +1,5 @@
+package com.gentlecorp.customer.model;
+
+import com.gentlecorp.customer.model.entity.Customer;
+
+public record CustomerEdge(Customer node, String cursor) {}
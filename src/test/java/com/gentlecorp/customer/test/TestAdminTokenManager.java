@@ -0,0 +1,148 @@
+package com.gentlecorp.customer.test;
+
+import com.gentlecorp.customer.security.dto.TokenDTO;
+import com.gentlecorp.customer.security.service.AdminTokenManager;
+import com.gentlecorp.customer.security.service.KeycloakTokenClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.UNAUTHORIZED;
+
+public class TestAdminTokenManager {
+
+    private static final int LIFETIME_SECONDS = 300;
+    private static final int CALLERS = 20;
+
+    private final KeycloakTokenClient keycloakTokenClient = mock(KeycloakTokenClient.class);
+    private final ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+    private AdminTokenManager adminTokenManager;
+
+    @BeforeEach
+    void init() {
+        adminTokenManager = new AdminTokenManager(keycloakTokenClient);
+    }
+
+    @AfterEach
+    void close() {
+        callers.shutdownNow();
+        ReflectionTestUtils.invokeMethod(adminTokenManager, "shutdown");
+    }
+
+    @Test
+    @DisplayName("Gleichzeitige Aufrufer ohne Token lösen nur eine Anmeldung aus")
+    void testSingleFlightRefresh() throws Exception {
+        final var release = new CountDownLatch(1);
+        when(keycloakTokenClient.login(anyString(), anyString())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return token("erstes");
+        });
+
+        final var start = new CountDownLatch(1);
+        final List<Future<String>> tokens = new ArrayList<>();
+        for (var i = 0; i < CALLERS; i++) {
+            tokens.add(callers.submit(() -> {
+                start.await();
+                return adminTokenManager.getToken();
+            }));
+        }
+        start.countDown();
+        // Alle Aufrufer warten, solange die erste Anmeldung blockiert
+        Thread.sleep(100);
+        release.countDown();
+
+        for (final var token : tokens) {
+            assertThat(token.get(5, TimeUnit.SECONDS)).isEqualTo("erstes");
+        }
+        verify(keycloakTokenClient, times(1)).login(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Ein verwendetes Token wird vor seinem Ablauf über das Refresh-Token erneuert")
+    void testRefreshAhead() {
+        when(keycloakTokenClient.login(anyString(), anyString())).thenReturn(token("erstes"));
+        when(keycloakTokenClient.refresh("erstes-refresh")).thenReturn(token("zweites"));
+
+        assertThat(adminTokenManager.getToken()).isEqualTo("erstes");
+        // Die Erneuerung ist nach drei Vierteln der Laufzeit geplant
+        final var scheduled = (ScheduledFuture<?>) ReflectionTestUtils.getField(adminTokenManager, "scheduledRefresh");
+        assertThat((Object) scheduled).isNotNull();
+        assertThat(scheduled.getDelay(TimeUnit.SECONDS)).isBetween(LIFETIME_SECONDS * 3L / 4 - 5, LIFETIME_SECONDS * 3L / 4);
+
+        ReflectionTestUtils.invokeMethod(adminTokenManager, "refreshInBackground");
+
+        assertThat(adminTokenManager.getToken()).isEqualTo("zweites");
+        verify(keycloakTokenClient, times(1)).login(anyString(), anyString());
+        verify(keycloakTokenClient).refresh("erstes-refresh");
+    }
+
+    @Test
+    @DisplayName("Ein seit der letzten Erneuerung unbenutztes Token wird nicht im Hintergrund erneuert")
+    void testIdleNotRefreshed() {
+        when(keycloakTokenClient.login(anyString(), anyString())).thenReturn(token("erstes"));
+        adminTokenManager.getToken();
+
+        ReflectionTestUtils.invokeMethod(adminTokenManager, "refreshInBackground");
+        ReflectionTestUtils.invokeMethod(adminTokenManager, "refreshInBackground");
+
+        verify(keycloakTokenClient, times(1)).refresh(anyString());
+    }
+
+    @Test
+    @DisplayName("Ein abgelehntes Token wird verworfen und der Aufruf einmal mit einem neuen Token wiederholt")
+    void testRetryOnUnauthorized() {
+        when(keycloakTokenClient.login(anyString(), anyString())).thenReturn(token("erstes"), token("zweites"));
+        final var calls = new AtomicInteger();
+
+        final var result = adminTokenManager.withToken(token -> {
+            calls.incrementAndGet();
+            if (token.equals("erstes")) {
+                throw HttpClientErrorException.create(UNAUTHORIZED, "Unauthorized", null, null, null);
+            }
+            return token;
+        });
+
+        assertThat(result).isEqualTo("zweites");
+        assertThat(calls).hasValue(2);
+        assertThat(adminTokenManager.getToken()).isEqualTo("zweites");
+    }
+
+    @Test
+    @DisplayName("Wird auch das neue Token abgelehnt, erreicht der Fehler den Aufrufer")
+    void testUnauthorizedTwice() {
+        when(keycloakTokenClient.login(anyString(), anyString())).thenReturn(token("erstes"), token("zweites"));
+        final var calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> adminTokenManager.runWithToken(token -> {
+            calls.incrementAndGet();
+            throw HttpClientErrorException.create(UNAUTHORIZED, "Unauthorized", null, null, null);
+        })).isInstanceOf(HttpClientErrorException.Unauthorized.class);
+        assertThat(calls).hasValue(2);
+        verify(keycloakTokenClient, never()).refresh(anyString());
+    }
+
+    private static TokenDTO token(final String accessToken) {
+        return new TokenDTO(accessToken, LIFETIME_SECONDS, 1800, accessToken + "-refresh", null, 0, null, null, null);
+    }
+}
@@ -0,0 +1,158 @@
+package com.gentlecorp.customer.test;
+
+import com.gentlecorp.customer.model.dto.AccountDTO;
+import com.gentlecorp.customer.model.dto.ShoppingCartDTO;
+import com.gentlecorp.customer.service.event.AvroEventCodec;
+import com.gentlecorp.customer.service.event.CompactEventDeserializer;
+import com.gentlecorp.customer.service.event.CompactEventSerializer;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TestAvroEventCodec {
+    private static final Logger log = LoggerFactory.getLogger(TestAvroEventCodec.class);
+
+    private static final String ACCOUNT_TOPIC = "newAccount";
+    private static final String CART_TOPIC = "create-shopping-cart";
+    private static final String JSON_TOPIC = "customer-invalidation";
+    private static final Map<String, Object> CONFIGS = Map.of(
+        CompactEventSerializer.COMPACT_TOPICS_CONFIG, ACCOUNT_TOPIC + ", " + CART_TOPIC,
+        "spring.json.type.mapping",
+        "account:com.gentlecorp.customer.model.dto.AccountDTO,shoppingCart:com.gentlecorp.customer.model.dto.ShoppingCartDTO",
+        "spring.json.trusted.packages", "com.gentlecorp.customer.model.dto"
+    );
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 100_000;
+
+    private final AccountDTO account = new AccountDTO(
+        new BigDecimal("1250.75"), "G", 2, 500, 1000, UUID.randomUUID()
+    );
+    private final ShoppingCartDTO cart = new ShoppingCartDTO(UUID.randomUUID(), "eyJhbGciOiJSUzI1NiJ9.payload.signature");
+
+    private CompactEventSerializer serializer;
+    private CompactEventDeserializer deserializer;
+
+    @BeforeEach
+    void init() {
+        serializer = new CompactEventSerializer();
+        serializer.configure(CONFIGS, false);
+        deserializer = new CompactEventDeserializer();
+        deserializer.configure(CONFIGS, false);
+    }
+
+    @AfterEach
+    void close() {
+        serializer.close();
+        deserializer.close();
+    }
+
+    @Test
+    @DisplayName("Mit Avro kodierte Ereignisse werden verlustfrei gelesen")
+    void testRoundTrip() {
+        final var headers = new RecordHeaders();
+        final var accountBytes = serializer.serialize(ACCOUNT_TOPIC, headers, account);
+        final var cartBytes = serializer.serialize(CART_TOPIC, headers, cart);
+
+        assertThat(AvroEventCodec.isAvro(accountBytes)).isTrue();
+        assertThat(headers.toArray()).isEmpty();
+        assertThat(deserializer.deserialize(ACCOUNT_TOPIC, headers, accountBytes)).isEqualTo(account);
+        assertThat(deserializer.deserialize(CART_TOPIC, headers, cartBytes)).isEqualTo(cart);
+
+        final var withNulls = new AccountDTO(null, null, -1, Integer.MIN_VALUE, Integer.MAX_VALUE, UUID.randomUUID());
+        assertThat(AvroEventCodec.decode(serializer.serialize(ACCOUNT_TOPIC, withNulls))).isEqualTo(withNulls);
+    }
+
+    @Test
+    @DisplayName("Topics ohne Freischaltung bleiben JSON und werden weiterhin gelesen")
+    void testJsonFallback() {
+        final var headers = new RecordHeaders();
+        final var bytes = serializer.serialize(JSON_TOPIC, headers, account);
+
+        assertThat(AvroEventCodec.isAvro(bytes)).isFalse();
+        assertThat(new String(bytes, StandardCharsets.UTF_8)).startsWith("{");
+        assertThat(deserializer.deserialize(JSON_TOPIC, headers, bytes)).isEqualTo(account);
+    }
+
+    @Test
+    @DisplayName("Typen ohne Schema sowie abgeschnittene Nachrichten und unbekannte Schemas werden abgelehnt")
+    void testUnknownType() {
+        assertThatThrownBy(() -> serializer.serialize(ACCOUNT_TOPIC, new RecordHeaders(), "text"))
+            .isInstanceOf(SerializationException.class);
+
+        final var truncated = serializer.serialize(ACCOUNT_TOPIC, account);
+        final var broken = Arrays.copyOf(truncated, truncated.length - 4);
+        assertThatThrownBy(() -> deserializer.deserialize(ACCOUNT_TOPIC, broken))
+            .isInstanceOf(SerializationException.class);
+
+        final var unknownSchema = Arrays.copyOf(truncated, truncated.length);
+        unknownSchema[2] ^= 0x01;
+        assertThatThrownBy(() -> deserializer.deserialize(ACCOUNT_TOPIC, unknownSchema))
+            .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Die Avro-Kodierung ist kleiner als JSON, die Laufzeiten werden protokolliert")
+    void testBenchmark() {
+        final var jsonSerializer = new CompactEventSerializer();
+        jsonSerializer.configure(Map.of("spring.json.type.mapping", CONFIGS.get("spring.json.type.mapping")), false);
+
+        for (final var event : new Object[]{account, cart}) {
+            final var topic = event instanceof AccountDTO ? ACCOUNT_TOPIC : CART_TOPIC;
+            final var jsonHeaders = new RecordHeaders();
+            final var json = jsonSerializer.serialize(topic, jsonHeaders, event);
+            final var jsonSize = json.length + headerSize(jsonHeaders.toArray());
+            final var compact = serializer.serialize(topic, new RecordHeaders(), event);
+
+            final var jsonNanos = measure(() -> jsonSerializer.serialize(topic, new RecordHeaders(), event));
+            final var compactNanos = measure(() -> serializer.serialize(topic, new RecordHeaders(), event));
+            final var jsonReadNanos = measure(() -> deserializer.deserialize(topic, new RecordHeaders(jsonHeaders.toArray()), json));
+            final var compactReadNanos = measure(() -> deserializer.deserialize(topic, compact));
+
+            log.info(
+                "{}: size json={}B compact={}B, serialize json={}ns compact={}ns, deserialize json={}ns compact={}ns",
+                event.getClass().getSimpleName(), jsonSize, compact.length,
+                jsonNanos, compactNanos, jsonReadNanos, compactReadNanos
+            );
+            // Bei kleinen Ereignissen fällt der Kopf des Single-Object-Encodings mit 10 Bytes ins Gewicht
+            assertThat(compact.length).isLessThan(jsonSize * 2 / 3);
+        }
+        jsonSerializer.close();
+    }
+
+    private static int headerSize(final Header[] headers) {
+        var size = 0;
+        for (final var header : headers) {
+            size += header.key().length() + header.value().length;
+        }
+        return size;
+    }
+
+    private static long measure(final Supplier<Object> action) {
+        for (var i = 0; i < WARMUP; i++) {
+            action.get();
+        }
+        final var start = System.nanoTime();
+        for (var i = 0; i < ITERATIONS; i++) {
+            action.get();
+        }
+        return (System.nanoTime() - start) / ITERATIONS;
+    }
+}
@@ -2,6 +2,7 @@ package com.gentlecorp.customer.test;
 
 import com.gentlecorp.customer.Env;
 import com.gentlecorp.customer.config.TestClientProvider;
+import com.gentlecorp.customer.model.CustomerContacts;
 import com.gentlecorp.customer.model.GraphQlResponse;
 import com.gentlecorp.customer.model.entity.Customer;
 import com.gentlecorp.customer.utils.CustomerCommonFunctions;
@@ -87,6 +88,35 @@ public class TestContact extends CustomerCommonFunctions {
             deleteAndVerifyCustomer(customer.getId(), 2);
         }
 
+        @Test
+        @DisplayName("Kontakte eines Kunden werden über das Feld contacts geladen")
+        void testAddContactAndLoadContacts() {
+            HttpGraphQlClient client;
+
+            final var customer = createNewCustomer();
+            final var input = Map.of(
+                "input",createContactRequestBody(),
+                "id",customer.getId()
+            );
+
+            client = testClientProvider.getAuthenticatedClient(USER_ADMIN);
+            final var newContactId = executeAddContactGraphQLQuery(addContactQuery, input, client);
+
+            final var customerContacts = client.document(customerContactsQuery)
+                .variable("id", customer.getId())
+                .retrieve("customer")
+                .toEntity(CustomerContacts.class)
+                .block();
+            assertThat(customerContacts).isNotNull();
+
+            final var contacts = customerContacts.contacts();
+            assertThat(contacts).hasSize(1);
+            assertThat(contacts.getFirst().getId()).isEqualTo(newContactId);
+            assertThat(contacts.getFirst().getLastName()).isEqualTo(NEW_CONTACT_LAST_NAME);
+
+            deleteAndVerifyCustomer(customer.getId(), 2);
+        }
+
         @ParameterizedTest(name = "Fehlgeschlagene Kundenerstellung mit ungültigem Wert für {0}")
         @CsvSource({
             LAST_NAME + ", " + INVALID_LAST_NAME + ",Der Nachname darf nur Buchstaben enthalten und sollte mit einem großen Buchstaben anfangen.",
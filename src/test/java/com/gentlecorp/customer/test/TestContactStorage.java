@@ -0,0 +1,266 @@
+package com.gentlecorp.customer.test;
+
+import com.gentlecorp.customer.controller.QueryController;
+import com.gentlecorp.customer.exception.ContactExistsException;
+import com.gentlecorp.customer.exception.ContactLimitExceededException;
+import com.gentlecorp.customer.exception.VersionOutdatedException;
+import com.gentlecorp.customer.model.entity.Contact;
+import com.gentlecorp.customer.model.entity.Customer;
+import com.gentlecorp.customer.service.ContactStorage;
+import com.gentlecorp.customer.service.filter.FilterPlanCache;
+import com.gentlecorp.customer.utils.CustomerServiceFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.gentlecorp.customer.model.enums.ContactStorageType.COLLECTION;
+import static com.gentlecorp.customer.model.enums.ContactStorageType.EMBEDDED;
+import static com.gentlecorp.customer.util.Constants.MAX_EMBEDDED_CONTACTS;
+import static com.gentlecorp.customer.utils.CustomerServiceFixture.admin;
+import static com.gentlecorp.customer.utils.CustomerServiceFixture.contact;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+
+public class TestContactStorage {
+
+    private CustomerServiceFixture fixture;
+
+    @BeforeEach
+    void init() {
+        fixture = new CustomerServiceFixture();
+    }
+
+    @AfterEach
+    void close() {
+        fixture.close();
+    }
+
+    @Test
+    @DisplayName("Kontakte werden eingebettet und wieder in die Collection zurückgeschrieben")
+    void testEmbedAndUnembed() {
+        final var customer = fixture.insertWithContacts("embed", 3);
+        final var contactIds = List.copyOf(customer.getContactIds());
+
+        final var embedded = fixture.contactStorage(EMBEDDED).migrate(customer);
+
+        assertThat(embedded.getVersion()).isEqualTo(customer.getVersion() + 1);
+        assertThat(embedded.getContacts()).extracting(Contact::getId).containsExactlyElementsOf(contactIds);
+        assertThat(embedded.getContacts()).extracting(Contact::getCustomerId).containsOnly(customer.getId());
+        assertThat(fixture.contactRepository.count()).isZero();
+
+        final var unembedded = fixture.contactStorage(COLLECTION).migrate(embedded);
+
+        assertThat(unembedded.getVersion()).isEqualTo(customer.getVersion() + 2);
+        assertThat(unembedded.getContacts()).isNull();
+        assertThat(unembedded.getContactIds()).containsExactlyElementsOf(contactIds);
+        assertThat(fixture.contactRepository.findAllById(contactIds))
+            .extracting(Contact::getFirstName)
+            .containsExactlyInAnyOrder("Nr0", "Nr1", "Nr2");
+        assertThat(fixture.contactStorage(COLLECTION).migrate(unembedded)).isSameAs(unembedded);
+    }
+
+    @Test
+    @DisplayName("Ein während des Einbettens in der Collection geänderter Kontakt wird mit seinem neuen Stand eingebettet")
+    void testEmbedConcurrentContactUpdate() {
+        final var customer = fixture.insertWithContacts("race", 2);
+        final var changed = fixture.contactRepository.findById(customer.getContactIds().getFirst()).orElseThrow();
+        final var customerPatcher = spy(fixture.customerPatcher);
+        // Eine Instanz im Layout COLLECTION ändert den Kontakt, nachdem die Umstellung ihn gelesen hat
+        doAnswer(invocation -> {
+            fixture.writeService(COLLECTION).updateContact(
+                customer.getId(), customer.getVersion(), changed.getId(), changed.getVersion(), contact("Neu", null), admin()
+            );
+            return invocation.callRealMethod();
+        }).doCallRealMethod().when(customerPatcher).update(any(UUID.class), anyInt(), any(Update.class));
+        final var storage = new ContactStorage(
+            EMBEDDED,
+            fixture.mongoTemplate,
+            fixture.contactRepository,
+            customerPatcher,
+            fixture.customerCache,
+            fixture.customerCacheInvalidator
+        );
+
+        final var embedded = storage.migrate(customer);
+
+        assertThat(embedded.getVersion()).isEqualTo(customer.getVersion() + 2);
+        assertThat(embedded.getContacts()).extracting(Contact::getLastName).containsExactly("Neu", "Kontakt");
+        assertThat(embedded.getContacts().getFirst().getVersion()).isEqualTo(changed.getVersion() + 1);
+        assertThat(fixture.contactRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Beim Entfernen eines Kontakts wird der Kunde wie beim Hinzufügen und Ändern zuerst umgestellt")
+    void testRemoveContactMigrates() {
+        final var customer = fixture.insertWithContacts("remove", 2);
+        final var removed = fixture.contactRepository.findById(customer.getContactIds().getFirst()).orElseThrow();
+
+        fixture.writeService(EMBEDDED)
+            .removeContact(customer.getId(), customer.getVersion(), removed.getId(), removed.getVersion(), admin());
+
+        final var customerDb = fixture.customerRepository.findById(customer.getId()).orElseThrow();
+        assertThat(customerDb.getVersion()).isEqualTo(customer.getVersion() + 2);
+        assertThat(customerDb.getContactIds()).containsExactly(customer.getContactIds().get(1));
+        assertThat(customerDb.getContacts()).extracting(Contact::getId).containsExactly(customer.getContactIds().get(1));
+        assertThat(fixture.contactRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Kunden mit mehr Kontakten als erlaubt bleiben in der Collection")
+    void testOversizedCustomerIsNotEmbedded() {
+        final var customer = fixture.insertWithContacts("oversized", MAX_EMBEDDED_CONTACTS + 1);
+        final var storage = fixture.contactStorage(EMBEDDED);
+
+        storage.migrateAll();
+
+        final var customerDb = fixture.customerRepository.findById(customer.getId()).orElseThrow();
+        assertThat(customerDb.getContacts()).isNull();
+        assertThat(customerDb.getVersion()).isEqualTo(customer.getVersion());
+        assertThat(storage.migrate(customerDb)).isSameAs(customerDb);
+        assertThat(storage.isEmbedded(customerDb)).isFalse();
+        assertThat(fixture.contactRepository.count()).isEqualTo(MAX_EMBEDDED_CONTACTS + 1);
+    }
+
+    @Test
+    @DisplayName("Eingebettet sind höchstens MAX_EMBEDDED_CONTACTS Kontakte möglich")
+    void testContactLimit() {
+        final var customer = fixture.insertWithContacts("limit", MAX_EMBEDDED_CONTACTS);
+        final var writeService = fixture.writeService(EMBEDDED);
+
+        assertThatThrownBy(() -> writeService.addContact(customer.getId(), contact("Neu", "Nina"), admin()))
+            .isInstanceOf(ContactLimitExceededException.class);
+
+        final var customerDb = fixture.customerRepository.findById(customer.getId()).orElseThrow();
+        assertThat(customerDb.getContacts()).hasSize(MAX_EMBEDDED_CONTACTS);
+        assertThat(customerDb.getContactIds()).hasSize(MAX_EMBEDDED_CONTACTS);
+    }
+
+    @Test
+    @DisplayName("Ein eingebetteter Kontakt wird positional geändert, eine veraltete Version abgelehnt")
+    void testPositionalUpdate() {
+        final var customer = embeddedCustomer("positional", 2);
+        final var first = customer.getContacts().getFirst();
+        final var second = customer.getContacts().get(1);
+        final var writeService = fixture.writeService(EMBEDDED);
+
+        final var updated = writeService.updateContact(
+            customer.getId(), customer.getVersion(), first.getId(), first.getVersion(), contact("Neu", null), admin()
+        );
+
+        assertThat(updated.getLastName()).isEqualTo("Neu");
+        final var customerDb = fixture.customerRepository.findById(customer.getId()).orElseThrow();
+        assertThat(customerDb.getVersion()).isEqualTo(customer.getVersion() + 1);
+        assertThat(customerDb.getContacts()).extracting(Contact::getLastName).containsExactly("Neu", "Kontakt");
+        assertThat(customerDb.getContacts().getFirst().getVersion()).isEqualTo(first.getVersion() + 1);
+        assertThat(customerDb.getContacts().get(1).getVersion()).isEqualTo(second.getVersion());
+
+        // Der Kontakt wurde inzwischen geändert: die gelesene Version ist veraltet
+        assertThatThrownBy(() -> writeService.updateContact(
+            customer.getId(), customer.getVersion(), first.getId(), first.getVersion(), contact("Alt", null), admin()
+        )).isInstanceOf(VersionOutdatedException.class);
+        assertThat(fixture.customerRepository.findById(customer.getId()).orElseThrow().getContacts().getFirst().getLastName())
+            .isEqualTo("Neu");
+    }
+
+    @Test
+    @DisplayName("Eine gleichzeitige Änderung lässt das positionale Update scheitern")
+    void testPositionalUpdateConcurrentChange() {
+        final var customer = embeddedCustomer("concurrent", 1);
+        final var contactDb = customer.getContacts().getFirst();
+        final var writeService = fixture.writeService(EMBEDDED);
+        // Der Cache enthält den Stand vor einer Änderung durch eine andere Instanz
+        fixture.customerCache.put(customer);
+        fixture.customerPatcher.update(
+            customer.getId(),
+            customer.getVersion(),
+            new Update().set("contacts.0.version", contactDb.getVersion() + 1).set("contacts.0.lastName", "Anders")
+        );
+
+        assertThatThrownBy(() -> writeService.updateContact(
+            customer.getId(), customer.getVersion(), contactDb.getId(), contactDb.getVersion(), contact("Neu", null), admin()
+        )).isInstanceOf(VersionOutdatedException.class);
+        assertThat(fixture.customerRepository.findById(customer.getId()).orElseThrow().getContacts().getFirst().getLastName())
+            .isEqualTo("Anders");
+    }
+
+    @Test
+    @DisplayName("Eine abgelehnte Änderung verändert den Kunden im Cache nicht")
+    void testRejectedUpdateKeepsCache() {
+        final var customer = embeddedCustomer("cache", 2);
+        final var first = customer.getContacts().getFirst();
+        final var second = customer.getContacts().get(1);
+        final var firstName = first.getFirstName();
+        final var version = first.getVersion();
+        final var writeService = fixture.writeService(EMBEDDED);
+        fixture.customerCache.put(customer);
+
+        // Gleicher Name wie der zweite Kontakt
+        assertThatThrownBy(() -> writeService.updateContact(
+            customer.getId(),
+            customer.getVersion(),
+            first.getId(),
+            first.getVersion(),
+            contact(second.getLastName(), second.getFirstName()),
+            admin()
+        )).isInstanceOf(ContactExistsException.class);
+
+        final var cached = fixture.customerCache.get(customer.getId(), id -> {
+            throw new AssertionError("Kunde nicht im Cache");
+        }).orElseThrow();
+        assertThat(cached.getContacts().getFirst().getFirstName()).isEqualTo(firstName);
+        assertThat(cached.getContacts().getFirst().getVersion()).isEqualTo(version);
+    }
+
+    @Test
+    @DisplayName("Scheitert die Zuordnung, wird der bereits eingefügte Kontakt wieder gelöscht")
+    void testAddContactCompensation() {
+        final var customer = fixture.insertWithContacts("compensation", 1);
+        final var writeService = fixture.writeService(COLLECTION);
+        // Der Cache enthält den Stand vor einer Änderung durch eine andere Instanz
+        fixture.customerCache.put(customer);
+        fixture.customerPatcher.update(customer.getId(), customer.getVersion(), new Update().set("firstName", "Anders"));
+
+        assertThatThrownBy(() -> writeService.addContact(customer.getId(), contact("Neu", "Nina"), admin()))
+            .isInstanceOf(VersionOutdatedException.class);
+
+        assertThat(fixture.contactRepository.count()).isEqualTo(1);
+        assertThat(fixture.customerRepository.findById(customer.getId()).orElseThrow().getContactIds())
+            .containsExactlyElementsOf(customer.getContactIds());
+        // Ein neuer Versuch scheitert nicht am verwaisten Kontakt
+        writeService.addContact(customer.getId(), contact("Neu", "Nina"), admin());
+        assertThat(fixture.contactRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Kontakte werden in beiden Layouts gelesen")
+    void testReadBothLayouts() {
+        final var inCollection = fixture.insertWithContacts("collection", 2);
+        final var embedded = embeddedCustomer("embedded", 2);
+        final var empty = fixture.customerRepository.insert(CustomerServiceFixture.customer("empty"));
+        final var queryController = new QueryController(fixture.customerReadService, mock(FilterPlanCache.class));
+
+        final var contacts = queryController.getContacts(List.of(inCollection, embedded, empty));
+
+        assertThat(contacts.get(inCollection)).extracting(Contact::getId)
+            .containsExactlyElementsOf(inCollection.getContactIds());
+        assertThat(contacts.get(embedded)).extracting(Contact::getId)
+            .containsExactlyElementsOf(embedded.getContactIds());
+        assertThat(contacts.get(empty)).isEmpty();
+    }
+
+    private Customer embeddedCustomer(final String username, final int contacts) {
+        final var customer = fixture.contactStorage(EMBEDDED).migrate(fixture.insertWithContacts(username, contacts));
+        assertThat(customer.getContacts()).hasSize(contacts);
+        return customer;
+    }
+}
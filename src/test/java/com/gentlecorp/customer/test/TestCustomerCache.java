@@ -0,0 +1,242 @@
+package com.gentlecorp.customer.test;
+
+import com.gentlecorp.customer.exception.VersionOutdatedException;
+import com.gentlecorp.customer.model.entity.Customer;
+import com.gentlecorp.customer.service.CustomerCache;
+import com.gentlecorp.customer.utils.CustomerServiceFixture;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static com.gentlecorp.customer.model.enums.ContactOptionsType.EMAIL;
+import static com.gentlecorp.customer.model.enums.ContactOptionsType.PHONE;
+import static com.gentlecorp.customer.model.enums.ContactStorageType.COLLECTION;
+import static com.gentlecorp.customer.model.enums.InterestType.INVESTMENTS;
+import static com.gentlecorp.customer.utils.CustomerServiceFixture.admin;
+import static com.gentlecorp.customer.utils.CustomerServiceFixture.contact;
+import static com.gentlecorp.customer.util.Constants.CUSTOMER_CACHE_MAX_WEIGHT;
+import static com.gentlecorp.customer.util.Constants.CUSTOMER_CACHE_TTL;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+public class TestCustomerCache {
+
+    private CustomerCache customerCache;
+
+    @BeforeEach
+    void init() {
+        customerCache = new CustomerCache(new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Ein geladener Kunde wird zwischengespeichert")
+    void testLoadCached() {
+        final var id = UUID.randomUUID();
+        final var loads = new AtomicInteger();
+        final Function<UUID, Optional<Customer>> loader = key -> {
+            loads.incrementAndGet();
+            return Optional.of(customer(key, 0));
+        };
+
+        customerCache.get(id, loader);
+        customerCache.get(id, loader);
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Eine Invalidierung während des Ladens verwirft den geladenen Stand")
+    void testInvalidateWhileLoading() {
+        final var id = UUID.randomUUID();
+
+        // Eine andere Instanz speichert Version 1, während diese Instanz noch Version 0 liest
+        final var loaded = customerCache.get(id, key -> {
+            customerCache.invalidate(key, 1);
+            return Optional.of(customer(key, 0));
+        });
+
+        assertThat(loaded).hasValueSatisfying(customer -> assertThat(customer.getVersion()).isZero());
+        assertThat(customerCache.get(id, key -> Optional.of(customer(key, 1))))
+            .hasValueSatisfying(customer -> assertThat(customer.getVersion()).isEqualTo(1));
+    }
+
+    @Test
+    @DisplayName("Ein während des Ladens gelöschter Kunde wird nicht zwischengespeichert")
+    void testDeleteWhileLoading() {
+        final var id = UUID.randomUUID();
+
+        customerCache.get(id, key -> {
+            customerCache.invalidate(key);
+            return Optional.of(customer(key, 3));
+        });
+
+        assertThat(customerCache.get(id, key -> Optional.empty())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Das Leeren des Caches während des Ladens verwirft auch gebündelt geladene Kunden")
+    void testInvalidateAllWhileLoadingBatch() {
+        final var first = UUID.randomUUID();
+        final var second = UUID.randomUUID();
+
+        final var loaded = customerCache.getAll(List.of(first, second), ids -> {
+            customerCache.invalidateAll();
+            return ids.stream().map(id -> customer(id, 0)).toList();
+        });
+
+        assertThat(loaded).containsOnlyKeys(first, second);
+        assertThat(customerCache.getAll(Set.of(first, second), ids -> List.of())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Eine Invalidierung anderer Kunden verwirft den geladenen Stand höchstens im selben Streifen")
+    void testInvalidateOtherWhileLoading() {
+        final List<UUID> ids = new ArrayList<>();
+        for (var i = 0; i < 10; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        final var invalidated = UUID.randomUUID();
+
+        customerCache.getAll(ids, missing -> {
+            customerCache.invalidate(invalidated, 1);
+            return missing.stream().map(id -> customer(id, 0)).toList();
+        });
+
+        // Höchstens ein Kunde teilt sich zufällig den Streifen mit der invalidierten ID
+        final var cached = customerCache.getAll(ids, missing -> List.of());
+        assertThat(cached.size()).isGreaterThanOrEqualTo(ids.size() - 1);
+    }
+
+    @Test
+    @DisplayName("Das Gewicht eines Kunden wächst mit der Länge seiner Listen")
+    void testWeigher() {
+        final var customer = customer(UUID.randomUUID(), 0).toBuilder()
+            .contactIds(new ArrayList<>(List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID())))
+            .interests(new ArrayList<>(List.of(INVESTMENTS)))
+            .contactOptions(new ArrayList<>(List.of(EMAIL, PHONE)))
+            .build();
+
+        customerCache.put(customer);
+        customerCache.put(customer(UUID.randomUUID(), 0));
+
+        // Caffeine verbucht Schreibzugriffe asynchron; erst danach ist das Gewicht aktuell
+        customers().cleanUp();
+        final var eviction = customers().policy().eviction().orElseThrow();
+        assertThat(eviction.getMaximum()).isEqualTo(CUSTOMER_CACHE_MAX_WEIGHT);
+        // 1 + 3 Kontakt-IDs + 1 Interesse + 2 Kontaktoptionen, dazu 1 für den Kunden ohne Listen
+        assertThat(eviction.weightedSize()).hasValue(8);
+    }
+
+    @Test
+    @DisplayName("Einträge verfallen nach der konfigurierten Zeit ab dem Schreiben")
+    void testTtl() {
+        final var id = UUID.randomUUID();
+        customerCache.put(customer(id, 0));
+
+        final var expiration = customers().policy().expireAfterWrite().orElseThrow();
+        assertThat(expiration.getExpiresAfter()).isEqualTo(CUSTOMER_CACHE_TTL);
+        assertThat(expiration.ageOf(id)).hasValueSatisfying(age -> assertThat(age).isLessThan(CUSTOMER_CACHE_TTL));
+        assertThat(customers().policy().expireAfterAccess()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Änderungen am übergebenen oder gelieferten Kunden verändern den Eintrag nicht")
+    void testCopyOnReadAndWrite() {
+        final var id = UUID.randomUUID();
+        final var customer = customer(id, 0).toBuilder()
+            .contactIds(new ArrayList<>())
+            .contacts(new ArrayList<>(List.of(contact("Alpha", "Anna"))))
+            .build();
+        customerCache.put(customer);
+
+        // Kopie beim Schreiben
+        customer.setLastName("Geändert");
+        customer.getContactIds().add(UUID.randomUUID());
+        customer.getContacts().getFirst().setFirstName("Geändert");
+
+        final var read = customerCache.get(id, key -> Optional.empty()).orElseThrow();
+        assertThat(read.getLastName()).isNull();
+        assertThat(read.getContactIds()).isEmpty();
+        assertThat(read.getContacts().getFirst().getFirstName()).isEqualTo("Anna");
+
+        // Kopie beim Lesen
+        read.setLastName("Geändert");
+        read.getContactIds().add(UUID.randomUUID());
+        read.getContacts().getFirst().setFirstName("Geändert");
+
+        final var reread = customerCache.get(id, key -> Optional.empty()).orElseThrow();
+        assertThat(reread).isNotSameAs(read);
+        assertThat(reread.getLastName()).isNull();
+        assertThat(reread.getContactIds()).isEmpty();
+        assertThat(reread.getContacts().getFirst().getFirstName()).isEqualTo("Anna");
+    }
+
+    @Test
+    @DisplayName("Ein älterer Stand ersetzt keinen neueren, eine Invalidierung entfernt nur ältere Stände")
+    void testVersions() {
+        final var id = UUID.randomUUID();
+        customerCache.put(customer(id, 2));
+
+        customerCache.put(customer(id, 1));
+        customerCache.invalidate(id, 2);
+
+        assertThat(customerCache.get(id, key -> Optional.empty()))
+            .hasValueSatisfying(customer -> assertThat(customer.getVersion()).isEqualTo(2));
+
+        customerCache.invalidate(id, 3);
+
+        assertThat(customerCache.get(id, key -> Optional.empty())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Scheitert eine Änderung an einem veralteten Eintrag, wird er entfernt und neu geladen")
+    void testInvalidateOnOptimisticLockFailure() {
+        try (var fixture = new CustomerServiceFixture()) {
+            final var writeService = fixture.writeService(COLLECTION);
+            final var customerDb = fixture.customerRepository.insert(CustomerServiceFixture.customer("veraltet"));
+            final var id = customerDb.getId();
+            final var version = customerDb.getVersion();
+            // Der Cache enthält den eingefügten Stand
+            assertThat(fixture.customerReadService.findById(id, admin()).getVersion()).isEqualTo(version);
+
+            // Eine andere Instanz ändert den Kunden, ihre Invalidierung ist noch nicht eingetroffen
+            fixture.mongoTemplate.updateFirst(
+                query(where("_id").is(id)),
+                new Update().set("lastName", "Anders").inc("version", 1),
+                Customer.class
+            );
+            final var input = CustomerServiceFixture.customer("veraltet").toBuilder().lastName("Neu").build();
+
+            assertThatThrownBy(() -> writeService.update(input, id, version, admin()))
+                .isInstanceOfAny(OptimisticLockingFailureException.class, VersionOutdatedException.class);
+
+            final var reloaded = fixture.customerReadService.findById(id, admin());
+            assertThat(reloaded.getVersion()).isEqualTo(version + 1);
+            assertThat(reloaded.getLastName()).isEqualTo("Anders");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<UUID, Customer> customers() {
+        return (Cache<UUID, Customer>) ReflectionTestUtils.getField(customerCache, "customers");
+    }
+
+    private static Customer customer(final UUID id, final int version) {
+        return Customer.builder().id(id).version(version).username("cache").build();
+    }
+}
@@ -0,0 +1,177 @@
+package com.gentlecorp.customer.test;
+
+import com.gentlecorp.customer.model.dto.CustomerInvalidationDTO;
+import com.gentlecorp.customer.model.entity.Customer;
+import com.gentlecorp.customer.service.CustomerCache;
+import com.gentlecorp.customer.service.CustomerCacheInvalidator;
+import com.gentlecorp.customer.service.CustomerUniquenessFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.gentlecorp.customer.util.Constants.CUSTOMER_INVALIDATION_TOPIC;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(
+    classes = {CustomerCache.class, CustomerCacheInvalidator.class, TestCustomerCacheInvalidation.Metrics.class},
+    properties = "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}"
+)
+@ImportAutoConfiguration(KafkaAutoConfiguration.class)
+@EmbeddedKafka(partitions = 1, topics = CUSTOMER_INVALIDATION_TOPIC)
+public class TestCustomerCacheInvalidation {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  @Autowired
+  private CustomerCache customerCache;
+
+  @Autowired
+  private CustomerCacheInvalidator customerCacheInvalidator;
+
+  @Autowired
+  private KafkaTemplate<String, Object> kafkaTemplate;
+
+  @Autowired
+  private KafkaListenerEndpointRegistry listenerRegistry;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @MockitoBean
+  private CustomerUniquenessFilter customerUniquenessFilter;
+
+  @TestConfiguration
+  static class Metrics {
+    @Bean
+    MeterRegistry meterRegistry() {
+      return new SimpleMeterRegistry();
+    }
+  }
+
+  @Test
+  @DisplayName("Eine Änderung auf einer anderen Instanz entfernt den veralteten Kunden und ergänzt den Filter")
+  void testInvalidateStaleCustomer() {
+    awaitAssignment();
+    final var id = UUID.randomUUID();
+    final var loads = new AtomicInteger();
+    customerCache.put(Customer.builder().id(id).version(0).build());
+
+    // Ereignis einer anderen Instanz, die den Kunden auf Version 1 gespeichert hat
+    kafkaTemplate.send(CUSTOMER_INVALIDATION_TOPIC, id.toString(), new CustomerInvalidationDTO(
+      id,
+      1,
+      false,
+      "neu@test.de",
+      "neu"
+    ));
+
+    await().atMost(TIMEOUT).untilAsserted(() -> {
+      final var customer = customerCache.get(id, key -> {
+        loads.incrementAndGet();
+        return Optional.of(Customer.builder().id(key).version(1).build());
+      });
+      assertThat(customer).hasValueSatisfying(c -> assertThat(c.getVersion()).isEqualTo(1));
+    });
+    assertThat(loads).hasValue(1);
+    assertThat(meterRegistry.get("customer.cache.invalidation.lag").timer().count()).isPositive();
+    // Auch der Filter für die Eindeutigkeitsprüfung kennt nun die Werte der anderen Instanz
+    verify(customerUniquenessFilter).add("neu@test.de", "neu");
+  }
+
+  @Test
+  @DisplayName("Das eigene Ereignis entfernt den aktuellen Kunden nicht")
+  void testKeepCurrentCustomer() {
+    awaitAssignment();
+    final var id = UUID.randomUUID();
+    final var customer = Customer.builder().id(id).version(2).build();
+    customerCache.put(customer);
+    final var before = meterRegistry.get("customer.cache.invalidation.lag").timer().count();
+
+    customerCacheInvalidator.publish(customer);
+
+    await().atMost(TIMEOUT).until(() ->
+      meterRegistry.get("customer.cache.invalidation.lag").timer().count() > before
+    );
+    final var cached = customerCache.get(id, key -> Optional.empty());
+    assertThat(cached).hasValueSatisfying(c -> assertThat(c.getVersion()).isEqualTo(2));
+  }
+
+  @Test
+  @DisplayName("Ein gelöschter Kunde wird aus dem Cache entfernt")
+  void testInvalidateDeletedCustomer() {
+    awaitAssignment();
+    final var id = UUID.randomUUID();
+    customerCache.put(Customer.builder().id(id).version(5).build());
+
+    customerCacheInvalidator.publishDeleted(id);
+
+    await().atMost(TIMEOUT).untilAsserted(() ->
+      assertThat(customerCache.get(id, key -> Optional.empty())).isEmpty()
+    );
+  }
+
+  @Test
+  @DisplayName("Ein Ereignis ohne Kunden-ID leert den gesamten Cache")
+  void testInvalidateAll() {
+    awaitAssignment();
+    final var first = UUID.randomUUID();
+    final var second = UUID.randomUUID();
+    customerCache.put(Customer.builder().id(first).version(0).build());
+    customerCache.put(Customer.builder().id(second).version(3).build());
+
+    customerCacheInvalidator.publishAll();
+
+    await().atMost(TIMEOUT).untilAsserted(() -> {
+      assertThat(customerCache.get(first, key -> Optional.empty())).isEmpty();
+      assertThat(customerCache.get(second, key -> Optional.empty())).isEmpty();
+    });
+  }
+
+  @Test
+  @DisplayName("Ein nicht erreichbarer Broker lässt die bereits gespeicherte Änderung nicht scheitern")
+  @SuppressWarnings("unchecked")
+  void testSendFailureIsOnlyCounted() {
+    final KafkaTemplate<String, Object> unreachable = mock(KafkaTemplate.class);
+    when(unreachable.send(anyString(), any(), any()))
+      .thenThrow(new KafkaException("Topic not present in metadata after 2000 ms"))
+      .thenReturn(CompletableFuture.failedFuture(new KafkaException("Expiring record")));
+    final var registry = new SimpleMeterRegistry();
+    final var invalidator = new CustomerCacheInvalidator(customerCache, customerUniquenessFilter, unreachable, registry);
+
+    invalidator.publish(Customer.builder().id(UUID.randomUUID()).version(1).build());
+    invalidator.publishDeleted(UUID.randomUUID());
+
+    assertThat(registry.get("customer.cache.invalidation.failed").counter().count()).isEqualTo(2);
+  }
+
+  private void awaitAssignment() {
+    // Der Consumer liest ab dem Ende des Topics und muss daher vor dem Senden zugeordnet sein
+    listenerRegistry.getListenerContainers()
+      .forEach(container -> ContainerTestUtils.waitForAssignment(container, 1));
+  }
+}
@@ -0,0 +1,148 @@
+package com.gentlecorp.customer.test;
+
+import com.gentlecorp.customer.model.entity.Customer;
+import com.gentlecorp.customer.repository.CustomerRepository;
+import com.gentlecorp.customer.service.CustomerLookupCoalescer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.gentlecorp.customer.util.Constants.CUSTOMER_LOOKUP_MAX_BATCH_SIZE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TestCustomerLookupCoalescer {
+
+    private static final int CALLERS = 50;
+
+    private final CustomerRepository customerRepository = mock(CustomerRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+    private CustomerLookupCoalescer coalescer;
+
+    @BeforeEach
+    void init() {
+        coalescer = new CustomerLookupCoalescer(customerRepository, meterRegistry);
+    }
+
+    @AfterEach
+    void close() {
+        callers.shutdownNow();
+        ReflectionTestUtils.invokeMethod(coalescer, "shutdown");
+    }
+
+    @Test
+    @DisplayName("Gleichzeitige Anfragen für dieselbe ID teilen sich eine Abfrage")
+    void testSingleFlight() throws Exception {
+        final var id = UUID.randomUUID();
+        final var customer = Customer.builder().id(id).username("einzeln").build();
+        final var release = new CountDownLatch(1);
+        when(customerRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(customer);
+        });
+
+        final var results = submit(() -> coalescer.findById(id), CALLERS);
+        // Alle Aufrufer warten, solange die erste Abfrage blockiert
+        Thread.sleep(100);
+        release.countDown();
+
+        for (final var result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).containsSame(customer);
+        }
+        verify(customerRepository, times(1)).findAllById(anyIterable());
+        assertThat(meterRegistry.get("customer.lookup.coalescing.ratio").summary().totalAmount()).isEqualTo(CALLERS);
+    }
+
+    @Test
+    @DisplayName("Gleichzeitige Anfragen für verschiedene IDs werden gebündelt")
+    void testCoalescing() throws Exception {
+        final List<UUID> ids = new ArrayList<>();
+        for (var i = 0; i < CALLERS; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        when(customerRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            final List<Customer> customers = new ArrayList<>();
+            invocation.<Iterable<UUID>>getArgument(0).forEach(id -> customers.add(Customer.builder().id(id).build()));
+            return customers;
+        });
+
+        final var start = new CountDownLatch(1);
+        final List<Future<Optional<Customer>>> results = new ArrayList<>();
+        for (final var id : ids) {
+            results.add(callers.submit(() -> {
+                start.await();
+                return coalescer.findById(id);
+            }));
+        }
+        start.countDown();
+
+        for (var i = 0; i < CALLERS; i++) {
+            assertThat(results.get(i).get(5, TimeUnit.SECONDS)).get().extracting(Customer::getId).isEqualTo(ids.get(i));
+        }
+        // Nicht jede ID erhält eine eigene Abfrage
+        verify(customerRepository, atMost(CALLERS / 2)).findAllById(anyIterable());
+        assertThat(meterRegistry.get("customer.lookup.batch.size").summary().max())
+            .isGreaterThan(1)
+            .isLessThanOrEqualTo(CUSTOMER_LOOKUP_MAX_BATCH_SIZE);
+    }
+
+    @Test
+    @DisplayName("Ein Fehler der Abfrage wird an den Aufrufer weitergegeben")
+    void testFailure() {
+        when(customerRepository.findAllById(anyIterable())).thenThrow(new IllegalStateException("MongoDB"));
+
+        assertThatThrownBy(() -> coalescer.findById(UUID.randomUUID()))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("MongoDB");
+    }
+
+    @Test
+    @DisplayName("Eine hängende Abfrage lässt den Aufrufer nicht unbegrenzt warten")
+    void testTimeout() {
+        final var release = new CountDownLatch(1);
+        when(customerRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            release.await();
+            return List.of();
+        });
+
+        try {
+            assertThatThrownBy(() -> coalescer.findById(UUID.randomUUID()))
+                .isInstanceOf(QueryTimeoutException.class);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private List<Future<Optional<Customer>>> submit(
+        final Callable<Optional<Customer>> call,
+        final int count
+    ) {
+        final List<Future<Optional<Customer>>> results = new ArrayList<>();
+        for (var i = 0; i < count; i++) {
+            results.add(callers.submit(call));
+        }
+        return results;
+    }
+}
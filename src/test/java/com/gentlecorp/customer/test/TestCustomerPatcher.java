@@ -0,0 +1,103 @@
+package com.gentlecorp.customer.test;
+
+import com.gentlecorp.customer.model.entity.Address;
+import com.gentlecorp.customer.model.entity.Customer;
+import com.gentlecorp.customer.service.CustomerPatcher;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.gentlecorp.customer.model.enums.StatusType.ACTIVE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestCustomerPatcher {
+
+    private MappingMongoConverter converter;
+    private Customer customer;
+
+    @BeforeEach
+    void init() {
+        final var conversions = new MongoCustomConversions(List.of());
+        final var mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        customer = Customer.builder()
+            .id(UUID.randomUUID())
+            .version(3)
+            .lastName("Test")
+            .firstName("Theo")
+            .email("theo@test.de")
+            .username("theo")
+            .tierLevel(1)
+            .customerState(ACTIVE)
+            .address(Address.builder().street("Hauptstraße").houseNumber("1").zipCode("12345").city("Berlin").build())
+            .contactIds(new ArrayList<>(List.of(UUID.randomUUID())))
+            .created(LocalDateTime.now())
+            .build();
+    }
+
+    @Test
+    @DisplayName("Nur geänderte Felder werden gesetzt")
+    void testChangedFieldsOnly() {
+        final var before = toDocument(customer);
+        customer.set(Customer.builder().email("neu@test.de").subscribed(customer.isSubscribed()).build());
+
+        final var update = CustomerPatcher.diff(before, toDocument(customer)).getUpdateObject();
+
+        assertThat(update).containsOnlyKeys("$set");
+        assertThat(update.get("$set", Document.class)).containsExactlyEntriesOf(Map.of("email", "neu@test.de"));
+    }
+
+    @Test
+    @DisplayName("Eingebettete Dokumente werden bei einer Änderung als Ganzes ersetzt")
+    void testEmbeddedDocument() {
+        final var before = toDocument(customer);
+        customer.setAddress(Address.builder().street("Hauptstraße").houseNumber("1").zipCode("12345").city("Hamburg").build());
+
+        final var set = CustomerPatcher.diff(before, toDocument(customer)).getUpdateObject().get("$set", Document.class);
+
+        assertThat(set).containsOnlyKeys("address");
+        assertThat(set.get("address", Document.class)).containsEntry("city", "Hamburg").containsEntry("street", "Hauptstraße");
+    }
+
+    @Test
+    @DisplayName("Entfallene Felder werden entfernt, ID, Version und Zeitstempel nie geschrieben")
+    void testUnsetAndIgnoredFields() {
+        final var before = toDocument(customer);
+        customer.setContactIds(null);
+        customer.setVersion(4);
+        customer.setCreated(LocalDateTime.now().plusDays(1));
+
+        final var update = CustomerPatcher.diff(before, toDocument(customer)).getUpdateObject();
+
+        assertThat(update).containsOnlyKeys("$unset");
+        assertThat(update.get("$unset", Document.class)).containsOnlyKeys("contactIds");
+    }
+
+    @Test
+    @DisplayName("Ohne Änderung ist das Update leer")
+    void testNoChange() {
+        final var before = toDocument(customer);
+
+        assertThat(CustomerPatcher.diff(before, toDocument(customer)).getUpdateObject()).isEmpty();
+    }
+
+    private Document toDocument(final Customer customer) {
+        final var document = new Document();
+        converter.write(customer, document);
+        return document;
+    }
+}
@@ -0,0 +1,144 @@
+package com.gentlecorp.customer.test;
+
+import com.gentlecorp.customer.exception.EmailExistsException;
+import com.gentlecorp.customer.exception.UsernameExistsException;
+import com.gentlecorp.customer.service.CustomerUniquenessFilter;
+import com.gentlecorp.customer.service.CustomerWriteService;
+import com.gentlecorp.customer.utils.CustomerServiceFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static com.gentlecorp.customer.model.enums.ContactStorageType.COLLECTION;
+import static com.gentlecorp.customer.model.enums.StatusType.PENDING;
+import static com.gentlecorp.customer.utils.CustomerServiceFixture.admin;
+import static com.gentlecorp.customer.utils.CustomerServiceFixture.customer;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TestCustomerUniquenessFilter {
+
+    private static final String PASSWORD = "Sicher#Passwort1";
+
+    private CustomerServiceFixture fixture;
+    private CustomerUniquenessFilter filter;
+
+    @BeforeEach
+    void init() {
+        fixture = new CustomerServiceFixture();
+        filter = new CustomerUniquenessFilter(fixture.mongoTemplate, fixture.customerRepository, fixture.meterRegistry);
+    }
+
+    @AfterEach
+    void close() {
+        ReflectionTestUtils.invokeMethod(filter, "shutdown");
+        fixture.close();
+    }
+
+    @Test
+    @DisplayName("Sicher nicht vorhandene Werte werden ohne Abfrage abgelehnt, mögliche Treffer in MongoDB geprüft")
+    void testSkipAndCheck() {
+        fixture.customerRepository.insert(customer("vorhanden"));
+        // Vor dem Aufbau wird jede Prüfung an MongoDB gestellt
+        assertThat(filter.emailExists("vorhanden@test.de")).isTrue();
+        assertThat(checks("email", "exists")).isZero();
+
+        filter.start();
+
+        assertThat(filter.emailExists("neu@test.de")).isFalse();
+        assertThat(filter.usernameExists("neu")).isFalse();
+        assertThat(filter.emailExists("vorhanden@test.de")).isTrue();
+        assertThat(filter.usernameExists("vorhanden")).isTrue();
+        assertThat(checks("email", "skipped")).isEqualTo(1);
+        assertThat(checks("username", "skipped")).isEqualTo(1);
+        assertThat(checks("email", "exists")).isEqualTo(1);
+        assertThat(checks("username", "exists")).isEqualTo(1);
+        assertThat(fixture.meterRegistry.get("customer.uniqueness.filter.memory").gauges()).allSatisfy(gauge ->
+            assertThat(gauge.value()).isPositive()
+        );
+    }
+
+    @Test
+    @DisplayName("Kunden im Zustand PENDING zählen nicht als vorhanden")
+    void testPendingNotCounted() {
+        fixture.customerRepository.insert(customer("angelegt").toBuilder().customerState(PENDING).build());
+        filter.start();
+
+        assertThat(filter.emailExists("angelegt@test.de")).isFalse();
+        assertThat(filter.usernameExists("angelegt")).isFalse();
+        assertThat(checks("email", "false_positive")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Werte anderer Instanzen werden eingetragen, gelöschte beim Neuaufbau entfernt")
+    void testAddAndRebuild() {
+        final var removed = fixture.customerRepository.insert(customer("entfernt"));
+        filter.start();
+        // Von einer anderen Instanz gespeichert: ohne Eintrag hält der Filter den Wert für frei
+        fixture.customerRepository.insert(customer("fremd"));
+        assertThat(filter.usernameExists("fremd")).isFalse();
+
+        filter.add("fremd@test.de", "fremd");
+
+        assertThat(filter.emailExists("fremd@test.de")).isTrue();
+        assertThat(filter.usernameExists("fremd")).isTrue();
+
+        fixture.customerRepository.deleteById(removed.getId());
+        assertThat(filter.usernameExists("entfernt")).isFalse();
+        assertThat(checks("username", "false_positive")).isEqualTo(1);
+
+        ReflectionTestUtils.invokeMethod(filter, "rebuildIfIdle");
+
+        assertThat(filter.usernameExists("entfernt")).isFalse();
+        assertThat(checks("username", "false_positive")).isEqualTo(1);
+        assertThat(filter.usernameExists("fremd")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Die Neuanlage fragt den Filter, bevor sie den Kunden einfügt")
+    void testCreateConsultsFilter() {
+        final var writeService = fixture.writeService(COLLECTION);
+        when(fixture.customerUniquenessFilter.emailExists("doppelt@test.de")).thenReturn(true);
+        when(fixture.customerUniquenessFilter.usernameExists("doppelt")).thenReturn(true);
+
+        assertThatThrownBy(() -> writeService.create(customer("doppelt"), PASSWORD))
+            .isInstanceOf(EmailExistsException.class);
+        final var sameUsername = customer("DOPPELT").toBuilder().email("anders@test.de").build();
+        assertThatThrownBy(() -> writeService.create(sameUsername, PASSWORD))
+            .isInstanceOf(UsernameExistsException.class);
+
+        assertThat(fixture.customerRepository.count()).isZero();
+        verify(fixture.keycloakService, never()).signIn(any(), anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Übersieht der Filter einen Konflikt, übersetzt die Änderung die DuplicateKeyException")
+    void testDuplicateKeyOnUpdate() {
+        final CustomerWriteService writeService = fixture.writeService(COLLECTION);
+        fixture.customerRepository.insert(customer("erster"));
+        final var second = fixture.customerRepository.insert(customer("zweiter"));
+
+        final var sameEmail = customer("zweiter").toBuilder().email("erster@test.de").build();
+        assertThatThrownBy(() -> writeService.update(sameEmail, second.getId(), second.getVersion(), admin()))
+            .isInstanceOf(EmailExistsException.class);
+        final var sameUsername = customer("erster").toBuilder().email("zweiter@test.de").build();
+        assertThatThrownBy(() -> writeService.update(sameUsername, second.getId(), second.getVersion(), admin()))
+            .isInstanceOf(UsernameExistsException.class);
+
+        final var secondDb = fixture.customerRepository.findById(second.getId()).orElseThrow();
+        assertThat(secondDb.getEmail()).isEqualTo("zweiter@test.de");
+        assertThat(secondDb.getUsername()).isEqualTo("zweiter");
+    }
+
+    private double checks(final String field, final String result) {
+        return fixture.meterRegistry.counter("customer.uniqueness.filter.checks", "filter", field, "result", result)
+            .count();
+    }
+}
@@ -0,0 +1,77 @@
+package com.gentlecorp.customer.test;
+
+import com.gentlecorp.customer.Env;
+import com.gentlecorp.customer.config.TestClientProvider;
+import com.gentlecorp.customer.model.entity.Customer;
+import com.gentlecorp.customer.utils.CustomerCommonFunctions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestCustomersBatch extends CustomerCommonFunctions {
+    private static final Logger log = LoggerFactory.getLogger(TestCustomersBatch.class);
+
+    @BeforeAll
+    protected void setup() {
+        new Env();
+        testClientProvider = new TestClientProvider();
+        testClientProvider.init(serverPort);
+    }
+
+    @Test
+    @DisplayName("Sollte mehrere Kunden anhand ihrer IDs in der angefragten Reihenfolge liefern")
+    void testCustomersByIds() {
+        final var client = testClientProvider.getAuthenticatedClient(USER_ADMIN);
+        final var ids = List.of(ID_LEROY, UUID.randomUUID().toString(), ID_CALEB, ID_LEROY);
+
+        final var customers = client.document(customersByIdsQuery)
+            .variable("ids", ids)
+            .retrieve("customersByIds")
+            .toEntityList(Customer.class)
+            .block();
+        log.debug("testCustomersByIds: customers={}", customers);
+
+        assertThat(customers)
+            .extracting(Customer::getId)
+            .containsExactly(UUID.fromString(ID_LEROY), UUID.fromString(ID_CALEB));
+    }
+
+    @Test
+    @DisplayName("Sollte mehrere Kunden anhand ihrer Benutzernamen liefern")
+    void testCustomersByUsernames() {
+        final var client = testClientProvider.getAuthenticatedClient(USER_ADMIN);
+        final var usernames = List.of(USERNAME_ERIK, "unbekannt", USERNAME_HIROSHI);
+
+        final var customers = client.document(customersByUsernamesQuery)
+            .variable("usernames", usernames)
+            .retrieve("customersByUsernames")
+            .toEntityList(Customer.class)
+            .block();
+
+        assertThat(customers)
+            .extracting(Customer::getUsername)
+            .containsExactly(USERNAME_ERIK, USERNAME_HIROSHI);
+    }
+
+    @Test
+    @DisplayName("Sollte Zugriff für Basic verweigern")
+    void testCustomersByIdsAsBasic() {
+        final var client = testClientProvider.getAuthenticatedClient(USER_BASIC);
+        final var response = client.document(customersByIdsQuery)
+            .variables(Map.of("ids", List.of(ID_ERIK)))
+            .execute()
+            .block();
+
+        assertThat(response).isNotNull();
+        assertThat(response.getErrors()).isNotEmpty();
+        assertThat(response.getErrors().getFirst().getErrorType().toString()).isEqualTo("FORBIDDEN");
+    }
+}
@@ -0,0 +1,79 @@
+package com.gentlecorp.customer.test;
+
+import com.gentlecorp.customer.Env;
+import com.gentlecorp.customer.config.TestClientProvider;
+import com.gentlecorp.customer.model.CustomerEdge;
+import com.gentlecorp.customer.utils.CustomerCommonFunctions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestCustomersConnection extends CustomerCommonFunctions {
+    private static final Logger log = LoggerFactory.getLogger(TestCustomersConnection.class);
+
+    @BeforeAll
+    protected void setup() {
+        new Env();
+        testClientProvider = new TestClientProvider();
+        testClientProvider.init(serverPort);
+    }
+
+    @Test
+    @DisplayName("Sollte alle Kunden seitenweise über den Cursor liefern")
+    void testPageThroughAllCustomers() {
+        final var client = testClientProvider.getAuthenticatedClient(USER_ADMIN);
+        final var allCustomers = executeCustomersGraphQLQuery(customersQuery, null, client).getData();
+
+        final List<UUID> ids = new ArrayList<>();
+        String after = null;
+        boolean hasNextPage = true;
+        while (hasNextPage) {
+            final Map<String, Object> variables = new HashMap<>();
+            variables.put("first", 5);
+            variables.put("after", after);
+
+            final var response = client.document(customersConnectionQuery)
+                .variables(variables)
+                .execute()
+                .block();
+            assertThat(response).isNotNull();
+            assertThat(response.getErrors()).isEmpty();
+
+            final var edges = response.field("customersConnection.edges").toEntityList(CustomerEdge.class);
+            assertThat(edges).hasSizeLessThanOrEqualTo(5);
+            edges.forEach(edge -> ids.add(edge.node().getId()));
+
+            hasNextPage = response.field("customersConnection.pageInfo.hasNextPage").getValue();
+            after = response.field("customersConnection.pageInfo.endCursor").getValue();
+            log.debug("testPageThroughAllCustomers: page={}, endCursor={}", edges.size(), after);
+        }
+
+        assertThat(ids)
+            .doesNotHaveDuplicates()
+            .hasSameSizeAs(allCustomers);
+    }
+
+    @Test
+    @DisplayName("Sollte Zugriff für Basic verweigern")
+    void testConnectionAsBasic() {
+        final var client = testClientProvider.getAuthenticatedClient(USER_BASIC);
+        final var response = client.document(customersConnectionQuery)
+            .variables(Map.of("first", 5))
+            .execute()
+            .block();
+
+        assertThat(response).isNotNull();
+        assertThat(response.getErrors()).isNotEmpty();
+        assertThat(response.getErrors().getFirst().getErrorType().toString()).isEqualTo("FORBIDDEN");
+    }
+}
@@ -0,0 +1,128 @@
+package com.gentlecorp.customer.test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gentlecorp.customer.controller.ExportController;
+import com.gentlecorp.customer.exception.CommonExceptionHandler;
+import com.gentlecorp.customer.model.entity.Customer;
+import com.gentlecorp.customer.service.filter.FilterPlanCache;
+import com.gentlecorp.customer.utils.CustomerServiceFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.gentlecorp.customer.model.enums.StatusType.PENDING;
+import static com.gentlecorp.customer.utils.CustomerServiceFixture.customer;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class TestExportCustomers {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private CustomerServiceFixture fixture;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void init() {
+        fixture = new CustomerServiceFixture();
+        mockMvc = MockMvcBuilders
+            .standaloneSetup(new ExportController(fixture.customerReadService, new FilterPlanCache(), objectMapper))
+            .setControllerAdvice(new CommonExceptionHandler())
+            .build();
+    }
+
+    @AfterEach
+    void close() {
+        fixture.close();
+    }
+
+    @Test
+    @DisplayName("Gefilterte Kunden werden sortiert als ein JSON-Dokument pro Zeile exportiert")
+    void testExport() throws Exception {
+        fixture.customerRepository.insert(customer("gamma").toBuilder().lastName("Gamma").tierLevel(2).build());
+        fixture.customerRepository.insert(customer("alpha").toBuilder().lastName("Alpha").tierLevel(2).build());
+        fixture.customerRepository.insert(customer("beta").toBuilder().lastName("Beta").tierLevel(1).build());
+        fixture.customerRepository.insert(customer("delta").toBuilder().lastName("Delta").tierLevel(2).customerState(PENDING).build());
+
+        final var lines = export("""
+            {
+              "filter": {"field": "tierLevel", "operator": "EQ", "value": "2"},
+              "order": {"field": "lastName", "direction": "DESC"}
+            }
+            """);
+
+        assertThat(lines)
+            .extracting(line -> read(line).getLastName())
+            .containsExactly("Gamma", "Alpha");
+    }
+
+    @Test
+    @DisplayName("Ohne Anfragekörper werden alle sichtbaren Kunden exportiert")
+    void testExportAll() throws Exception {
+        final List<String> usernames = new ArrayList<>();
+        for (var i = 0; i < 250; i++) {
+            usernames.add("kunde" + i);
+            fixture.customerRepository.insert(customer("kunde" + i));
+        }
+
+        final var result = mockMvc.perform(post("/export/customers"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        final var body = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(APPLICATION_NDJSON))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        assertThat(body).endsWith("\n");
+        assertThat(body.lines().map(line -> read(line).getUsername()).toList())
+            .containsExactlyInAnyOrderElementsOf(usernames);
+    }
+
+    @Test
+    @DisplayName("Ein ungültiger Filter wird vor dem Streamen mit 400 abgelehnt")
+    void testInvalidFilter() throws Exception {
+        mockMvc.perform(post("/export/customers")
+                .contentType(APPLICATION_JSON)
+                .content("""
+                    {"filter": {"field": "tierLevel", "operator": "EQ", "value": "zwei"}}
+                    """))
+            .andExpect(request().asyncNotStarted())
+            .andExpect(status().isBadRequest());
+    }
+
+    private List<String> export(final String input) throws Exception {
+        final var result = mockMvc.perform(post("/export/customers").contentType(APPLICATION_JSON).content(input))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        return mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(APPLICATION_NDJSON))
+            .andReturn()
+            .getResponse()
+            .getContentAsString()
+            .lines()
+            .toList();
+    }
+
+    private Customer read(final String line) {
+        try {
+            return objectMapper.readValue(line, Customer.class);
+        } catch (final Exception e) {
+            throw new IllegalStateException(line, e);
+        }
+    }
+}
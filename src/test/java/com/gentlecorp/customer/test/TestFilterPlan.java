@@ -0,0 +1,207 @@
+package com.gentlecorp.customer.test;
+
+import com.gentlecorp.customer.controller.QueryController;
+import com.gentlecorp.customer.exception.IllegalArgumentException;
+import com.gentlecorp.customer.model.enums.FilterOptions;
+import com.gentlecorp.customer.model.enums.Operator;
+import com.gentlecorp.customer.model.input.FilterInput;
+import com.gentlecorp.customer.service.CustomerReadService;
+import com.gentlecorp.customer.service.filter.FilterPlan;
+import com.gentlecorp.customer.service.filter.FilterPlanCache;
+import com.gentlecorp.customer.service.filter.FilterShape;
+import com.google.common.cache.Cache;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.graphql.ResponseError;
+import org.springframework.graphql.data.method.annotation.support.AnnotatedControllerConfigurer;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
+import org.springframework.graphql.execution.DefaultBatchLoaderRegistry;
+import org.springframework.graphql.execution.DefaultExecutionGraphQlService;
+import org.springframework.graphql.execution.GraphQlSource;
+import org.springframework.graphql.test.tester.ExecutionGraphQlServiceTester;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static com.gentlecorp.customer.model.enums.FilterOptions.birthdate;
+import static com.gentlecorp.customer.model.enums.FilterOptions.id;
+import static com.gentlecorp.customer.model.enums.FilterOptions.lastName;
+import static com.gentlecorp.customer.model.enums.FilterOptions.subscribed;
+import static com.gentlecorp.customer.model.enums.FilterOptions.tierLevel;
+import static com.gentlecorp.customer.model.enums.Operator.EQ;
+import static com.gentlecorp.customer.model.enums.Operator.IN;
+import static com.gentlecorp.customer.model.enums.Operator.LIKE;
+import static com.gentlecorp.customer.model.enums.Operator.PREFIX;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.springframework.graphql.execution.ErrorType.BAD_REQUEST;
+
+public class TestFilterPlan {
+    private static final Logger log = LoggerFactory.getLogger(TestFilterPlan.class);
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 100_000;
+
+    private FilterPlanCache filterPlanCache;
+
+    @BeforeEach
+    void init() {
+        filterPlanCache = new FilterPlanCache();
+    }
+
+    @Test
+    @DisplayName("IN wird zu `$in` mit Werten im Typ des Feldes, bei Datumsfeldern zu einem Intervall")
+    void testIn() {
+        assertThat(filterPlanCache.toDocument(condition(tierLevel, IN, "1, 3")))
+            .isEqualTo(new Document("tierLevel", new Document("$in", List.of(1, 3))));
+        assertThat(filterPlanCache.toDocument(condition(lastName, IN, "Alpha,Beta")))
+            .isEqualTo(new Document("lastName", new Document("$in", List.of("Alpha", "Beta"))));
+        assertThat(filterPlanCache.toDocument(condition(birthdate, IN, "2000-01-01,2000-12-31")))
+            .isEqualTo(new Document("birthdate", new Document("$gte", date("2000-01-01")).append("$lte", date("2000-12-31"))));
+    }
+
+    @Test
+    @DisplayName("Werte werden streng im Typ des Feldes gebunden")
+    void testStrictTypes() {
+        final var customerId = UUID.randomUUID();
+
+        assertThat(filterPlanCache.toDocument(condition(tierLevel, EQ, "2")).get("tierLevel", Document.class).get("$eq"))
+            .isEqualTo(2);
+        assertThat(filterPlanCache.toDocument(condition(subscribed, EQ, "TRUE")).get("subscribed", Document.class).get("$eq"))
+            .isEqualTo(true);
+        assertThat(filterPlanCache.toDocument(condition(id, EQ, customerId.toString())).get("id", Document.class).get("$eq"))
+            .isEqualTo(customerId);
+        // Zeichenketten werden nicht als Zahl geraten
+        assertThat(filterPlanCache.toDocument(condition(lastName, EQ, "123")).get("lastName", Document.class).get("$eq"))
+            .isEqualTo("123");
+        assertThat(filterPlanCache.toDocument(condition(FilterOptions.address_city, PREFIX, "Ber")))
+            .isEqualTo(new Document("address.city", new Document("$regex", "^Ber").append("$options", "i")));
+    }
+
+    @Test
+    @DisplayName("Gleiche Strukturen mit anderen Werten verwenden denselben Plan")
+    void testPlanReused() {
+        final var first = filterPlanCache.toDocument(and(condition(lastName, LIKE, "a"), condition(tierLevel, EQ, "1")));
+        final var second = filterPlanCache.toDocument(and(condition(lastName, LIKE, "b"), condition(tierLevel, EQ, "2")));
+
+        final Cache<?, ?> plans = (Cache<?, ?>) ReflectionTestUtils.getField(filterPlanCache, "plans");
+        assertThat(plans).isNotNull();
+        assertThat(plans.size()).isEqualTo(1);
+        assertThat(first).isNotEqualTo(second);
+        assertThat(second.getList("$and", Document.class).get(1).get("tierLevel", Document.class).get("$eq")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Ungültige Werte und Operatoren werden abgelehnt")
+    void testInvalid() {
+        assertThatThrownBy(() -> filterPlanCache.toDocument(condition(tierLevel, EQ, "zwei")))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> filterPlanCache.toDocument(condition(tierLevel, IN, "1,x")))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> filterPlanCache.toDocument(condition(birthdate, IN, "2000-01-01")))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> filterPlanCache.toDocument(condition(subscribed, EQ, "ja")))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> filterPlanCache.toDocument(condition(tierLevel, LIKE, "1")))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Ein ungültiger Filter wird über GraphQL als BAD_REQUEST gemeldet")
+    void testBadRequest() {
+        try (var context = new GenericApplicationContext()) {
+            final var batchLoaderRegistry = new DefaultBatchLoaderRegistry();
+            context.registerBean(BatchLoaderRegistry.class, () -> batchLoaderRegistry);
+            context.registerBean(QueryController.class, () -> new QueryController(mock(CustomerReadService.class), filterPlanCache));
+            context.refresh();
+            final var configurer = new AnnotatedControllerConfigurer();
+            configurer.setApplicationContext(context);
+            configurer.afterPropertiesSet();
+            final var graphQlSource = GraphQlSource.schemaResourceBuilder()
+                .schemaResources(
+                    new ClassPathResource("graphql/schema.graphqls"),
+                    new ClassPathResource("graphql/input-schema.graphqls"),
+                    new ClassPathResource("graphql/typ-schema.graphqls")
+                )
+                .configureRuntimeWiring(configurer)
+                .exceptionResolvers(List.of(configurer.getExceptionResolver()))
+                .build();
+            final var graphQlService = new DefaultExecutionGraphQlService(graphQlSource);
+            graphQlService.addDataLoaderRegistrar(batchLoaderRegistry);
+            final var tester = ExecutionGraphQlServiceTester.create(graphQlService);
+
+            tester.document("{ customers(filter: {field: tierLevel, operator: EQ, value: \"zwei\"}) { id } }")
+                .execute()
+                .errors()
+                .satisfy(errors -> assertThat(errors).singleElement().satisfies(error -> {
+                    assertThat(error.getErrorType()).as(error.getMessage()).isEqualTo(BAD_REQUEST);
+                    assertThat(error.getMessage()).contains("zwei");
+                    assertThat(error.getPath()).isEqualTo("customers");
+                }));
+            tester.document("{ customers(filter: {field: tierLevel, operator: EQ, value: \"2\"}) { id } }")
+                .execute()
+                .errors()
+                .verify();
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Zwischengespeicherte Pläne ersparen das Kompilieren, die Laufzeiten werden protokolliert")
+    void testBenchmark() {
+        final var filter = and(
+            condition(lastName, LIKE, "Gyamfi"),
+            condition(tierLevel, IN, "1,2,3"),
+            condition(birthdate, IN, "1990-01-01,2000-12-31"),
+            condition(FilterOptions.address_city, PREFIX, "Ber")
+        );
+        final Supplier<Object> uncached = () -> {
+            final List<String> values = new ArrayList<>();
+            return FilterPlan.compile(FilterShape.of(filter, values)).bind(values);
+        };
+        final Supplier<Object> cached = () -> filterPlanCache.toDocument(filter);
+
+        final var uncachedNanos = measure(uncached);
+        final var cachedNanos = measure(cached);
+
+        log.info("testBenchmark: compile+bind={}ns, cached={}ns", uncachedNanos, cachedNanos);
+        assertThat(cached.get()).isEqualTo(uncached.get());
+    }
+
+    private static FilterInput condition(final FilterOptions field, final Operator operator, final String value) {
+        return new FilterInput(field, operator, value, null, null, null);
+    }
+
+    private static FilterInput and(final FilterInput... filters) {
+        return new FilterInput(null, null, null, List.of(filters), null, null);
+    }
+
+    private static Date date(final String value) {
+        return Date.from(LocalDate.parse(value).atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+
+    private static long measure(final Supplier<Object> action) {
+        for (var i = 0; i < WARMUP; i++) {
+            action.get();
+        }
+        final var start = System.nanoTime();
+        for (var i = 0; i < ITERATIONS; i++) {
+            action.get();
+        }
+        return (System.nanoTime() - start) / ITERATIONS;
+    }
+}
@@ -0,0 +1,135 @@
+package com.gentlecorp.customer.test;
+
+import com.gentlecorp.customer.util.IdGenerator;
+import com.gentlecorp.customer.util.RandomIdGenerator;
+import com.gentlecorp.customer.util.TimeOrderedIdGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestIdGenerator {
+    private static final Logger log = LoggerFactory.getLogger(TestIdGenerator.class);
+
+    /** Anzahl der eingefügten IDs im Benchmark */
+    private static final int INSERTS = 500_000;
+    /** Schlüssel je Indexseite, grob eine 16-KiB-Seite mit `_id` als Binärwert samt Verweis */
+    private static final int PAGE_CAPACITY = 400;
+    /** Seiten im Cache, deutlich weniger als der Index am Ende umfasst */
+    private static final int CACHED_PAGES = 64;
+
+    @Test
+    @DisplayName("IDs der Version 7 sind gültig, eindeutig und streng monoton in Byte-Reihenfolge")
+    void testTimeOrdered() {
+        final var generator = new TimeOrderedIdGenerator(() -> 1_700_000_000_000L);
+        final var ids = new ArrayList<UUID>();
+        // Mehr IDs, als der 12-Bit-Zähler in einer Millisekunde fasst
+        for (var i = 0; i < 10_000; i++) {
+            ids.add(generator.generate());
+        }
+
+        assertThat(ids).allSatisfy(id -> {
+            assertThat(id.version()).isEqualTo(7);
+            assertThat(id.variant()).isEqualTo(2);
+        });
+        assertThat(new HashSet<>(ids)).hasSize(ids.size());
+        for (var i = 1; i < ids.size(); i++) {
+            assertThat(Key.of(ids.get(i))).isGreaterThan(Key.of(ids.get(i - 1)));
+        }
+        assertThat(TimeOrderedIdGenerator.timestamp(ids.getFirst())).contains(Instant.ofEpochMilli(1_700_000_000_000L));
+    }
+
+    @Test
+    @DisplayName("Bestehende IDs der Version 4 werden weiterhin gelesen")
+    void testExistingV4Ids() {
+        final var v4 = UUID.fromString("00000000-0000-4000-8000-000000000001");
+        final var v7 = new TimeOrderedIdGenerator().generate();
+
+        assertThat(UUID.fromString(v4.toString())).isEqualTo(v4);
+        assertThat(UUID.fromString(v7.toString())).isEqualTo(v7);
+        assertThat(TimeOrderedIdGenerator.timestamp(v4)).isEmpty();
+        assertThat(new RandomIdGenerator().generate().version()).isEqualTo(4);
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Zeitlich geordnete IDs verursachen im B-Baum deutlich weniger Seitenwechsel als zufällige")
+    void testIndexPageChurn() {
+        final var random = simulate(new RandomIdGenerator());
+        final var timeOrdered = simulate(new TimeOrderedIdGenerator());
+        log.info("testIndexPageChurn: v4 {}", random);
+        log.info("testIndexPageChurn: v7 {}", timeOrdered);
+
+        // Zufällige IDs laden fast bei jeder Einfügung eine Seite nach, v7 nur beim Anlegen einer neuen Seite
+        assertThat(timeOrdered.misses()).isLessThan(random.misses() / 10);
+    }
+
+    /**
+     * Fügt {@value #INSERTS} IDs in die Blattebene eines B-Baums mit LRU-Seitencache ein.
+     */
+    private static Result simulate(final IdGenerator generator) {
+        final var index = new TreeMap<Key, List<Key>>();
+        index.put(new Key(0, 0), new ArrayList<>());
+        final var cache = new LinkedHashMap<Key, Boolean>(CACHED_PAGES, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, Boolean> eldest) {
+                return size() > CACHED_PAGES;
+            }
+        };
+        long misses = 0;
+        long splits = 0;
+
+        final var start = System.nanoTime();
+        for (var i = 0; i < INSERTS; i++) {
+            final var key = Key.of(generator.generate());
+            final var entry = index.floorEntry(key);
+            if (cache.put(entry.getKey(), Boolean.TRUE) == null) {
+                misses++;
+            }
+
+            final var page = entry.getValue();
+            final var position = -Collections.binarySearch(page, key) - 1;
+            page.add(position, key);
+            if (page.size() > PAGE_CAPACITY) {
+                final var upper = new ArrayList<>(page.subList(PAGE_CAPACITY / 2, page.size()));
+                page.subList(PAGE_CAPACITY / 2, page.size()).clear();
+                index.put(upper.getFirst(), upper);
+                splits++;
+            }
+        }
+        final var nanos = System.nanoTime() - start;
+        return new Result(index.size(), splits, misses, (double) INSERTS / (index.size() * PAGE_CAPACITY),
+            INSERTS * 1_000_000_000L / nanos);
+    }
+
+    private record Result(int pages, long splits, long misses, double fillFactor, long insertsPerSecond) {
+    }
+
+    /**
+     * Eine ID in der Byte-Reihenfolge, in der MongoDB `UUID`s als Binärwert vergleicht.
+     */
+    private record Key(long msb, long lsb) implements Comparable<Key> {
+        static Key of(final UUID id) {
+            return new Key(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        }
+
+        @Override
+        public int compareTo(final Key other) {
+            final var result = Long.compareUnsigned(msb, other.msb);
+            return result != 0 ? result : Long.compareUnsigned(lsb, other.lsb);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.gentlecorp.customer.test;
+
+import com.gentlecorp.customer.model.dto.AccountDTO;
+import com.gentlecorp.customer.model.dto.ShoppingCartDTO;
+import com.gentlecorp.customer.service.KafkaPublisher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+    classes = {KafkaPublisher.class, TestKafkaPublisherThroughput.Metrics.class},
+    properties = "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}"
+)
+@ImportAutoConfiguration(KafkaAutoConfiguration.class)
+@EmbeddedKafka(partitions = 3, topics = {TestKafkaPublisherThroughput.ACCOUNT_TOPIC, TestKafkaPublisherThroughput.CART_TOPIC})
+public class TestKafkaPublisherThroughput {
+    private static final Logger log = LoggerFactory.getLogger(TestKafkaPublisherThroughput.class);
+
+    static final String ACCOUNT_TOPIC = "newAccount";
+    static final String CART_TOPIC = "create-shopping-cart";
+
+    @Autowired
+    private KafkaPublisher kafkaPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Test
+    @DisplayName("Zugestellte Nachrichten werden je Topic mit ihrer Latenz gezählt")
+    void testMetrics() throws Exception {
+        final var before = latencyCount(ACCOUNT_TOPIC);
+        final var cartsBefore = latencyCount(CART_TOPIC);
+
+        burst(50);
+
+        assertThat(latencyCount(ACCOUNT_TOPIC) - before).isEqualTo(50);
+        assertThat(latencyCount(CART_TOPIC) - cartsBefore).isEqualTo(50);
+        assertThat(meterRegistry.find("kafka.publish.failed").counters()).isEmpty();
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Bursts von Kundenanlagen werden gebündelt schneller zugestellt als einzeln bestätigt")
+    void testBurstThroughput() throws Exception {
+        // Aufwärmen: Metadaten laden und Verbindungen aufbauen
+        burst(200);
+
+        final var sequential = sequential(200);
+        log.info("testBurstThroughput: sequential, 200 creations: {} events/s", Math.round(sequential));
+
+        var pipelined = 0d;
+        for (final var size : new int[]{1_000, 5_000, 10_000}) {
+            pipelined = burst(size);
+            log.info("testBurstThroughput: pipelined, {} creations: {} events/s", size, Math.round(pipelined));
+        }
+
+        assertThat(pipelined).isGreaterThan(sequential);
+    }
+
+    private long latencyCount(final String topic) {
+        final var timer = meterRegistry.find("kafka.publish.latency").tags("topic", topic, "outcome", "SUCCESS").timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    /**
+     * Veröffentlicht die Nachrichten von `creations` Kundenanlagen, ohne zwischendurch zu warten.
+     *
+     * @return Die erreichten Nachrichten je Sekunde.
+     */
+    private double burst(final int creations) throws Exception {
+        final var futures = new ArrayList<CompletableFuture<?>>(creations * 2);
+        final var start = System.nanoTime();
+        for (var i = 0; i < creations; i++) {
+            final var customerId = UUID.randomUUID();
+            futures.add(kafkaPublisher.send(ACCOUNT_TOPIC, customerId, account(customerId)));
+            futures.add(kafkaPublisher.send(CART_TOPIC, customerId, new ShoppingCartDTO(customerId, "")));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+        return eventsPerSecond(creations * 2, start);
+    }
+
+    /**
+     * Veröffentlicht die Nachrichten von `creations` Kundenanlagen und wartet jeweils auf die Bestätigung.
+     *
+     * @return Die erreichten Nachrichten je Sekunde.
+     */
+    private double sequential(final int creations) throws Exception {
+        final var start = System.nanoTime();
+        for (var i = 0; i < creations; i++) {
+            final var customerId = UUID.randomUUID();
+            kafkaPublisher.send(ACCOUNT_TOPIC, customerId, account(customerId)).get(10, TimeUnit.SECONDS);
+            kafkaPublisher.send(CART_TOPIC, customerId, new ShoppingCartDTO(customerId, "")).get(10, TimeUnit.SECONDS);
+        }
+        return eventsPerSecond(creations * 2, start);
+    }
+
+    private static AccountDTO account(final UUID customerId) {
+        return new AccountDTO(new BigDecimal(0), "CH", 2, 50, 20, customerId);
+    }
+
+    private static double eventsPerSecond(final int events, final long start) {
+        return events / ((System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,155 @@
+package com.gentlecorp.customer.test;
+
+import com.gentlecorp.customer.exception.NotFoundException;
+import com.gentlecorp.customer.model.entity.Customer;
+import com.gentlecorp.customer.security.KeycloakRepository;
+import com.gentlecorp.customer.security.dto.UserRepresentation;
+import com.gentlecorp.customer.security.service.AdminTokenManager;
+import com.gentlecorp.customer.security.service.JwtService;
+import com.gentlecorp.customer.security.service.KeycloakService;
+import com.gentlecorp.customer.security.service.KeycloakTokenClient;
+import com.gentlecorp.customer.security.service.RoleDirectory;
+import com.gentlecorp.customer.service.KeycloakIdBackfill;
+import com.gentlecorp.customer.utils.CustomerServiceFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.gentlecorp.customer.model.enums.StatusType.PENDING;
+import static com.gentlecorp.customer.utils.CustomerServiceFixture.customer;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+public class TestKeycloakId {
+
+    private static final String AUTH_TOKEN = "Bearer token";
+
+    private final KeycloakRepository keycloakRepository = mock(KeycloakRepository.class);
+    private KeycloakService keycloakService;
+    private CustomerServiceFixture fixture;
+
+    @BeforeEach
+    void init() {
+        keycloakService = new KeycloakService(
+            keycloakRepository,
+            mock(KeycloakTokenClient.class),
+            new JwtService(),
+            mock(AdminTokenManager.class),
+            mock(RoleDirectory.class)
+        );
+        fixture = new CustomerServiceFixture();
+    }
+
+    @AfterEach
+    void close() {
+        fixture.close();
+    }
+
+    @Test
+    @DisplayName("Eine gespeicherte Keycloak-ID wird ohne Suche nach dem Benutzernamen verwendet")
+    void testStoredId() {
+        final var customer = customer("gespeichert").toBuilder().keycloakId("keycloak-id").build();
+
+        keycloakService.delete("token", customer);
+
+        verify(keycloakRepository).deleteUser(AUTH_TOKEN, "keycloak-id");
+        verify(keycloakRepository, never()).getUserByUsername(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Ohne gespeicherte Keycloak-ID wird der Benutzer über seinen Benutzernamen gesucht")
+    void testFindUserIdFallback() {
+        final var customer = customer("alt");
+        when(keycloakRepository.getUserByUsername(AUTH_TOKEN, "alt")).thenReturn(List.of(
+            user("andere-id", "alter"),
+            user("alt-id", "ALT")
+        ));
+
+        keycloakService.delete("token", customer);
+
+        verify(keycloakRepository).deleteUser(AUTH_TOKEN, "alt-id");
+    }
+
+    @Test
+    @DisplayName("Ohne passenden Benutzer in Keycloak wird eine NotFoundException ausgelöst")
+    void testFindUserIdNotFound() {
+        when(keycloakRepository.getUserByUsername(AUTH_TOKEN, "unbekannt")).thenReturn(List.of(user("x", "unbekannter")));
+
+        assertThatThrownBy(() -> keycloakService.delete("token", customer("unbekannt")))
+            .isInstanceOf(NotFoundException.class);
+        verify(keycloakRepository, never()).deleteUser(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Das Nachtragen setzt fehlende IDs und leert die Caches aller Instanzen")
+    void testBackfill() {
+        final var keycloakService = mock(KeycloakService.class);
+        final var missing = fixture.customerRepository.insert(customer("ohne"));
+        final var stored = fixture.customerRepository.insert(customer("mit").toBuilder().keycloakId("bleibt").build());
+        final var pending = fixture.customerRepository.insert(customer("neu").toBuilder().customerState(PENDING).build());
+        final var unmatched = fixture.customerRepository.insert(customer("verwaist"));
+        when(keycloakService.findUsers(anyInt(), anyInt())).thenReturn(List.of(
+            user("neu-id", "ohne"),
+            user("x", "mit"),
+            user("pending-id", "neu")
+        ));
+        fixture.customerCache.put(missing);
+        final var backfill = backfill(keycloakService);
+
+        backfill.run();
+
+        assertThat(fixture.customerRepository.findById(missing.getId()).orElseThrow().getKeycloakId()).isEqualTo("neu-id");
+        assertThat(fixture.customerRepository.findById(stored.getId()).orElseThrow().getKeycloakId()).isEqualTo("bleibt");
+        assertThat(fixture.customerRepository.findById(pending.getId()).orElseThrow().getKeycloakId()).isNull();
+        assertThat(fixture.customerCache.get(missing.getId(), id -> Optional.empty())).isEmpty();
+        verify(fixture.customerCacheInvalidator).publishAll();
+
+        // Kunden ohne Benutzer im Realm und noch nicht aktivierte Kunden lösen keinen weiteren Durchlauf aus
+        assertThat(fixture.mongoTemplate.exists(
+            query(where("_id").is(unmatched.getId()).and("keycloakId").exists(true)),
+            Customer.class
+        )).isTrue();
+        backfill.run();
+        verify(keycloakService, times(1)).findUsers(anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Ohne gesetzte ID werden die Caches nicht geleert")
+    void testBackfillWithoutUpdates() {
+        final var keycloakService = mock(KeycloakService.class);
+        final var unmatched = fixture.customerRepository.insert(customer("verwaist"));
+        when(keycloakService.findUsers(anyInt(), anyInt())).thenReturn(List.of(user("x", "anders")));
+        fixture.customerCache.put(unmatched);
+
+        backfill(keycloakService).run();
+
+        assertThat(fixture.customerCache.get(unmatched.getId(), id -> Optional.empty())).isPresent();
+        verify(fixture.customerCacheInvalidator, never()).publishAll();
+    }
+
+    private KeycloakIdBackfill backfill(final KeycloakService keycloakService) {
+        return new KeycloakIdBackfill(
+            fixture.mongoTemplate,
+            keycloakService,
+            fixture.customerCache,
+            fixture.customerCacheInvalidator
+        );
+    }
+
+    private static UserRepresentation user(final String id, final String username) {
+        return new UserRepresentation(id, username, null, null, null);
+    }
+}
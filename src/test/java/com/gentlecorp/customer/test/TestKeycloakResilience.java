@@ -0,0 +1,261 @@
+package com.gentlecorp.customer.test;
+
+import com.gentlecorp.customer.exception.KeycloakUnavailableException;
+import com.gentlecorp.customer.security.KeycloakRepository;
+import com.gentlecorp.customer.security.KeycloakResilience;
+import com.gentlecorp.customer.security.dto.RoleDTO;
+import com.gentlecorp.customer.security.dto.TokenDTO;
+import com.gentlecorp.customer.security.service.AdminTokenManager;
+import com.gentlecorp.customer.security.service.JwtService;
+import com.gentlecorp.customer.security.service.KeycloakService;
+import com.gentlecorp.customer.security.service.KeycloakTokenClient;
+import com.gentlecorp.customer.security.service.RoleDirectory;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedRetryMetrics;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.support.RestClientAdapter;
+import org.springframework.web.service.invoker.HttpServiceProxyFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.gentlecorp.customer.security.KeycloakResilience.INSTANCE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TestKeycloakResilience {
+
+    private static final Duration READ_TIMEOUT = Duration.ofMillis(300);
+    private static final String CONTENT_TYPE = "application/json";
+
+    private HttpServer server;
+    private final AtomicInteger hits = new AtomicInteger();
+    /** Latenz, die der Stub vor jeder Antwort einlegt */
+    private volatile Duration latency = Duration.ZERO;
+    /** Anzahl der nächsten Anfragen, die mit 503 beantwortet werden */
+    private final AtomicInteger failures = new AtomicInteger();
+
+    private SimpleMeterRegistry meterRegistry;
+    private CircuitBreaker circuitBreaker;
+    private KeycloakRepository repository;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            hits.incrementAndGet();
+            try {
+                Thread.sleep(latency);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            final var status = failures.getAndUpdate(n -> Math.max(n - 1, 0)) > 0 ? 503 : 200;
+            final var body = "[]".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(status, body.length);
+            try (var out = exchange.getResponseBody()) {
+                out.write(body);
+            } catch (final IOException e) {
+                // Der Client hat wegen des Timeouts bereits abgebrochen
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Ein langsames Keycloak öffnet den Circuit Breaker, danach schlagen Aufrufe sofort fehl")
+    void testOpenOnLatency() {
+        init(10, Duration.ofMillis(50), Duration.ofSeconds(30), 1);
+        latency = READ_TIMEOUT.multipliedBy(2);
+
+        for (var i = 0; i < 4; i++) {
+            assertThatThrownBy(this::getRoles).isInstanceOf(ResourceAccessException.class);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        final var before = hits.get();
+        final var start = System.nanoTime();
+        assertThatThrownBy(this::getRoles).isInstanceOf(KeycloakUnavailableException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(READ_TIMEOUT);
+        assertThat(hits).hasValue(before);
+        assertThat(meterRegistry.get("resilience4j.circuitbreaker.not.permitted.calls").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Nach der Wartezeit schließen erfolgreiche Probeaufrufe den Circuit Breaker wieder")
+    void testCloseAfterRecovery() {
+        init(10, Duration.ofMillis(50), Duration.ofMillis(300), 1);
+        latency = READ_TIMEOUT.multipliedBy(2);
+        for (var i = 0; i < 4; i++) {
+            assertThatThrownBy(this::getRoles).isInstanceOf(ResourceAccessException.class);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        latency = Duration.ZERO;
+        await().atMost(Duration.ofSeconds(2))
+            .until(() -> circuitBreaker.getState() == CircuitBreaker.State.HALF_OPEN);
+        getRoles();
+        getRoles();
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Der Bulkhead weist Aufrufe ab, sobald alle Plätze belegt sind")
+    void testBulkheadRejects() throws InterruptedException {
+        init(2, Duration.ofMillis(20), Duration.ofSeconds(30), 1);
+        latency = Duration.ofMillis(100);
+
+        final var executor = Executors.newFixedThreadPool(5);
+        final var futures = new ArrayList<Future<Collection<RoleDTO>>>();
+        for (var i = 0; i < 5; i++) {
+            futures.add(executor.submit(this::getRoles));
+        }
+        var rejected = 0;
+        for (final var future : futures) {
+            try {
+                future.get();
+            } catch (final ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(KeycloakUnavailableException.class);
+                rejected++;
+            }
+        }
+        executor.shutdown();
+
+        assertThat(rejected).isEqualTo(3);
+        assertThat(hits).hasValue(2);
+        assertThat(meterRegistry.get("resilience4j.bulkhead.available.concurrent.calls").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Idempotente Aufrufe werden bei 5xx wiederholt")
+    void testRetryIdempotent() {
+        init(10, Duration.ofMillis(50), Duration.ofSeconds(30), 3);
+        failures.set(2);
+
+        assertThat(getRoles()).isEmpty();
+        assertThat(hits).hasValue(3);
+        assertThat(meterRegistry.get("resilience4j.retry.calls").tag("kind", "successful_with_retry").functionCounter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Nicht idempotente Aufrufe werden nicht wiederholt")
+    void testNoRetryForPost() {
+        init(10, Duration.ofMillis(50), Duration.ofSeconds(30), 3);
+        failures.set(2);
+
+        assertThatThrownBy(() -> repository.signIn("{}", "Bearer token", CONTENT_TYPE))
+            .isInstanceOf(HttpServerErrorException.class);
+        assertThat(hits).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Der KeycloakService gibt eine KeycloakUnavailableException unverändert weiter")
+    void testServicePassesUnavailable() {
+        init(1, Duration.ofMillis(20), Duration.ofSeconds(30), 1);
+        circuitBreaker.transitionToForcedOpenState();
+        final var keycloakTokenClient = mock(KeycloakTokenClient.class);
+        when(keycloakTokenClient.login(anyString(), anyString()))
+            .thenReturn(new TokenDTO("token", 300, 1800, "refresh", null, 0, null, null, null));
+        final var jwt = Jwt.withTokenValue("token").header("alg", "none").subject("user").build();
+        final var keycloakService = new KeycloakService(
+            repository,
+            keycloakTokenClient,
+            new JwtService(),
+            new AdminTokenManager(keycloakTokenClient),
+            mock(RoleDirectory.class)
+        );
+
+        assertThatThrownBy(() -> keycloakService.updatePassword("p", jwt))
+            .isInstanceOf(KeycloakUnavailableException.class);
+        assertThat(hits).hasValue(0);
+    }
+
+    private Collection<RoleDTO> getRoles() {
+        return repository.getRoles("Bearer token", CONTENT_TYPE);
+    }
+
+    private void init(
+        final int maxConcurrentCalls,
+        final Duration maxWait,
+        final Duration openDuration,
+        final int maxAttempts
+    ) {
+        // Wie in der application.yaml, aber mit kurzen Fenstern und Wartezeiten
+        final var failures = new Class[]{ResourceAccessException.class, HttpServerErrorException.class};
+        final var circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+            .slidingWindowSize(4)
+            .minimumNumberOfCalls(4)
+            .failureRateThreshold(50)
+            .slowCallDurationThreshold(Duration.ofSeconds(5))
+            .waitDurationInOpenState(openDuration)
+            .automaticTransitionFromOpenToHalfOpenEnabled(true)
+            .permittedNumberOfCallsInHalfOpenState(2)
+            .recordExceptions(failures)
+            .build());
+        final var bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+            .maxConcurrentCalls(maxConcurrentCalls)
+            .maxWaitDuration(maxWait)
+            .build());
+        final var retryRegistry = RetryRegistry.of(RetryConfig.custom()
+            .maxAttempts(maxAttempts)
+            .intervalFunction(IntervalFunction.ofExponentialRandomBackoff(Duration.ofMillis(10), 2, 0.5, Duration.ofMillis(50)))
+            .retryExceptions(failures)
+            .build());
+
+        // Der Starter von Resilience4j registriert diese Metriken selbst
+        meterRegistry = new SimpleMeterRegistry();
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+        TaggedRetryMetrics.ofRetryRegistry(retryRegistry).bindTo(meterRegistry);
+        final var resilience = new KeycloakResilience(circuitBreakerRegistry, bulkheadRegistry, retryRegistry);
+        circuitBreaker = circuitBreakerRegistry.circuitBreaker(INSTANCE);
+
+        final var requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setReadTimeout(READ_TIMEOUT);
+        final var restClient = RestClient.builder()
+            .baseUrl("http://localhost:" + server.getAddress().getPort())
+            .requestFactory(requestFactory)
+            .build();
+        final var proxyFactory = HttpServiceProxyFactory.builderFor(RestClientAdapter.create(restClient)).build();
+        repository = resilience.decorate(proxyFactory.createClient(KeycloakRepository.class));
+    }
+}
@@ -0,0 +1,102 @@
+package com.gentlecorp.customer.test;
+
+import com.gentlecorp.customer.model.entity.MailMessage;
+import com.gentlecorp.customer.repository.CustomerRepository;
+import com.gentlecorp.customer.service.MailQueue;
+import com.gentlecorp.customer.service.MailService;
+import com.gentlecorp.customer.utils.InMemoryMongo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.mail.MailSendException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TestMailQueue {
+
+    private InMemoryMongo mongo;
+    private MongoTemplate mongoTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private MailService mailService;
+    private MailQueue mailQueue;
+
+    @BeforeEach
+    void init() {
+        mongo = new InMemoryMongo();
+        mongoTemplate = mongo.template();
+        meterRegistry = new SimpleMeterRegistry();
+        mailService = mock(MailService.class);
+        mailQueue = new MailQueue(mongoTemplate, mailService, mock(CustomerRepository.class), meterRegistry);
+    }
+
+    @AfterEach
+    void close() {
+        ReflectionTestUtils.invokeMethod(mailQueue, "shutdown");
+        mongo.close();
+    }
+
+    @Test
+    @DisplayName("Versendete Mails werden gelöscht, fehlgeschlagene erneut eingeplant")
+    void testSendAndRetry() {
+        final var ok = queue();
+        final var rejected = queue();
+        when(mailService.isActivated()).thenReturn(true);
+        when(mailService.send(anyList())).thenReturn(Map.of(rejected.getId(), new MailSendException("abgelehnt")));
+
+        drain();
+
+        assertThat(mongoTemplate.findById(ok.getId(), MailMessage.class)).isNull();
+        final var retry = mongoTemplate.findById(rejected.getId(), MailMessage.class);
+        assertThat(retry).isNotNull();
+        assertThat(retry.getAttempts()).isEqualTo(1);
+        assertThat(retry.getNextAttemptAt()).isAfter(Instant.now());
+        assertThat(retry.getLockedBy()).isNull();
+        assertThat(meterRegistry.counter("mail.sent").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("mail.failed").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Ist SMTP deaktiviert, werden die Mails verworfen, aber nicht als versendet gezählt")
+    void testSmtpDisabled() {
+        queue();
+        queue();
+
+        drain();
+
+        verify(mailService, never()).send(anyList());
+        assertThat(mongoTemplate.count(new Query(), MailMessage.class)).isZero();
+        assertThat(meterRegistry.counter("mail.sent").count()).isZero();
+        assertThat(meterRegistry.counter("mail.skipped").count()).isEqualTo(2);
+    }
+
+    private MailMessage queue() {
+        final var now = Instant.now();
+        return mongoTemplate.insert(MailMessage.builder()
+            .id(UUID.randomUUID())
+            .customerId(UUID.randomUUID())
+            .to("test@test.de")
+            .subject("Test")
+            .body("Test")
+            .createdAt(now)
+            .nextAttemptAt(now)
+            .build());
+    }
+
+    private void drain() {
+        ReflectionTestUtils.invokeMethod(mailQueue, "drainQuietly");
+    }
+}
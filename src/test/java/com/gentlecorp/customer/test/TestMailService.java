@@ -0,0 +1,175 @@
+package com.gentlecorp.customer.test;
+
+import com.gentlecorp.customer.MailProps;
+import com.gentlecorp.customer.model.entity.Customer;
+import com.gentlecorp.customer.model.entity.MailMessage;
+import com.gentlecorp.customer.service.MailService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestMailService {
+
+    private static final String REJECTED = "rejected@test.de";
+
+    static {
+        System.setProperty("SMTP_ACTIVATED", "true");
+    }
+
+    private ServerSocket server;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final List<String> recipients = new CopyOnWriteArrayList<>();
+    private MailService mailService;
+
+    @BeforeEach
+    void init() throws IOException {
+        server = new ServerSocket(0);
+        Thread.ofPlatform().daemon().start(this::accept);
+
+        final var mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(server.getLocalPort());
+
+        final var resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        final var templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+
+        mailService = new MailService(mailSender, new MailProps("Theo Test <theo@test.de>", null), templateEngine);
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        server.close();
+    }
+
+    @Test
+    @DisplayName("Der Mailtext wird aus dem Template gerendert und maskiert")
+    void testRender() {
+        final var mail = mailService.render(customer("<Test>", "test@test.de"));
+
+        assertThat(mail.getTo()).isEqualTo("test@test.de");
+        assertThat(mail.getBody()).isEqualTo("<strong>New Customer:</strong> <em>&lt;Test&gt;</em>\n");
+    }
+
+    @Test
+    @DisplayName("Ein Bündel wird über eine SMTP-Verbindung versendet")
+    void testBatchReusesConnection() {
+        final var mails = new ArrayList<MailMessage>();
+        for (var i = 0; i < 5; i++) {
+            mails.add(mail("kunde" + i + "@test.de"));
+        }
+
+        final var failures = mailService.send(mails);
+
+        assertThat(failures).isEmpty();
+        assertThat(connections).hasValue(1);
+        assertThat(recipients).hasSize(5);
+    }
+
+    @Test
+    @DisplayName("Abgelehnte Empfänger schlagen einzeln fehl, die übrigen Mails werden versendet")
+    void testPartialFailure() {
+        final var ok = mail("ok@test.de");
+        final var rejected = mail(REJECTED);
+
+        final var failures = mailService.send(List.of(ok, rejected));
+
+        assertThat(failures).containsOnlyKeys(rejected.getId());
+        assertThat(recipients).containsExactly("ok@test.de");
+    }
+
+    @Test
+    @DisplayName("Ist der Mailserver nicht erreichbar, schlagen alle Mails des Bündels fehl")
+    void testServerDown() throws IOException {
+        server.close();
+        final var mails = List.of(mail("a@test.de"), mail("b@test.de"));
+
+        final var failures = mailService.send(mails);
+
+        assertThat(failures).containsOnlyKeys(mails.get(0).getId(), mails.get(1).getId());
+    }
+
+    private MailMessage mail(final String to) {
+        final var mail = mailService.render(customer("Test", to));
+        mail.setId(UUID.randomUUID());
+        return mail;
+    }
+
+    private static Customer customer(final String lastName, final String email) {
+        final var customer = new Customer();
+        customer.setId(UUID.randomUUID());
+        customer.setLastName(lastName);
+        customer.setEmail(email);
+        return customer;
+    }
+
+    /**
+     * Minimaler SMTP-Server, der alle Empfänger außer {@link #REJECTED} annimmt.
+     */
+    private void accept() {
+        while (!server.isClosed()) {
+            try (Socket socket = server.accept()) {
+                connections.incrementAndGet();
+                serve(socket);
+            } catch (final IOException e) {
+                // Server geschlossen
+            }
+        }
+    }
+
+    private void serve(final Socket socket) throws IOException {
+        final var in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        final var out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII);
+        out.print("220 localhost\r\n");
+        out.flush();
+        String recipient = null;
+        String line;
+        while ((line = in.readLine()) != null) {
+            final var command = line.toUpperCase();
+            if (command.startsWith("RCPT TO:")) {
+                recipient = line.substring(line.indexOf('<') + 1, line.indexOf('>'));
+                reply(out, REJECTED.equals(recipient) ? "550 rejected" : "250 OK");
+            } else if (command.startsWith("DATA")) {
+                reply(out, "354 go ahead");
+                while (!".".equals(in.readLine())) {
+                    // Nachricht überspringen
+                }
+                recipients.add(recipient);
+                reply(out, "250 OK");
+            } else if (command.startsWith("QUIT")) {
+                reply(out, "221 bye");
+                return;
+            } else {
+                reply(out, "250 OK");
+            }
+        }
+    }
+
+    private static void reply(final PrintWriter out, final String reply) {
+        out.print(reply + "\r\n");
+        out.flush();
+    }
+}
@@ -0,0 +1,102 @@
+package com.gentlecorp.customer.test;
+
+import com.gentlecorp.customer.security.OfflinePasswordChecker;
+import com.gentlecorp.customer.security.PasswordFilterBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TestOfflinePasswordChecker {
+    private static final Logger log = LoggerFactory.getLogger(TestOfflinePasswordChecker.class);
+
+    private static final int ENTRIES = 100_000;
+    private static final double FPP = 0.01;
+
+    @TempDir
+    static Path dir;
+
+    private static OfflinePasswordChecker checker;
+
+    @BeforeAll
+    static void build() throws IOException, NoSuchAlgorithmException {
+        final var sha1 = MessageDigest.getInstance("SHA-1");
+        final var hex = HexFormat.of().withUpperCase();
+        final List<String> lines = new ArrayList<>(ENTRIES);
+        for (var i = 0; i < ENTRIES; i++) {
+            final var digest = sha1.digest(("leaked" + i).getBytes(StandardCharsets.UTF_8));
+            lines.add(hex.formatHex(digest) + ':' + (i + 1));
+        }
+        final var hashes = dir.resolve("hashes.txt");
+        Files.write(hashes, lines);
+        final var filter = dir.resolve("filter.bin");
+
+        assertThat(PasswordFilterBuilder.build(hashes, filter, FPP)).isEqualTo(ENTRIES);
+        checker = OfflinePasswordChecker.open(filter);
+    }
+
+    @Test
+    @DisplayName("Alle Passwörter aus der Hash-Liste werden als kompromittiert erkannt")
+    void testNoFalseNegatives() {
+        for (var i = 0; i < ENTRIES; i++) {
+            assertThat(checker.check("leaked" + i).isCompromised()).isTrue();
+        }
+        assertThat(checker.getEntries()).isEqualTo(ENTRIES);
+    }
+
+    @Test
+    @DisplayName("Die Fehlerrate bei sicheren Passwörtern liegt im Rahmen der gewählten Rate")
+    void testFalsePositiveRate() {
+        var falsePositives = 0;
+        for (var i = 0; i < ENTRIES; i++) {
+            if (checker.check("Safe-P4ssw0rd-" + i).isCompromised()) {
+                falsePositives++;
+            }
+        }
+        final var rate = (double) falsePositives / ENTRIES;
+        log.info("testFalsePositiveRate: rate={}", rate);
+        assertThat(rate).isLessThan(FPP * 1.5);
+    }
+
+    @Test
+    @DisplayName("Eine Prüfung dauert weniger als eine Mikrosekunde")
+    void testLookupLatency() {
+        final var iterations = 1_000_000;
+        var compromised = 0;
+        for (var i = 0; i < iterations; i++) {
+            compromised += checker.check("leaked" + (i % ENTRIES)).isCompromised() ? 1 : 0;
+        }
+        final var start = System.nanoTime();
+        for (var i = 0; i < iterations; i++) {
+            compromised += checker.check("leaked" + (i % ENTRIES)).isCompromised() ? 1 : 0;
+        }
+        final var nanos = (System.nanoTime() - start) / iterations;
+        log.info("testLookupLatency: {} ns per check", nanos);
+        assertThat(compromised).isEqualTo(2 * iterations);
+        assertThat(nanos).isLessThan(1_000);
+    }
+
+    @Test
+    @DisplayName("Dateien, die kein Filter sind, werden abgelehnt")
+    void testInvalidFile() throws IOException {
+        final var file = dir.resolve("invalid.bin");
+        Files.write(file, new byte[64]);
+
+        assertThatThrownBy(() -> OfflinePasswordChecker.open(file)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,272 @@
+package com.gentlecorp.customer.test;
+
+import com.gentlecorp.customer.model.dto.ShoppingCartDTO;
+import com.gentlecorp.customer.model.entity.OutboxEntry;
+import com.gentlecorp.customer.service.CustomerOutbox;
+import com.gentlecorp.customer.service.KafkaPublisher;
+import com.gentlecorp.customer.service.MailQueue;
+import com.gentlecorp.customer.service.OutboxRelay;
+import com.gentlecorp.customer.utils.CustomerServiceFixture;
+import com.gentlecorp.customer.utils.InMemoryMongo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Supplier;
+
+import static com.gentlecorp.customer.model.enums.ContactStorageType.COLLECTION;
+import static com.gentlecorp.customer.util.Constants.OUTBOX_BATCH_SIZE;
+import static com.gentlecorp.customer.util.Constants.OUTBOX_LEASE;
+import static com.gentlecorp.customer.util.Constants.OUTBOX_MAX_ATTEMPTS;
+import static com.gentlecorp.customer.util.Constants.OUTBOX_MAX_BACKOFF;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+public class TestOutboxRelay {
+
+    private InMemoryMongo mongo;
+    private MongoTemplate mongoTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelay outboxRelay;
+    private CustomerOutbox customerOutbox;
+    /** Zugestellte Nachrichten als `<Kunde>:<Topic>` in der Reihenfolge der Zustellung */
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+    /** Topics, deren Zustellung fehlschlägt */
+    private final Set<String> failing = new CopyOnWriteArraySet<>();
+
+    @BeforeEach
+    void init() {
+        mongo = new InMemoryMongo();
+        mongoTemplate = mongo.template();
+        meterRegistry = new SimpleMeterRegistry();
+        final var kafkaPublisher = mock(KafkaPublisher.class);
+        when(kafkaPublisher.send(anyString(), any(), any())).thenAnswer(invocation -> {
+            final String topic = invocation.getArgument(0);
+            if (failing.contains(topic)) {
+                return CompletableFuture.failedFuture(new IllegalStateException("Broker nicht erreichbar"));
+            }
+            sent.add(invocation.getArgument(1) + ":" + topic);
+            return CompletableFuture.completedFuture(null);
+        });
+        outboxRelay = new OutboxRelay(mongoTemplate, kafkaPublisher, mock(MailQueue.class), meterRegistry);
+        customerOutbox = new CustomerOutbox(mongoTemplate, mongoTemplate.getMongoDatabaseFactory(), mock(OutboxRelay.class));
+        // Der In-Memory-Server kennt `hello` nicht und verhält sich wie ein Standalone-Server ohne Transaktionen
+        ReflectionTestUtils.setField(customerOutbox, "transactional", false);
+    }
+
+    @AfterEach
+    void close() {
+        ReflectionTestUtils.invokeMethod(outboxRelay, "shutdown");
+        mongo.close();
+    }
+
+    @Test
+    @DisplayName("Die Outbox speichert Änderung und Einträge in der angegebenen Reihenfolge")
+    void testWrite() {
+        final var customerId = UUID.randomUUID();
+
+        final var result = customerOutbox.write(() -> "geändert", kafka(customerId, "a", "b", "c"));
+
+        assertThat(result).isEqualTo("geändert");
+        final var entries = mongoTemplate.findAll(OutboxEntry.class);
+        assertThat(entries).extracting(OutboxEntry::getTopic).containsExactlyInAnyOrder("a", "b", "c");
+        assertThat(entries).allSatisfy(entry -> {
+            assertThat(entry.getCustomerId()).isEqualTo(customerId);
+            assertThat(entry.getCreatedAt()).isEqualTo(entries.getFirst().getCreatedAt());
+            assertThat(entry.isDead()).isFalse();
+        });
+        assertThat(entries).extracting(OutboxEntry::getPosition).containsExactlyInAnyOrder(0, 1, 2);
+    }
+
+    @Test
+    @DisplayName("Die Einträge eines Kunden werden in ihrer Reihenfolge zugestellt")
+    void testOrderPerCustomer() {
+        final var first = UUID.randomUUID();
+        final var second = UUID.randomUUID();
+        customerOutbox.write(() -> null, kafka(first, "a", "b", "c"));
+        customerOutbox.write(() -> null, kafka(second, "a", "b"));
+        customerOutbox.write(() -> null, kafka(first, "d"));
+
+        drain();
+
+        assertThat(sent.stream().filter(message -> message.startsWith(first.toString())))
+            .containsExactly(first + ":a", first + ":b", first + ":c", first + ":d");
+        assertThat(sent.stream().filter(message -> message.startsWith(second.toString())))
+            .containsExactly(second + ":a", second + ":b");
+        assertThat(mongoTemplate.count(new Query(), OutboxEntry.class)).isZero();
+        assertThat(meterRegistry.counter("outbox.delivered", "type", "kafka").count()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Ein fehlgeschlagener Eintrag blockiert die späteren Einträge desselben Kunden")
+    void testFailureBlocksCustomer() {
+        final var blocked = UUID.randomUUID();
+        final var other = UUID.randomUUID();
+        failing.add("fail");
+        customerOutbox.write(() -> null, kafka(blocked, "a", "fail", "b"));
+        customerOutbox.write(() -> null, kafka(other, "a"));
+
+        drain();
+        // Der Eintrag wartet auf den nächsten Versuch, bis dahin bleibt auch `b` liegen
+        drain();
+
+        assertThat(sent).containsExactlyInAnyOrder(blocked + ":a", other + ":a");
+        final var failed = entry(blocked, "fail");
+        assertThat(failed.getAttempts()).isEqualTo(1);
+        assertThat(failed.getNextAttemptAt()).isAfter(Instant.now());
+        assertThat(failed.getLastError()).contains("Broker nicht erreichbar");
+        assertThat(failed.getLockedBy()).isNull();
+        assertThat(entry(blocked, "b").getLockedBy()).isNull();
+
+        // Fällig und wieder erreichbar: beide Einträge werden in ihrer Reihenfolge zugestellt
+        failing.clear();
+        mongoTemplate.updateFirst(
+            new Query(where("_id").is(failed.getId())),
+            new Update().set("nextAttemptAt", Instant.now()),
+            OutboxEntry.class
+        );
+        drain();
+
+        assertThat(sent).containsSubsequence(blocked + ":a", blocked + ":fail", blocked + ":b");
+        assertThat(mongoTemplate.count(new Query(), OutboxEntry.class)).isZero();
+    }
+
+    @Test
+    @DisplayName("Nach OUTBOX_MAX_ATTEMPTS Versuchen wird ein Eintrag als dead markiert und übersprungen")
+    void testDeadAfterMaxAttempts() {
+        final var customerId = UUID.randomUUID();
+        failing.add("fail");
+        customerOutbox.write(() -> null, kafka(customerId, "fail", "b"));
+        final var failed = entry(customerId, "fail");
+        mongoTemplate.updateFirst(
+            new Query(where("_id").is(failed.getId())),
+            new Update().set("attempts", OUTBOX_MAX_ATTEMPTS - 1),
+            OutboxEntry.class
+        );
+
+        drain();
+
+        final var deadEntry = mongoTemplate.findById(failed.getId(), OutboxEntry.class);
+        assertThat(deadEntry).isNotNull();
+        assertThat(deadEntry.isDead()).isTrue();
+        assertThat(deadEntry.getAttempts()).isEqualTo(OUTBOX_MAX_ATTEMPTS);
+        assertThat(meterRegistry.counter("outbox.dead").count()).isEqualTo(1);
+
+        // Der aufgegebene Eintrag blockiert den Kunden nicht länger
+        drain();
+
+        assertThat(sent).containsExactly(customerId + ":b");
+        assertThat(mongoTemplate.findAll(OutboxEntry.class)).extracting(OutboxEntry::getId).containsExactly(failed.getId());
+    }
+
+    @Test
+    @DisplayName("Wartende ältere Einträge füllen den Durchlauf nicht, neuere fällige Einträge werden zugestellt")
+    void testBackoffDoesNotStall() {
+        final var waiting = UUID.randomUUID();
+        for (var i = 0; i < OUTBOX_BATCH_SIZE * 4; i++) {
+            customerOutbox.write(() -> null, kafka(UUID.randomUUID(), "fail"));
+        }
+        customerOutbox.write(() -> null, kafka(waiting, "fail"));
+        // Alle bisherigen Einträge sind fehlgeschlagen und warten auf ihren nächsten Versuch
+        mongoTemplate.updateMulti(
+            new Query(),
+            new Update().set("attempts", 1).set("nextAttemptAt", Instant.now().plus(OUTBOX_MAX_BACKOFF)),
+            OutboxEntry.class
+        );
+        final var newer = UUID.randomUUID();
+        customerOutbox.write(() -> null, kafka(waiting, "b"));
+        customerOutbox.write(() -> null, kafka(newer, "a"));
+
+        drain();
+
+        // Der wartende Eintrag blockiert weiterhin nur die späteren Einträge seines Kunden
+        assertThat(sent).containsExactly(newer + ":a");
+        assertThat(entry(waiting, "b")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Von einer anderen Instanz gesperrte Einträge werden samt späteren Einträgen des Kunden übersprungen")
+    void testForeignLease() {
+        final var leased = UUID.randomUUID();
+        final var other = UUID.randomUUID();
+        customerOutbox.write(() -> null, kafka(leased, "a", "b"));
+        customerOutbox.write(() -> null, kafka(other, "a"));
+        final var foreign = entry(leased, "a");
+        final var lockedUntil = Instant.now().plus(OUTBOX_LEASE);
+        mongoTemplate.updateFirst(
+            new Query(where("_id").is(foreign.getId())),
+            new Update().set("lockedBy", "andere-instanz").set("lockedUntil", lockedUntil),
+            OutboxEntry.class
+        );
+
+        drain();
+
+        assertThat(sent).containsExactly(other + ":a");
+        assertThat(mongoTemplate.findById(foreign.getId(), OutboxEntry.class).getLockedBy()).isEqualTo("andere-instanz");
+        assertThat(entry(leased, "b").getLockedBy()).isNull();
+
+        // Nach Ablauf der Sperre übernimmt diese Instanz
+        mongoTemplate.updateFirst(
+            new Query(where("_id").is(foreign.getId())),
+            new Update().set("lockedUntil", Instant.now().minusSeconds(1)),
+            OutboxEntry.class
+        );
+        drain();
+
+        assertThat(sent).containsExactly(other + ":a", leased + ":a", leased + ":b");
+    }
+
+    @Test
+    @DisplayName("Beim Löschen eines Kunden wird der Bearer-Token nicht in der Outbox gespeichert")
+    @SuppressWarnings("unchecked")
+    void testDeleteStoresNoToken() {
+        try (var fixture = new CustomerServiceFixture()) {
+            final var customer = fixture.customerRepository.insert(CustomerServiceFixture.customer("delete"));
+            final var user = CustomerServiceFixture.admin();
+
+            fixture.writeService(COLLECTION).deleteById(customer.getId(), customer.getVersion(), user);
+
+            final ArgumentCaptor<List<OutboxEntry>> entries = ArgumentCaptor.forClass(List.class);
+            verify(fixture.customerOutbox).write(any(Supplier.class), entries.capture());
+            assertThat(entries.getValue()).extracting(OutboxEntry::getPayload)
+                .containsExactly(new ShoppingCartDTO(customer.getId(), ""));
+        }
+    }
+
+    private void drain() {
+        ReflectionTestUtils.invokeMethod(outboxRelay, "drainQuietly");
+    }
+
+    private OutboxEntry entry(final UUID customerId, final String topic) {
+        return mongoTemplate.findOne(
+            new Query(where("customerId").is(customerId).and("topic").is(topic)),
+            OutboxEntry.class
+        );
+    }
+
+    private static List<OutboxEntry> kafka(final UUID customerId, final String... topics) {
+        return Arrays.stream(topics)
+            .map(topic -> OutboxEntry.kafka(customerId, topic, new ShoppingCartDTO(customerId, "")))
+            .toList();
+    }
+}
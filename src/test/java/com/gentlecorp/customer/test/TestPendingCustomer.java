@@ -0,0 +1,121 @@
+package com.gentlecorp.customer.test;
+
+import com.gentlecorp.customer.exception.EmailExistsException;
+import com.gentlecorp.customer.exception.NotFoundException;
+import com.gentlecorp.customer.exception.UsernameExistsException;
+import com.gentlecorp.customer.model.entity.Customer;
+import com.gentlecorp.customer.service.CustomerWriteService;
+import com.gentlecorp.customer.utils.CustomerServiceFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.gentlecorp.customer.model.enums.ContactStorageType.COLLECTION;
+import static com.gentlecorp.customer.model.enums.StatusType.ACTIVE;
+import static com.gentlecorp.customer.model.enums.StatusType.PENDING;
+import static com.gentlecorp.customer.utils.CustomerServiceFixture.admin;
+import static com.gentlecorp.customer.utils.CustomerServiceFixture.customer;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
+public class TestPendingCustomer {
+
+    private static final String PASSWORD = "Sicher#Passwort1";
+
+    private CustomerServiceFixture fixture;
+    private CustomerWriteService writeService;
+
+    @BeforeEach
+    void init() {
+        fixture = new CustomerServiceFixture();
+        writeService = fixture.writeService(COLLECTION);
+    }
+
+    @AfterEach
+    void close() {
+        fixture.close();
+    }
+
+    @Test
+    @DisplayName("Kunden im Zustand PENDING werden von keiner Leseoperation geliefert")
+    void testPendingInvisible() {
+        final var active = fixture.customerRepository.insert(customer("aktiv"));
+        final var pending = fixture.customerRepository.insert(customer("angelegt").toBuilder().customerState(PENDING).build());
+        final var readService = fixture.customerReadService;
+
+        assertThat(readService.findById(active.getId(), admin()).getId()).isEqualTo(active.getId());
+        assertThatThrownBy(() -> readService.findById(pending.getId(), admin())).isInstanceOf(NotFoundException.class);
+        assertThat(readService.findByIds(List.of(active.getId(), pending.getId()))).extracting(Customer::getId)
+            .containsExactly(active.getId());
+        assertThat(readService.findByUsernames(List.of("aktiv", "angelegt"))).extracting(Customer::getId)
+            .containsExactly(active.getId());
+        assertThat(readService.find(Map.of(), 0, 10, Map.of(), Set.of())).extracting(Customer::getId)
+            .containsExactly(active.getId());
+        assertThat(readService.scroll(Map.of(), Map.of(), ScrollPosition.keyset(), 10, Set.of()).getContent())
+            .extracting(Customer::getId)
+            .containsExactly(active.getId());
+        try (var customers = readService.stream(Map.of(), Map.of())) {
+            assertThat(customers).extracting(Customer::getId).containsExactly(active.getId());
+        }
+        // Auch ein Filter auf den Zustand hebt den Ausschluss nicht auf
+        assertThat(readService.find(Map.of("customerState", PENDING.name()), 0, 10, Map.of(), Set.of())).isEmpty();
+        assertThatThrownBy(() -> writeService.update(customer("angelegt"), pending.getId(), pending.getVersion(), admin()))
+            .isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Ein neuer Kunde wird nach der Registrierung in Keycloak aktiviert")
+    void testCreate() {
+        when(fixture.keycloakService.signIn(any(), anyString(), anyString())).thenReturn("keycloak-id");
+
+        final var created = writeService.create(customer("Neu"), PASSWORD);
+
+        final var customerDb = fixture.customerRepository.findById(created.getId()).orElseThrow();
+        assertThat(customerDb.getCustomerState()).isEqualTo(ACTIVE);
+        assertThat(customerDb.getKeycloakId()).isEqualTo("keycloak-id");
+        assertThat(customerDb.getUsername()).isEqualTo("neu");
+        assertThat(fixture.customerReadService.findById(created.getId(), admin()).getId()).isEqualTo(created.getId());
+    }
+
+    @Test
+    @DisplayName("Ein doppelter Schlüssel wird als EmailExistsException bzw. UsernameExistsException gemeldet")
+    void testDuplicateKey() {
+        when(fixture.keycloakService.signIn(any(), anyString(), anyString())).thenReturn("keycloak-id");
+        fixture.customerRepository.insert(customer("vorhanden"));
+
+        final var sameEmail = customer("anders").toBuilder().email("vorhanden@test.de").build();
+        assertThatThrownBy(() -> writeService.create(sameEmail, PASSWORD))
+            .isInstanceOf(EmailExistsException.class);
+        final var sameUsername = customer("VORHANDEN").toBuilder().email("anders@test.de").build();
+        assertThatThrownBy(() -> writeService.create(sameUsername, PASSWORD))
+            .isInstanceOf(UsernameExistsException.class);
+        assertThat(fixture.customerRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Scheitert die Registrierung in Keycloak, wird der Kunde im Zustand PENDING wieder gelöscht")
+    void testKeycloakFailureRollsBack() {
+        when(fixture.keycloakService.signIn(any(), anyString(), anyString()))
+            .thenThrow(new HttpServerErrorException(SERVICE_UNAVAILABLE));
+
+        assertThatThrownBy(() -> writeService.create(customer("fehlschlag"), PASSWORD))
+            .isInstanceOf(HttpServerErrorException.class);
+        assertThat(fixture.customerRepository.count()).isZero();
+
+        // E-Mail-Adresse und Benutzername sind wieder frei
+        doReturn("keycloak-id").when(fixture.keycloakService).signIn(any(), anyString(), anyString());
+        assertThat(writeService.create(customer("fehlschlag"), PASSWORD).getCustomerState()).isEqualTo(ACTIVE);
+    }
+}
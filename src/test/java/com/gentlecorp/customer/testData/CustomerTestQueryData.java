@@ -217,4 +217,52 @@ public class CustomerTestQueryData extends CreateCustomerTestData {
          )
      }
      """;
-}
\ No newline at end of file
+
+ public static final String customersConnectionQuery = """
+     query CustomersConnection($first: Int, $after: String) {
+         customersConnection(first: $first, after: $after, order: { field: lastName, direction: ASC }) {
+             edges {
+                 cursor
+                 node {
+                     id
+                     lastName
+                     username
+                 }
+             }
+             pageInfo {
+                 hasNextPage
+                 endCursor
+             }
+         }
+     }
+     """;
+ public static final String customerContactsQuery = """
+     query CustomerContacts($id: ID!) {
+         customer(id: $id) {
+             id
+             contacts {
+                 id
+                 lastName
+                 firstName
+             }
+         }
+     }
+     """;
+ public static final String customersByIdsQuery = """
+     query CustomersByIds($ids: [ID!]!) {
+         customersByIds(ids: $ids) {
+             id
+             username
+         }
+     }
+     """;
+
+ public static final String customersByUsernamesQuery = """
+     query CustomersByUsernames($usernames: [String!]!) {
+         customersByUsernames(usernames: $usernames) {
+             id
+             username
+         }
+     }
+     """;
+}
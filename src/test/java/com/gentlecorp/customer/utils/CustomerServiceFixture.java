@@ -0,0 +1,165 @@
+package com.gentlecorp.customer.utils;
+
+import com.gentlecorp.customer.model.entity.Address;
+import com.gentlecorp.customer.model.entity.Contact;
+import com.gentlecorp.customer.model.entity.Customer;
+import com.gentlecorp.customer.model.enums.ContactStorageType;
+import com.gentlecorp.customer.model.enums.RelationshipType;
+import com.gentlecorp.customer.repository.ContactRepository;
+import com.gentlecorp.customer.repository.CustomerRepository;
+import com.gentlecorp.customer.security.CustomUserDetails;
+import com.gentlecorp.customer.security.KeycloakCallCounter;
+import com.gentlecorp.customer.security.service.KeycloakService;
+import com.gentlecorp.customer.service.ContactStorage;
+import com.gentlecorp.customer.service.CustomerCache;
+import com.gentlecorp.customer.service.CustomerCacheInvalidator;
+import com.gentlecorp.customer.service.CustomerLookupCoalescer;
+import com.gentlecorp.customer.service.CustomerOutbox;
+import com.gentlecorp.customer.service.CustomerPatcher;
+import com.gentlecorp.customer.service.CustomerReadService;
+import com.gentlecorp.customer.service.CustomerUniquenessFilter;
+import com.gentlecorp.customer.service.CustomerWriteService;
+import com.gentlecorp.customer.util.TimeOrderedIdGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.security.authentication.password.CompromisedPasswordChecker;
+import org.springframework.security.authentication.password.CompromisedPasswordDecision;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static com.gentlecorp.customer.model.enums.StatusType.ACTIVE;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Baut die Kunden-Services auf einer {@link InMemoryMongo} auf; Keycloak, Kafka und der Outbox-Relay sind Mocks.
+ * <p>
+ * {@link CustomerOutbox#write(Supplier, List)} führt nur die Änderung aus, damit die Services ohne Transaktionen
+ * und Relay getestet werden können.
+ * </p>
+ */
+public final class CustomerServiceFixture implements AutoCloseable {
+
+    public final InMemoryMongo mongo = new InMemoryMongo();
+    public final MongoTemplate mongoTemplate = mongo.template();
+    public final CustomerRepository customerRepository = mongo.repository(CustomerRepository.class);
+    public final ContactRepository contactRepository = mongo.repository(ContactRepository.class);
+    public final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    public final CustomerCache customerCache = new CustomerCache(meterRegistry);
+    public final CustomerCacheInvalidator customerCacheInvalidator = mock(CustomerCacheInvalidator.class);
+    public final CustomerPatcher customerPatcher = new CustomerPatcher(mongoTemplate);
+    public final CustomerOutbox customerOutbox = mock(CustomerOutbox.class);
+    public final CustomerUniquenessFilter customerUniquenessFilter = mock(CustomerUniquenessFilter.class);
+    public final KeycloakService keycloakService = mock(KeycloakService.class);
+    public final CompromisedPasswordChecker compromisedPasswordChecker = mock(CompromisedPasswordChecker.class);
+    public final CustomerLookupCoalescer customerLookupCoalescer =
+        new CustomerLookupCoalescer(customerRepository, meterRegistry);
+    public final CustomerReadService customerReadService = new CustomerReadService(
+        customerRepository,
+        contactRepository,
+        customerCache,
+        customerLookupCoalescer
+    );
+
+    public CustomerServiceFixture() {
+        mongo.ensureIndexes(Customer.class, Contact.class);
+        ReflectionTestUtils.setField(customerReadService, "mongoTemplate", mongoTemplate);
+        when(customerOutbox.write(any(), anyList())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+        when(compromisedPasswordChecker.check(any())).thenReturn(new CompromisedPasswordDecision(false));
+    }
+
+    public ContactStorage contactStorage(final ContactStorageType storageType) {
+        return new ContactStorage(
+            storageType,
+            mongoTemplate,
+            contactRepository,
+            customerPatcher,
+            customerCache,
+            customerCacheInvalidator
+        );
+    }
+
+    public CustomerWriteService writeService(final ContactStorageType storageType) {
+        return new CustomerWriteService(
+            customerReadService,
+            customerRepository,
+            mongoTemplate,
+            customerCache,
+            customerCacheInvalidator,
+            contactRepository,
+            customerOutbox,
+            customerUniquenessFilter,
+            customerPatcher,
+            contactStorage(storageType),
+            keycloakService,
+            new KeycloakCallCounter(meterRegistry),
+            compromisedPasswordChecker,
+            new TimeOrderedIdGenerator()
+        );
+    }
+
+    public static CustomUserDetails admin() {
+        final var jwt = Jwt.withTokenValue("token")
+            .header("alg", "none")
+            .subject("admin")
+            .issuedAt(Instant.now())
+            .expiresAt(Instant.now().plusSeconds(60))
+            .build();
+        return new CustomUserDetails("admin", List.of(new SimpleGrantedAuthority("ROLE_ADMIN")), jwt);
+    }
+
+    public static Customer customer(final String username) {
+        return Customer.builder()
+            .id(UUID.randomUUID())
+            .lastName("Test")
+            .firstName("Theo")
+            .email(username + "@test.de")
+            .phoneNumber("0123456789")
+            .username(username)
+            .tierLevel(1)
+            .customerState(ACTIVE)
+            .address(Address.builder().street("Hauptstraße").houseNumber("1").zipCode("12345").city("Berlin").build())
+            .contactIds(new ArrayList<>())
+            .created(LocalDateTime.now())
+            .build();
+    }
+
+    public static Contact contact(final String lastName, final String firstName) {
+        return Contact.builder()
+            .lastName(lastName)
+            .firstName(firstName)
+            .relationship(RelationshipType.values()[0])
+            .withdrawalLimit(100)
+            .build();
+    }
+
+    /**
+     * Speichert einen Kunden mit Kontakten in der Collection `Contact`, wie vor der Einbettung.
+     */
+    public Customer insertWithContacts(final String username, final int count) {
+        final var customer = customer(username);
+        for (var i = 0; i < count; i++) {
+            final var contact = contact("Kontakt", "Nr" + i);
+            contact.setId(UUID.randomUUID());
+            contact.setCustomerId(customer.getId());
+            contactRepository.insert(contact);
+            customer.getContactIds().add(contact.getId());
+        }
+        return customerRepository.insert(customer);
+    }
+
+    @Override
+    public void close() {
+        mongo.close();
+    }
+}
@@ -0,0 +1,79 @@
+package com.gentlecorp.customer.utils;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.bson.UuidRepresentation;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import java.util.List;
+
+/**
+ * MongoDB im Arbeitsspeicher für Tests der Services ohne Docker.
+ * <p>
+ * Der Client verwendet wie {@code MongoConfig} die UUID-Darstellung `STANDARD`, der Converter die Standard-Konvertierungen.
+ * Indizes aus den Annotationen werden erst mit {@link #ensureIndexes(Class[])} angelegt.
+ * </p>
+ */
+public final class InMemoryMongo implements AutoCloseable {
+
+    private final MongoServer server = new MongoServer(new MemoryBackend());
+    private final MongoClient client;
+    private final MongoTemplate template;
+    private final MongoRepositoryFactory repositoryFactory;
+
+    public InMemoryMongo() {
+        final var address = server.bind();
+        client = MongoClients.create(MongoClientSettings.builder()
+            .uuidRepresentation(UuidRepresentation.STANDARD)
+            .applyConnectionString(new ConnectionString("mongodb://" + address.getHostString() + ":" + address.getPort()))
+            .build());
+
+        final var conversions = new MongoCustomConversions(List.of());
+        final var mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        final var databaseFactory = new SimpleMongoClientDatabaseFactory(client, "test");
+        final var converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        template = new MongoTemplate(databaseFactory, converter);
+        repositoryFactory = new MongoRepositoryFactory(template);
+    }
+
+    public MongoTemplate template() {
+        return template;
+    }
+
+    public <T> T repository(final Class<T> repositoryType) {
+        return repositoryFactory.getRepository(repositoryType);
+    }
+
+    public void ensureIndexes(final Class<?>... entityTypes) {
+        final var resolver = new MongoPersistentEntityIndexResolver(template.getConverter().getMappingContext());
+        for (final var entityType : entityTypes) {
+            final var indexOps = template.indexOps(entityType);
+            // Wie in der Anwendung nur Indizes auf oberster Ebene, z. B. nicht die der eingebetteten Kontakte
+            resolver.resolveIndexFor(entityType).forEach(index -> {
+                if (index.getIndexKeys().keySet().stream().noneMatch(key -> key.contains("."))) {
+                    indexOps.ensureIndex(index);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void close() {
+        client.close();
+        server.shutdown();
+    }
+}